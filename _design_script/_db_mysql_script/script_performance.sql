@@ -0,0 +1,65 @@
+-- 性能优化相关的数据库脚本（在 script_mysqldump.sql 建表之后执行）
+-- Database: diploma_project_daily_exercise_health_management_system
+
+USE `diploma_project_daily_exercise_health_management_system`;
+
+--
+-- 游标分页（Keyset/Seek分页）所需的联合索引
+-- 分页语句统一按 (user_id = ?) + (时间字段, 主键) 倒序定位和排序，InnoDB二级索引中已经隐含了主键，
+-- 因此 (user_id, 时间字段) 的联合索引即可覆盖 where + order by，深分页不再需要扫描并丢弃前面的数据
+--
+
+ALTER TABLE `diet_records` ADD INDEX `idx_user_meal_time` (`user_id`, `meal_time`);
+ALTER TABLE `exercise_records` ADD INDEX `idx_user_exercise_date` (`user_id`, `exercise_date`);
+ALTER TABLE `health_data` ADD INDEX `idx_user_measurement_date` (`user_id`, `measurement_date`);
+ALTER TABLE `health_goals` ADD INDEX `idx_user_target_date` (`user_id`, `target_date`);
+
+--
+-- 每个用户每天每种进餐类型的营养摄入汇总表
+-- 由饮食记录的增删改在同一个事务中维护（重新计算受影响的 用户+日期），
+-- 营养摄入计算时完整的天数直接读取汇总表，只有首尾不完整的天才查询原始的饮食记录。
+-- 每种食物的营养值为 ROUND(nutrient * quantity / 100, 2)，与实时计算的方式一致
+--
+
+CREATE TABLE IF NOT EXISTS `daily_nutrition_rollup` (
+  `user_id` int NOT NULL COMMENT '用户ID',
+  `day` date NOT NULL COMMENT '日期',
+  `meal_type` varchar(63) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '进餐类型',
+  `calories` decimal(14,2) NOT NULL DEFAULT '0.00' COMMENT '总热量（kcal）',
+  `protein` decimal(14,2) NOT NULL DEFAULT '0.00' COMMENT '总蛋白质（g）',
+  `fat` decimal(14,2) NOT NULL DEFAULT '0.00' COMMENT '总脂肪（g）',
+  `carbohydrates` decimal(14,2) NOT NULL DEFAULT '0.00' COMMENT '总碳水化合物（g）',
+  `water` decimal(14,2) NOT NULL DEFAULT '0.00' COMMENT '总水分（ml）',
+  `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '汇总更新时间',
+  PRIMARY KEY (`user_id`, `day`, `meal_type`),
+  CONSTRAINT `daily_nutrition_rollup_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `users` (`user_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='每个用户每天的营养摄入汇总表';
+
+--
+-- 每个用户每天的运动汇总表
+-- 由运动记录的增删改在同一个事务中维护（重新计算受影响的 用户+日期），
+-- 运动统计（今天/本周/本月/任意日期范围）只需要读取范围内每天一行的汇总数据，与用户的运动记录总数无关。
+-- 平均心率按 heart_rate_sum / heart_rate_count 计算（没有记录心率的运动不参与平均）
+--
+
+CREATE TABLE IF NOT EXISTS `daily_exercise_rollup` (
+  `user_id` int NOT NULL COMMENT '用户ID',
+  `day` date NOT NULL COMMENT '日期',
+  `record_count` int NOT NULL DEFAULT '0' COMMENT '运动次数',
+  `total_duration` int NOT NULL DEFAULT '0' COMMENT '总运动时长（单位：分钟）',
+  `total_distance` decimal(14,2) NOT NULL DEFAULT '0.00' COMMENT '总运动距离（单位：km）',
+  `total_calories_burned` decimal(14,2) NOT NULL DEFAULT '0.00' COMMENT '总消耗的卡路里（单位：kcal）',
+  `heart_rate_sum` decimal(14,2) NOT NULL DEFAULT '0.00' COMMENT '记录了心率的运动的平均心率之和',
+  `heart_rate_count` int NOT NULL DEFAULT '0' COMMENT '记录了心率的运动次数',
+  `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '汇总更新时间',
+  PRIMARY KEY (`user_id`, `day`),
+  CONSTRAINT `daily_exercise_rollup_ibfk_1` FOREIGN KEY (`user_id`) REFERENCES `users` (`user_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='每个用户每天的运动汇总表';
+
+--
+-- 用户邮箱的唯一索引
+-- 注册和修改邮箱时先查询内存中的布隆过滤器，一定不存在的邮箱不再查询数据库；
+-- 同时注册（或修改为）相同邮箱的并发请求由唯一索引兜底（邮箱可以为NULL，多个NULL不冲突）
+--
+
+ALTER TABLE `users` ADD UNIQUE KEY `uk_email` (`email`);
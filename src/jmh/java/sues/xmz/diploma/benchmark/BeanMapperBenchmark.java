@@ -0,0 +1,71 @@
+package sues.xmz.diploma.benchmark;
+
+import cn.hutool.core.bean.BeanUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sues.xmz.diploma.common.convert.BeanMapperRegistry;
+import sues.xmz.diploma.domain.dto.users.UserDetailDTO;
+import sues.xmz.diploma.domain.po.HealthData;
+import sues.xmz.diploma.domain.po.Users;
+import sues.xmz.diploma.domain.req.health_data.HealthDataCreateReq;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象转换：编译期生成的转换（BeanMapperRegistry）与 Hutool BeanUtil 反射复制的对比
+ * <ul>
+ *     <li>reqToPo*：批量上传健康数据时 HealthDataCreateReq → HealthData（HealthDataServiceImpl#addHealthDataInBatch）</li>
+ *     <li>poToDto*：分页查询用户时 Users → UserDetailDTO（PageResponse#getPageResponse(Page, Class)）</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeanMapperBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private List<HealthDataCreateReq> healthDataCreateReqList;
+
+    private List<Users> usersList;
+
+    @Setup
+    public void setUp() {
+        healthDataCreateReqList = BenchmarkData.healthDataCreateReqs(size);
+        usersList = BenchmarkData.users(size);
+    }
+
+    @Benchmark
+    public List<HealthData> reqToPoBeanUtil() {
+        return BeanUtil.copyToList(healthDataCreateReqList, HealthData.class);
+    }
+
+    @Benchmark
+    public List<HealthData> reqToPoRegistry() {
+        return BeanMapperRegistry.mapList(healthDataCreateReqList, HealthData.class);
+    }
+
+    @Benchmark
+    public List<UserDetailDTO> poToDtoBeanUtil() {
+        return usersList.stream().map(users -> BeanUtil.copyProperties(users, UserDetailDTO.class)).toList();
+    }
+
+    @Benchmark
+    public List<UserDetailDTO> poToDtoRegistry() {
+        return BeanMapperRegistry.mapList(usersList, UserDetailDTO.class);
+    }
+}
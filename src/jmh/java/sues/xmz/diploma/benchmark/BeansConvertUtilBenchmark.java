@@ -0,0 +1,179 @@
+package sues.xmz.diploma.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sues.xmz.diploma.common.utils.BeansConvertUtil;
+import sues.xmz.diploma.domain.po.HealthGoals;
+import sues.xmz.diploma.domain.po.HealthGoalsExerciseTypes;
+import sues.xmz.diploma.domain.req.health_goals.HealthGoalCreateReq;
+import sues.xmz.diploma.domain.req.health_goals.HealthGoalUpdateReq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 关联关系对象的构建（HealthGoalsServiceImpl 保存健康目标计划和运动类型的关系）
+ * <ul>
+ *     <li>onlyHadBothId（创建）/ onlyHadBothIdSingleSource（修改）：BeansConvertUtil#copyToListOnlyHadBothId 的两个重载，每个目标关联3种运动类型，
+ *     按目标类型从 AssociationFactory 获取缓存的构造工厂</li>
+ *     <li>onlyHadBothIdConstructorRef：直接传入构造函数引用 {@code HealthGoalsExerciseTypes::new}（HealthGoalsServiceImpl 的用法）</li>
+ *     <li>onlyHadBothIdGeneratedFactory：没有注册构造工厂的类型，使用 LambdaMetafactory 生成的构造工厂</li>
+ *     <li>plainNew：直接 new 对象，作为对比的基准</li>
+ *     <li>includedBothId：BeansConvertUtil#copyToListIncludedBothId，结果数量为 size²，因此使用单独的、更小的数据量</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeansConvertUtilBenchmark {
+
+    private static final int EXERCISE_TYPES_PER_GOAL = 3;
+
+    @State(Scope.Benchmark)
+    public static class OnlyHadBothIdState {
+
+        @Param({"10", "1000", "100000", "1000000"})
+        private int size;
+
+        private List<HealthGoals> healthGoalsList;
+
+        private List<HealthGoalCreateReq> healthGoalCreateReqList;
+
+        private List<HealthGoalUpdateReq> healthGoalUpdateReqList;
+
+        @Setup
+        public void setUp() {
+            healthGoalsList = BenchmarkData.healthGoals(size);
+            healthGoalCreateReqList = BenchmarkData.healthGoalCreateReqs(size, EXERCISE_TYPES_PER_GOAL);
+            healthGoalUpdateReqList = BenchmarkData.healthGoalUpdateReqs(size, EXERCISE_TYPES_PER_GOAL);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class IncludedBothIdState {
+
+        @Param({"10", "100", "1000"})
+        private int size;
+
+        private List<HealthGoals> healthGoalsList;
+
+        private List<HealthGoalsExerciseTypes> healthGoalsExerciseTypesList;
+
+        @Setup
+        public void setUp() {
+            healthGoalsList = BenchmarkData.healthGoals(size);
+            healthGoalsExerciseTypesList = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                healthGoalsExerciseTypesList.add(new HealthGoalsExerciseTypes(i + 1, i % 100 + 1));
+            }
+        }
+    }
+
+    /**
+     * copyToListIncludedBothId 的目标类型：构造函数参数为（源对象ID，第二个源对象的所有字段值）
+     */
+    public static class GoalWithFieldValues {
+
+        private final Integer goalId;
+
+        private final Object[] fieldValues;
+
+        public GoalWithFieldValues(Integer goalId, Object[] fieldValues) {
+            this.goalId = goalId;
+            this.fieldValues = fieldValues;
+        }
+    }
+
+    /**
+     * 没有在 AssociationFactory 中注册的关系对象
+     */
+    public static class GoalExerciseType {
+
+        private final Integer goalId;
+
+        private final Integer exerciseTypeId;
+
+        public GoalExerciseType(Integer goalId, Integer exerciseTypeId) {
+            this.goalId = goalId;
+            this.exerciseTypeId = exerciseTypeId;
+        }
+    }
+
+    @Benchmark
+    public List<HealthGoalsExerciseTypes> onlyHadBothId(OnlyHadBothIdState state) {
+        return BeansConvertUtil.copyToListOnlyHadBothId(
+                state.healthGoalsList,
+                state.healthGoalCreateReqList,
+                HealthGoals::getGoalId,
+                HealthGoalCreateReq::getExerciseTypeIdList,
+                HealthGoalsExerciseTypes.class
+        );
+    }
+
+    @Benchmark
+    public List<HealthGoalsExerciseTypes> onlyHadBothIdSingleSource(OnlyHadBothIdState state) {
+        return BeansConvertUtil.copyToListOnlyHadBothId(
+                state.healthGoalUpdateReqList,
+                HealthGoalUpdateReq::getGoalId,
+                HealthGoalUpdateReq::getExerciseTypeIdList,
+                HealthGoalsExerciseTypes.class
+        );
+    }
+
+    @Benchmark
+    public List<HealthGoalsExerciseTypes> onlyHadBothIdConstructorRef(OnlyHadBothIdState state) {
+        return BeansConvertUtil.copyToListOnlyHadBothId(
+                state.healthGoalsList,
+                state.healthGoalCreateReqList,
+                HealthGoals::getGoalId,
+                HealthGoalCreateReq::getExerciseTypeIdList,
+                HealthGoalsExerciseTypes::new
+        );
+    }
+
+    @Benchmark
+    public List<GoalExerciseType> onlyHadBothIdGeneratedFactory(OnlyHadBothIdState state) {
+        return BeansConvertUtil.copyToListOnlyHadBothId(
+                state.healthGoalsList,
+                state.healthGoalCreateReqList,
+                HealthGoals::getGoalId,
+                HealthGoalCreateReq::getExerciseTypeIdList,
+                GoalExerciseType.class
+        );
+    }
+
+    @Benchmark
+    public List<HealthGoalsExerciseTypes> plainNew(OnlyHadBothIdState state) {
+        List<HealthGoalsExerciseTypes> list = new ArrayList<>(state.size * EXERCISE_TYPES_PER_GOAL);
+        for (int i = 0; i < state.size; i++) {
+            Integer goalId = state.healthGoalsList.get(i).getGoalId();
+            for (Integer exerciseTypeId : state.healthGoalCreateReqList.get(i).getExerciseTypeIdList()) {
+                list.add(new HealthGoalsExerciseTypes(goalId, exerciseTypeId));
+            }
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<GoalWithFieldValues> includedBothId(IncludedBothIdState state) {
+        return BeansConvertUtil.copyToListIncludedBothId(
+                state.healthGoalsList,
+                state.healthGoalsExerciseTypesList,
+                HealthGoals::getGoalId,
+                healthGoalsExerciseTypes -> List.of(healthGoalsExerciseTypes.getExerciseTypeId()),
+                GoalWithFieldValues.class
+        );
+    }
+}
@@ -0,0 +1,171 @@
+package sues.xmz.diploma.benchmark;
+
+import sues.xmz.diploma.domain.dto.diet_records.DietRecordsCalculationDTO;
+import sues.xmz.diploma.domain.dto.health_data.HealthDataTrendDTO;
+import sues.xmz.diploma.domain.po.HealthGoals;
+import sues.xmz.diploma.domain.po.Users;
+import sues.xmz.diploma.domain.req.health_data.HealthDataCreateReq;
+import sues.xmz.diploma.domain.req.health_goals.HealthGoalCreateReq;
+import sues.xmz.diploma.domain.req.health_goals.HealthGoalUpdateReq;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基准测试使用的数据：使用固定的随机数种子生成，每次运行的输入完全相同，不同版本的测试结果可以直接比较
+ */
+final class BenchmarkData {
+
+    private static final long SEED = 20250311L;
+
+    private static final long START_TIME = 1_704_038_400_000L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * 饮食记录中的食物（营养值为每100g的含量，食用量为克数）
+     */
+    static List<DietRecordsCalculationDTO> dietRecords(int size) {
+        Random random = new Random(SEED);
+        List<DietRecordsCalculationDTO> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            DietRecordsCalculationDTO dto = new DietRecordsCalculationDTO();
+            dto.setDietId(i / 3 + 1);
+            dto.setFoodId(random.nextInt(500) + 1);
+            dto.setMealTime(new Date(START_TIME + TimeUnit.HOURS.toMillis(i / 3 * 8L)));
+            dto.setMealType(switch (i % 3) {
+                case 0 -> "早餐";
+                case 1 -> "午餐";
+                default -> "晚餐";
+            });
+            dto.setQuantity(decimal(random, 20, 400));
+            dto.setCalories(decimal(random, 10, 900));
+            dto.setProtein(decimal(random, 0, 40));
+            dto.setFat(decimal(random, 0, 60));
+            dto.setCarbohydrates(decimal(random, 0, 90));
+            dto.setWater(decimal(random, 0, 95));
+            list.add(dto);
+        }
+        return list;
+    }
+
+    /**
+     * 健康目标计划的创建请求，每个目标关联 exerciseTypesPerGoal 种运动类型
+     */
+    static List<HealthGoalCreateReq> healthGoalCreateReqs(int size, int exerciseTypesPerGoal) {
+        Random random = new Random(SEED);
+        List<HealthGoalCreateReq> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            HealthGoalCreateReq req = new HealthGoalCreateReq();
+            List<Integer> exerciseTypeIdList = new ArrayList<>(exerciseTypesPerGoal);
+            for (int j = 0; j < exerciseTypesPerGoal; j++) {
+                exerciseTypeIdList.add(random.nextInt(100) + 1);
+            }
+            req.setExerciseTypeIdList(exerciseTypeIdList);
+            list.add(req);
+        }
+        return list;
+    }
+
+    /**
+     * 健康目标计划的修改请求，每个目标关联 exerciseTypesPerGoal 种运动类型
+     */
+    static List<HealthGoalUpdateReq> healthGoalUpdateReqs(int size, int exerciseTypesPerGoal) {
+        List<HealthGoalCreateReq> createReqList = healthGoalCreateReqs(size, exerciseTypesPerGoal);
+        List<HealthGoalUpdateReq> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            HealthGoalUpdateReq req = new HealthGoalUpdateReq();
+            req.setGoalId(i + 1);
+            req.setExerciseTypeIdList(createReqList.get(i).getExerciseTypeIdList());
+            list.add(req);
+        }
+        return list;
+    }
+
+    /**
+     * 已保存的健康目标计划（只需要主键）
+     */
+    static List<HealthGoals> healthGoals(int size) {
+        List<HealthGoals> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            HealthGoals healthGoals = new HealthGoals();
+            healthGoals.setGoalId(i + 1);
+            list.add(healthGoals);
+        }
+        return list;
+    }
+
+    /**
+     * 批量上传的健康数据（每天一条）
+     */
+    static List<HealthDataCreateReq> healthDataCreateReqs(int size) {
+        Random random = new Random(SEED);
+        List<HealthDataCreateReq> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(new HealthDataCreateReq(
+                    i % 100 + 1,
+                    decimal(random, 55, 95),
+                    decimal(random, 45, 110),
+                    new Date(START_TIME + TimeUnit.DAYS.toMillis(i))
+            ));
+        }
+        return list;
+    }
+
+    static List<Users> users(int size) {
+        Random random = new Random(SEED);
+        List<Users> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Users users = new Users();
+            users.setUserId(i + 1);
+            users.setUsername("user" + i);
+            users.setPasswordHash("$2a$10$abcdefghijklmnopqrstuuJ3m1D0cA8b4oU6nQ2hK9vWzYx1sPq2");
+            users.setFullName("用户" + i);
+            users.setGender(random.nextBoolean() ? "男" : "女");
+            users.setBirthDate(new Date(START_TIME - TimeUnit.DAYS.toMillis(7000 + random.nextInt(10000))));
+            users.setHeight(decimal(random, 150, 195));
+            users.setWeight(decimal(random, 45, 110));
+            users.setEmail("user" + i + "@example.com");
+            users.setPhoneNumber("138" + String.format("%08d", i));
+            users.setCreatedAt(new Date(START_TIME));
+            users.setUpdatedAt(new Date(START_TIME));
+            list.add(users);
+        }
+        return list;
+    }
+
+    /**
+     * 每天一个点的健康数据趋势（体重在75kg附近缓慢漂移）
+     */
+    static HealthDataTrendDTO healthDataTrend(int points) {
+        Random random = new Random(SEED);
+        List<Date> dates = new ArrayList<>(points);
+        List<BigDecimal> bmis = new ArrayList<>(points);
+        List<BigDecimal> heartRates = new ArrayList<>(points);
+        List<BigDecimal> weights = new ArrayList<>(points);
+        double weight = 75;
+        for (int i = 0; i < points; i++) {
+            weight += random.nextGaussian() * 0.2;
+            dates.add(new Date(START_TIME + TimeUnit.DAYS.toMillis(i)));
+            weights.add(BigDecimal.valueOf(weight).setScale(2, RoundingMode.HALF_UP));
+            bmis.add(BigDecimal.valueOf(weight / (1.75 * 1.75)).setScale(2, RoundingMode.HALF_UP));
+            heartRates.add(BigDecimal.valueOf(60 + random.nextInt(40)));
+        }
+        HealthDataTrendDTO dto = new HealthDataTrendDTO();
+        dto.setMeasurementDates(dates);
+        dto.setBmis(bmis);
+        dto.setHeartRates(heartRates);
+        dto.setWeights(weights);
+        return dto;
+    }
+
+    static BigDecimal decimal(Random random, int min, int max) {
+        return BigDecimal.valueOf(min * 100L + random.nextInt((max - min) * 100 + 1), 2);
+    }
+}
@@ -0,0 +1,67 @@
+package sues.xmz.diploma.benchmark;
+
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sues.xmz.diploma.common.domain.ChartRenderOptions;
+import sues.xmz.diploma.common.domain.ChartSizePreset;
+import sues.xmz.diploma.common.utils.ChartGenerateUtil;
+import sues.xmz.diploma.common.utils.ChartPngEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同一张图表的PNG编码（包括绘制）
+ * <ul>
+ *     <li>chartUtils：原来的 ChartUtils.writeChartAsPNG，通过ImageIO编码带透明通道的图像</li>
+ *     <li>encoderRgb / encoderIndexed：ChartPngEncoder 输出全彩色 / 索引色PNG</li>
+ * </ul>
+ * 图片大小的对比见 ChartPngEncoderTests
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ChartPngEncoderBenchmark {
+
+    private JFreeChart chart;
+
+    private final ChartRenderOptions rgbOptions = ChartRenderOptions.of(ChartSizePreset.DESKTOP, false, 6);
+
+    private final ChartRenderOptions indexedOptions = ChartRenderOptions.of(ChartSizePreset.DESKTOP, true, 6);
+
+    @Setup
+    public void setUp() {
+        chart = ChartGenerateUtil.createCombinedTrendChart(ChartGenerateUtil.buildTrendSeries(BenchmarkData.healthDataTrend(300)));
+    }
+
+    @Benchmark
+    public byte[] chartUtils() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ChartUtils.writeChartAsPNG(outputStream, chart, indexedOptions.getWidth(), indexedOptions.getHeight());
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encoderRgb() throws IOException {
+        return ChartPngEncoder.encode(chart, rgbOptions);
+    }
+
+    @Benchmark
+    public byte[] encoderIndexed() throws IOException {
+        return ChartPngEncoder.encode(chart, indexedOptions);
+    }
+}
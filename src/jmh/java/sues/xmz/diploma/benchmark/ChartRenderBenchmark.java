@@ -0,0 +1,84 @@
+package sues.xmz.diploma.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sues.xmz.diploma.common.domain.ChartRenderOptions;
+import sues.xmz.diploma.common.domain.ChartSizePreset;
+import sues.xmz.diploma.common.utils.ChartGenerateUtil;
+import sues.xmz.diploma.common.utils.TrendChartTemplate;
+import sues.xmz.diploma.domain.dto.health_data.HealthDataTrendDTO;
+import sues.xmz.diploma.domain.dto.health_data.HealthTrendSeries;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 健康数据趋势图的渲染
+ * <ul>
+ *     <li>buildSeries：由趋势数据构建JFreeChart时间序列</li>
+ *     <li>generateCombined：ChartGenerateUtil#generateCombinedTrendChart，每次新建图表并用ImageIO编码PNG</li>
+ *     <li>freshChartRgb：每次新建图表，使用和 templateRgb 相同的PNG编码，只比较是否复用图表模板</li>
+ *     <li>templateRgb / templateIndexed：当前接口使用的方式，复用线程内的图表模板，自定义PNG编码（全彩色 / 索引色）</li>
+ * </ul>
+ * 趋势数据在数据库中已经分桶和降采样（默认最多300个点），因此点数只测试到1万。
+ * 内存分配使用 {@code -prof gc} 查看
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ChartRenderBenchmark {
+
+    @Param({"10", "300", "10000"})
+    private int points;
+
+    private HealthDataTrendDTO healthDataTrendDTO;
+
+    private HealthTrendSeries series;
+
+    private final ChartRenderOptions rgbOptions = ChartRenderOptions.of(ChartSizePreset.DESKTOP, false, ChartRenderOptions.DEFAULT_COMPRESSION_LEVEL);
+
+    private final ChartRenderOptions indexedOptions = ChartRenderOptions.of(ChartSizePreset.DESKTOP, true, 1);
+
+    @Setup
+    public void setUp() {
+        healthDataTrendDTO = BenchmarkData.healthDataTrend(points);
+        series = ChartGenerateUtil.buildTrendSeries(healthDataTrendDTO);
+    }
+
+    @Benchmark
+    public HealthTrendSeries buildSeries() {
+        return ChartGenerateUtil.buildTrendSeries(healthDataTrendDTO);
+    }
+
+    @Benchmark
+    public byte[] generateCombined() throws IOException {
+        return ChartGenerateUtil.generateCombinedTrendChart(healthDataTrendDTO);
+    }
+
+    @Benchmark
+    public byte[] freshChartRgb() throws IOException {
+        return ChartGenerateUtil.renderPng(ChartGenerateUtil.createCombinedTrendChart(series), rgbOptions);
+    }
+
+    @Benchmark
+    public byte[] templateRgb() throws IOException {
+        return TrendChartTemplate.renderCombined(series, rgbOptions);
+    }
+
+    @Benchmark
+    public byte[] templateIndexed() throws IOException {
+        return TrendChartTemplate.renderCombined(series, indexedOptions);
+    }
+}
@@ -0,0 +1,78 @@
+package sues.xmz.diploma.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sues.xmz.diploma.common.utils.NutrientAccumulator;
+import sues.xmz.diploma.domain.dto.diet_records.DietRecordsCalculationDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 在Java中重新计算营养摄入（DailyNutritionRollupServiceImpl#verifyUserRollup 的CPU部分）
+ * <ul>
+ *     <li>sum：当前的实现，数据量超过 {@link NutrientAccumulator#PARALLEL_THRESHOLD} 时并行计算</li>
+ *     <li>sequential：单线程累加，用于和并行计算对比</li>
+ *     <li>bigDecimalPerNutrient：原来的计算方式，每种营养成分分别遍历一次，每条数据都创建中间BigDecimal</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NutrientAccumulatorBenchmark {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    private List<DietRecordsCalculationDTO> dietRecords;
+
+    @Setup
+    public void setUp() {
+        dietRecords = BenchmarkData.dietRecords(size);
+    }
+
+    @Benchmark
+    public BigDecimal sum() {
+        return NutrientAccumulator.sum(dietRecords).getTotal(NutrientAccumulator.CALORIES);
+    }
+
+    @Benchmark
+    public BigDecimal sequential() {
+        NutrientAccumulator accumulator = new NutrientAccumulator();
+        dietRecords.forEach(accumulator::accept);
+        return accumulator.getTotal(NutrientAccumulator.CALORIES);
+    }
+
+    @Benchmark
+    public void bigDecimalPerNutrient(Blackhole blackhole) {
+        blackhole.consume(bigDecimalTotal(DietRecordsCalculationDTO::getCalories));
+        blackhole.consume(bigDecimalTotal(DietRecordsCalculationDTO::getProtein));
+        blackhole.consume(bigDecimalTotal(DietRecordsCalculationDTO::getFat));
+        blackhole.consume(bigDecimalTotal(DietRecordsCalculationDTO::getCarbohydrates));
+        blackhole.consume(bigDecimalTotal(DietRecordsCalculationDTO::getWater));
+    }
+
+    private BigDecimal bigDecimalTotal(Function<DietRecordsCalculationDTO, BigDecimal> nutrientGetter) {
+        return dietRecords.stream()
+                .map(dto -> nutrientGetter.apply(dto).multiply(dto.getQuantity()).divide(HUNDRED, 2, RoundingMode.HALF_UP))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
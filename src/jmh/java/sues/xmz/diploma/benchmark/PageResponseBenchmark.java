@@ -0,0 +1,73 @@
+package sues.xmz.diploma.benchmark;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import sues.xmz.diploma.common.domain.PageResponse;
+import sues.xmz.diploma.common.domain.Result;
+import sues.xmz.diploma.domain.dto.users.UserDetailDTO;
+import sues.xmz.diploma.domain.po.Users;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分页结果的转换和序列化（AdminServiceImpl#listUsersDetailsByPage 及所有分页接口的响应）
+ * <ul>
+ *     <li>mapPage：PageResponse#getPageResponse(Page, Class)，每条记录使用编译期生成的转换（BeanMapperRegistry）复制为DTO</li>
+ *     <li>serializeResult：Jackson序列化 Result&lt;PageResponse&lt;UserDetailDTO&gt;&gt;（和Spring MVC使用相同的ObjectMapper配置）</li>
+ *     <li>mapAndSerialize：转换和序列化的总耗时</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageResponseBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    private Page<Users> usersPage;
+
+    private Result<PageResponse<UserDetailDTO>> result;
+
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        List<Users> usersList = BenchmarkData.users(size);
+        usersPage = new Page<>(1, size, size);
+        usersPage.setRecords(usersList);
+        result = Result.success(PageResponse.getPageResponse(usersPage, UserDetailDTO.class));
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public PageResponse<UserDetailDTO> mapPage() {
+        return PageResponse.getPageResponse(usersPage, UserDetailDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serializeResult() throws Exception {
+        return objectMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(Result.success(PageResponse.getPageResponse(usersPage, UserDetailDTO.class)));
+    }
+}
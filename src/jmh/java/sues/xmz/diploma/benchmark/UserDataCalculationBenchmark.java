@@ -0,0 +1,53 @@
+package sues.xmz.diploma.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sues.xmz.diploma.common.utils.UserDataCalculationUtil;
+import sues.xmz.diploma.domain.po.Users;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BMI计算（批量新增、修改健康数据时每条数据计算一次）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserDataCalculationBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    private BigDecimal[] heights;
+
+    private BigDecimal[] weights;
+
+    @Setup
+    public void setUp() {
+        List<Users> usersList = BenchmarkData.users(size);
+        heights = usersList.stream().map(Users::getHeight).toArray(BigDecimal[]::new);
+        weights = usersList.stream().map(Users::getWeight).toArray(BigDecimal[]::new);
+    }
+
+    @Benchmark
+    public void calculateBMI(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(UserDataCalculationUtil.calculateBMI(heights[i], weights[i]));
+        }
+    }
+}
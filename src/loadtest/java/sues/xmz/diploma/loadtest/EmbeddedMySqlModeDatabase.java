@@ -0,0 +1,170 @@
+package sues.xmz.diploma.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.h2.tools.RunScript;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 压测使用的内嵌数据库：H2内存数据库（MySQL兼容模式）
+ * <p>
+ * 按顺序执行项目中的数据库脚本：
+ * <ol>
+ *     <li>script_mysqldump.sql：建表（只执行建表语句，导出的开发数据不导入，压测数据由 {@link LoadTestSeeder} 准备）</li>
+ *     <li>script_performance.sql：索引和汇总表</li>
+ *     <li>食物枚举.sql、运动类型枚举.sql：食物和运动类型的基础数据</li>
+ *     <li>loadtest/h2-compat.sql：导出脚本和代码不一致的部分（关系表的表名、导出之后新增的列）</li>
+ * </ol>
+ * mysqldump 中H2不支持的语句（版本注释、LOCK TABLES、SET FOREIGN_KEY_CHECKS、USE、列定义中的COLLATE）在执行前替换或删除；
+ * 建表语句中的外键移到所有表创建之后再添加（mysqldump 通过关闭外键检查允许引用后面才创建的表，H2不允许），
+ * 索引名加上表名作为前缀（MySQL的索引名在表内唯一，H2的索引名在schema内唯一），其它部分不做修改。
+ * Mapper中H2不支持的MySQL函数由 {@link MySqlDialectRewriteInterceptor} 在执行时改写
+ */
+@Slf4j
+public class EmbeddedMySqlModeDatabase {
+
+    public static final String SCHEMA = "diploma_project_daily_exercise_health_management_system";
+
+    /**
+     * DAY、VALUE 是H2的关键字，但在汇总表的列名和Mapper的别名中使用
+     */
+    private static final String URL = "jdbc:h2:mem:" + SCHEMA
+            + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;NON_KEYWORDS=DAY,VALUE,YEAR,MONTH"
+            + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;INIT=CREATE SCHEMA IF NOT EXISTS " + SCHEMA + "\\;SET SCHEMA " + SCHEMA;
+
+    private static final String USERNAME = "sa";
+
+    private static final String PASSWORD = "";
+
+    private static final Pattern VERSION_COMMENT = Pattern.compile("/\\*!\\d+.*?\\*/;?", Pattern.DOTALL);
+    private static final Pattern LOCK_TABLES = Pattern.compile("(?im)^\\s*(UN)?LOCK TABLES.*$");
+    private static final Pattern USE_SCHEMA = Pattern.compile("(?im)^\\s*USE\\s+`?(\\w+)`?\\s*;");
+    private static final Pattern FOREIGN_KEY_CHECKS_OFF = Pattern.compile("(?i)SET\\s+FOREIGN_KEY_CHECKS\\s*=\\s*0");
+    private static final Pattern FOREIGN_KEY_CHECKS_ON = Pattern.compile("(?i)SET\\s+FOREIGN_KEY_CHECKS\\s*=\\s*1");
+    private static final Pattern COLUMN_COLLATE = Pattern.compile("(?i)\\s+COLLATE\\s+\\w+");
+    private static final Pattern INSERT = Pattern.compile("(?im)^\\s*INSERT INTO .*$");
+    private static final Pattern CREATE_TABLE = Pattern.compile("(?i)^\\s*CREATE TABLE\\s+`?(\\w+)`?\\s*\\(");
+    private static final Pattern INDEX_NAME = Pattern.compile("(?i)^(\\s*(?:UNIQUE\\s+)?(?:KEY|INDEX)\\s+)`?(\\w+)`?");
+    private static final Pattern FOREIGN_KEY = Pattern.compile("(?i)^\\s*CONSTRAINT\\s+.*\\bFOREIGN KEY\\b.*?,?\\s*$");
+
+    private final Path scriptDirectory;
+
+    /**
+     * 内存数据库在最后一个连接关闭后仍然保留（DB_CLOSE_DELAY=-1），这里保持一个连接直到压测结束
+     */
+    private Connection keepAliveConnection;
+
+    public EmbeddedMySqlModeDatabase(Path scriptDirectory) {
+        this.scriptDirectory = scriptDirectory;
+    }
+
+    public String getUrl() {
+        return URL;
+    }
+
+    public String getUsername() {
+        return USERNAME;
+    }
+
+    public String getPassword() {
+        return PASSWORD;
+    }
+
+    /**
+     * 创建数据库并执行所有脚本
+     */
+    public void start() throws SQLException, IOException {
+        keepAliveConnection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        String dump = Files.readString(scriptDirectory.resolve("script_mysqldump.sql"), StandardCharsets.UTF_8);
+        runScript("script_mysqldump.sql", INSERT.matcher(dump).replaceAll(""));
+        for (String script : List.of("script_performance.sql", "食物枚举.sql", "运动类型枚举.sql")) {
+            runScript(script, Files.readString(scriptDirectory.resolve(script), StandardCharsets.UTF_8));
+        }
+        try (var in = EmbeddedMySqlModeDatabase.class.getResourceAsStream("/loadtest/h2-compat.sql")) {
+            if (in == null) {
+                throw new IOException("找不到 loadtest/h2-compat.sql");
+            }
+            runScript("h2-compat.sql", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    public int countRows(String table) throws SQLException {
+        try (var statement = keepAliveConnection.createStatement();
+             var resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + SCHEMA + "." + table)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    public void stop() throws SQLException {
+        // 应用关闭时Spring会关闭内嵌数据库，这时连接已经关闭
+        if (keepAliveConnection != null && !keepAliveConnection.isClosed()) {
+            try (var statement = keepAliveConnection.createStatement()) {
+                statement.execute("SHUTDOWN");
+            }
+        }
+        keepAliveConnection = null;
+    }
+
+    private void runScript(String name, String script) throws SQLException {
+        long startTime = System.currentTimeMillis();
+        RunScript.execute(keepAliveConnection, new StringReader(toH2(script)));
+        log.info("执行数据库脚本 {}，耗时 {} ms", name, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 把mysqldump中H2不支持的语句替换为H2的等价语句或删除
+     */
+    static String toH2(String script) {
+        script = VERSION_COMMENT.matcher(script).replaceAll("");
+        script = LOCK_TABLES.matcher(script).replaceAll("");
+        script = USE_SCHEMA.matcher(script).replaceAll("SET SCHEMA $1;");
+        script = FOREIGN_KEY_CHECKS_OFF.matcher(script).replaceAll("SET REFERENTIAL_INTEGRITY FALSE");
+        script = FOREIGN_KEY_CHECKS_ON.matcher(script).replaceAll("SET REFERENTIAL_INTEGRITY TRUE");
+        script = COLUMN_COLLATE.matcher(script).replaceAll("");
+        return rewriteCreateTables(script);
+    }
+
+    /**
+     * 把建表语句中的外键约束改为脚本末尾的 ALTER TABLE ... ADD CONSTRAINT，索引名加上表名前缀
+     */
+    private static String rewriteCreateTables(String script) {
+        List<String> lines = new ArrayList<>(script.lines().toList());
+        List<String> foreignKeys = new ArrayList<>();
+        String table = null;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            Matcher createTable = CREATE_TABLE.matcher(line);
+            Matcher indexName = INDEX_NAME.matcher(line);
+            if (createTable.find()) {
+                table = createTable.group(1);
+            } else if (table != null && indexName.find()) {
+                lines.set(i, indexName.replaceFirst("$1`" + table + "_$2`"));
+            } else if (table != null && FOREIGN_KEY.matcher(line).matches()) {
+                String constraint = line.strip();
+                if (constraint.endsWith(",")) {
+                    constraint = constraint.substring(0, constraint.length() - 1);
+                } else {
+                    // 外键是最后一项时，去掉前一项末尾的逗号
+                    String previous = lines.get(i - 1).stripTrailing();
+                    lines.set(i - 1, previous.substring(0, previous.length() - 1));
+                }
+                foreignKeys.add("ALTER TABLE " + table + " ADD " + constraint + ";");
+                lines.remove(i--);
+            }
+        }
+        lines.addAll(foreignKeys);
+        return String.join("\n", lines);
+    }
+}
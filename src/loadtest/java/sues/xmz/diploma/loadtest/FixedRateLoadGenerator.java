@@ -0,0 +1,181 @@
+package sues.xmz.diploma.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 固定到达速率的压测（开放模型）：第 i 个请求的计划发起时间为 开始时间 + i / rate，不等待之前的请求返回
+ * <p>
+ * 响应时间从计划发起时间开始计算，而不是实际发出的时间。服务变慢导致请求发晚时，排队的时间也计入响应时间，
+ * 避免只统计到服务“愿意”处理的请求（coordinated omission）
+ */
+@Slf4j
+public class FixedRateLoadGenerator {
+
+    /**
+     * 响应时间以微秒记录，最大记录60秒
+     */
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final LoadTestClient client;
+
+    private final LoadTestOptions options;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 已经发出、还没有返回的请求（只包括预热结束后的请求），key为请求的序号
+     */
+    private final Map<Long, PendingRequest> pendingMap = new ConcurrentHashMap<>();
+
+    public FixedRateLoadGenerator(LoadTestClient client, LoadTestOptions options) {
+        this.client = client;
+        this.options = options;
+    }
+
+    public Map<LoadScenario, EndpointStats> run(LoadContext context) {
+        Map<LoadScenario, EndpointStats> stats = new EnumMap<>(LoadScenario.class);
+        options.mix().keySet().forEach(scenario -> stats.put(scenario, new EndpointStats()));
+        List<LoadScenario> weighted = weightedScenarios();
+        Random random = new Random(options.randomSeed());
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long startTime = System.nanoTime();
+        long measureStartTime = startTime + options.warmUp().toNanos();
+        long endTime = measureStartTime + options.duration().toNanos();
+        log.info("开始压测：{} 请求/秒，预热 {} 秒，压测 {} 秒", options.rate(), options.warmUp().toSeconds(), options.duration().toSeconds());
+
+        for (long i = 0; ; i++) {
+            long intendedTime = startTime + i * intervalNanos;
+            if (intendedTime >= endTime) {
+                break;
+            }
+            long waitNanos = intendedTime - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            // 请求体在等待之后生成，随机数的调用顺序固定，相同的种子产生相同的请求序列
+            LoadScenario scenario = weighted.get(random.nextInt(weighted.size()));
+            LoadContext.User user = context.users().get(random.nextInt(context.users().size()));
+            Object body = scenario.body(context, user, random);
+            EndpointStats endpointStats = intendedTime >= measureStartTime ? stats.get(scenario) : null;
+
+            if (inFlight.incrementAndGet() > options.maxInFlight()) {
+                inFlight.decrementAndGet();
+                if (endpointStats != null) {
+                    endpointStats.rejected.increment();
+                }
+                continue;
+            }
+            long requestIndex = i;
+            if (endpointStats != null) {
+                pendingMap.put(requestIndex, new PendingRequest(endpointStats, intendedTime));
+            }
+            client.postAsync(scenario.getPath(), body).whenComplete((success, throwable) -> {
+                inFlight.decrementAndGet();
+                // 预热期间的请求不统计；超过等待时间的请求已经计为失败，这里不再重复统计
+                PendingRequest pendingRequest = pendingMap.remove(requestIndex);
+                if (pendingRequest != null) {
+                    pendingRequest.complete(System.nanoTime(), throwable != null || !success);
+                }
+            });
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        // 仍未返回的请求计为失败，响应时间按到现在为止已经过的时间计算（实际只会更长）
+        long now = System.nanoTime();
+        int timedOut = 0;
+        for (Long requestIndex : pendingMap.keySet()) {
+            PendingRequest pendingRequest = pendingMap.remove(requestIndex);
+            if (pendingRequest != null) {
+                pendingRequest.complete(now, true);
+                timedOut++;
+            }
+        }
+        if (timedOut > 0) {
+            log.warn("压测结束 {} 秒后仍有 {} 个请求没有返回，计为失败", TimeUnit.NANOSECONDS.toSeconds(DRAIN_TIMEOUT_NANOS), timedOut);
+        }
+        return stats;
+    }
+
+    /**
+     * 按权重展开的接口列表，随机取一个元素即按权重选择接口
+     */
+    private List<LoadScenario> weightedScenarios() {
+        List<LoadScenario> weighted = new ArrayList<>();
+        options.mix().forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(scenario);
+            }
+        });
+        return weighted;
+    }
+
+    /**
+     * 已经发出、还没有返回的请求
+     */
+    private record PendingRequest(EndpointStats endpointStats, long intendedTime) {
+
+        void complete(long completeTime, boolean failed) {
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(completeTime - intendedTime);
+            endpointStats.latency.recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+            if (failed) {
+                endpointStats.failed.increment();
+            }
+        }
+    }
+
+    /**
+     * 单个接口的统计：响应时间直方图（微秒，包括失败的请求）、失败数和因并发上限没有发出的请求数
+     */
+    public static class EndpointStats {
+
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+        private final LongAdder failed = new LongAdder();
+
+        private final LongAdder rejected = new LongAdder();
+
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * 请求总数，包括没有发出的请求
+         */
+        public long getCount() {
+            return latency.getTotalCount() + rejected.sum();
+        }
+
+        /**
+         * 成功返回的请求数
+         */
+        public long getSucceeded() {
+            return latency.getTotalCount() - failed.sum();
+        }
+
+        /**
+         * 失败数：响应失败的请求、压测结束后没有返回的请求和没有发出的请求
+         */
+        public long getErrors() {
+            return failed.sum() + rejected.sum();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package sues.xmz.diploma.loadtest;
+
+import java.util.List;
+
+/**
+ * 压测过程中共享的数据
+ *
+ * @param baseUrl   应用的地址
+ * @param users     已注册并准备好数据的用户
+ * @param foodCount 食物表中的食物数量（食物ID为 1 ~ foodCount）
+ * @param endTime   准备的数据截止的时间（毫秒），请求中的时间范围都以它为终点
+ */
+public record LoadContext(String baseUrl, List<User> users, int foodCount, long endTime) {
+
+    /**
+     * 压测用户
+     *
+     * @param userId   用户ID
+     * @param username 账号名
+     * @param password 密码
+     * @param weight   基准体重，生成的体重在它附近波动
+     */
+    public record User(int userId, String username, String password, double weight) {
+    }
+}
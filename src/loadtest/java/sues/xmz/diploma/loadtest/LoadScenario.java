@@ -0,0 +1,168 @@
+package sues.xmz.diploma.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 压测的接口，每个接口按随机选择的用户和时间范围生成请求体
+ */
+public enum LoadScenario {
+
+    HEALTH_DATA_PAGE("healthDataPage", "/healthData/listByPage") {
+        @Override
+        Object body(LoadContext context, LoadContext.User user, Random random) {
+            return pageQuery(user, random);
+        }
+    },
+
+    DIET_RECORDS_PAGE("dietRecordsPage", "/dietRecords/listByPage") {
+        @Override
+        Object body(LoadContext context, LoadContext.User user, Random random) {
+            return pageQuery(user, random);
+        }
+    },
+
+    /**
+     * 营养摄入统计：最近7~90天
+     */
+    CALCULATE_INTAKE("calculateIntake", "/dietRecords/calculateIntakeByTimeRange") {
+        @Override
+        Object body(LoadContext context, LoadContext.User user, Random random) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("userId", user.userId());
+            body.put("startDateTime", context.endTime() - TimeUnit.DAYS.toMillis(7 + random.nextInt(84)));
+            body.put("endDateTime", context.endTime());
+            return body;
+        }
+    },
+
+    /**
+     * 健康数据趋势图：时间范围只有几种，一部分请求会命中图表缓存，和实际使用时相同
+     */
+    TREND_CHART("trendChart", "/healthData/trendChart") {
+        @Override
+        Object body(LoadContext context, LoadContext.User user, Random random) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("userId", user.userId());
+            body.put("startDateTime", context.endTime() - TimeUnit.DAYS.toMillis(30L * (1 + random.nextInt(6))));
+            body.put("endDateTime", context.endTime());
+            body.put("bucket", random.nextBoolean() ? "day" : "week");
+            body.put("chartSize", "mobile");
+            return body;
+        }
+    },
+
+    LOGIN("login", "/users/login") {
+        @Override
+        Object body(LoadContext context, LoadContext.User user, Random random) {
+            return Map.of("username", user.username(), "passwordHash", user.password());
+        }
+    },
+
+    /**
+     * 批量新增健康数据：每次20条
+     */
+    HEALTH_DATA_BATCH("healthDataBatch", "/healthData") {
+        @Override
+        Object body(LoadContext context, LoadContext.User user, Random random) {
+            List<Map<String, Object>> body = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                body.add(healthData(user, context.endTime() - TimeUnit.MINUTES.toMillis(random.nextInt(60 * 24 * 30)), random));
+            }
+            return body;
+        }
+    },
+
+    /**
+     * 批量新增饮食记录：每次一天的三餐
+     */
+    DIET_RECORDS_BATCH("dietRecordsBatch", "/dietRecords") {
+        @Override
+        Object body(LoadContext context, LoadContext.User user, Random random) {
+            long day = context.endTime() - TimeUnit.DAYS.toMillis(random.nextInt(30));
+            return dietRecordsOfDay(context, user, day, random);
+        }
+    };
+
+    private static final String[] MEAL_TYPES = {"早餐", "午餐", "晚餐"};
+
+    private static final int[] MEAL_HOURS = {8, 12, 18};
+
+    private final String key;
+
+    private final String path;
+
+    LoadScenario(String key, String path) {
+        this.key = key;
+        this.path = path;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * 生成请求体（之后序列化为JSON）
+     */
+    abstract Object body(LoadContext context, LoadContext.User user, Random random);
+
+    public static LoadScenario of(String key) {
+        for (LoadScenario scenario : values()) {
+            if (scenario.key.equals(key)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("没有这个压测接口：" + key);
+    }
+
+    private static Map<String, Object> pageQuery(LoadContext.User user, Random random) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("userId", user.userId());
+        body.put("current", 1 + random.nextInt(5));
+        body.put("size", 20);
+        return body;
+    }
+
+    static Map<String, Object> healthData(LoadContext.User user, long measurementTime, Random random) {
+        Map<String, Object> healthData = new LinkedHashMap<>();
+        healthData.put("userId", user.userId());
+        healthData.put("heartRate", 55 + random.nextInt(50));
+        healthData.put("weight", Math.round((user.weight() + random.nextGaussian()) * 100) / 100.0);
+        healthData.put("measurementDate", measurementTime);
+        return healthData;
+    }
+
+    static List<Map<String, Object>> dietRecordsOfDay(LoadContext context, LoadContext.User user, long day, Random random) {
+        long dayStart = day - day % TimeUnit.DAYS.toMillis(1);
+        List<Map<String, Object>> meals = new ArrayList<>(MEAL_TYPES.length);
+        for (int i = 0; i < MEAL_TYPES.length; i++) {
+            // 同一餐中的食物不重复
+            Set<Integer> foodIds = new LinkedHashSet<>();
+            int foodCount = 1 + random.nextInt(4);
+            while (foodIds.size() < foodCount) {
+                foodIds.add(1 + random.nextInt(context.foodCount()));
+            }
+            List<Map<String, Object>> foods = new ArrayList<>(foodCount);
+            for (Integer foodId : foodIds) {
+                foods.add(Map.of("foodId", foodId, "quantity", 50 + random.nextInt(250)));
+            }
+            Map<String, Object> meal = new LinkedHashMap<>();
+            meal.put("userId", user.userId());
+            meal.put("mealType", MEAL_TYPES[i]);
+            meal.put("mealTime", dayStart + TimeUnit.HOURS.toMillis(MEAL_HOURS[i]));
+            meal.put("foodsQuantitiesDTOList", foods);
+            meals.add(meal);
+        }
+        return meals;
+    }
+}
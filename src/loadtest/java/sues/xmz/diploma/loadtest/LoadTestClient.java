@@ -0,0 +1,80 @@
+package sues.xmz.diploma.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 压测使用的HTTP客户端，所有接口都是 POST JSON
+ * <p>
+ * 接口返回 HTTP 200 并且 Result.code 为 200 时才算成功（业务异常也返回 HTTP 200）
+ */
+public class LoadTestClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public LoadTestClient(String baseUrl, Executor executor) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * 同步调用接口，失败时抛出异常，返回 Result.data（准备数据时使用）
+     */
+    public JsonNode post(String path, Object body) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request(path, body), HttpResponse.BodyHandlers.ofString());
+        JsonNode result = objectMapper.readTree(response.body());
+        if (response.statusCode() != 200 || result.path("code").asInt() != 200) {
+            throw new IOException("调用 " + path + " 失败：HTTP " + response.statusCode() + " " + response.body());
+        }
+        return result.path("data");
+    }
+
+    /**
+     * 异步调用接口，返回是否成功（压测时使用，不抛出异常）
+     */
+    public CompletableFuture<Boolean> postAsync(String path, Object body) {
+        HttpRequest request;
+        try {
+            request = request(path, body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> response.statusCode() == 200 && isSuccess(response.body()));
+    }
+
+    private HttpRequest request(String path, Object body) throws JsonProcessingException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    /**
+     * 成功的响应以 {"code":200, 开头，不需要解析整个响应体
+     */
+    private static boolean isSuccess(String body) {
+        return body.startsWith("{\"code\":200,");
+    }
+}
@@ -0,0 +1,116 @@
+package sues.xmz.diploma.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import sues.xmz.diploma.DiplomaDailyExerciseHealthManagementSystemApplication;
+import sues.xmz.diploma.loadtest.datagen.SyntheticDataGenerator;
+import sues.xmz.diploma.loadtest.datagen.SyntheticDataOptions;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 端到端压测：在内嵌数据库上启动完整的应用（随机端口），通过接口准备数据（或预先写入合成数据）后按固定速率压测，输出每个接口的结果
+ * <p>
+ * 运行方式：mvn -P load-test test-compile exec:exec -Dload.args="rate=200 duration=60"，参数见 {@link LoadTestOptions}
+ */
+@Slf4j
+public class LoadTestMain {
+
+    private static final String SYNTHETIC_USER_PASSWORD = "Synthetic_123";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        // devtools 的重启类加载器会让 main 方法在另一个线程中重新执行
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        EmbeddedMySqlModeDatabase database = new EmbeddedMySqlModeDatabase(options.scriptDir());
+        database.start();
+        // 合成数据在应用启动前写入，启动时构建的用户名/邮箱布隆过滤器才包含这些用户
+        List<SyntheticDataGenerator.GeneratedUser> syntheticUsers = options.syntheticUsers() > 0
+                ? generateSyntheticUsers(options, database)
+                : List.of();
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        ConfigurableApplicationContext applicationContext = null;
+        try {
+            applicationContext = new SpringApplicationBuilder(DiplomaDailyExerciseHealthManagementSystemApplication.class)
+                    .initializers(context -> ((GenericApplicationContext) context)
+                            .registerBean(MySqlDialectRewriteInterceptor.class))
+                    .run(applicationArguments(database));
+            int port = ((WebServerApplicationContext) applicationContext).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+            LoadTestClient client = new LoadTestClient(baseUrl, httpExecutor);
+
+            long endTime = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            LoadContext context;
+            if (syntheticUsers.isEmpty()) {
+                context = new LoadTestSeeder(client, options).seed(baseUrl, database.countRows("diet_foods"), endTime);
+            } else {
+                // 流失的用户最近没有数据，趋势图等按最近时间查询的接口会返回“没有数据”，只用仍在使用的用户压测
+                List<LoadContext.User> users = syntheticUsers.stream()
+                        .filter(SyntheticDataGenerator.GeneratedUser::active)
+                        .map(user -> new LoadContext.User(user.userId(), user.username(), SYNTHETIC_USER_PASSWORD, user.weight()))
+                        .toList();
+                context = new LoadContext(baseUrl, users, database.countRows("diet_foods"), endTime);
+            }
+
+            Map<LoadScenario, FixedRateLoadGenerator.EndpointStats> stats = new FixedRateLoadGenerator(client, options).run(context);
+            LoadTestReport report = new LoadTestReport(stats, options.duration().toMillis() / 1000.0);
+            log.info("压测结果（响应时间单位 ms）：{}{}", System.lineSeparator(), report.toTable());
+            report.writeCsv(options.reportFile());
+            log.info("压测结果已写入 {}", options.reportFile().toAbsolutePath());
+        } finally {
+            if (applicationContext != null) {
+                applicationContext.close();
+            }
+            httpExecutor.shutdownNow();
+            database.stop();
+        }
+    }
+
+    private static List<SyntheticDataGenerator.GeneratedUser> generateSyntheticUsers(LoadTestOptions options,
+                                                                                 EmbeddedMySqlModeDatabase database) throws Exception {
+        SyntheticDataOptions syntheticDataOptions = SyntheticDataOptions.parse(new String[]{
+                "users=" + options.syntheticUsers(),
+                "years=" + options.syntheticYears(),
+                "seed=" + options.randomSeed(),
+                "user-password=" + SYNTHETIC_USER_PASSWORD
+        });
+        try (Connection connection = DriverManager.getConnection(database.getUrl(), database.getUsername(), database.getPassword())) {
+            return SyntheticDataGenerator.generate(syntheticDataOptions, connection);
+        }
+    }
+
+    /**
+     * 以命令行参数的形式传入，优先级高于 application.yml
+     */
+    private static String[] applicationArguments(EmbeddedMySqlModeDatabase database) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", database.getUrl());
+        properties.put("spring.datasource.username", database.getUsername());
+        properties.put("spring.datasource.password", database.getPassword());
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        // H2 按JVM默认时区计算 date()，汇总表按同一个时区划分日期
+        properties.put("database.time-zone", ZoneId.systemDefault().getId());
+        properties.put("spring.devtools.livereload.enabled", false);
+        // 内嵌数据库由压测程序关闭，不使用 devtools 在应用关闭时关闭内存数据库的功能
+        properties.put("spring.autoconfigure.exclude", "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration");
+        properties.put("server.port", 0);
+        // 压测用户都从本机登录，放开登录限流
+        properties.put("login.throttle.username-capacity", Integer.MAX_VALUE);
+        properties.put("login.throttle.ip-capacity", Integer.MAX_VALUE);
+        return properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+}
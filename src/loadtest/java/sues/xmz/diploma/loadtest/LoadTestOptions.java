@@ -0,0 +1,79 @@
+package sues.xmz.diploma.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 压测参数，命令行中以 key=value 的形式传入（例如 rate=200 duration=60 mix=login:1,trendChart:3），没有传入时使用默认值
+ *
+ * @param rate           每秒发起的请求数（固定到达速率，不受响应速度影响）
+ * @param duration       压测时长（不含预热）
+ * @param warmUp         预热时长，预热期间的请求不计入结果
+ * @param users          压测用户数
+ * @param seedDays       每个用户准备多少天的健康数据和饮食记录
+ * @param syntheticUsers 大于0时不通过接口准备数据，改为在应用启动前直接写入这么多个合成用户（见 SyntheticDataGenerator），压测使用这些用户
+ * @param syntheticYears 合成用户的数据跨越的年数
+ * @param mix            各接口请求数的权重
+ * @param randomSeed     随机数种子，相同的种子产生相同的请求序列
+ * @param maxInFlight    同时等待响应的请求数上限，超过后新的请求直接记为失败（服务已经过载）
+ * @param scriptDir      数据库脚本所在目录
+ * @param reportFile     CSV结果文件
+ */
+public record LoadTestOptions(int rate,
+                              Duration duration,
+                              Duration warmUp,
+                              int users,
+                              int seedDays,
+                              int syntheticUsers,
+                              int syntheticYears,
+                              Map<LoadScenario, Integer> mix,
+                              long randomSeed,
+                              int maxInFlight,
+                              Path scriptDir,
+                              Path reportFile) {
+
+    private static final String DEFAULT_MIX = "healthDataPage:20,dietRecordsPage:20,calculateIntake:20,trendChart:15,login:5,healthDataBatch:10,dietRecordsBatch:10";
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int index = arg.indexOf('=');
+            if (index <= 0) {
+                throw new IllegalArgumentException("压测参数的格式为 key=value：" + arg);
+            }
+            values.put(arg.substring(0, index).trim(), arg.substring(index + 1).trim());
+        }
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("rate", "100")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                Integer.parseInt(values.getOrDefault("users", "50")),
+                Integer.parseInt(values.getOrDefault("seed-days", "180")),
+                Integer.parseInt(values.getOrDefault("synthetic-users", "0")),
+                Integer.parseInt(values.getOrDefault("synthetic-years", "1")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                Path.of(values.getOrDefault("scripts", "_design_script/_db_mysql_script")),
+                Path.of(values.getOrDefault("report", "target/load-test-report.csv"))
+        );
+    }
+
+    private static Map<LoadScenario, Integer> parseMix(String mix) {
+        Map<LoadScenario, Integer> weights = new LinkedHashMap<>();
+        for (String item : mix.split(",")) {
+            String[] pair = item.split(":");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(LoadScenario.of(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一个权重大于0的接口：" + mix);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,83 @@
+package sues.xmz.diploma.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 压测结果：每个接口的吞吐量、响应时间分位数（p50/p99/p99.9/最大值，毫秒）和失败数，输出到控制台并写入CSV文件。
+ * 吞吐量只按成功返回的请求计算，失败和没有发出的请求不计入
+ */
+public class LoadTestReport {
+
+    private static final String CSV_HEADER = "endpoint,count,throughput,p50_ms,p99_ms,p999_ms,max_ms,errors";
+
+    private final List<String> rows = new ArrayList<>();
+
+    private final List<String> tableLines = new ArrayList<>();
+
+    public LoadTestReport(Map<LoadScenario, FixedRateLoadGenerator.EndpointStats> stats, double durationSeconds) {
+        tableLines.add(String.format(Locale.ROOT, "%-18s %9s %10s %9s %9s %9s %9s %8s",
+                "endpoint", "count", "ok/s", "p50", "p99", "p99.9", "max", "errors"));
+        Histogram total = null;
+        long totalCount = 0;
+        long totalSucceeded = 0;
+        long totalErrors = 0;
+        for (Map.Entry<LoadScenario, FixedRateLoadGenerator.EndpointStats> entry : stats.entrySet()) {
+            FixedRateLoadGenerator.EndpointStats endpointStats = entry.getValue();
+            Histogram latency = endpointStats.getLatency().copy();
+            add(entry.getKey().getKey(), latency, endpointStats.getCount(), endpointStats.getSucceeded(), endpointStats.getErrors(), durationSeconds);
+            if (total == null) {
+                total = latency.copy();
+            } else {
+                total.add(latency);
+            }
+            totalCount += endpointStats.getCount();
+            totalSucceeded += endpointStats.getSucceeded();
+            totalErrors += endpointStats.getErrors();
+        }
+        if (total != null) {
+            add("(total)", total, totalCount, totalSucceeded, totalErrors, durationSeconds);
+        }
+    }
+
+    private void add(String endpoint, Histogram latency, long count, long succeeded, long errors, double durationSeconds) {
+        double throughput = succeeded / durationSeconds;
+        double p50 = millis(latency, 50);
+        double p99 = millis(latency, 99);
+        double p999 = millis(latency, 99.9);
+        double max = latency.getTotalCount() == 0 ? 0 : latency.getMaxValue() / 1000.0;
+        tableLines.add(String.format(Locale.ROOT, "%-18s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %8d",
+                endpoint, count, throughput, p50, p99, p999, max, errors));
+        rows.add(String.format(Locale.ROOT, "%s,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%d",
+                endpoint, count, throughput, p50, p99, p999, max, errors));
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getTotalCount() == 0 ? 0 : latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * 控制台输出的表格，响应时间单位为毫秒
+     */
+    public String toTable() {
+        return String.join(System.lineSeparator(), tableLines);
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        List<String> lines = new ArrayList<>(rows.size() + 1);
+        lines.add(CSV_HEADER);
+        lines.addAll(rows);
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,151 @@
+package sues.xmz.diploma.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过接口准备压测数据：注册用户、登录获取用户ID，再用批量接口写入每个用户 seedDays 天的健康数据和饮食记录
+ * <p>
+ * 数据经过和正常使用相同的校验和写入逻辑（例如饮食记录的营养汇总），每个用户使用单独的随机数种子，结果可以复现
+ */
+@Slf4j
+public class LoadTestSeeder {
+
+    /**
+     * 健康数据每次批量写入的条数
+     */
+    private static final int HEALTH_DATA_BATCH_SIZE = 200;
+
+    /**
+     * 饮食记录每次批量写入的天数（每天三餐）
+     */
+    private static final int DIET_RECORDS_BATCH_DAYS = 30;
+
+    private static final int SEED_THREADS = 8;
+
+    private final LoadTestClient client;
+
+    private final LoadTestOptions options;
+
+    public LoadTestSeeder(LoadTestClient client, LoadTestOptions options) {
+        this.client = client;
+        this.options = options;
+    }
+
+    /**
+     * @param baseUrl   应用的地址
+     * @param foodCount 食物表中的食物数量
+     * @param endTime   数据截止的时间（毫秒）
+     */
+    public LoadContext seed(String baseUrl, int foodCount, long endTime) throws IOException, InterruptedException {
+        long startTime = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(SEED_THREADS);
+        try {
+            List<Future<LoadContext.User>> futures = new ArrayList<>(options.users());
+            for (int i = 0; i < options.users(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> registerAndLogin(index)));
+            }
+            List<LoadContext.User> users = new ArrayList<>(options.users());
+            for (Future<LoadContext.User> future : futures) {
+                users.add(await(future));
+            }
+            LoadContext context = new LoadContext(baseUrl, List.copyOf(users), foodCount, endTime);
+
+            List<Future<Void>> seedFutures = new ArrayList<>(users.size());
+            for (LoadContext.User user : users) {
+                seedFutures.add(executor.submit(() -> {
+                    seedUserData(context, user);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : seedFutures) {
+                await(future);
+            }
+            log.info("准备压测数据完成：{} 个用户，每个用户 {} 天的数据，耗时 {} ms",
+                    users.size(), options.seedDays(), System.currentTimeMillis() - startTime);
+            return context;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LoadContext.User registerAndLogin(int index) throws IOException, InterruptedException {
+        Random random = new Random(options.randomSeed() + index);
+        String username = String.format("loadtest_%05d", index);
+        String password = "Load_" + Integer.toHexString(random.nextInt());
+        boolean male = random.nextBoolean();
+        double height = male ? 165 + random.nextInt(25) : 152 + random.nextInt(25);
+        double weight = Math.round(height * height / 10000 * (19 + random.nextDouble() * 8) * 10) / 10.0;
+
+        Map<String, Object> register = new LinkedHashMap<>();
+        register.put("username", username);
+        register.put("passwordHash", password);
+        register.put("fullName", "压测用户" + index);
+        register.put("gender", male ? "男" : "女");
+        register.put("height", height);
+        register.put("weight", weight);
+        register.put("email", username + "@loadtest.local");
+        register.put("phoneNumber", String.format("139%08d", index));
+        client.post("/users/register", register);
+
+        int userId = client.post("/users/login", Map.of("username", username, "passwordHash", password))
+                .path("userId").asInt();
+        return new LoadContext.User(userId, username, password, weight);
+    }
+
+    /**
+     * 每天一条健康数据，体重在基准体重附近缓慢变化；每天三餐饮食记录
+     */
+    private void seedUserData(LoadContext context, LoadContext.User user) throws IOException, InterruptedException {
+        Random random = new Random(options.randomSeed() * 31 + user.userId());
+        long firstDay = context.endTime() - TimeUnit.DAYS.toMillis(options.seedDays());
+
+        List<Map<String, Object>> healthData = new ArrayList<>(HEALTH_DATA_BATCH_SIZE);
+        for (int day = 0; day < options.seedDays(); day++) {
+            long measurementTime = firstDay + TimeUnit.DAYS.toMillis(day) + TimeUnit.MINUTES.toMillis(6 * 60 + random.nextInt(180));
+            healthData.add(LoadScenario.healthData(user, measurementTime, random));
+            if (healthData.size() == HEALTH_DATA_BATCH_SIZE) {
+                client.post(LoadScenario.HEALTH_DATA_BATCH.getPath(), healthData);
+                healthData.clear();
+            }
+        }
+        if (!healthData.isEmpty()) {
+            client.post(LoadScenario.HEALTH_DATA_BATCH.getPath(), healthData);
+        }
+
+        List<Map<String, Object>> dietRecords = new ArrayList<>(DIET_RECORDS_BATCH_DAYS * 3);
+        for (int day = 0; day < options.seedDays(); day++) {
+            dietRecords.addAll(LoadScenario.dietRecordsOfDay(context, user, firstDay + TimeUnit.DAYS.toMillis(day), random));
+            if ((day + 1) % DIET_RECORDS_BATCH_DAYS == 0) {
+                client.post(LoadScenario.DIET_RECORDS_BATCH.getPath(), dietRecords);
+                dietRecords.clear();
+            }
+        }
+        if (!dietRecords.isEmpty()) {
+            client.post(LoadScenario.DIET_RECORDS_BATCH.getPath(), dietRecords);
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IllegalStateException("准备压测数据失败", e.getCause());
+        }
+    }
+}
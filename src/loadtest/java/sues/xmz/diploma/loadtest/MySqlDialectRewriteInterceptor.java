@@ -0,0 +1,118 @@
+package sues.xmz.diploma.loadtest;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 压测时把Mapper中H2不支持的MySQL函数改写为H2的等价写法（只在压测程序中注册，不影响正常运行）
+ * <ul>
+ *     <li>date_add(x, interval n day) -> dateadd(day, n, x)</li>
+ *     <li>date_sub(x, interval n day) -> dateadd(day, -(n), x)</li>
+ *     <li>weekday(x) -> (iso_day_of_week(x) - 1)</li>
+ * </ul>
+ * 参数直接作为日期或天数时加上类型转换（H2无法推断 dateadd 中参数的类型）。其它SQL原样执行，同一条SQL的改写结果会缓存
+ */
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+public class MySqlDialectRewriteInterceptor implements Interceptor {
+
+    private static final Pattern FUNCTION = Pattern.compile("(?i)\\b(date_add|date_sub|weekday)\\s*\\(");
+
+    private static final Pattern DAY_INTERVAL = Pattern.compile("(?is)^\\s*interval\\s+(.+?)\\s+day\\s*$");
+
+    private final Map<String, String> rewriteCache = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        StatementHandler statementHandler = PluginUtils.realTarget(invocation.getTarget());
+        PluginUtils.MPBoundSql mpBoundSql = PluginUtils.mpStatementHandler(statementHandler).mPBoundSql();
+        String sql = mpBoundSql.sql();
+        String rewritten = rewriteCache.computeIfAbsent(sql, MySqlDialectRewriteInterceptor::rewrite);
+        if (!rewritten.equals(sql)) {
+            mpBoundSql.sql(rewritten);
+        }
+        return invocation.proceed();
+    }
+
+    static String rewrite(String sql) {
+        Matcher matcher = FUNCTION.matcher(sql);
+        if (!matcher.find()) {
+            return sql;
+        }
+        int argumentsStart = matcher.end();
+        int argumentsEnd = findClosingParenthesis(sql, argumentsStart);
+        String function = matcher.group(1).toLowerCase();
+        String arguments = sql.substring(argumentsStart, argumentsEnd);
+
+        String replacement;
+        if ("weekday".equals(function)) {
+            replacement = "(iso_day_of_week(" + rewrite(arguments) + ") - 1)";
+        } else {
+            int comma = findTopLevelComma(arguments);
+            Matcher interval = DAY_INTERVAL.matcher(arguments.substring(comma + 1));
+            if (comma < 0 || !interval.matches()) {
+                throw new IllegalStateException("压测数据库不支持的写法：" + function + "(" + arguments + ")");
+            }
+            String date = rewrite(arguments.substring(0, comma));
+            String days = rewrite(interval.group(1));
+            // dateadd 的参数顺序和 date_add 相反，两边都有占位符时参数绑定的顺序会错
+            if (date.contains("?") && days.contains("?")) {
+                throw new IllegalStateException("压测数据库不支持两边都有参数的写法：" + function + "(" + arguments + ")");
+            }
+            date = castParameter(date, "timestamp");
+            days = castParameter(days, "int");
+            replacement = "dateadd(day, " + ("date_sub".equals(function) ? "-(" + days + ")" : days) + ", " + date + ")";
+        }
+        return sql.substring(0, matcher.start()) + replacement + rewrite(sql.substring(argumentsEnd + 1));
+    }
+
+    private static String castParameter(String argument, String type) {
+        return "?".equals(argument.strip()) ? "cast(? as " + type + ")" : argument;
+    }
+
+    private static int findClosingParenthesis(String sql, int from) {
+        int depth = 0;
+        boolean quoted = false;
+        for (int i = from; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && c == '(') {
+                depth++;
+            } else if (!quoted && c == ')') {
+                if (depth == 0) {
+                    return i;
+                }
+                depth--;
+            }
+        }
+        throw new IllegalStateException("SQL中的括号不匹配：" + sql);
+    }
+
+    private static int findTopLevelComma(String arguments) {
+        int depth = 0;
+        boolean quoted = false;
+        for (int i = 0; i < arguments.length(); i++) {
+            char c = arguments.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && c == '(') {
+                depth++;
+            } else if (!quoted && c == ')') {
+                depth--;
+            } else if (!quoted && depth == 0 && c == ',') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
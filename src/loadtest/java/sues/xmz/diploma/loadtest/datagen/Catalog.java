@@ -0,0 +1,103 @@
+package sues.xmz.diploma.loadtest.datagen;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 合成数据引用的食物和运动类型（来自 食物枚举.sql 和 运动类型枚举.sql）
+ *
+ * @param foods         所有食物
+ * @param exerciseTypes 所有运动类型
+ */
+public record Catalog(List<Food> foods, List<ExerciseType> exerciseTypes) {
+
+    private static final Pattern FOOD_VALUES = Pattern.compile(
+            "\\(\\s*'([^']*)'\\s*,\\s*([\\d.]+)\\s*,\\s*([\\d.]+)\\s*,\\s*([\\d.]+)\\s*,\\s*([\\d.]+)\\s*,\\s*([\\d.]+)\\s*,\\s*'([^']*)'\\s*\\)");
+
+    private static final Pattern EXERCISE_TYPE_VALUES = Pattern.compile("\\(\\s*'([^']*)'\\s*\\)");
+
+    /**
+     * @param foodId 食物ID
+     * @param type   食物类型（水果、蔬菜、主食......）
+     */
+    public record Food(int foodId, String type, BigDecimal calories, BigDecimal protein, BigDecimal fat,
+                       BigDecimal carbohydrates, BigDecimal water) {
+    }
+
+    public record ExerciseType(int exerciseTypeId, String name) {
+    }
+
+    /**
+     * 按食物类型分组
+     */
+    public Map<String, List<Food>> foodsByType() {
+        Map<String, List<Food>> foodsByType = new LinkedHashMap<>();
+        for (Food food : foods) {
+            foodsByType.computeIfAbsent(food.type(), type -> new ArrayList<>()).add(food);
+        }
+        return foodsByType;
+    }
+
+    /**
+     * 从数据库中读取（写入数据库时使用，ID与数据库一致）
+     */
+    public static Catalog fromDatabase(Connection connection, String schema) throws SQLException {
+        List<Food> foods = new ArrayList<>();
+        List<ExerciseType> exerciseTypes = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("select food_id, food_type, calories, protein, fat, carbohydrates, water from "
+                    + schema + ".diet_foods order by food_id")) {
+                while (resultSet.next()) {
+                    foods.add(new Food(resultSet.getInt(1), resultSet.getString(2), resultSet.getBigDecimal(3),
+                            resultSet.getBigDecimal(4), resultSet.getBigDecimal(5), resultSet.getBigDecimal(6),
+                            resultSet.getBigDecimal(7)));
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery("select exercise_type_id, exercise_name from "
+                    + schema + ".exercise_types order by exercise_type_id")) {
+                while (resultSet.next()) {
+                    exerciseTypes.add(new ExerciseType(resultSet.getInt(1), resultSet.getString(2)));
+                }
+            }
+        }
+        return checked(new Catalog(foods, exerciseTypes));
+    }
+
+    /**
+     * 从枚举脚本中读取（写出数据文件时使用）。两个脚本都在空表中插入数据，ID按脚本中的顺序从1开始
+     */
+    public static Catalog fromScripts(Path scriptDir) throws IOException {
+        List<Food> foods = new ArrayList<>();
+        Matcher food = FOOD_VALUES.matcher(Files.readString(scriptDir.resolve("食物枚举.sql"), StandardCharsets.UTF_8));
+        while (food.find()) {
+            foods.add(new Food(foods.size() + 1, food.group(7), new BigDecimal(food.group(2)), new BigDecimal(food.group(3)),
+                    new BigDecimal(food.group(4)), new BigDecimal(food.group(5)), new BigDecimal(food.group(6))));
+        }
+        List<ExerciseType> exerciseTypes = new ArrayList<>();
+        Matcher exerciseType = EXERCISE_TYPE_VALUES.matcher(Files.readString(scriptDir.resolve("运动类型枚举.sql"), StandardCharsets.UTF_8));
+        while (exerciseType.find()) {
+            exerciseTypes.add(new ExerciseType(exerciseTypes.size() + 1, exerciseType.group(1)));
+        }
+        return checked(new Catalog(foods, exerciseTypes));
+    }
+
+    private static Catalog checked(Catalog catalog) {
+        if (catalog.foods.isEmpty() || catalog.exerciseTypes.isEmpty()) {
+            throw new IllegalStateException("没有食物或运动类型数据，请先执行 食物枚举.sql 和 运动类型枚举.sql");
+        }
+        return catalog;
+    }
+}
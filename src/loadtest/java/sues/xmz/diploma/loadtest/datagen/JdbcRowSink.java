@@ -0,0 +1,170 @@
+package sues.xmz.diploma.loadtest.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 直接写入数据库：每张表缓存 batchRows 行，攒满后用一条多行 INSERT 写入
+ * <p>
+ * 写入某张表之前先写入它引用的表（枚举中排在前面的表）中缓存的数据，关系表不会先于主表写入。
+ * 每写入约 {@link #COMMIT_ROWS} 行提交一次事务。MySQL 中关闭当前连接的唯一性检查和外键检查以加快导入
+ */
+@Slf4j
+public class JdbcRowSink implements RowSink {
+
+    private static final int COMMIT_ROWS = 50_000;
+
+    private final Connection connection;
+
+    private final int batchRows;
+
+    private final Map<SyntheticTable, List<Object[]>> buffers = new EnumMap<>(SyntheticTable.class);
+
+    /**
+     * 行数为 batchRows 的多行 INSERT，每张表准备一次后重复使用
+     */
+    private final Map<SyntheticTable, PreparedStatement> fullBatchStatements = new EnumMap<>(SyntheticTable.class);
+
+    private final boolean mysql;
+
+    private int uncommittedRows;
+
+    public JdbcRowSink(Connection connection, int batchRows) throws SQLException {
+        this.connection = connection;
+        this.batchRows = batchRows;
+        for (SyntheticTable table : SyntheticTable.values()) {
+            buffers.put(table, new ArrayList<>(batchRows));
+        }
+        this.mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        connection.setAutoCommit(false);
+        if (mysql) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set unique_checks = 0, foreign_key_checks = 0");
+            }
+        }
+    }
+
+    @Override
+    public void write(SyntheticTable table, Object... values) throws SQLException {
+        List<Object[]> buffer = buffers.get(table);
+        buffer.add(values);
+        if (buffer.size() >= batchRows) {
+            flushUpTo(table);
+        }
+    }
+
+    @Override
+    public void rebuildRollups(int firstUserId, int lastUserId) throws SQLException {
+        flushUpTo(null);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : RowSink.rollupStatements(firstUserId, lastUserId)) {
+                statement.executeUpdate(sql);
+            }
+        }
+        connection.commit();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flushUpTo(null);
+            connection.commit();
+            if (mysql) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("set unique_checks = 1, foreign_key_checks = 1");
+                }
+            } else {
+                restartIdentities();
+            }
+        } finally {
+            for (PreparedStatement statement : fullBatchStatements.values()) {
+                statement.close();
+            }
+        }
+    }
+
+    /**
+     * 写入时指定了主键，H2 不会因此推进自增列，需要把自增列的下一个值改为当前最大ID+1，之后应用新增的数据才不会主键冲突
+     */
+    private void restartIdentities() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (SyntheticTable table : SyntheticTable.values()) {
+                if (table.getIdColumn() == null) {
+                    continue;
+                }
+                long nextId;
+                try (ResultSet resultSet = statement.executeQuery("select coalesce(max(" + table.getIdColumn() + "), 0) + 1 from "
+                        + table.getQualifiedName())) {
+                    resultSet.next();
+                    nextId = resultSet.getLong(1);
+                }
+                statement.execute("alter table " + table.getQualifiedName() + " alter column " + table.getIdColumn()
+                        + " restart with " + nextId);
+            }
+        }
+        connection.commit();
+    }
+
+    /**
+     * 写入 table 及其之前的所有表中缓存的数据，table 为null时写入所有表
+     */
+    private void flushUpTo(SyntheticTable table) throws SQLException {
+        for (SyntheticTable current : SyntheticTable.values()) {
+            flush(current);
+            if (current == table) {
+                break;
+            }
+        }
+        if (uncommittedRows >= COMMIT_ROWS) {
+            connection.commit();
+            uncommittedRows = 0;
+        }
+    }
+
+    private void flush(SyntheticTable table) throws SQLException {
+        List<Object[]> buffer = buffers.get(table);
+        if (buffer.isEmpty()) {
+            return;
+        }
+        if (buffer.size() == batchRows) {
+            PreparedStatement statement = fullBatchStatements.get(table);
+            if (statement == null) {
+                statement = connection.prepareStatement(insertSql(table, batchRows));
+                fullBatchStatements.put(table, statement);
+            }
+            execute(statement, buffer);
+        } else {
+            try (PreparedStatement statement = connection.prepareStatement(insertSql(table, buffer.size()))) {
+                execute(statement, buffer);
+            }
+        }
+        uncommittedRows += buffer.size();
+        buffer.clear();
+    }
+
+    private static void execute(PreparedStatement statement, List<Object[]> rows) throws SQLException {
+        int index = 1;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                statement.setObject(index++, value);
+            }
+        }
+        statement.executeUpdate();
+    }
+
+    private static String insertSql(SyntheticTable table, int rows) {
+        String placeholders = "(" + String.join(", ", Collections.nCopies(table.getColumns().size(), "?")) + ")";
+        return "insert into " + table.getQualifiedName() + " (" + String.join(", ", table.getColumns()) + ") values "
+                + String.join(", ", Collections.nCopies(rows, placeholders));
+    }
+}
@@ -0,0 +1,110 @@
+package sues.xmz.diploma.loadtest.datagen;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 写出数据文件：每张表一个制表符分隔的文件（MySQL LOAD DATA 的默认格式，NULL 写为 \N），
+ * 以及按外键依赖顺序导入所有文件并重算汇总表的 load.sql
+ * <p>
+ * 导入：mysql --local-infile=1 -u root -p &lt; load.sql（需要在 load.sql 所在目录执行，或修改其中的文件路径）
+ */
+public class LoadFileRowSink implements RowSink {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Path directory;
+
+    private final Map<SyntheticTable, BufferedWriter> writers = new EnumMap<>(SyntheticTable.class);
+
+    private final List<String> rollupStatements = new ArrayList<>();
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    public LoadFileRowSink(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        for (SyntheticTable table : SyntheticTable.values()) {
+            writers.put(table, Files.newBufferedWriter(directory.resolve(fileName(table)), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    public void write(SyntheticTable table, Object... values) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            appendValue(values[i]);
+        }
+        line.append('\n');
+        writers.get(table).append(line);
+    }
+
+    @Override
+    public void rebuildRollups(int firstUserId, int lastUserId) {
+        for (String sql : RowSink.rollupStatements(firstUserId, lastUserId)) {
+            rollupStatements.add(sql + ";");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (BufferedWriter writer : writers.values()) {
+            writer.close();
+        }
+        List<String> script = new ArrayList<>();
+        script.add("-- 合成数据的导入脚本（由 SyntheticDataGenerator 生成），需要开启 local_infile");
+        script.add("SET NAMES utf8mb4;");
+        script.add("SET unique_checks = 0;");
+        script.add("SET foreign_key_checks = 0;");
+        for (SyntheticTable table : SyntheticTable.values()) {
+            script.add("LOAD DATA LOCAL INFILE '" + fileName(table) + "' INTO TABLE " + table.getQualifiedName()
+                    + " CHARACTER SET utf8mb4 (" + String.join(", ", table.getColumns()) + ");");
+        }
+        script.addAll(rollupStatements);
+        script.add("SET foreign_key_checks = 1;");
+        script.add("SET unique_checks = 1;");
+        Files.write(directory.resolve("load.sql"), script, StandardCharsets.UTF_8);
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            line.append("\\N");
+        } else if (value instanceof String string) {
+            for (int i = 0; i < string.length(); i++) {
+                char c = string.charAt(i);
+                switch (c) {
+                    case '\t' -> line.append("\\t");
+                    case '\n' -> line.append("\\n");
+                    case '\\' -> line.append("\\\\");
+                    default -> line.append(c);
+                }
+            }
+        } else if (value instanceof BigDecimal decimal) {
+            line.append(decimal.toPlainString());
+        } else if (value instanceof LocalDateTime dateTime) {
+            line.append(DATE_TIME.format(dateTime));
+        } else if (value instanceof LocalDate date) {
+            line.append(date);
+        } else {
+            line.append(value);
+        }
+    }
+
+    private static String fileName(SyntheticTable table) {
+        return table.getTableName() + ".tsv";
+    }
+}
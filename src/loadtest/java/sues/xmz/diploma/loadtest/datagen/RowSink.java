@@ -0,0 +1,51 @@
+package sues.xmz.diploma.loadtest.datagen;
+
+/**
+ * 合成数据的写入目标。写入的值按 {@link SyntheticTable#getColumns()} 的顺序排列，
+ * 值的类型为 Integer、BigDecimal、String、LocalDate、LocalDateTime 或 null
+ */
+public interface RowSink extends AutoCloseable {
+
+    void write(SyntheticTable table, Object... values) throws Exception;
+
+    /**
+     * 所有数据写完之后重新计算 [firstUserId, lastUserId] 用户的营养摄入和运动汇总表
+     */
+    void rebuildRollups(int firstUserId, int lastUserId) throws Exception;
+
+    /**
+     * 写入剩余的数据
+     */
+    @Override
+    void close() throws Exception;
+
+    /**
+     * 汇总表的重算语句，与 DailyNutritionRollupMapper.xml、DailyExerciseRollupMapper.xml 中的计算方式一致
+     */
+    static String[] rollupStatements(int firstUserId, int lastUserId) {
+        String schema = SyntheticTable.SCHEMA;
+        return new String[]{
+                "insert into " + schema + ".daily_nutrition_rollup"
+                        + " (user_id, day, meal_type, calories, protein, fat, carbohydrates, water)"
+                        + " select dr.user_id, date(dr.meal_time), dr.meal_type,"
+                        + " sum(round(coalesce(df.calories, 0) * drf.quantity / 100, 2)),"
+                        + " sum(round(coalesce(df.protein, 0) * drf.quantity / 100, 2)),"
+                        + " sum(round(coalesce(df.fat, 0) * drf.quantity / 100, 2)),"
+                        + " sum(round(coalesce(df.carbohydrates, 0) * drf.quantity / 100, 2)),"
+                        + " sum(round(coalesce(df.water, 0) * drf.quantity / 100, 2))"
+                        + " from " + schema + ".diet_records dr"
+                        + " inner join " + schema + ".diet_records_foods drf on drf.diet_id = dr.diet_id"
+                        + " inner join " + schema + ".diet_foods df on drf.food_id = df.food_id"
+                        + " where dr.user_id between " + firstUserId + " and " + lastUserId
+                        + " group by dr.user_id, date(dr.meal_time), dr.meal_type",
+                "insert into " + schema + ".daily_exercise_rollup"
+                        + " (user_id, day, record_count, total_duration, total_distance, total_calories_burned, heart_rate_sum, heart_rate_count)"
+                        + " select er.user_id, date(er.exercise_date), count(*),"
+                        + " coalesce(sum(er.duration), 0), coalesce(sum(er.distance), 0), coalesce(sum(er.calories_burned), 0),"
+                        + " coalesce(sum(er.heart_rate), 0), count(er.heart_rate)"
+                        + " from " + schema + ".exercise_records er"
+                        + " where er.user_id between " + firstUserId + " and " + lastUserId
+                        + " group by er.user_id, date(er.exercise_date)"
+        };
+    }
+}
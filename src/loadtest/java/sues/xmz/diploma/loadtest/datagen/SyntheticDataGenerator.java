@@ -0,0 +1,218 @@
+package sues.xmz.diploma.loadtest.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 规模测试用的合成数据：生成 users 个用户及其 years 年的健康数据、饮食记录、运动记录和健康目标，
+ * 引用 食物枚举.sql 和 运动类型枚举.sql 中的真实数据，并重算营养摄入和运动汇总表
+ * <p>
+ * 多个线程并行生成各用户的数据，按用户顺序写入，相同的参数生成相同的数据。
+ * 写入数据库时ID接在目标表已有的最大ID之后；写出数据文件时ID从1开始，需要导入到空表中
+ * <p>
+ * 运行方式：mvn -P load-test test-compile exec:exec -Dload.main=sues.xmz.diploma.loadtest.datagen.SyntheticDataGenerator
+ * -Dload.args="users=20000 years=3 output=jdbc url=... username=... password=..."，参数见 {@link SyntheticDataOptions}
+ */
+@Slf4j
+public class SyntheticDataGenerator {
+
+    /**
+     * 每写入多少个用户重算一次这些用户的汇总表
+     */
+    private static final int ROLLUP_USERS = 1000;
+
+    /**
+     * 生成的用户
+     *
+     * @param userId   用户ID
+     * @param username 用户名
+     * @param weight   最后的体重
+     * @param active   数据截止时是否仍在使用（没有流失）
+     */
+    public record GeneratedUser(int userId, String username, double weight, boolean active) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        SyntheticDataOptions options = SyntheticDataOptions.parse(args);
+        if (SyntheticDataOptions.OUTPUT_FILES.equals(options.output())) {
+            generateFiles(options);
+        } else {
+            try (Connection connection = DriverManager.getConnection(options.url(), options.username(), options.password())) {
+                generate(options, connection);
+            }
+        }
+    }
+
+    /**
+     * 直接写入数据库（连接的自动提交会被关闭）
+     */
+    public static List<GeneratedUser> generate(SyntheticDataOptions options, Connection connection) throws Exception {
+        Catalog catalog = Catalog.fromDatabase(connection, SyntheticTable.SCHEMA);
+        Map<SyntheticTable, Integer> firstIds = new EnumMap<>(SyntheticTable.class);
+        try (Statement statement = connection.createStatement()) {
+            for (SyntheticTable table : SyntheticTable.values()) {
+                if (table.getIdColumn() != null) {
+                    try (ResultSet resultSet = statement.executeQuery("select coalesce(max(" + table.getIdColumn() + "), 0) + 1 from "
+                            + table.getQualifiedName())) {
+                        resultSet.next();
+                        firstIds.put(table, resultSet.getInt(1));
+                    }
+                }
+            }
+        }
+        try (JdbcRowSink sink = new JdbcRowSink(connection, options.batchRows())) {
+            return generate(options, catalog, firstIds, sink);
+        }
+    }
+
+    /**
+     * 写出 LOAD DATA 使用的数据文件和导入脚本
+     */
+    public static List<GeneratedUser> generateFiles(SyntheticDataOptions options) throws Exception {
+        Catalog catalog = Catalog.fromScripts(options.scriptDir());
+        Map<SyntheticTable, Integer> firstIds = new EnumMap<>(SyntheticTable.class);
+        for (SyntheticTable table : SyntheticTable.values()) {
+            if (table.getIdColumn() != null) {
+                firstIds.put(table, 1);
+            }
+        }
+        List<GeneratedUser> users;
+        try (LoadFileRowSink sink = new LoadFileRowSink(options.outputDir())) {
+            users = generate(options, catalog, firstIds, sink);
+        }
+        log.info("数据文件和导入脚本已写入 {}", options.outputDir().toAbsolutePath());
+        return users;
+    }
+
+    private static List<GeneratedUser> generate(SyntheticDataOptions options, Catalog catalog,
+                                                Map<SyntheticTable, Integer> firstIds, RowSink sink) throws Exception {
+        long startTime = System.currentTimeMillis();
+        UserHistoryGenerator generator = new UserHistoryGenerator(options, catalog, passwordHash(options));
+        IdOffsets offsets = new IdOffsets(firstIds);
+        Map<SyntheticTable, Long> rowCounts = new EnumMap<>(SyntheticTable.class);
+        List<GeneratedUser> users = new ArrayList<>(options.users());
+
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+        try {
+            // 最多提前生成 threads * 4 个用户，按提交顺序取出结果写入，内存占用与用户总数无关
+            Queue<Future<UserHistory>> pending = new ArrayDeque<>();
+            int submitted = 0;
+            int rollupFirstUserId = firstIds.get(SyntheticTable.USERS);
+            while (submitted < options.users() || !pending.isEmpty()) {
+                while (submitted < options.users() && pending.size() < options.threads() * 4) {
+                    int index = submitted++;
+                    pending.add(executor.submit(() -> generator.generate(index)));
+                }
+                UserHistory history = await(pending.remove());
+                int userId = offsets.write(history, sink, rowCounts);
+                users.add(new GeneratedUser(userId, history.getUsername(), history.getLatestWeight(),
+                        history.getLastActiveDay().equals(options.endDate())));
+
+                if (users.size() % ROLLUP_USERS == 0 || users.size() == options.users()) {
+                    sink.rebuildRollups(rollupFirstUserId, userId);
+                    rollupFirstUserId = userId + 1;
+                    log.info("已生成 {}/{} 个用户，{} 行，耗时 {} ms", users.size(), options.users(),
+                            rowCounts.values().stream().mapToLong(Long::longValue).sum(), System.currentTimeMillis() - startTime);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsed = Math.max(System.currentTimeMillis() - startTime, 1);
+        long totalRows = rowCounts.values().stream().mapToLong(Long::longValue).sum();
+        log.info("合成数据生成完成：{} 个用户，共 {} 行，耗时 {} ms（{} 行/秒），各表行数：{}",
+                users.size(), totalRows, elapsed, totalRows * 1000 / elapsed, rowCounts);
+        return users;
+    }
+
+    /**
+     * 所有用户使用同一个密码，只计算一次BCrypt；盐由种子确定，重复生成的数据相同
+     */
+    private static String passwordHash(SyntheticDataOptions options) throws NoSuchAlgorithmException {
+        SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
+        random.setSeed(options.seed());
+        return BCrypt.hashpw(options.userPassword(), BCrypt.gensalt(10, random));
+    }
+
+    private static <T> T await(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 把用户内的本地ID换算成数据库中的ID：值等于某张表主键列名的列都加上该表当前的起始ID，写完一个用户后起始ID后移
+     */
+    private static final class IdOffsets {
+
+        private final Map<SyntheticTable, Integer> nextIds;
+
+        /**
+         * 每张表每一列引用的表（主键或外键），不需要换算的列为null
+         */
+        private final Map<SyntheticTable, SyntheticTable[]> referencedTables = new EnumMap<>(SyntheticTable.class);
+
+        private IdOffsets(Map<SyntheticTable, Integer> firstIds) {
+            this.nextIds = new EnumMap<>(firstIds);
+            for (SyntheticTable table : SyntheticTable.values()) {
+                List<String> columns = table.getColumns();
+                SyntheticTable[] references = new SyntheticTable[columns.size()];
+                for (int i = 0; i < columns.size(); i++) {
+                    for (SyntheticTable candidate : SyntheticTable.values()) {
+                        if (columns.get(i).equals(candidate.getIdColumn())) {
+                            references[i] = candidate;
+                        }
+                    }
+                }
+                referencedTables.put(table, references);
+            }
+        }
+
+        /**
+         * 写入一个用户的数据，返回该用户的ID
+         */
+        private int write(UserHistory history, RowSink sink, Map<SyntheticTable, Long> rowCounts) throws Exception {
+            int userId = nextIds.get(SyntheticTable.USERS);
+            for (SyntheticTable table : SyntheticTable.values()) {
+                SyntheticTable[] references = referencedTables.get(table);
+                List<Object[]> rows = history.getRows(table);
+                for (Object[] row : rows) {
+                    for (int i = 0; i < references.length; i++) {
+                        if (references[i] != null) {
+                            row[i] = (Integer) row[i] + nextIds.get(references[i]);
+                        }
+                    }
+                    sink.write(table, row);
+                }
+                rowCounts.merge(table, (long) rows.size(), Long::sum);
+            }
+            for (SyntheticTable table : nextIds.keySet()) {
+                nextIds.merge(table, history.getRows(table).size(), Integer::sum);
+            }
+            return userId;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package sues.xmz.diploma.loadtest.datagen;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 合成数据的参数，命令行中以 key=value 的形式传入（例如 users=50000 years=3 seed=7），没有传入时使用默认值
+ * <p>
+ * 相同的 seed、users、years、end-date 和目标表中已有的最大ID，生成的数据完全相同
+ *
+ * @param users        用户数
+ * @param years        最早的用户从多少年前开始使用（每个用户的注册时间在这段时间内均匀分布）
+ * @param endDate      数据截止的日期（不含），默认今天
+ * @param seed         随机数种子
+ * @param output       jdbc：直接写入数据库；files：写出 LOAD DATA 使用的数据文件和导入脚本
+ * @param url          数据库地址（jdbc）
+ * @param username     数据库账号（jdbc）
+ * @param password     数据库密码（jdbc）
+ * @param outputDir    数据文件的目录（files）
+ * @param scriptDir    食物和运动类型枚举脚本所在目录（files：从脚本中读取食物和运动类型，ID按脚本中的顺序从1开始）
+ * @param batchRows    每条多行 INSERT 语句的行数
+ * @param threads      生成数据的线程数（写入始终按用户顺序进行，结果与线程数无关）
+ * @param userPassword 生成的用户的登录密码（所有用户相同）
+ */
+public record SyntheticDataOptions(int users,
+                                   int years,
+                                   LocalDate endDate,
+                                   long seed,
+                                   String output,
+                                   String url,
+                                   String username,
+                                   String password,
+                                   Path outputDir,
+                                   Path scriptDir,
+                                   int batchRows,
+                                   int threads,
+                                   String userPassword) {
+
+    public static final String OUTPUT_JDBC = "jdbc";
+
+    public static final String OUTPUT_FILES = "files";
+
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/diploma_project_daily_exercise_health_management_system"
+            + "?useUnicode=true&characterEncoding=UTF-8&useSSL=false&serverTimezone=Asia/Shanghai&rewriteBatchedStatements=true";
+
+    public static SyntheticDataOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int index = arg.indexOf('=');
+            if (index <= 0) {
+                throw new IllegalArgumentException("参数的格式为 key=value：" + arg);
+            }
+            values.put(arg.substring(0, index).trim(), arg.substring(index + 1).trim());
+        }
+        String output = values.getOrDefault("output", OUTPUT_JDBC);
+        if (!OUTPUT_JDBC.equals(output) && !OUTPUT_FILES.equals(output)) {
+            throw new IllegalArgumentException("output 只能为 jdbc 或 files：" + output);
+        }
+        return new SyntheticDataOptions(
+                Integer.parseInt(values.getOrDefault("users", "20000")),
+                Integer.parseInt(values.getOrDefault("years", "3")),
+                values.containsKey("end-date") ? LocalDate.parse(values.get("end-date")) : LocalDate.now(),
+                Long.parseLong(values.getOrDefault("seed", "20250311")),
+                output,
+                values.getOrDefault("url", DEFAULT_URL),
+                values.getOrDefault("username", "root"),
+                values.getOrDefault("password", "root"),
+                Path.of(values.getOrDefault("dir", "target/synthetic-data")),
+                Path.of(values.getOrDefault("scripts", "_design_script/_db_mysql_script")),
+                Integer.parseInt(values.getOrDefault("batch-rows", "1000")),
+                Integer.parseInt(values.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                values.getOrDefault("user-password", "Synthetic_123")
+        );
+    }
+}
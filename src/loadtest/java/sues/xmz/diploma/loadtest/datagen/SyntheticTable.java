@@ -0,0 +1,66 @@
+package sues.xmz.diploma.loadtest.datagen;
+
+import java.util.List;
+
+/**
+ * 合成数据写入的表和列，按外键依赖排序（被引用的表在前）
+ */
+public enum SyntheticTable {
+
+    USERS("users", "user_id",
+            "user_id", "username", "password_hash", "full_name", "gender", "birth_date", "height", "weight", "email", "phone_number", "created_at"),
+
+    HEALTH_DATA("health_data", "health_data_id",
+            "health_data_id", "user_id", "heart_rate", "weight", "bmi", "measurement_date", "created_at"),
+
+    DIET_RECORDS("diet_records", "diet_id",
+            "diet_id", "user_id", "meal_type", "meal_time", "created_at"),
+
+    DIET_RECORDS_FOODS("diet_records_foods", null,
+            "diet_id", "food_id", "quantity"),
+
+    EXERCISE_RECORDS("exercise_records", "exercise_record_id",
+            "exercise_record_id", "user_id", "duration", "distance", "calories_burned", "heart_rate", "exercise_date", "created_at"),
+
+    EXERCISE_RECORDS_TYPES("exercise_records_types", null,
+            "exercise_record_id", "exercise_type_id"),
+
+    HEALTH_GOALS("health_goals", "goal_id",
+            "goal_id", "user_id", "target_plan", "target_date", "is_finished", "is_abandoned", "created_at"),
+
+    HEALTH_GOALS_EXERCISE_TYPES("health_goals_exercise_types", null,
+            "goal_id", "exercise_type_id");
+
+    public static final String SCHEMA = "diploma_project_daily_exercise_health_management_system";
+
+    private final String tableName;
+
+    /**
+     * 自增主键列，关系表为null
+     */
+    private final String idColumn;
+
+    private final List<String> columns;
+
+    SyntheticTable(String tableName, String idColumn, String... columns) {
+        this.tableName = tableName;
+        this.idColumn = idColumn;
+        this.columns = List.of(columns);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getQualifiedName() {
+        return SCHEMA + "." + tableName;
+    }
+
+    public String getIdColumn() {
+        return idColumn;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+}
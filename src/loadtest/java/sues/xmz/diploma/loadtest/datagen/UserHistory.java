@@ -0,0 +1,74 @@
+package sues.xmz.diploma.loadtest.datagen;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一个用户的全部合成数据
+ * <p>
+ * 各表的主键和引用其它表主键的列（user_id、diet_id、exercise_record_id、goal_id）中保存的是该用户内从0开始的序号，
+ * 写入时按用户顺序加上各表当前的起始ID，因此生成可以并行而ID与线程数无关
+ */
+public class UserHistory {
+
+    private final String username;
+
+    private final Map<SyntheticTable, List<Object[]>> rows = new EnumMap<>(SyntheticTable.class);
+
+    private double latestWeight;
+
+    /**
+     * 最后一次使用的日期的后一天，一直在使用的用户为数据截止的日期
+     */
+    private LocalDate lastActiveDay;
+
+    public UserHistory(String username) {
+        this.username = username;
+        for (SyntheticTable table : SyntheticTable.values()) {
+            rows.put(table, new ArrayList<>());
+        }
+    }
+
+    /**
+     * 添加一行，返回该行在表中的序号（即该行的本地ID）
+     */
+    int add(SyntheticTable table, Object... values) {
+        List<Object[]> tableRows = rows.get(table);
+        tableRows.add(values);
+        return tableRows.size() - 1;
+    }
+
+    /**
+     * 表中的下一个本地ID
+     */
+    int nextLocalId(SyntheticTable table) {
+        return rows.get(table).size();
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public List<Object[]> getRows(SyntheticTable table) {
+        return rows.get(table);
+    }
+
+    public double getLatestWeight() {
+        return latestWeight;
+    }
+
+    void setLatestWeight(double latestWeight) {
+        this.latestWeight = latestWeight;
+    }
+
+    public LocalDate getLastActiveDay() {
+        return lastActiveDay;
+    }
+
+    void setLastActiveDay(LocalDate lastActiveDay) {
+        this.lastActiveDay = lastActiveDay;
+    }
+}
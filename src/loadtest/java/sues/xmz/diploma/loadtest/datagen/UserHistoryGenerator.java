@@ -0,0 +1,482 @@
+package sues.xmz.diploma.loadtest.datagen;
+
+import sues.xmz.diploma.common.utils.UserDataCalculationUtil;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * 按用户序号生成一个用户的全部数据，相同的种子和序号生成相同的数据
+ * <p>
+ * 数据的分布：
+ * <ul>
+ *     <li>注册时间在 years 年内均匀分布；约四分之一的用户一直使用，其余用户平均使用约10个月后不再记录</li>
+ *     <li>每个用户记录健康数据、饮食记录的积极程度不同；每天的体重在上一天的基础上随机变化，并带有每个用户自己的长期趋势</li>
+ *     <li>每餐按进餐类型从对应类型的食物中选择（例如午餐为主食+肉类/海鲜/豆制品+蔬菜），食用量按食物类型和用户的饭量确定</li>
+ *     <li>每个用户每周的运动次数不同（周末更多），运动从几个常做的运动中选择，跑步、骑行、游泳等运动记录距离</li>
+ *     <li>注册后和使用期间不定期设置健康目标计划，过期的计划按比例完成或放弃</li>
+ * </ul>
+ */
+public class UserHistoryGenerator {
+
+    private static final String[] SURNAMES = {"王", "李", "张", "刘", "陈", "杨", "黄", "赵", "吴", "周", "徐", "孙", "马", "朱", "胡", "郭", "何", "林", "罗", "高"};
+
+    private static final String[] GIVEN_NAME_CHARS = {"伟", "芳", "娜", "敏", "静", "强", "磊", "洋", "艳", "勇", "军", "杰", "娟", "涛", "明", "超", "秀", "霞", "平", "刚", "婷", "宇", "浩", "欣", "晨", "怡", "博", "佳", "子", "轩"};
+
+    /**
+     * 每周运动次数的分布（下标为次数）
+     */
+    private static final double[] WORKOUTS_PER_WEEK = {0.12, 0.18, 0.24, 0.2, 0.12, 0.09, 0.05};
+
+    private final SyntheticDataOptions options;
+
+    private final String passwordHash;
+
+    private final LocalDate firstDay;
+
+    private final int totalDays;
+
+    private final Map<String, List<Catalog.Food>> foodsByType;
+
+    private final List<Catalog.ExerciseType> exerciseTypes;
+
+    private final double[] exerciseTypeWeights;
+
+    private final double exerciseTypeWeightSum;
+
+    public UserHistoryGenerator(SyntheticDataOptions options, Catalog catalog, String passwordHash) {
+        this.options = options;
+        this.passwordHash = passwordHash;
+        this.firstDay = options.endDate().minusYears(options.years());
+        this.totalDays = (int) ChronoUnit.DAYS.between(firstDay, options.endDate());
+        this.foodsByType = catalog.foodsByType();
+        this.exerciseTypes = catalog.exerciseTypes();
+        this.exerciseTypeWeights = new double[exerciseTypes.size()];
+        double sum = 0;
+        for (int i = 0; i < exerciseTypes.size(); i++) {
+            exerciseTypeWeights[i] = ExerciseProfile.of(exerciseTypes.get(i).name()).popularity();
+            sum += exerciseTypeWeights[i];
+        }
+        this.exerciseTypeWeightSum = sum;
+    }
+
+    public UserHistory generate(int index) {
+        SplittableRandom random = new SplittableRandom(options.seed() * 0x9E3779B97F4A7C15L + index);
+        String username = String.format("synthetic_%d_%06d", options.seed(), index);
+        UserHistory history = new UserHistory(username);
+
+        // 基本资料
+        boolean male = random.nextBoolean();
+        double height = clamp(male ? gaussian(random, 172, 6.5) : gaussian(random, 160, 6), 145, 200);
+        double heightMeters = height / 100;
+        double weight = clamp(gaussian(random, 23.5, 3.5), 17, 38) * heightMeters * heightMeters;
+        LocalDate birthDate = options.endDate().minusYears((long) clamp(gaussian(random, 32, 10), 18, 70)).minusDays(random.nextInt(365));
+
+        // 使用时间
+        int registerOffset = random.nextInt(Math.max(totalDays - 7, 1));
+        LocalDate registerDay = firstDay.plusDays(registerOffset);
+        LocalDate lastActiveDay = options.endDate();
+        if (random.nextDouble() >= 0.25) {
+            long lifetimeDays = 7 + (long) (-Math.log(1 - random.nextDouble()) * 300);
+            lastActiveDay = registerDay.plusDays(lifetimeDays).isBefore(lastActiveDay) ? registerDay.plusDays(lifetimeDays) : lastActiveDay;
+        }
+
+        // 使用习惯
+        double healthDataRate = 0.1 + 0.85 * Math.pow(random.nextDouble(), 0.7);
+        double dietRate = 0.1 + 0.85 * Math.pow(random.nextDouble(), 0.8);
+        double workoutsPerWeek = pick(random, WORKOUTS_PER_WEEK) + random.nextDouble() * 0.5;
+        double appetite = clamp(gaussian(random, male ? 1.1 : 0.9, 0.15), 0.6, 1.6);
+        double weightTrend = gaussian(random, -0.004, 0.007);
+        double restingHeartRate = clamp(gaussian(random, 70, 7), 50, 95);
+        List<Catalog.ExerciseType> favouriteExercises = favouriteExercises(random);
+
+        LocalDate nextGoalDay = random.nextDouble() < 0.6 ? registerDay : registerDay.plusDays(30 + random.nextInt(120));
+        for (LocalDate day = registerDay; day.isBefore(lastActiveDay); day = day.plusDays(1)) {
+            weight = nextWeight(random, weight, weightTrend, heightMeters);
+            if (random.nextDouble() < healthDataRate) {
+                addHealthData(history, random, day, weight, height, restingHeartRate);
+            }
+            if (random.nextDouble() < dietRate) {
+                addMeals(history, random, day, appetite);
+            }
+            boolean weekend = day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+            if (!favouriteExercises.isEmpty() && random.nextDouble() < workoutsPerWeek / 7 * (weekend ? 1.3 : 0.88)) {
+                addExercise(history, random, day, weight, favouriteExercises);
+                if (random.nextDouble() < 0.1) {
+                    addExercise(history, random, day, weight, favouriteExercises);
+                }
+            }
+            if (!day.isBefore(nextGoalDay)) {
+                addGoal(history, random, day, lastActiveDay, weight, favouriteExercises);
+                nextGoalDay = day.plusDays(30 + (long) (-Math.log(1 - random.nextDouble()) * 120));
+            }
+        }
+
+        history.setLatestWeight(weight);
+        history.setLastActiveDay(lastActiveDay);
+        history.add(SyntheticTable.USERS,
+                0,
+                username,
+                passwordHash,
+                SURNAMES[random.nextInt(SURNAMES.length)] + GIVEN_NAME_CHARS[random.nextInt(GIVEN_NAME_CHARS.length)]
+                        + (random.nextBoolean() ? GIVEN_NAME_CHARS[random.nextInt(GIVEN_NAME_CHARS.length)] : ""),
+                male ? "男" : "女",
+                birthDate,
+                decimal(height),
+                decimal(weight),
+                username + "@synthetic.example",
+                String.format("1%d%09d", 3 + random.nextInt(7), random.nextInt(1_000_000_000)),
+                registerDay.atTime(randomTime(random, 8 * 60, 23 * 60)));
+        return history;
+    }
+
+    /**
+     * 体重在上一天的基础上随机变化，BMI偏离正常范围较多时有回到正常范围的趋势
+     */
+    private static double nextWeight(SplittableRandom random, double weight, double trend, double heightMeters) {
+        double bmi = weight / (heightMeters * heightMeters);
+        double reversion = bmi > 32 ? -0.01 : bmi < 18 ? 0.01 : 0;
+        return weight + trend + reversion + gaussian(random, 0, 0.06);
+    }
+
+    private void addHealthData(UserHistory history, SplittableRandom random, LocalDate day, double weight, double height,
+                               double restingHeartRate) {
+        BigDecimal measuredWeight = decimal(weight + gaussian(random, 0, 0.3));
+        history.add(SyntheticTable.HEALTH_DATA,
+                history.nextLocalId(SyntheticTable.HEALTH_DATA),
+                0,
+                decimal(restingHeartRate + gaussian(random, 0, 3)),
+                measuredWeight,
+                UserDataCalculationUtil.calculateBMI(decimal(height), measuredWeight),
+                day,
+                day.atTime(randomTime(random, 6 * 60 + 30, 9 * 60)));
+    }
+
+    private void addMeals(UserHistory history, SplittableRandom random, LocalDate day, double appetite) {
+        for (Meal meal : Meal.values()) {
+            if (random.nextDouble() < meal.probability) {
+                LocalDateTime mealTime = day.atTime(randomTime(random, meal.fromMinute, meal.toMinute));
+                int dietId = history.add(SyntheticTable.DIET_RECORDS,
+                        history.nextLocalId(SyntheticTable.DIET_RECORDS),
+                        0,
+                        meal.mealType,
+                        mealTime,
+                        mealTime.plusMinutes(random.nextInt(180)));
+                addFoods(history, random, dietId, meal, appetite);
+            }
+        }
+    }
+
+    private void addFoods(UserHistory history, SplittableRandom random, int dietId, Meal meal, double appetite) {
+        Set<Integer> foodIds = new HashSet<>();
+        for (String[] course : meal.courses(random)) {
+            List<Catalog.Food> foods = foodsByType.get(course[random.nextInt(course.length)]);
+            if (foods == null) {
+                continue;
+            }
+            Catalog.Food food = foods.get(random.nextInt(foods.size()));
+            if (foodIds.add(food.foodId())) {
+                FoodPortion portion = FoodPortion.of(food.type());
+                double grams = (portion.min + random.nextDouble() * (portion.max - portion.min)) * appetite;
+                history.add(SyntheticTable.DIET_RECORDS_FOODS, dietId, food.foodId(), BigDecimal.valueOf(Math.max(5, Math.round(grams / 5) * 5)));
+            }
+        }
+    }
+
+    private void addExercise(UserHistory history, SplittableRandom random, LocalDate day, double weight,
+                             List<Catalog.ExerciseType> favouriteExercises) {
+        Catalog.ExerciseType exerciseType = favouriteExercises.get(random.nextInt(favouriteExercises.size()));
+        ExerciseProfile profile = ExerciseProfile.of(exerciseType.name());
+        int duration = (int) clamp(Math.exp(gaussian(random, Math.log(40), 0.4)), 10, 180);
+        BigDecimal distance = profile.speed() > 0 ? decimal(duration / 60.0 * profile.speed() * clamp(gaussian(random, 1, 0.12), 0.6, 1.4)) : null;
+        BigDecimal heartRate = random.nextDouble() < 0.7 ? decimal(clamp(95 + profile.met() * 6 + gaussian(random, 0, 8), 80, 190)) : null;
+        int exerciseRecordId = history.add(SyntheticTable.EXERCISE_RECORDS,
+                history.nextLocalId(SyntheticTable.EXERCISE_RECORDS),
+                0,
+                duration,
+                distance,
+                decimal(profile.met() * weight * duration / 60 * clamp(gaussian(random, 1, 0.1), 0.7, 1.3)),
+                heartRate,
+                day,
+                day.atTime(randomTime(random, 7 * 60, 22 * 60 + 30)));
+        history.add(SyntheticTable.EXERCISE_RECORDS_TYPES, exerciseRecordId, exerciseType.exerciseTypeId());
+    }
+
+    private void addGoal(UserHistory history, SplittableRandom random, LocalDate day, LocalDate lastActiveDay, double weight,
+                         List<Catalog.ExerciseType> favouriteExercises) {
+        LocalDate targetDate = day.plusDays(30 + random.nextInt(150));
+        String targetPlan = switch (random.nextInt(4)) {
+            case 0 -> String.format("%d天内体重减到 %.1f kg", ChronoUnit.DAYS.between(day, targetDate), weight * (0.92 + random.nextDouble() * 0.05));
+            case 1 -> String.format("每周运动 %d 次，每次不少于 %d 分钟", 2 + random.nextInt(4), 30 + random.nextInt(4) * 10);
+            case 2 -> String.format("每天摄入的热量控制在 %d kcal 以内", 1500 + random.nextInt(8) * 100);
+            default -> String.format("每天步行 %d 步", 6000 + random.nextInt(9) * 1000);
+        };
+        // 截止日期已过的计划按比例完成或放弃；截止前不再使用的用户更多地放弃
+        int finished = 0;
+        int abandoned = 0;
+        if (targetDate.isBefore(options.endDate())) {
+            double outcome = random.nextDouble();
+            boolean stillActive = targetDate.isBefore(lastActiveDay);
+            if (outcome < (stillActive ? 0.5 : 0.15)) {
+                finished = 1;
+            } else if (outcome < (stillActive ? 0.75 : 0.6)) {
+                abandoned = 1;
+            }
+        }
+        int goalId = history.add(SyntheticTable.HEALTH_GOALS,
+                history.nextLocalId(SyntheticTable.HEALTH_GOALS),
+                0,
+                targetPlan,
+                targetDate,
+                finished,
+                abandoned,
+                day.atTime(randomTime(random, 8 * 60, 23 * 60)));
+        if (!favouriteExercises.isEmpty()) {
+            int count = Math.min(1 + random.nextInt(2), favouriteExercises.size());
+            for (int i = 0; i < count; i++) {
+                history.add(SyntheticTable.HEALTH_GOALS_EXERCISE_TYPES, goalId, favouriteExercises.get(i).exerciseTypeId());
+            }
+        }
+    }
+
+    /**
+     * 每个用户常做的1~4种运动，按运动的普及程度选择
+     */
+    private List<Catalog.ExerciseType> favouriteExercises(SplittableRandom random) {
+        int count = 1 + random.nextInt(4);
+        List<Catalog.ExerciseType> favourites = new ArrayList<>(count);
+        for (int attempt = 0; favourites.size() < count && attempt < count * 10; attempt++) {
+            double target = random.nextDouble() * exerciseTypeWeightSum;
+            int index = 0;
+            while (index < exerciseTypeWeights.length - 1 && target >= exerciseTypeWeights[index]) {
+                target -= exerciseTypeWeights[index++];
+            }
+            Catalog.ExerciseType exerciseType = exerciseTypes.get(index);
+            if (!favourites.contains(exerciseType)) {
+                favourites.add(exerciseType);
+            }
+        }
+        return favourites;
+    }
+
+    private static int pick(SplittableRandom random, double[] distribution) {
+        double target = random.nextDouble();
+        for (int i = 0; i < distribution.length - 1; i++) {
+            target -= distribution[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return distribution.length - 1;
+    }
+
+    private static LocalTime randomTime(SplittableRandom random, int fromMinute, int toMinute) {
+        return LocalTime.ofSecondOfDay((fromMinute + random.nextInt(toMinute - fromMinute)) * 60L + random.nextInt(60));
+    }
+
+    private static double gaussian(SplittableRandom random, double mean, double standardDeviation) {
+        return mean + random.nextGaussian() * standardDeviation;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static BigDecimal decimal(double value) {
+        return BigDecimal.valueOf(Math.round(value * 100), 2);
+    }
+
+    /**
+     * 进餐类型：记录的概率、进餐时间的范围（分钟）和每一道菜可选的食物类型
+     */
+    private enum Meal {
+
+        BREAKFAST("早餐", 0.78, 6 * 60 + 30, 9 * 60 + 30) {
+            @Override
+            List<String[]> courses(SplittableRandom random) {
+                List<String[]> courses = new ArrayList<>();
+                courses.add(new String[]{"主食"});
+                if (random.nextDouble() < 0.5) {
+                    courses.add(new String[]{"乳制品"});
+                }
+                if (random.nextDouble() < 0.3) {
+                    courses.add(new String[]{"水果"});
+                }
+                if (random.nextDouble() < 0.2) {
+                    courses.add(new String[]{"植物饮料", "饮料"});
+                }
+                return courses;
+            }
+        },
+
+        LUNCH("午餐", 0.9, 11 * 60 + 30, 13 * 60 + 30) {
+            @Override
+            List<String[]> courses(SplittableRandom random) {
+                return mainMeal(random, 0.02);
+            }
+        },
+
+        DINNER("晚餐", 0.88, 17 * 60 + 30, 20 * 60 + 30) {
+            @Override
+            List<String[]> courses(SplittableRandom random) {
+                return mainMeal(random, 0.08);
+            }
+        },
+
+        SNACK("加餐", 0.35, 15 * 60, 16 * 60 + 30) {
+            @Override
+            List<String[]> courses(SplittableRandom random) {
+                List<String[]> courses = new ArrayList<>();
+                String[] snack = {"水果", "水果", "坚果", "零食", "零食", "甜点", "乳制品", "饮料"};
+                courses.add(snack);
+                if (random.nextDouble() < 0.3) {
+                    courses.add(snack);
+                }
+                return courses;
+            }
+        },
+
+        NIGHT_SNACK("零食", 0.08, 21 * 60, 23 * 60) {
+            @Override
+            List<String[]> courses(SplittableRandom random) {
+                List<String[]> courses = new ArrayList<>();
+                courses.add(new String[]{"零食", "主食", "加工肉", "坚果"});
+                if (random.nextDouble() < 0.3) {
+                    courses.add(new String[]{"酒精饮料", "饮料"});
+                }
+                return courses;
+            }
+        };
+
+        private final String mealType;
+
+        private final double probability;
+
+        private final int fromMinute;
+
+        private final int toMinute;
+
+        Meal(String mealType, double probability, int fromMinute, int toMinute) {
+            this.mealType = mealType;
+            this.probability = probability;
+            this.fromMinute = fromMinute;
+            this.toMinute = toMinute;
+        }
+
+        /**
+         * 这一餐的每一道菜，每道菜从给出的食物类型中随机选择一种
+         */
+        abstract List<String[]> courses(SplittableRandom random);
+
+        /**
+         * 午餐和晚餐：主食、一道荤菜、一到两道蔬菜，偶尔有海藻、调味品和酒
+         */
+        private static List<String[]> mainMeal(SplittableRandom random, double alcoholProbability) {
+            List<String[]> courses = new ArrayList<>();
+            courses.add(new String[]{"主食"});
+            courses.add(new String[]{"肉类", "肉类", "肉类", "肉类", "肉类", "海鲜", "海鲜", "海鲜", "豆制品", "豆制品", "加工肉"});
+            courses.add(new String[]{"蔬菜"});
+            if (random.nextDouble() < 0.5) {
+                courses.add(new String[]{"蔬菜"});
+            }
+            if (random.nextDouble() < 0.2) {
+                courses.add(new String[]{"海藻"});
+            }
+            if (random.nextDouble() < 0.1) {
+                courses.add(new String[]{"调味品", "油脂"});
+            }
+            if (random.nextDouble() < alcoholProbability) {
+                courses.add(new String[]{"酒精饮料"});
+            }
+            return courses;
+        }
+    }
+
+    /**
+     * 每种食物类型一次的食用量范围（g）
+     */
+    private record FoodPortion(double min, double max) {
+
+        private static final Map<String, FoodPortion> PORTIONS = Map.ofEntries(
+                Map.entry("主食", new FoodPortion(150, 300)),
+                Map.entry("蔬菜", new FoodPortion(100, 250)),
+                Map.entry("肉类", new FoodPortion(80, 200)),
+                Map.entry("海鲜", new FoodPortion(80, 200)),
+                Map.entry("豆制品", new FoodPortion(80, 200)),
+                Map.entry("加工肉", new FoodPortion(40, 100)),
+                Map.entry("水果", new FoodPortion(100, 300)),
+                Map.entry("坚果", new FoodPortion(15, 40)),
+                Map.entry("零食", new FoodPortion(20, 80)),
+                Map.entry("甜点", new FoodPortion(50, 120)),
+                Map.entry("乳制品", new FoodPortion(150, 300)),
+                Map.entry("饮料", new FoodPortion(200, 500)),
+                Map.entry("植物饮料", new FoodPortion(200, 400)),
+                Map.entry("酒精饮料", new FoodPortion(200, 600)),
+                Map.entry("调味品", new FoodPortion(5, 20)),
+                Map.entry("油脂", new FoodPortion(5, 20)),
+                Map.entry("海藻", new FoodPortion(20, 60))
+        );
+
+        private static final FoodPortion DEFAULT = new FoodPortion(50, 150);
+
+        static FoodPortion of(String foodType) {
+            return PORTIONS.getOrDefault(foodType, DEFAULT);
+        }
+    }
+
+    /**
+     * 常见运动的普及程度（相对权重）、速度（km/h，0表示不记录距离）和代谢当量（MET，用于估算消耗的热量）。
+     * 运动类型枚举中其它的运动很少被选择
+     *
+     * @param popularity 普及程度
+     * @param speed      速度
+     * @param met        代谢当量
+     */
+    private record ExerciseProfile(double popularity, double speed, double met) {
+
+        private static final Map<String, ExerciseProfile> PROFILES = Map.ofEntries(
+                Map.entry("间歇性跑步", new ExerciseProfile(12, 9, 9)),
+                Map.entry("骑行", new ExerciseProfile(12, 18, 7)),
+                Map.entry("游泳", new ExerciseProfile(10, 2.5, 7)),
+                Map.entry("瑜伽", new ExerciseProfile(10, 0, 3)),
+                Map.entry("羽毛球", new ExerciseProfile(8, 0, 5.5)),
+                Map.entry("篮球", new ExerciseProfile(8, 0, 7)),
+                Map.entry("跳绳", new ExerciseProfile(7, 0, 10)),
+                Map.entry("徒步旅行", new ExerciseProfile(6, 4.5, 5)),
+                Map.entry("乒乓球", new ExerciseProfile(6, 0, 4)),
+                Map.entry("自由重量训练", new ExerciseProfile(6, 0, 5)),
+                Map.entry("足球", new ExerciseProfile(5, 0, 8)),
+                Map.entry("普拉提", new ExerciseProfile(5, 0, 3.5)),
+                Map.entry("椭圆机训练", new ExerciseProfile(5, 0, 6)),
+                Map.entry("固定器械训练", new ExerciseProfile(5, 0, 5)),
+                Map.entry("拉伸训练", new ExerciseProfile(5, 0, 2.5)),
+                Map.entry("有氧舞蹈", new ExerciseProfile(4, 0, 6.5)),
+                Map.entry("爬楼梯", new ExerciseProfile(4, 0, 8)),
+                Map.entry("自行车运动", new ExerciseProfile(3, 20, 8)),
+                Map.entry("网球", new ExerciseProfile(3, 0, 7)),
+                Map.entry("俯卧撑", new ExerciseProfile(3, 0, 4)),
+                Map.entry("划船", new ExerciseProfile(2, 0, 7)),
+                Map.entry("跳绳HIIT", new ExerciseProfile(2, 0, 11)),
+                Map.entry("马拉松", new ExerciseProfile(1, 10, 10)),
+                Map.entry("定向越野", new ExerciseProfile(1, 6, 9)),
+                Map.entry("攀岩", new ExerciseProfile(1, 0, 8)),
+                Map.entry("滑冰", new ExerciseProfile(1, 0, 7))
+        );
+
+        private static final ExerciseProfile DEFAULT = new ExerciseProfile(0.05, 0, 5);
+
+        static ExerciseProfile of(String exerciseName) {
+            return PROFILES.getOrDefault(exerciseName, DEFAULT);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- 压测数据库（H2，MySQL兼容模式）的补充脚本，在项目的数据库脚本之后执行
+
+-- script_mysqldump.sql 中健康目标计划和运动类型的关系表仍然叫 goal_exercise_types，
+-- 而实体类 HealthGoalsExerciseTypes 和 Mapper 使用的表名为 health_goals_exercise_types
+CREATE TABLE IF NOT EXISTS `health_goals_exercise_types` (
+  `goal_id` int NOT NULL COMMENT '健康目标计划ID',
+  `exercise_type_id` int NOT NULL COMMENT '运动类型ID',
+  PRIMARY KEY (`goal_id`, `exercise_type_id`),
+  CONSTRAINT `health_goals_exercise_types_ibfk_1` FOREIGN KEY (`goal_id`) REFERENCES `health_goals` (`goal_id`) ON DELETE CASCADE,
+  CONSTRAINT `health_goals_exercise_types_ibfk_2` FOREIGN KEY (`exercise_type_id`) REFERENCES `exercise_types` (`exercise_type_id`) ON DELETE CASCADE
+);
+
+-- script_mysqldump.sql 导出之后实体类新增的列
+ALTER TABLE `diet_records_foods` ADD COLUMN IF NOT EXISTS `quantity` decimal(8,2) NOT NULL DEFAULT '100.00' COMMENT '食用量（单位：g）';
+ALTER TABLE `diet_records` ADD COLUMN IF NOT EXISTS `meal_note` varchar(500) DEFAULT NULL COMMENT '进餐笔记';
+ALTER TABLE `diet_records` ADD COLUMN IF NOT EXISTS `meal_place` varchar(50) DEFAULT NULL COMMENT '进餐地点';
+ALTER TABLE `health_goals` ADD COLUMN IF NOT EXISTS `is_abandoned` tinyint NOT NULL DEFAULT '0' COMMENT '是否放弃';
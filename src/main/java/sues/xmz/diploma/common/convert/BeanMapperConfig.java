@@ -0,0 +1,11 @@
+package sues.xmz.diploma.common.convert;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * 对象转换的公共配置：与原先 Hutool BeanUtil 的行为一致，只复制同名属性，目标中没有对应源属性的字段保持默认值
+ */
+@MapperConfig(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface BeanMapperConfig {
+}
@@ -0,0 +1,152 @@
+package sues.xmz.diploma.common.convert;
+
+import sues.xmz.diploma.domain.dto.diet_foods.DietFoodsDTO;
+import sues.xmz.diploma.domain.dto.health_profiles.HealthProfileDTO;
+import sues.xmz.diploma.domain.dto.users.UserDetailDTO;
+import sues.xmz.diploma.domain.po.DietFoods;
+import sues.xmz.diploma.domain.po.DietRecords;
+import sues.xmz.diploma.domain.po.ExerciseRecords;
+import sues.xmz.diploma.domain.po.HealthData;
+import sues.xmz.diploma.domain.po.HealthGoals;
+import sues.xmz.diploma.domain.po.HealthProfiles;
+import sues.xmz.diploma.domain.po.Users;
+import sues.xmz.diploma.domain.req.diet_foods.DietFoodsAddReq;
+import sues.xmz.diploma.domain.req.diet_foods.DietFoodsUpdateReq;
+import sues.xmz.diploma.domain.req.diet_records.DietRecordsCreateReq;
+import sues.xmz.diploma.domain.req.diet_records.DietRecordsUpdateReq;
+import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordUpdateReq;
+import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordsCreateReq;
+import sues.xmz.diploma.domain.req.health_data.HealthDataCreateReq;
+import sues.xmz.diploma.domain.req.health_data.HealthDataUpdateReq;
+import sues.xmz.diploma.domain.req.health_goals.HealthGoalCreateReq;
+import sues.xmz.diploma.domain.req.health_goals.HealthGoalUpdateReq;
+import sues.xmz.diploma.domain.req.health_profiles.HealthProfilesCreateReq;
+import sues.xmz.diploma.domain.req.users.UserInfoUpdateReq;
+import sues.xmz.diploma.domain.req.users.UserRegisterReq;
+import sues.xmz.diploma.domain.resp.users.UserInfoResp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 对象转换的注册表：按（源类型，目标类型）查找 MapStruct 在编译期生成的转换方法，替代 Hutool BeanUtil 的反射复制
+ * <p>
+ * 所有转换在类加载时注册，之后只读；没有注册的类型组合直接抛出异常，不会退回到反射复制
+ */
+public final class BeanMapperRegistry {
+
+    private static final Map<Class<?>, Map<Class<?>, Function<?, ?>>> MAPPERS = new HashMap<>();
+
+    static {
+        UsersBeanMapper usersBeanMapper = UsersBeanMapper.INSTANCE;
+        register(UserRegisterReq.class, Users.class, usersBeanMapper::toUsers);
+        register(UserInfoUpdateReq.class, Users.class, usersBeanMapper::toUsers);
+        register(Users.class, UserInfoResp.class, usersBeanMapper::toUserInfoResp);
+        register(Users.class, UserDetailDTO.class, usersBeanMapper::toUserDetailDTO);
+
+        HealthDataBeanMapper healthDataBeanMapper = HealthDataBeanMapper.INSTANCE;
+        register(HealthDataCreateReq.class, HealthData.class, healthDataBeanMapper::toHealthData);
+        register(HealthDataUpdateReq.class, HealthData.class, healthDataBeanMapper::toHealthData);
+
+        DietRecordsBeanMapper dietRecordsBeanMapper = DietRecordsBeanMapper.INSTANCE;
+        register(DietRecordsCreateReq.class, DietRecords.class, dietRecordsBeanMapper::toDietRecords);
+        register(DietRecordsUpdateReq.class, DietRecords.class, dietRecordsBeanMapper::toDietRecords);
+
+        DietFoodsBeanMapper dietFoodsBeanMapper = DietFoodsBeanMapper.INSTANCE;
+        register(DietFoodsAddReq.class, DietFoods.class, dietFoodsBeanMapper::toDietFoods);
+        register(DietFoodsUpdateReq.class, DietFoods.class, dietFoodsBeanMapper::toDietFoods);
+        register(DietFoods.class, DietFoodsDTO.class, dietFoodsBeanMapper::toDietFoodsDTO);
+
+        ExerciseRecordsBeanMapper exerciseRecordsBeanMapper = ExerciseRecordsBeanMapper.INSTANCE;
+        register(ExerciseRecordsCreateReq.class, ExerciseRecords.class, exerciseRecordsBeanMapper::toExerciseRecords);
+        register(ExerciseRecordUpdateReq.class, ExerciseRecords.class, exerciseRecordsBeanMapper::toExerciseRecords);
+
+        HealthGoalsBeanMapper healthGoalsBeanMapper = HealthGoalsBeanMapper.INSTANCE;
+        register(HealthGoalCreateReq.class, HealthGoals.class, healthGoalsBeanMapper::toHealthGoals);
+        register(HealthGoalUpdateReq.class, HealthGoals.class, healthGoalsBeanMapper::toHealthGoals);
+
+        HealthProfilesBeanMapper healthProfilesBeanMapper = HealthProfilesBeanMapper.INSTANCE;
+        register(HealthProfilesCreateReq.class, HealthProfiles.class, healthProfilesBeanMapper::toHealthProfiles);
+        register(HealthProfiles.class, HealthProfileDTO.class, healthProfilesBeanMapper::toHealthProfileDTO);
+    }
+
+    private BeanMapperRegistry() {
+    }
+
+    private static <S, T> void register(Class<S> sourceClass, Class<T> targetClass, Function<S, T> mapper) {
+        MAPPERS.computeIfAbsent(sourceClass, key -> new HashMap<>()).put(targetClass, mapper);
+    }
+
+    /**
+     * 获取转换方法
+     *
+     * @param sourceClass 源类型
+     * @param targetClass 目标类型
+     * @param <S>         源对象类型
+     * @param <T>         目标对象类型
+     *
+     * @return 转换方法（源对象为null时返回null）
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> Function<S, T> getMapper(Class<S> sourceClass, Class<T> targetClass) {
+        Map<Class<?>, Function<?, ?>> targetMappers = MAPPERS.get(sourceClass);
+        Function<?, ?> mapper = targetMappers == null ? null : targetMappers.get(targetClass);
+        if (mapper == null) {
+            throw new IllegalArgumentException("没有注册对象转换：" + sourceClass.getName() + " -> " + targetClass.getName());
+        }
+        return (Function<S, T>) mapper;
+    }
+
+    /**
+     * 转换单个对象
+     *
+     * @param source      源对象
+     * @param targetClass 目标类型
+     * @param <S>         源对象类型
+     * @param <T>         目标对象类型
+     *
+     * @return 目标对象，源对象为null时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> T map(S source, Class<T> targetClass) {
+        if (source == null) {
+            return null;
+        }
+        return getMapper((Class<S>) source.getClass(), targetClass).apply(source);
+    }
+
+    /**
+     * 转换对象列表，转换方法按第一个元素的类型查找一次，之后元素的类型不同时才重新查找
+     *
+     * @param sourceList  源对象列表
+     * @param targetClass 目标类型
+     * @param <S>         源对象类型
+     * @param <T>         目标对象类型
+     *
+     * @return 目标对象列表，源对象列表为null时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> List<T> mapList(List<S> sourceList, Class<T> targetClass) {
+        if (sourceList == null) {
+            return null;
+        }
+        List<T> targetList = new ArrayList<>(sourceList.size());
+        Class<?> mapperSourceClass = null;
+        Function<S, T> mapper = null;
+        for (S source : sourceList) {
+            if (source == null) {
+                targetList.add(null);
+                continue;
+            }
+            if (source.getClass() != mapperSourceClass) {
+                mapperSourceClass = source.getClass();
+                mapper = getMapper((Class<S>) mapperSourceClass, targetClass);
+            }
+            targetList.add(mapper.apply(source));
+        }
+        return targetList;
+    }
+}
@@ -0,0 +1,23 @@
+package sues.xmz.diploma.common.convert;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+import sues.xmz.diploma.domain.dto.diet_foods.DietFoodsDTO;
+import sues.xmz.diploma.domain.po.DietFoods;
+import sues.xmz.diploma.domain.req.diet_foods.DietFoodsAddReq;
+import sues.xmz.diploma.domain.req.diet_foods.DietFoodsUpdateReq;
+
+/**
+ * 食物相关的对象转换（实现类由 MapStruct 在编译期生成）
+ */
+@Mapper(config = BeanMapperConfig.class)
+public interface DietFoodsBeanMapper {
+
+    DietFoodsBeanMapper INSTANCE = Mappers.getMapper(DietFoodsBeanMapper.class);
+
+    DietFoods toDietFoods(DietFoodsAddReq dietFoodsAddReq);
+
+    DietFoods toDietFoods(DietFoodsUpdateReq dietFoodsUpdateReq);
+
+    DietFoodsDTO toDietFoodsDTO(DietFoods dietFoods);
+}
@@ -0,0 +1,20 @@
+package sues.xmz.diploma.common.convert;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+import sues.xmz.diploma.domain.po.DietRecords;
+import sues.xmz.diploma.domain.req.diet_records.DietRecordsCreateReq;
+import sues.xmz.diploma.domain.req.diet_records.DietRecordsUpdateReq;
+
+/**
+ * 饮食记录相关的对象转换（实现类由 MapStruct 在编译期生成）
+ */
+@Mapper(config = BeanMapperConfig.class)
+public interface DietRecordsBeanMapper {
+
+    DietRecordsBeanMapper INSTANCE = Mappers.getMapper(DietRecordsBeanMapper.class);
+
+    DietRecords toDietRecords(DietRecordsCreateReq dietRecordsCreateReq);
+
+    DietRecords toDietRecords(DietRecordsUpdateReq dietRecordsUpdateReq);
+}
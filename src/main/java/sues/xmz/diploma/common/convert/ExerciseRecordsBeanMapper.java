@@ -0,0 +1,20 @@
+package sues.xmz.diploma.common.convert;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+import sues.xmz.diploma.domain.po.ExerciseRecords;
+import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordUpdateReq;
+import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordsCreateReq;
+
+/**
+ * 运动记录相关的对象转换（实现类由 MapStruct 在编译期生成）
+ */
+@Mapper(config = BeanMapperConfig.class)
+public interface ExerciseRecordsBeanMapper {
+
+    ExerciseRecordsBeanMapper INSTANCE = Mappers.getMapper(ExerciseRecordsBeanMapper.class);
+
+    ExerciseRecords toExerciseRecords(ExerciseRecordsCreateReq exerciseRecordsCreateReq);
+
+    ExerciseRecords toExerciseRecords(ExerciseRecordUpdateReq exerciseRecordUpdateReq);
+}
@@ -0,0 +1,20 @@
+package sues.xmz.diploma.common.convert;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+import sues.xmz.diploma.domain.po.HealthData;
+import sues.xmz.diploma.domain.req.health_data.HealthDataCreateReq;
+import sues.xmz.diploma.domain.req.health_data.HealthDataUpdateReq;
+
+/**
+ * 健康数据相关的对象转换（实现类由 MapStruct 在编译期生成）
+ */
+@Mapper(config = BeanMapperConfig.class)
+public interface HealthDataBeanMapper {
+
+    HealthDataBeanMapper INSTANCE = Mappers.getMapper(HealthDataBeanMapper.class);
+
+    HealthData toHealthData(HealthDataCreateReq healthDataCreateReq);
+
+    HealthData toHealthData(HealthDataUpdateReq healthDataUpdateReq);
+}
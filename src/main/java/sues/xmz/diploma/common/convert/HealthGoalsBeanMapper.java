@@ -0,0 +1,20 @@
+package sues.xmz.diploma.common.convert;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+import sues.xmz.diploma.domain.po.HealthGoals;
+import sues.xmz.diploma.domain.req.health_goals.HealthGoalCreateReq;
+import sues.xmz.diploma.domain.req.health_goals.HealthGoalUpdateReq;
+
+/**
+ * 健康目标相关的对象转换（实现类由 MapStruct 在编译期生成）
+ */
+@Mapper(config = BeanMapperConfig.class)
+public interface HealthGoalsBeanMapper {
+
+    HealthGoalsBeanMapper INSTANCE = Mappers.getMapper(HealthGoalsBeanMapper.class);
+
+    HealthGoals toHealthGoals(HealthGoalCreateReq healthGoalCreateReq);
+
+    HealthGoals toHealthGoals(HealthGoalUpdateReq healthGoalUpdateReq);
+}
@@ -0,0 +1,20 @@
+package sues.xmz.diploma.common.convert;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+import sues.xmz.diploma.domain.dto.health_profiles.HealthProfileDTO;
+import sues.xmz.diploma.domain.po.HealthProfiles;
+import sues.xmz.diploma.domain.req.health_profiles.HealthProfilesCreateReq;
+
+/**
+ * 健康档案相关的对象转换（实现类由 MapStruct 在编译期生成）
+ */
+@Mapper(config = BeanMapperConfig.class)
+public interface HealthProfilesBeanMapper {
+
+    HealthProfilesBeanMapper INSTANCE = Mappers.getMapper(HealthProfilesBeanMapper.class);
+
+    HealthProfiles toHealthProfiles(HealthProfilesCreateReq healthProfilesCreateReq);
+
+    HealthProfileDTO toHealthProfileDTO(HealthProfiles healthProfiles);
+}
@@ -0,0 +1,26 @@
+package sues.xmz.diploma.common.convert;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+import sues.xmz.diploma.domain.dto.users.UserDetailDTO;
+import sues.xmz.diploma.domain.po.Users;
+import sues.xmz.diploma.domain.req.users.UserInfoUpdateReq;
+import sues.xmz.diploma.domain.req.users.UserRegisterReq;
+import sues.xmz.diploma.domain.resp.users.UserInfoResp;
+
+/**
+ * 用户相关的对象转换（实现类由 MapStruct 在编译期生成）
+ */
+@Mapper(config = BeanMapperConfig.class)
+public interface UsersBeanMapper {
+
+    UsersBeanMapper INSTANCE = Mappers.getMapper(UsersBeanMapper.class);
+
+    Users toUsers(UserRegisterReq userRegisterReq);
+
+    Users toUsers(UserInfoUpdateReq userInfoUpdateReq);
+
+    UserInfoResp toUserInfoResp(Users users);
+
+    UserDetailDTO toUserDetailDTO(Users users);
+}
@@ -0,0 +1,62 @@
+package sues.xmz.diploma.common.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 图表渲染和PNG编码的参数
+ */
+@Data
+@AllArgsConstructor
+public class ChartRenderOptions {
+
+    /**
+     * 默认的压缩级别，和JDK自带PNG编码器的默认值一致
+     */
+    public static final int DEFAULT_COMPRESSION_LEVEL = 4;
+
+    /**
+     * 宽度（像素）
+     */
+    private int width;
+
+    /**
+     * 高度（像素）
+     */
+    private int height;
+
+    /**
+     * 是否输出索引色（调色板）PNG。折线图只使用少数几种颜色，索引色每个像素只占1个字节，图片明显更小
+     */
+    private boolean indexedPalette;
+
+    /**
+     * Deflate压缩级别（0~9）：越大图片越小，但编码越慢
+     */
+    private int compressionLevel;
+
+    /**
+     * 指定尺寸的全彩色PNG，使用默认的压缩级别
+     *
+     * @param width  宽度（像素）
+     * @param height 高度（像素）
+     *
+     * @return 图表渲染参数
+     */
+    public static ChartRenderOptions of(int width, int height) {
+        return new ChartRenderOptions(width, height, false, DEFAULT_COMPRESSION_LEVEL);
+    }
+
+    /**
+     * 指定尺寸预设的PNG
+     *
+     * @param preset           尺寸预设
+     * @param indexedPalette   是否输出索引色PNG
+     * @param compressionLevel Deflate压缩级别（0~9）
+     *
+     * @return 图表渲染参数
+     */
+    public static ChartRenderOptions of(ChartSizePreset preset, boolean indexedPalette, int compressionLevel) {
+        return new ChartRenderOptions(preset.getWidth(), preset.getHeight(), indexedPalette, compressionLevel);
+    }
+}
@@ -0,0 +1,49 @@
+package sues.xmz.diploma.common.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 图表尺寸预设，按请求图表的设备选择，小尺寸的图表渲染和编码更快，图片也更小
+ */
+@Getter
+@AllArgsConstructor
+public enum ChartSizePreset {
+
+    /**
+     * 缩略图（列表、预览）
+     */
+    THUMBNAIL("thumbnail", 320, 240),
+
+    /**
+     * 移动端
+     */
+    MOBILE("mobile", 480, 360),
+
+    /**
+     * 桌面端（原来固定的 800x600）
+     */
+    DESKTOP("desktop", 800, 600);
+
+    private final String name;
+
+    private final int width;
+
+    private final int height;
+
+    /**
+     * 根据名称获取尺寸预设，名称为null或不存在时使用桌面端尺寸
+     *
+     * @param name 尺寸预设的名称：thumbnail、mobile、desktop
+     *
+     * @return 尺寸预设
+     */
+    public static ChartSizePreset of(String name) {
+        for (ChartSizePreset preset : values()) {
+            if (preset.name.equals(name)) {
+                return preset;
+            }
+        }
+        return DESKTOP;
+    }
+}
@@ -0,0 +1,39 @@
+package sues.xmz.diploma.common.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 游标分页（Keyset/Seek分页）的游标
+ * <p>
+ * 由上一页最后一条数据的【时间字段，主键】组成，下一页直接从这两个值之后开始查询：
+ * <pre>
+ * where (time &lt; #{cursor.time} or (time = #{cursor.time} and id &lt; #{cursor.id}))
+ * order by time desc, id desc
+ * limit #{size}
+ * </pre>
+ * 这样MySQL可以直接利用索引定位到上一页的末尾，而不需要像 {@code limit offset, size} 那样扫描并丢弃前面所有的数据。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCursor implements Serializable {
+
+    /**
+     * 上一页最后一条数据的时间字段
+     */
+    private Date time;
+
+    /**
+     * 上一页最后一条数据的主键
+     */
+    private Integer id;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -49,6 +49,13 @@ public class PageQueryReq implements Serializable {
     @Nullable
     protected Boolean isAsc = true;
 
+    @Schema(description = "是否查询总记录数，默认true。为false时不再统计总数，只多查询1条数据来判断是否有下一页（total和pages为null）",
+            requiredMode = Schema.RequiredMode.NOT_REQUIRED
+    )
+    @Nullable
+    @Builder.Default
+    protected Boolean searchCount = true;
+
     @Schema(description = "开始日期时间。举例：优先使用中国时区的日期格式`2023-10-05T14:30:00.123+08:00`",
             pattern=" yyyy-MM-dd'T'HH:mm:ss.SSSXXX ",
             example=" 2021-12-01T12:11:01.132 或 2021-12-01T12:11:01.132+08:00 ",
@@ -67,6 +74,12 @@ public class PageQueryReq implements Serializable {
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     private Date endDateTime;
 
+    @Schema(description = "游标分页的游标，取自上一页响应中的nextCursor。传入后直接按游标定位下一页（不再使用页码计算偏移量），深分页时查询耗时不会随页码增大",
+            requiredMode = Schema.RequiredMode.NOT_REQUIRED
+    )
+    @Nullable
+    private String cursor;
+
     @Serial
     private static final long serialVersionUID = 1L;
 }
@@ -1,16 +1,18 @@
 package sues.xmz.diploma.common.domain;
 
 
-import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
+import sues.xmz.diploma.common.convert.BeanMapperRegistry;
 import sues.xmz.diploma.common.utils.PageUtil;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 
 @Data
 @Builder
@@ -19,16 +21,16 @@ import java.util.List;
 @Schema(description = "分页查询结果")
 public class PageResponse<T> implements Serializable {
 
-    @Schema(minimum = "1", description = "当前页码。默认从1开始")
+    @Schema(minimum = "1", description = "当前页码。默认从1开始（游标分页时为null）")
     private Long current;
 
     @Schema(minimum = "1", description = "每页展示的数据量，不能小于1")
     private Long size;
 
-    @Schema(description = "总页数")
+    @Schema(description = "总页数（不查询总记录数时为null）")
     private Long pages;
 
-    @Schema(description = "总记录数（总数据量）")
+    @Schema(description = "总记录数（总数据量，不查询总记录数时为null）")
     private Long total;
 
     @Schema(description = "是否有上一页")
@@ -37,6 +39,9 @@ public class PageResponse<T> implements Serializable {
     @Schema(description = "是否有下一页")
     private Boolean hasNext;
 
+    @Schema(description = "下一页的游标（存在下一页时才有值），下次请求时传入cursor参数即可使用游标分页")
+    private String nextCursor;
+
     @Schema(description = "查询到的所有数据")
     private List<T> dataList = Collections.emptyList();
 
@@ -77,6 +82,142 @@ public class PageResponse<T> implements Serializable {
                 .build();
     }
 
+    /**
+     * 页码分页时，将分页结果转换为PageResponse对象，并根据当前页的最后一条数据生成下一页的游标
+     * <p>
+     * 使用游标分页时页码没有意义，需要使用 {@link #getCursorPageResponse(List, long, Long, Function)}
+     *
+     * @param pageResult    分页结果
+     * @param current       当前页的页码
+     * @param size          每页的数据展示量
+     * @param total         总数据量
+     * @param cursorEncoder 将数据编码为游标的方法，一般为 {@code dto -> PageUtil.encodeCursor(dto.getXxxTime(), dto.getXxxId())}
+     * @param <T>           查询数据的对象类型
+     *
+     * @return PageResponse对象
+     */
+    public static <T> PageResponse<T> getPageResponse(List<T> pageResult, long current, long size, long total, Function<T, String> cursorEncoder) {
+        PageResponse<T> pageResponse = getPageResponse(pageResult, current, size, total);
+        if (Boolean.TRUE.equals(pageResponse.getHasNext()) && pageResult != null && !pageResult.isEmpty()) {
+            pageResponse.setNextCursor(cursorEncoder.apply(pageResult.get(pageResult.size() - 1)));
+        }
+        return pageResponse;
+    }
+
+    /**
+     * 不查询总记录数时，将分页结果转换为PageResponse对象
+     * <p>
+     * 分页结果需要按照 {@link sues.xmz.diploma.common.utils.PageUtil#countLimit(long, boolean)} 多查询1条数据，
+     * 多出来的数据只用于判断是否有下一页，不会返回给前端
+     *
+     * @param pageResult    多查询了1条数据的分页结果
+     * @param current       当前页的页码
+     * @param size          每页的数据展示量
+     * @param cursorEncoder 将数据编码为游标的方法
+     * @param <T>           查询数据的对象类型
+     *
+     * @return PageResponse对象（total和pages为null）
+     */
+    public static <T> PageResponse<T> getPageResponseWithoutTotal(List<T> pageResult, long current, long size, Function<T, String> cursorEncoder) {
+        boolean hasNext = pageResult.size() > size;
+        List<T> dataList = hasNext ? pageResult.subList(0, (int) size) : pageResult;
+        return getPageResponseWithoutTotal(
+                dataList,
+                current,
+                size,
+                hasNext,
+                hasNext ? cursorEncoder.apply(dataList.get(dataList.size() - 1)) : null
+        );
+    }
+
+    /**
+     * 不查询总记录数时，根据已经判断好的hasNext和下一页游标，将当前页的数据转换为PageResponse对象
+     *
+     * @param dataList   当前页的数据（不包含用于判断是否有下一页的那条数据）
+     * @param current    当前页的页码
+     * @param size       每页的数据展示量
+     * @param hasNext    是否有下一页
+     * @param nextCursor 下一页的游标
+     * @param <T>        查询数据的对象类型
+     *
+     * @return PageResponse对象（total和pages为null）
+     */
+    public static <T> PageResponse<T> getPageResponseWithoutTotal(List<T> dataList, long current, long size, boolean hasNext, String nextCursor) {
+        return PageResponse.<T>builder()
+                .current(current)
+                .size(size)
+                .hasPrevious(current > 1)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? nextCursor : null)
+                .dataList(dataList)
+                .build();
+    }
+
+    /**
+     * 使用游标分页时，将分页结果转换为PageResponse对象
+     * <p>
+     * 游标分页时页码没有意义，不能根据页码和总记录数判断是否有下一页。分页结果需要按照
+     * {@link sues.xmz.diploma.common.utils.PageUtil#countLimit(long, boolean, PageCursor)} 多查询1条数据，
+     * 查询到多出来的这条数据时才有下一页，多出来的数据不会返回给前端
+     *
+     * @param pageResult    多查询了1条数据的分页结果
+     * @param size          每页的数据展示量
+     * @param total         总记录数，不查询总记录数时为null
+     * @param cursorEncoder 将数据编码为游标的方法
+     * @param <T>           查询数据的对象类型
+     *
+     * @return PageResponse对象（current为null）
+     */
+    public static <T> PageResponse<T> getCursorPageResponse(List<T> pageResult, long size, Long total, Function<T, String> cursorEncoder) {
+        boolean hasNext = pageResult.size() > size;
+        List<T> dataList = hasNext ? pageResult.subList(0, (int) size) : pageResult;
+        return getCursorPageResponse(
+                dataList,
+                size,
+                total,
+                hasNext,
+                hasNext ? cursorEncoder.apply(dataList.get(dataList.size() - 1)) : null
+        );
+    }
+
+    /**
+     * 使用游标分页时，根据已经判断好的hasNext和下一页游标，将当前页的数据转换为PageResponse对象
+     *
+     * @param dataList   当前页的数据（不包含用于判断是否有下一页的那条数据）
+     * @param size       每页的数据展示量
+     * @param total      总记录数，不查询总记录数时为null
+     * @param hasNext    是否有下一页
+     * @param nextCursor 下一页的游标
+     * @param <T>        查询数据的对象类型
+     *
+     * @return PageResponse对象（current为null）
+     */
+    public static <T> PageResponse<T> getCursorPageResponse(List<T> dataList, long size, Long total, boolean hasNext, String nextCursor) {
+        return PageResponse.<T>builder()
+                .size(size)
+                .total(total)
+                .pages(total == null ? null : PageUtil.getTotalPages(total, size))
+                // 传入了游标，说明已经不是第一页
+                .hasPrevious(true)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? nextCursor : null)
+                .dataList(dataList)
+                .build();
+    }
+
+    /**
+     * 判断分页结果是否为空：有总记录数时根据总记录数判断，否则根据当前页的数据判断
+     *
+     * @return true - 分页结果为空
+     */
+    @JsonIgnore
+    public boolean isEmptyResult() {
+        if (total != null) {
+            return total < 1;
+        }
+        return dataList == null || dataList.isEmpty();
+    }
+
     /**
      * 将Mybatis-plus分页结果转换为PageResponse对象
      *
@@ -115,7 +256,7 @@ public class PageResponse<T> implements Serializable {
                 .pages(pageResult.getPages())
                 .hasPrevious(pageResult.hasPrevious())
                 .hasNext(pageResult.hasNext())
-                .dataList(pageResult.getRecords().stream().map(record -> BeanUtil.copyProperties(record, targetClass)).toList())
+                .dataList(BeanMapperRegistry.mapList(pageResult.getRecords(), targetClass))
                 .build();
     }
 
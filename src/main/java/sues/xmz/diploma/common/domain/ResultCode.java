@@ -64,6 +64,11 @@ public enum ResultCode implements Serializable {
     HEALTH_PROFILE_UPDATE_FAILED(1043, "更新健康档案失败"),
     HEALTH_PROFILE_DELETE_FAILED(1044, "删除健康档案失败"),
     USERS_DELETE_FAILURE(1045, "删除用户账号失败"),
+    EXERCISE_STATS_TIME_RANGE_INVALID(1046, "运动统计的时间范围无效，timeRange只能为today、week、month，或者传入startDate和endDate（开始日期不能晚于结束日期）"),
+    CHART_RENDER_BUSY(1047, "图表生成繁忙，请稍后再试"),
+    LOGIN_TOO_MANY_ATTEMPTS(1048, "登录尝试过于频繁，请稍后再试"),
+    PASSWORD_HASH_BUSY(1049, "当前登录人数过多，请稍后再试"),
+    PAGE_CURSOR_INVALID(1050, "分页游标无效，请重新从第一页开始查询"),
     ;
 
     private final int code;
@@ -0,0 +1,11 @@
+package sues.xmz.diploma.common.exception.exercise_records;
+
+import org.springframework.http.HttpStatus;
+import sues.xmz.diploma.common.domain.ResultCode;
+import sues.xmz.diploma.common.exception.BusinessException;
+
+public class ExerciseStatsTimeRangeInvalidException extends BusinessException {
+    public ExerciseStatsTimeRangeInvalidException() {
+        super(ResultCode.EXERCISE_STATS_TIME_RANGE_INVALID, HttpStatus.BAD_REQUEST);
+    }
+}
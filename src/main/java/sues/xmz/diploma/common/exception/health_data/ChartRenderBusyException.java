@@ -0,0 +1,11 @@
+package sues.xmz.diploma.common.exception.health_data;
+
+import org.springframework.http.HttpStatus;
+import sues.xmz.diploma.common.domain.ResultCode;
+import sues.xmz.diploma.common.exception.BusinessException;
+
+public class ChartRenderBusyException extends BusinessException {
+    public ChartRenderBusyException() {
+        super(ResultCode.CHART_RENDER_BUSY, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
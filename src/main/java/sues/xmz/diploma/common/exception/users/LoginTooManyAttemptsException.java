@@ -0,0 +1,11 @@
+package sues.xmz.diploma.common.exception.users;
+
+import org.springframework.http.HttpStatus;
+import sues.xmz.diploma.common.domain.ResultCode;
+import sues.xmz.diploma.common.exception.BusinessException;
+
+public class LoginTooManyAttemptsException extends BusinessException {
+    public LoginTooManyAttemptsException() {
+        super(ResultCode.LOGIN_TOO_MANY_ATTEMPTS, HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
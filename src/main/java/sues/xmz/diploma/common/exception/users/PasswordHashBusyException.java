@@ -0,0 +1,11 @@
+package sues.xmz.diploma.common.exception.users;
+
+import org.springframework.http.HttpStatus;
+import sues.xmz.diploma.common.domain.ResultCode;
+import sues.xmz.diploma.common.exception.BusinessException;
+
+public class PasswordHashBusyException extends BusinessException {
+    public PasswordHashBusyException() {
+        super(ResultCode.PASSWORD_HASH_BUSY, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,112 @@
+package sues.xmz.diploma.common.utils;
+
+import sues.xmz.diploma.domain.po.ExerciseRecordsTypes;
+import sues.xmz.diploma.domain.po.HealthGoalsExerciseTypes;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * 关联关系对象的构造工厂：按类型缓存两个参数的构造函数，替代每个对象一次的 Hutool ReflectUtil.newInstance
+ * <p>
+ * 常用的关系表对象直接注册构造函数引用；其它类型第一次使用时查找唯一的两参数构造函数，
+ * 通过 LambdaMetafactory 生成调用该构造函数的 BiFunction（与方法引用 {@code Type::new} 相同），之后的调用没有反射开销
+ */
+public final class AssociationFactory {
+
+    private static final Map<Class<?>, BiFunction<Object, Object, ?>> FACTORIES = new ConcurrentHashMap<>();
+
+    static {
+        register(HealthGoalsExerciseTypes.class, (Integer goalId, Integer exerciseTypeId) -> new HealthGoalsExerciseTypes(goalId, exerciseTypeId));
+        register(ExerciseRecordsTypes.class, (Integer exerciseRecordId, Integer exerciseTypeId) -> new ExerciseRecordsTypes(exerciseRecordId, exerciseTypeId));
+    }
+
+    private AssociationFactory() {
+    }
+
+    /**
+     * 注册构造工厂
+     *
+     * @param targetType 目标对象类型
+     * @param factory    构造函数引用，参数为（sourceId, targetId）
+     * @param <A>        第一个参数的类型
+     * @param <B>        第二个参数的类型
+     * @param <T>        目标对象类型
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B, T> void register(Class<T> targetType, BiFunction<A, B, T> factory) {
+        FACTORIES.put(targetType, (BiFunction<Object, Object, ?>) (BiFunction<?, ?, ?>) factory);
+    }
+
+    /**
+     * 获取构造工厂，没有注册时查找目标类型唯一的两参数构造函数并缓存
+     *
+     * @param targetType 目标对象类型（必须包含唯一的两个参数的公共构造函数）
+     * @param <T>        目标对象类型
+     *
+     * @return 构造工厂
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BiFunction<Object, Object, T> of(Class<T> targetType) {
+        return (BiFunction<Object, Object, T>) FACTORIES.computeIfAbsent(targetType, AssociationFactory::createFactory);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiFunction<Object, Object, ?> createFactory(Class<?> targetType) {
+        List<Constructor<?>> constructors = Arrays.stream(targetType.getConstructors())
+                .filter(constructor -> constructor.getParameterCount() == 2)
+                .toList();
+        if (constructors.size() != 1) {
+            throw new IllegalArgumentException("目标类型需要唯一的两个参数的公共构造函数: " + targetType.getName());
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle constructorHandle = lookup.unreflectConstructor(constructors.get(0));
+            if (!Modifier.isPublic(targetType.getModifiers()) || !isVisible(targetType)) {
+                // 生成的 lambda 类无法访问目标类型时，直接调用 MethodHandle
+                MethodHandle generic = constructorHandle.asType(MethodType.genericMethodType(2));
+                return (a, b) -> {
+                    try {
+                        return generic.invokeExact(a, b);
+                    } catch (RuntimeException | Error e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        throw new IllegalArgumentException("无法创建实例: " + targetType.getName(), e);
+                    }
+                };
+            }
+            CallSite callSite = LambdaMetafactory.metafactory(
+                    lookup,
+                    "apply",
+                    MethodType.methodType(BiFunction.class),
+                    MethodType.genericMethodType(2),
+                    constructorHandle,
+                    constructorHandle.type().wrap()
+            );
+            return (BiFunction<Object, Object, ?>) callSite.getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("无法创建实例: " + targetType.getName(), e);
+        }
+    }
+
+    /**
+     * 生成的 lambda 类与本类使用同一个类加载器，目标类型需要能从该类加载器加载（例如 devtools 重启类加载器中的类对父加载器不可见）
+     */
+    private static boolean isVisible(Class<?> targetType) {
+        try {
+            return Class.forName(targetType.getName(), false, AssociationFactory.class.getClassLoader()) == targetType;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -1,14 +1,12 @@
 package sues.xmz.diploma.common.utils;
 
-import cn.hutool.core.util.ReflectUtil;
-
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * @Description: 对象转换工具类
@@ -17,6 +15,21 @@ import java.util.stream.Stream;
  */
 public final class BeansConvertUtil {
 
+    /**
+     * 每个类的所有声明字段（已设置为可访问），每个类只获取一次
+     */
+    private static final ClassValue<Field[]> DECLARED_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            Field[] fields = type.getDeclaredFields();
+            for (Field field : fields) {
+                // 设置为可访问，以便访问私有字段
+                field.setAccessible(true);
+            }
+            return fields;
+        }
+    };
+
     /**
      * 将源对象列表转换为包含关联关系的目标对象列表
      *
@@ -24,7 +37,7 @@ public final class BeansConvertUtil {
      * @param secondSourceList   第二个源对象列表
      * @param sourceIdGetter     获取源对象主键的方法引用
      * @param targetIdListGetter 获取目标对象关联ID列表的方法引用
-     * @param targetType         目标对象类型（必须包含两个参数的构造函数：sourceId, targetId）
+     * @param targetType         目标对象类型（必须包含两个参数的构造函数：sourceId, 第二个源对象的所有字段值）
      * @param <S1>               第一个源对象类型
      * @param <S2>               第二个源对象类型
      * @param <SOURCE_ID>        源对象ID类型（必须继承Number）
@@ -44,24 +57,21 @@ public final class BeansConvertUtil {
         if (firstSourceList.size() != secondSourceList.size()) {
             throw new IllegalArgumentException("两个源对象列表的大小一致");
         }
-        return IntStream.range(0, firstSourceList.size())
-                .boxed()
-                .flatMap(index -> {
-                    SOURCE_ID sourceId = sourceIdGetter.apply(firstSourceList.get(index));
-                    if (secondSourceList.isEmpty()) {
-                        return Stream.empty();
-                    }
-                    // 使用自定义的方法获取反射实例
-//                    return targetIdList.stream().map(targetId -> this.createInstance(targetType, sourceId, targetId));
-                    // 使用Hutool的方法获取反射实例
-                    return secondSourceList.stream()
-                            .map(secondSource -> ReflectUtil.newInstance(
-                                    targetType,
-                                        sourceId,
-                                        getAllFieldsValues(secondSource))
-                            );
-                })
-                .toList();
+        // 构造函数和第二个源对象的字段值只计算一次
+        BiFunction<Object, Object, T> factory = AssociationFactory.of(targetType);
+        List<Object[]> secondSourceValues = new ArrayList<>(secondSourceList.size());
+        for (S2 secondSource : secondSourceList) {
+            secondSourceValues.add(getAllFieldsValues(secondSource));
+        }
+        List<T> targetList = new ArrayList<>(firstSourceList.size() * secondSourceList.size());
+        for (S1 firstSource : firstSourceList) {
+            SOURCE_ID sourceId = sourceIdGetter.apply(firstSource);
+            for (Object[] values : secondSourceValues) {
+                // 每个目标对象使用单独的数组，与逐个获取字段值时相同
+                targetList.add(factory.apply(sourceId, values.clone()));
+            }
+        }
+        return targetList;
     }
 
     /**
@@ -100,27 +110,50 @@ public final class BeansConvertUtil {
                                                                                                                   Function<S1, SOURCE_ID> sourceIdGetter,
                                                                                                                   Function<S2, List<TARGET_ID>> targetIdListGetter,
                                                                                                                   Class<T> targetType
+    ) {
+        return copyToListOnlyHadBothId(firstSourceList, secondSourceList, sourceIdGetter, targetIdListGetter, AssociationFactory.of(targetType));
+    }
+
+    /**
+     * 将源对象列表转换为只包含双方Id的对象列表，使用构造函数引用（例如 {@code HealthGoalsExerciseTypes::new}）创建目标对象
+     *
+     * @param firstSourceList    第一个源对象列表
+     * @param secondSourceList   第二个源对象列表
+     * @param sourceIdGetter     获取源对象主键的方法引用
+     * @param targetIdListGetter 获取目标对象关联ID列表的方法引用
+     * @param factory            目标对象的构造函数引用，参数为（sourceId, targetId）
+     * @param <S1>               第一个源对象类型
+     * @param <S2>               第二个源对象类型
+     * @param <SOURCE_ID>        源对象ID类型（必须继承Number）
+     * @param <TARGET_ID>        目标关联ID类型（必须继承Number）
+     * @param <T>                目标对象类型
+     *
+     * @return 包含所有关联关系的目标对象列表
+     */
+    public static <S1, S2, SOURCE_ID extends Number, TARGET_ID extends Number, T> List<T> copyToListOnlyHadBothId(List<S1> firstSourceList,
+                                                                                                                  List<S2> secondSourceList,
+                                                                                                                  Function<S1, SOURCE_ID> sourceIdGetter,
+                                                                                                                  Function<S2, List<TARGET_ID>> targetIdListGetter,
+                                                                                                                  BiFunction<? super SOURCE_ID, ? super TARGET_ID, ? extends T> factory
     ) {
         Objects.requireNonNull(sourceIdGetter, "源对象的Id获取函数不能为空");
         Objects.requireNonNull(targetIdListGetter, "目标对象的Id获取函数不能为空");
+        Objects.requireNonNull(factory, "目标对象的构造函数不能为空");
         if (firstSourceList.size() != secondSourceList.size()) {
             throw new IllegalArgumentException("两个源对象列表的大小一致");
         }
-        return IntStream.range(0, firstSourceList.size())
-                .boxed()
-                .flatMap(index -> {
-                    SOURCE_ID sourceId = sourceIdGetter.apply(firstSourceList.get(index));
-                    List<TARGET_ID> targetIdList = targetIdListGetter.apply(secondSourceList.get(index));
-                    if (targetIdList == null || targetIdList.isEmpty()) {
-                        return Stream.empty();
-                    }
-                    // 使用自定义的方法获取反射实例
-//                    return targetIdList.stream().map(targetId -> this.createInstance(targetType, sourceId, targetId));
-                    // 使用Hutool的方法获取反射实例
-                    return targetIdList.stream()
-                            .map(targetId -> ReflectUtil.newInstance(targetType, sourceId, targetId));
-                })
-                .toList();
+        List<T> targetList = new ArrayList<>();
+        for (int index = 0; index < firstSourceList.size(); index++) {
+            List<TARGET_ID> targetIdList = targetIdListGetter.apply(secondSourceList.get(index));
+            if (targetIdList == null || targetIdList.isEmpty()) {
+                continue;
+            }
+            SOURCE_ID sourceId = sourceIdGetter.apply(firstSourceList.get(index));
+            for (TARGET_ID targetId : targetIdList) {
+                targetList.add(factory.apply(sourceId, targetId));
+            }
+        }
+        return targetList;
     }
 
     /**
@@ -141,24 +174,45 @@ public final class BeansConvertUtil {
                                                                                                              Function<S, SOURCE_ID> sourceIdGetter,
                                                                                                              Function<S, List<TARGET_ID>> targetIdListGetter,
                                                                                                              Class<T> targetType
+    ) {
+        return copyToListOnlyHadBothId(sourceList, sourceIdGetter, targetIdListGetter, AssociationFactory.of(targetType));
+    }
+
+    /**
+     * 将源对象列表转换为只包含双方Id的对象列表，使用构造函数引用（例如 {@code HealthGoalsExerciseTypes::new}）创建目标对象
+     *
+     * @param sourceList         源对象列表
+     * @param sourceIdGetter     获取源对象主键的方法引用
+     * @param targetIdListGetter 获取目标对象关联ID列表的方法引用
+     * @param factory            目标对象的构造函数引用，参数为（sourceId, targetId）
+     * @param <S>                源对象类型
+     * @param <SOURCE_ID>        源对象ID类型（必须继承Number）
+     * @param <TARGET_ID>        目标关联ID类型（必须继承Number）
+     * @param <T>                目标对象类型
+     *
+     * @return 包含所有关联关系的目标对象列表
+     */
+    public static <S, SOURCE_ID extends Number, TARGET_ID extends Number, T> List<T> copyToListOnlyHadBothId(List<S> sourceList,
+                                                                                                             Function<S, SOURCE_ID> sourceIdGetter,
+                                                                                                             Function<S, List<TARGET_ID>> targetIdListGetter,
+                                                                                                             BiFunction<? super SOURCE_ID, ? super TARGET_ID, ? extends T> factory
     ) {
         Objects.requireNonNull(sourceIdGetter, "源对象的Id获取函数不能为空");
         Objects.requireNonNull(targetIdListGetter, "目标对象的Id获取函数不能为空");
+        Objects.requireNonNull(factory, "目标对象的构造函数不能为空");
 
-        return sourceList.stream()
-                .flatMap(source -> {
-                    SOURCE_ID sourceId = sourceIdGetter.apply(source);
-                    List<TARGET_ID> targetIdList = targetIdListGetter.apply(source);
-                    if (targetIdList == null || targetIdList.isEmpty()) {
-                        return Stream.empty();
-                    }
-                    // 使用自定义的方法获取反射实例
-//                    return targetIdList.stream().map(targetId -> this.createInstance(targetType, sourceId, targetId));
-                    // 使用Hutool的方法获取反射实例
-                    return targetIdList.stream()
-                            .map(targetId -> ReflectUtil.newInstance(targetType, sourceId, targetId));
-                })
-                .toList();
+        List<T> targetList = new ArrayList<>();
+        for (S source : sourceList) {
+            List<TARGET_ID> targetIdList = targetIdListGetter.apply(source);
+            if (targetIdList == null || targetIdList.isEmpty()) {
+                continue;
+            }
+            SOURCE_ID sourceId = sourceIdGetter.apply(source);
+            for (TARGET_ID targetId : targetIdList) {
+                targetList.add(factory.apply(sourceId, targetId));
+            }
+        }
+        return targetList;
     }
 
     /**
@@ -184,13 +238,11 @@ public final class BeansConvertUtil {
 
     public static Object[] getAllFieldsValues(Object obj) {
         // 获取对象所属类的所有声明字段，包括私有字段
-        Field[] fields = obj.getClass().getDeclaredFields();
+        Field[] fields = DECLARED_FIELDS.get(obj.getClass());
         Object[] values = new Object[fields.length];
 
         for (int i = 0; i < fields.length; i++) {
             Field field = fields[i];
-            // 设置为可访问，以便访问私有字段
-            field.setAccessible(true);
             try {
                 values[i] = field.get(obj);
             } catch (IllegalAccessException e) {
@@ -0,0 +1,92 @@
+package sues.xmz.diploma.common.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 字符串的布隆过滤器（线程安全）
+ * <p>
+ * {@link #mightContain(String)} 返回false时，该字符串一定没有被添加过；返回true时可能被添加过（误判率约为创建时指定的fpp）。
+ * 只能添加不能删除，删除的数据只会增加误判率，不会导致漏判。
+ * <p>
+ * 使用 {@link AtomicLongArray} 保存位数组，多个线程可以同时添加和查询；
+ * 哈希使用两个64位哈希值组合出k个位置（Kirsch-Mitzenmacher），每个字符串只需要计算一次哈希。
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final long bitSize;
+
+    private final int hashFunctions;
+
+    /**
+     * @param expectedInsertions 预计添加的数量
+     * @param fpp                期望的误判率（0~1）
+     */
+    public BloomFilter(long expectedInsertions, double fpp) {
+        long n = Math.max(1, expectedInsertions);
+        // 最优位数 m = -n * ln(p) / (ln2)^2，最优哈希函数个数 k = m / n * ln2
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long[] hashes = hash(value);
+        long combined = hashes[0];
+        for (int i = 0; i < hashFunctions; i++) {
+            setBit((combined & Long.MAX_VALUE) % bitSize);
+            combined += hashes[1];
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long[] hashes = hash(value);
+        long combined = hashes[0];
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hashes[1];
+        }
+        return true;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * 对UTF-8字节计算两个独立的64位哈希值（FNV-1a，再分别使用MurmurHash3的fmix64打散）
+     */
+    private static long[] hash(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        return new long[]{fmix64(h), fmix64(h ^ 0x9E3779B97F4A7C15L) | 1};
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb93fe53e87fdL;
+        k ^= k >>> 33;
+        return k;
+    }
+}
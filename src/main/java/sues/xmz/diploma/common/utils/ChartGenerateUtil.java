@@ -1,7 +1,6 @@
 package sues.xmz.diploma.common.utils;
 
 import org.jfree.chart.ChartFactory;
-import org.jfree.chart.ChartUtils;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.DateAxis;
 import org.jfree.chart.axis.NumberAxis;
@@ -10,10 +9,11 @@ import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.data.time.Day;
 import org.jfree.data.time.TimeSeries;
 import org.jfree.data.time.TimeSeriesCollection;
+import sues.xmz.diploma.common.domain.ChartRenderOptions;
 import sues.xmz.diploma.domain.dto.health_data.HealthDataTrendDTO;
+import sues.xmz.diploma.domain.dto.health_data.HealthTrendSeries;
 
 import java.awt.*;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -24,9 +24,26 @@ import java.util.List;
  * 提供生成健康数据趋势图表的工具方法。
  * <p>
  * 该类包含生成单个趋势图和综合趋势图的方法，并支持数据采样以优化性能。
+ * <p>
+ * 生成图表分为三步：{@link #buildTrendSeries(HealthDataTrendDTO)} 构建时间序列（多张图表共用，只构建一次）、
+ * {@link #createCombinedTrendChart(HealthTrendSeries)} 等方法创建图表对象、{@link #renderPng(JFreeChart, int, int)} 渲染成PNG图像。
+ * 同一个时间序列可以被多张图表并发渲染（渲染时只读取数据，注册监听器的操作是同步的）。
+ * <p>
+ * 生成PNG的方法使用 {@link TrendChartTemplate} 中按线程复用的图表模板，只替换数据集，不再为每张图表重新创建XYPlot、坐标轴和渲染器；
+ * 应用启动后调用 {@link #warmUp()} 预先初始化AWT、字体和JFreeChart相关的类，第一张图表不再承担这些开销。
  */
 public class ChartGenerateUtil {
 
+    /**
+     * 图表的默认宽度（像素）
+     */
+    public static final int DEFAULT_WIDTH = 800;
+
+    /**
+     * 图表的默认高度（像素）
+     */
+    public static final int DEFAULT_HEIGHT = 600;
+
     /**
      * 生成单个健康指标的趋势图，并返回PNG格式的图像字节数组。
      * <p>
@@ -47,25 +64,12 @@ public class ChartGenerateUtil {
         for (int i = 0; i < dates.size(); i++) {
             Date date = dates.get(i);
             BigDecimal value = values.get(i);
-            series.add(new Day(date), value.doubleValue());
+            if (date == null || value == null) {
+                continue;
+            }
+            series.addOrUpdate(new Day(date), value.doubleValue());
         }
-        // 创建数据集
-        TimeSeriesCollection dataset = new TimeSeriesCollection();
-        dataset.addSeries(series);
-        // 创建图表
-        JFreeChart chart = ChartFactory.createTimeSeriesChart(
-                title,
-                "Date",
-                yAxisLabel,
-                dataset,
-                true,
-                true,
-                false
-        );
-        // 渲染成PNG图像
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        ChartUtils.writeChartAsPNG(byteArrayOutputStream, chart, 800, 600);
-        return byteArrayOutputStream.toByteArray();
+        return TrendChartTemplate.renderSingle(series, title, yAxisLabel, DEFAULT_WIDTH, DEFAULT_HEIGHT);
     }
 
     /**
@@ -106,6 +110,41 @@ public class ChartGenerateUtil {
      * @throws IOException 如果图像生成过程中发生I/O错误
      */
     public static byte[] generateCombinedTrendChart(HealthDataTrendDTO dto) throws IOException {
+        return TrendChartTemplate.renderCombined(buildTrendSeries(dto), DEFAULT_WIDTH, DEFAULT_HEIGHT);
+    }
+
+    /**
+     * 生成包含BMI、心率和体重趋势的综合图表，并返回PNG格式的图像字节数组，采用数据采样优化性能。
+     * <p>
+     * 该方法对数据进行采样以减少数据点数量，提高图表生成性能，并生成包含三个指标的综合趋势图。
+     *
+     * @param dto 包含健康数据的DTO对象
+     *
+     * @return 图像的字节数组
+     *
+     * @throws IOException 如果图像生成过程中发生I/O错误
+     */
+    public static byte[] generateCombinedTrendChartOptimized(HealthDataTrendDTO dto) throws IOException {
+        // 数据采样
+        int maxPoints = 1000;
+        HealthDataTrendDTO sampledDTO = new HealthDataTrendDTO();
+        sampledDTO.setMeasurementDates(sampleData(dto.getMeasurementDates(), maxPoints));
+        sampledDTO.setBmis(sampleData(dto.getBmis(), maxPoints));
+        sampledDTO.setHeartRates(sampleData(dto.getHeartRates(), maxPoints));
+        sampledDTO.setWeights(sampleData(dto.getWeights(), maxPoints));
+        return generateCombinedTrendChart(sampledDTO);
+    }
+
+    /**
+     * 根据健康数据构建BMI、心率和体重三个时间序列，跳过日期或值为null的数据点
+     *
+     * @param dto 包含健康数据的DTO对象
+     *
+     * @return 三个指标的时间序列
+     *
+     * @throws IllegalArgumentException 数据列表为空或长度不一致
+     */
+    public static HealthTrendSeries buildTrendSeries(HealthDataTrendDTO dto) {
         // 检查数据的有效性
         if (dto.getBmis() == null || dto.getHeartRates() == null || dto.getWeights() == null || dto.getMeasurementDates() == null) {
             throw new IllegalArgumentException("数据列表不能为空");
@@ -124,105 +163,85 @@ public class ChartGenerateUtil {
             if (date == null) {
                 continue;
             }
+            Day day = new Day(date);
             // 添加BMI数据
             BigDecimal bmi = dto.getBmis().get(i);
             if (bmi != null) {
-                bmiSeries.addOrUpdate(new Day(date), bmi.doubleValue());
+                bmiSeries.addOrUpdate(day, bmi.doubleValue());
             }
             // 添加心率数据
             BigDecimal heartRate = dto.getHeartRates().get(i);
             if (heartRate != null) {
-                heartRateSeries.addOrUpdate(new Day(date), heartRate.doubleValue());
+                heartRateSeries.addOrUpdate(day, heartRate.doubleValue());
             }
             // 添加体重数据
             BigDecimal weight = dto.getWeights().get(i);
             if (weight != null) {
-                weightSeries.addOrUpdate(new Day(date), weight.doubleValue());
+                weightSeries.addOrUpdate(day, weight.doubleValue());
             }
         }
+        return new HealthTrendSeries(bmiSeries, heartRateSeries, weightSeries);
+    }
 
-        // 创建三个独立的TimeSeriesCollection
-        TimeSeriesCollection bmiDataset = new TimeSeriesCollection(bmiSeries);
-        TimeSeriesCollection heartRateDataset = new TimeSeriesCollection(heartRateSeries);
-        TimeSeriesCollection weightDataset = new TimeSeriesCollection(weightSeries);
-
-        // 创建主Y轴和Date轴
-        DateAxis dateAxis = new DateAxis("Date");
-        NumberAxis bmiAxis = new NumberAxis("BMI");
-
-        // 创建XYPlot并设置主数据集和轴
-        XYPlot plot = new XYPlot(bmiDataset, dateAxis, bmiAxis, new XYLineAndShapeRenderer());
-
-        // 添加第二个数据集和Y轴
-        plot.setDataset(1, heartRateDataset);
-        plot.setRangeAxis(1, new NumberAxis("Heart Rate"));
-
-        // 添加第三个数据集和Y轴
-        plot.setDataset(2, weightDataset);
-        plot.setRangeAxis(2, new NumberAxis("Weight"));
-
-        // 创建图表
-        JFreeChart chart = new JFreeChart("Health Trends Over Time", JFreeChart.DEFAULT_TITLE_FONT, plot, true);
+    /**
+     * 创建包含BMI、心率和体重三个指标的综合趋势图，每个指标使用独立的Y轴
+     *
+     * @param series 三个指标的时间序列
+     *
+     * @return 包含三个指标的JFreeChart图表
+     */
+    public static JFreeChart createCombinedTrendChart(HealthTrendSeries series) {
+        return getjFreeChart(series.getBmiSeries(), series.getHeartRateSeries(), series.getWeightSeries());
+    }
 
-        // 渲染图表为PNG图像
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        ChartUtils.writeChartAsPNG(byteArrayOutputStream, chart, 800, 600);
-        return byteArrayOutputStream.toByteArray();
+    /**
+     * 创建单个指标的趋势图
+     *
+     * @param series     指标的时间序列
+     * @param title      图表标题
+     * @param yAxisLabel Y轴标签
+     *
+     * @return JFreeChart图表
+     */
+    public static JFreeChart createSingleTrendChart(TimeSeries series, String title, String yAxisLabel) {
+        return ChartFactory.createTimeSeriesChart(
+                title,
+                "Date",
+                yAxisLabel,
+                new TimeSeriesCollection(series),
+                true,
+                true,
+                false
+        );
     }
 
     /**
-     * 生成包含BMI、心率和体重趋势的综合图表，并返回PNG格式的图像字节数组，采用数据采样优化性能。
-     * <p>
-     * 该方法对数据进行采样以减少数据点数量，提高图表生成性能，并生成包含三个指标的综合趋势图。
+     * 将图表渲染为PNG图像
      *
-     * @param dto 包含健康数据的DTO对象
+     * @param chart  图表
+     * @param width  宽度（像素）
+     * @param height 高度（像素）
      *
      * @return 图像的字节数组
      *
      * @throws IOException 如果图像生成过程中发生I/O错误
      */
-    public static byte[] generateCombinedTrendChartOptimized(HealthDataTrendDTO dto) throws IOException {
-        // 数据采样
-        int maxPoints = 1000;
-        List<Date> sampledDates = sampleData(dto.getMeasurementDates(), maxPoints);
-        List<BigDecimal> sampledBMIs = sampleData(dto.getBmis(), maxPoints);
-        List<BigDecimal> sampledHeartRates = sampleData(dto.getHeartRates(), maxPoints);
-        List<BigDecimal> sampledWeights = sampleData(dto.getWeights(), maxPoints);
-
-        // 创建TimeSeries并填充数据
-        TimeSeries bmiSeries = new TimeSeries("BMI");
-        TimeSeries heartRateSeries = new TimeSeries("Heart Rate");
-        TimeSeries weightSeries = new TimeSeries("Weight");
-
-        for (int i = 0; i < sampledDates.size(); i++) {
-            Date date = sampledDates.get(i);
-            if (date == null) {
-                continue;
-            }
-            // 添加BMI数据
-            BigDecimal bmi = sampledBMIs.get(i);
-            if (bmi != null) {
-                bmiSeries.add(new Day(date), bmi.doubleValue());
-            }
-            // 添加心率数据
-            BigDecimal heartRate = sampledHeartRates.get(i);
-            if (heartRate != null) {
-                heartRateSeries.add(new Day(date), heartRate.doubleValue());
-            }
-            // 添加体重数据
-            BigDecimal weight = sampledWeights.get(i);
-            if (weight != null) {
-                weightSeries.add(new Day(date), weight.doubleValue());
-            }
-        }
-
-        // 创建数据集
-        JFreeChart chart = getjFreeChart(bmiSeries, heartRateSeries, weightSeries);
+    public static byte[] renderPng(JFreeChart chart, int width, int height) throws IOException {
+        return renderPng(chart, ChartRenderOptions.of(width, height));
+    }
 
-        // 渲染图表为PNG图像
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        ChartUtils.writeChartAsPNG(byteArrayOutputStream, chart, 800, 600);
-        return byteArrayOutputStream.toByteArray();
+    /**
+     * 将图表渲染为PNG图像，可以指定尺寸、是否使用索引色和压缩级别
+     *
+     * @param chart   图表
+     * @param options 图表渲染参数
+     *
+     * @return 图像的字节数组
+     *
+     * @throws IOException 如果图像生成过程中发生I/O错误
+     */
+    public static byte[] renderPng(JFreeChart chart, ChartRenderOptions options) throws IOException {
+        return ChartPngEncoder.encode(chart, options);
     }
 
     /**
@@ -257,15 +276,17 @@ public class ChartGenerateUtil {
         XYLineAndShapeRenderer renderer2 = new XYLineAndShapeRenderer();
         renderer2.setSeriesPaint(0, Color.RED);
 
-        // 创建XYPlot并设置数据集和轴
+        // 创建XYPlot并设置数据集和轴，每个数据集使用自己的Y轴
         XYPlot plot = new XYPlot(bmiDataset, dateAxis, bmiAxis, renderer0);
         plot.setDataset(1, heartRateDataset);
         plot.setRangeAxis(1, heartRateAxis);
         plot.setRenderer(1, renderer1);
+        plot.mapDatasetToRangeAxis(1, 1);
 
         plot.setDataset(2, weightDataset);
         plot.setRangeAxis(2, weightAxis);
         plot.setRenderer(2, renderer2);
+        plot.mapDatasetToRangeAxis(2, 2);
 
         // 创建图表
         return new JFreeChart("Health Trends Over Time", JFreeChart.DEFAULT_TITLE_FONT, plot, true);
@@ -275,6 +296,7 @@ public class ChartGenerateUtil {
      * 对数据进行采样，减少数据点数量。
      * <p>
      * 该方法通过均匀采样减少数据点数量，以优化图表生成性能。
+     * 均匀采样会丢失峰值，健康数据趋势请使用 {@link TrendDownsampleUtil}（分桶 + LTTB）。
      *
      * @param <T>     数据类型
      * @param data    原始数据列表
@@ -296,41 +318,41 @@ public class ChartGenerateUtil {
     }
 
     /**
-     * 生成用户健康数据的趋势图
+     * 生成用户健康数据的趋势图（BMI、心率、体重各一张），三张图共用同一份时间序列
      * @param healthDataTrendDTO 健康数据趋势的数据
      * @return 健康数据的趋势图
      * @throws IOException IOException
      */
-    private static List<byte[]> generateTendencyChartOfHealthData(HealthDataTrendDTO healthDataTrendDTO) throws IOException {
+    public static List<byte[]> generateTendencyChartOfHealthData(HealthDataTrendDTO healthDataTrendDTO) throws IOException {
+        HealthTrendSeries series = buildTrendSeries(healthDataTrendDTO);
+        List<byte[]> byteArrayChartList = new ArrayList<>();
         // 生成BMI趋势图
-        byte[] bmiChart = ChartGenerateUtil.generateTrendChart(
-                healthDataTrendDTO.getMeasurementDates(),
-                healthDataTrendDTO.getBmis(),
-                "BMI Trend Over Time",
-                "BMI"
-        );
-
+        byteArrayChartList.add(TrendChartTemplate.renderSingle(series.getBmiSeries(), "BMI Trend Over Time", "BMI", DEFAULT_WIDTH, DEFAULT_HEIGHT));
         // 生成心率趋势图
-        byte[] heartRateChart = ChartGenerateUtil.generateTrendChart(
-                healthDataTrendDTO.getMeasurementDates(),
-                healthDataTrendDTO.getHeartRates(),
-                "Heart Rate Trend Over Time",
-                "Heart Rate"
-        );
-
+        byteArrayChartList.add(TrendChartTemplate.renderSingle(series.getHeartRateSeries(), "Heart Rate Trend Over Time", "Heart Rate", DEFAULT_WIDTH, DEFAULT_HEIGHT));
         // 生成体重趋势图
-        byte[] weightChart = ChartGenerateUtil.generateTrendChart(
-                healthDataTrendDTO.getMeasurementDates(),
-                healthDataTrendDTO.getWeights(),
-                "Weight Trend Over Time",
-                "Weight"
-        );
-
-        List<byte[]> byteArrayChartList = new ArrayList<>();
-        byteArrayChartList.add(bmiChart);
-        byteArrayChartList.add(heartRateChart);
-        byteArrayChartList.add(weightChart);
+        byteArrayChartList.add(TrendChartTemplate.renderSingle(series.getWeightSeries(), "Weight Trend Over Time", "Weight", DEFAULT_WIDTH, DEFAULT_HEIGHT));
         return byteArrayChartList;
     }
 
+    /**
+     * 预热图表渲染：使用少量示例数据在当前线程渲染一张综合趋势图和一张单指标趋势图，
+     * 完成AWT（headless）、字体、PNG编码器和JFreeChart相关类的初始化，并创建当前线程的图表模板
+     *
+     * @throws IOException 如果图像生成过程中发生I/O错误
+     */
+    public static void warmUp() throws IOException {
+        TimeSeries bmiSeries = new TimeSeries("BMI");
+        TimeSeries heartRateSeries = new TimeSeries("Heart Rate");
+        TimeSeries weightSeries = new TimeSeries("Weight");
+        Day day = new Day();
+        for (int i = 0; i < 7; i++) {
+            bmiSeries.add(day, 21 + i % 2);
+            heartRateSeries.add(day, 70 + i);
+            weightSeries.add(day, 60 + i % 3);
+            day = (Day) day.previous();
+        }
+        TrendChartTemplate.renderCombined(new HealthTrendSeries(bmiSeries, heartRateSeries, weightSeries), DEFAULT_WIDTH, DEFAULT_HEIGHT);
+        TrendChartTemplate.renderSingle(bmiSeries, "BMI Trend Over Time", "BMI", DEFAULT_WIDTH, DEFAULT_HEIGHT);
+    }
 }
@@ -0,0 +1,396 @@
+package sues.xmz.diploma.common.utils;
+
+import org.jfree.chart.JFreeChart;
+import sues.xmz.diploma.common.domain.ChartRenderOptions;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 图表的PNG编码器
+ * <p>
+ * 和 {@code ChartUtils.writeChartAsPNG}（通过ImageIO编码）相比：
+ * <ul>
+ *     <li>直接绘制到不带透明通道的RGB图像中（图表背景本来就不透明），每个像素少编码1个字节；</li>
+ *     <li>直接使用 {@link Deflater} 写出PNG数据块，全彩色图片每行固定使用Sub过滤，不再逐行尝试所有的过滤方式；</li>
+ *     <li>可以输出索引色（调色板）PNG：折线图只使用少数几种颜色（加上抗锯齿产生的过渡色），
+ *     颜色不超过256种时完全无损，超过时只保留出现次数最多的256种颜色，其余颜色使用最接近的调色板颜色；</li>
+ *     <li>Deflate压缩级别可以调整；</li>
+ *     <li>绘制用的图像、像素缓冲区、输出缓冲区和Deflater都按线程复用，不再为每张图表重新创建，
+ *     只有最终返回的字节数组是新分配的。</li>
+ * </ul>
+ * 非线程安全的对象全部保存在 {@link ThreadLocal} 中，可以在图表渲染线程池中并发调用。
+ */
+public final class ChartPngEncoder {
+
+    /**
+     * PNG调色板最多的颜色数
+     */
+    private static final int MAX_PALETTE_SIZE = 256;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * IEND数据块（长度0，类型IEND，固定的CRC）
+     */
+    private static final byte[] IEND_CHUNK = {0, 0, 0, 0, 'I', 'E', 'N', 'D', (byte) 0xAE, 0x42, 0x60, (byte) 0x82};
+
+    private static final ThreadLocal<EncodeBuffers> BUFFERS = ThreadLocal.withInitial(EncodeBuffers::new);
+
+    private ChartPngEncoder() {
+    }
+
+    /**
+     * 绘制图表并编码为PNG
+     *
+     * @param chart   图表
+     * @param options 尺寸、是否使用索引色和压缩级别
+     *
+     * @return PNG图像的字节数组
+     *
+     * @throws IOException 如果图像编码过程中发生I/O错误
+     */
+    public static byte[] encode(JFreeChart chart, ChartRenderOptions options) throws IOException {
+        EncodeBuffers buffers = BUFFERS.get();
+        int width = options.getWidth();
+        int height = options.getHeight();
+        BufferedImage image = buffers.rgbImage(width, height);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            // 复用的图像中还保留着上一张图表，先清空（图表没有设置背景色时和原来一样是白色背景）
+            g2.setColor(Color.WHITE);
+            g2.fillRect(0, 0, width, height);
+            chart.draw(g2, new Rectangle2D.Double(0, 0, width, height), null, null);
+        } finally {
+            g2.dispose();
+        }
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        return options.isIndexedPalette()
+                ? buffers.writeIndexed(pixels, width, height, options.getCompressionLevel())
+                : buffers.writeRgb(pixels, width, height, options.getCompressionLevel());
+    }
+
+    /**
+     * 每个线程复用的缓冲区
+     */
+    private static final class EncodeBuffers {
+
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream(64 * 1024);
+
+        private final Deflater deflater = new Deflater();
+
+        private final CRC32 crc = new CRC32();
+
+        private final byte[] deflateBuffer = new byte[32 * 1024];
+
+        private final byte[] chunkHeader = new byte[8];
+
+        private final byte[] crcBytes = new byte[4];
+
+        private final ColorTable colorTable = new ColorTable();
+
+        private BufferedImage rgbImage;
+
+        /**
+         * 按行排列、每行开头带一个过滤类型字节的原始像素数据
+         */
+        private byte[] scanlines = new byte[0];
+
+        BufferedImage rgbImage(int width, int height) {
+            if (rgbImage == null || rgbImage.getWidth() != width || rgbImage.getHeight() != height) {
+                rgbImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            }
+            return rgbImage;
+        }
+
+        /**
+         * 全彩色PNG（8位RGB），每行使用Sub过滤（和左边像素的差值，大面积的纯色和渐变都会变成0）
+         */
+        byte[] writeRgb(int[] pixels, int width, int height, int compressionLevel) throws IOException {
+            int rowLength = 1 + width * 3;
+            byte[] raw = scanlines(rowLength * height);
+            for (int y = 0, pos = 0; y < height; y++) {
+                raw[pos++] = 1;
+                int left = 0;
+                for (int x = 0, offset = y * width; x < width; x++) {
+                    int rgb = pixels[offset + x];
+                    raw[pos++] = (byte) ((rgb >> 16) - (left >> 16));
+                    raw[pos++] = (byte) ((rgb >> 8) - (left >> 8));
+                    raw[pos++] = (byte) (rgb - left);
+                    left = rgb;
+                }
+            }
+            return write(width, height, 2, null, raw, rowLength * height, compressionLevel);
+        }
+
+        /**
+         * 索引色PNG（8位调色板）：统计颜色并生成调色板，每个像素只保存调色板下标，不使用过滤
+         */
+        byte[] writeIndexed(int[] pixels, int width, int height, int compressionLevel) throws IOException {
+            // 统计每种颜色出现的次数，图表中大部分是连续的同色像素，和前一个像素相同时不需要查表
+            colorTable.clear();
+            int previous = -1;
+            int previousSlot = 0;
+            for (int pixel : pixels) {
+                int rgb = pixel & 0xFFFFFF;
+                if (rgb != previous) {
+                    previousSlot = colorTable.count(rgb);
+                    previous = rgb;
+                } else {
+                    colorTable.increase(previousSlot);
+                }
+            }
+            int[] palette = colorTable.buildPalette(MAX_PALETTE_SIZE);
+
+            int rowLength = 1 + width;
+            byte[] raw = scanlines(rowLength * height);
+            previous = -1;
+            byte previousIndex = 0;
+            for (int y = 0, pos = 0; y < height; y++) {
+                raw[pos++] = 0;
+                for (int x = 0, offset = y * width; x < width; x++) {
+                    int rgb = pixels[offset + x] & 0xFFFFFF;
+                    if (rgb != previous) {
+                        previousIndex = (byte) colorTable.paletteIndex(rgb, palette);
+                        previous = rgb;
+                    }
+                    raw[pos++] = previousIndex;
+                }
+            }
+
+            byte[] plte = new byte[palette.length * 3];
+            for (int i = 0; i < palette.length; i++) {
+                plte[i * 3] = (byte) (palette[i] >> 16);
+                plte[i * 3 + 1] = (byte) (palette[i] >> 8);
+                plte[i * 3 + 2] = (byte) palette[i];
+            }
+            return write(width, height, 3, plte, raw, rowLength * height, compressionLevel);
+        }
+
+        private byte[] scanlines(int length) {
+            if (scanlines.length < length) {
+                scanlines = new byte[length];
+            }
+            return scanlines;
+        }
+
+        private byte[] write(int width, int height, int colorType, byte[] plte, byte[] raw, int rawLength, int compressionLevel) throws IOException {
+            output.reset();
+            output.write(PNG_SIGNATURE);
+
+            byte[] ihdr = new byte[13];
+            putInt(ihdr, 0, width);
+            putInt(ihdr, 4, height);
+            // 位深度8，颜色类型（2：RGB，3：调色板），压缩方式、过滤方式和隔行扫描都为0
+            ihdr[8] = 8;
+            ihdr[9] = (byte) colorType;
+            writeChunk("IHDR", ihdr, ihdr.length);
+            if (plte != null) {
+                writeChunk("PLTE", plte, plte.length);
+            }
+
+            // IDAT：压缩后的数据直接写到输出缓冲区中，同时计算CRC，长度在最后回填
+            int idatStart = output.size();
+            setChunkType("IDAT");
+            output.write(chunkHeader, 0, 8);
+            crc.reset();
+            crc.update(chunkHeader, 4, 4);
+            deflater.reset();
+            deflater.setLevel(Math.max(0, Math.min(9, compressionLevel)));
+            deflater.setInput(raw, 0, rawLength);
+            deflater.finish();
+            int idatLength = 0;
+            while (!deflater.finished()) {
+                int length = deflater.deflate(deflateBuffer);
+                output.write(deflateBuffer, 0, length);
+                crc.update(deflateBuffer, 0, length);
+                idatLength += length;
+            }
+            writeCrc();
+            output.write(IEND_CHUNK);
+
+            // 只在返回结果时复制一次输出缓冲区
+            byte[] png = output.toByteArray();
+            putInt(png, idatStart, idatLength);
+            return png;
+        }
+
+        private void writeChunk(String type, byte[] data, int length) {
+            putInt(chunkHeader, 0, length);
+            setChunkType(type);
+            crc.reset();
+            crc.update(chunkHeader, 4, 4);
+            crc.update(data, 0, length);
+            output.write(chunkHeader, 0, 8);
+            output.write(data, 0, length);
+            writeCrc();
+        }
+
+        private void setChunkType(String type) {
+            for (int i = 0; i < 4; i++) {
+                chunkHeader[4 + i] = (byte) type.charAt(i);
+            }
+        }
+
+        private void writeCrc() {
+            putInt(crcBytes, 0, (int) crc.getValue());
+            output.write(crcBytes, 0, 4);
+        }
+
+        private static void putInt(byte[] bytes, int offset, int value) {
+            bytes[offset] = (byte) (value >>> 24);
+            bytes[offset + 1] = (byte) (value >>> 16);
+            bytes[offset + 2] = (byte) (value >>> 8);
+            bytes[offset + 3] = (byte) value;
+        }
+    }
+
+    /**
+     * 颜色 -> 出现次数/调色板下标 的开放寻址哈希表，避免装箱
+     */
+    private static final class ColorTable {
+
+        private static final int EMPTY = -1;
+
+        private int[] keys = new int[4096];
+
+        private int[] counts = new int[4096];
+
+        private int[] paletteIndices = new int[4096];
+
+        /**
+         * RGB565格子 -> 最接近的调色板下标。同一个格子中的颜色（每个通道相差不超过3~7）使用同一个调色板颜色，
+         * 抗锯齿产生的上万种过渡色只需要计算几千次最接近的颜色
+         */
+        private final short[] cellIndices = new short[1 << 16];
+
+        private int size;
+
+        void clear() {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+
+        /**
+         * 颜色出现次数加1，返回颜色所在的槽位
+         */
+        int count(int rgb) {
+            int slot = slot(rgb);
+            if (keys[slot] == EMPTY) {
+                keys[slot] = rgb;
+                counts[slot] = 0;
+                paletteIndices[slot] = EMPTY;
+                if (++size * 2 > keys.length) {
+                    grow();
+                    slot = slot(rgb);
+                }
+            }
+            counts[slot]++;
+            return slot;
+        }
+
+        void increase(int slot) {
+            counts[slot]++;
+        }
+
+        /**
+         * 生成调色板：颜色数量不超过 maxSize 时包含所有颜色，否则只保留出现次数最多的颜色
+         */
+        int[] buildPalette(int maxSize) {
+            int[] colors = new int[size];
+            int n = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY) {
+                    colors[n++] = slot;
+                }
+            }
+            if (n > maxSize) {
+                // 按出现次数从多到少排序（这里保存的是槽位）
+                Integer[] slots = new Integer[n];
+                for (int i = 0; i < n; i++) {
+                    slots[i] = colors[i];
+                }
+                Arrays.sort(slots, (a, b) -> Integer.compare(counts[b], counts[a]));
+                for (int i = 0; i < maxSize; i++) {
+                    colors[i] = slots[i];
+                }
+                n = maxSize;
+            }
+            int[] palette = new int[n];
+            for (int i = 0; i < n; i++) {
+                palette[i] = keys[colors[i]];
+                paletteIndices[colors[i]] = i;
+            }
+            Arrays.fill(cellIndices, (short) EMPTY);
+            return palette;
+        }
+
+        /**
+         * 颜色在调色板中的下标，不在调色板中的颜色使用所在RGB565格子中最接近的颜色（结果会记录下来，同一种颜色只计算一次）
+         */
+        int paletteIndex(int rgb, int[] palette) {
+            int slot = slot(rgb);
+            if (paletteIndices[slot] == EMPTY) {
+                int cell = ((rgb >> 8) & 0xF800) | ((rgb >> 5) & 0x07E0) | ((rgb >> 3) & 0x001F);
+                if (cellIndices[cell] == EMPTY) {
+                    cellIndices[cell] = (short) nearest(rgb, palette);
+                }
+                paletteIndices[slot] = cellIndices[cell];
+            }
+            return paletteIndices[slot];
+        }
+
+        private static int nearest(int rgb, int[] palette) {
+            int r = (rgb >> 16) & 0xFF;
+            int g = (rgb >> 8) & 0xFF;
+            int b = rgb & 0xFF;
+            int best = 0;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int i = 0; i < palette.length; i++) {
+                int dr = r - ((palette[i] >> 16) & 0xFF);
+                int dg = g - ((palette[i] >> 8) & 0xFF);
+                int db = b - (palette[i] & 0xFF);
+                int distance = dr * dr + dg * dg + db * db;
+                if (distance < bestDistance) {
+                    best = i;
+                    bestDistance = distance;
+                }
+            }
+            return best;
+        }
+
+        private int slot(int rgb) {
+            int mask = keys.length - 1;
+            int hash = rgb * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != rgb) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new int[oldKeys.length * 2];
+            counts = new int[keys.length];
+            paletteIndices = new int[keys.length];
+            Arrays.fill(keys, EMPTY);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                    paletteIndices[slot] = EMPTY;
+                }
+            }
+        }
+    }
+}
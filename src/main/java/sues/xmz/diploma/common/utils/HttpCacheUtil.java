@@ -0,0 +1,39 @@
+package sues.xmz.diploma.common.utils;
+
+/**
+ * HTTP缓存（条件请求）工具类
+ */
+public final class HttpCacheUtil {
+
+    private HttpCacheUtil() {
+    }
+
+    /**
+     * 判断请求头 If-None-Match 是否与当前的ETag匹配（匹配时应返回304）
+     * <p>
+     * If-None-Match 使用弱比较：可以包含多个逗号分隔的ETag，忽略 W/ 前缀，"*" 匹配任意ETag
+     *
+     * @param ifNoneMatch 请求头 If-None-Match 的值，可以为null
+     * @param eTag        当前资源带双引号的ETag
+     *
+     * @return 是否匹配
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
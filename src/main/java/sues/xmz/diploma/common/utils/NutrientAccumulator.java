@@ -0,0 +1,242 @@
+package sues.xmz.diploma.common.utils;
+
+import sues.xmz.diploma.domain.dto.diet_records.DietRecordsCalculationDTO;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * 营养摄入累加器：一次遍历同时累加所有营养成分
+ * <p>
+ * 每条数据的真实营养值为 {@code nutrient * quantity / 100}，按 HALF_UP 保留2位小数后再累加（和原来逐个营养成分
+ * 调用 {@code multiply().divide(100, 2, HALF_UP)} 再求和的结果完全一致，包括BigDecimal的scale）。
+ * 累加过程中使用 scale = 2 的 long 定点数（即以0.01为单位的整数），只在最后转换一次为BigDecimal，
+ * 不会再为每条数据的每种营养成分创建中间BigDecimal对象。
+ * <p>
+ * 营养摄入的总和已经在数据库中计算，这里用于在Java中从原始的食物明细独立地重新计算，校验营养摄入汇总表
+ * （见 DailyNutritionRollupServiceImpl#verifyUserRollup）。
+ * <p>
+ * 非线程安全：并行计算时每个线程使用自己的累加器，最后通过 {@link #combine(NutrientAccumulator)} 合并
+ * （见 {@link #sum(List)}、{@link #collector()}），合并后的结果和单线程累加完全相同。
+ */
+public final class NutrientAccumulator {
+
+    public static final int CALORIES = 0;
+    public static final int PROTEIN = 1;
+    public static final int FAT = 2;
+    public static final int CARBOHYDRATES = 3;
+    public static final int WATER = 4;
+
+    private static final int NUTRIENT_COUNT = 5;
+
+    /**
+     * 结果保留的小数位数
+     */
+    private static final int RESULT_SCALE = 2;
+
+    /**
+     * 数据量超过该值时才使用并行计算，数据量较小时并行的线程调度开销比计算本身还大
+     */
+    public static final int PARALLEL_THRESHOLD = 50_000;
+
+    /**
+     * 10的0~18次方，long能表示的最大的10的幂为10^18
+     */
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1L;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * 各营养成分的总和（单位：0.01）
+     */
+    private final long[] sums = new long[NUTRIENT_COUNT];
+
+    /**
+     * 总和超出long范围时溢出的部分，一般用不到
+     */
+    private final BigInteger[] overflows = new BigInteger[NUTRIENT_COUNT];
+
+    /**
+     * 是否累加过保留2位小数的值。原来的计算方式中，只有营养值和食用量都为null的数据才会累加 BigDecimal.ZERO（scale = 0），
+     * 如果所有数据都是这种情况，结果的scale为0，否则为2
+     */
+    private final boolean[] scaled = new boolean[NUTRIENT_COUNT];
+
+    /**
+     * 累加一条饮食记录中一种食物的所有营养成分
+     * <p>
+     * 卡路里为null时按0计算但不影响结果的scale，其它营养成分为null时按 0.00 计算（和原来的 getOrZero 一致）
+     *
+     * @param dto 饮食记录中的一种食物
+     */
+    public void accept(DietRecordsCalculationDTO dto) {
+        BigDecimal quantity = dto.getQuantity();
+        if (quantity == null) {
+            return;
+        }
+        add(CALORIES, dto.getCalories(), quantity);
+        add(PROTEIN, orZero(dto.getProtein()), quantity);
+        add(FAT, orZero(dto.getFat()), quantity);
+        add(CARBOHYDRATES, orZero(dto.getCarbohydrates()), quantity);
+        add(WATER, orZero(dto.getWater()), quantity);
+    }
+
+    /**
+     * 合并另一个累加器的结果（用于并行计算）
+     *
+     * @param other 另一个累加器
+     *
+     * @return 当前累加器
+     */
+    public NutrientAccumulator combine(NutrientAccumulator other) {
+        for (int nutrient = 0; nutrient < NUTRIENT_COUNT; nutrient++) {
+            addScaled(nutrient, other.sums[nutrient]);
+            if (other.overflows[nutrient] != null) {
+                addOverflow(nutrient, other.overflows[nutrient]);
+            }
+            scaled[nutrient] |= other.scaled[nutrient];
+        }
+        return this;
+    }
+
+    /**
+     * 获取某种营养成分的总和
+     *
+     * @param nutrient 营养成分，比如 {@link #CALORIES}
+     *
+     * @return 总和（没有累加过保留2位小数的值时为 BigDecimal.ZERO）
+     */
+    public BigDecimal getTotal(int nutrient) {
+        if (!scaled[nutrient]) {
+            return BigDecimal.ZERO;
+        }
+        BigInteger total = overflows[nutrient] == null
+                ? BigInteger.valueOf(sums[nutrient])
+                : overflows[nutrient].add(BigInteger.valueOf(sums[nutrient]));
+        return new BigDecimal(total, RESULT_SCALE);
+    }
+
+    /**
+     * 对饮食记录列表中的所有营养成分进行累加，数据量较大时使用并行计算
+     *
+     * @param dietRecordsCalculationDTOList 饮食记录数据列表
+     *
+     * @return 累加结果
+     */
+    public static NutrientAccumulator sum(List<DietRecordsCalculationDTO> dietRecordsCalculationDTOList) {
+        if (dietRecordsCalculationDTOList.size() < PARALLEL_THRESHOLD) {
+            NutrientAccumulator accumulator = new NutrientAccumulator();
+            dietRecordsCalculationDTOList.forEach(accumulator::accept);
+            return accumulator;
+        }
+        return dietRecordsCalculationDTOList.parallelStream().collect(collector());
+    }
+
+    /**
+     * 用于Stream的收集器，可以用于并行流
+     *
+     * @return 收集器
+     */
+    public static Collector<DietRecordsCalculationDTO, NutrientAccumulator, NutrientAccumulator> collector() {
+        return Collector.of(
+                NutrientAccumulator::new,
+                NutrientAccumulator::accept,
+                NutrientAccumulator::combine,
+                Function.identity(),
+                Collector.Characteristics.IDENTITY_FINISH,
+                Collector.Characteristics.UNORDERED
+        );
+    }
+
+    /**
+     * 计算 {@code nutrient * quantity / 100} 按 HALF_UP 保留2位小数后的值，以0.01为单位
+     * <p>
+     * 和 {@code nutrient.multiply(quantity).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP).unscaledValue()} 的结果一致
+     *
+     * @param nutrient 每100g的营养值
+     * @param quantity 食用量（单位：g）
+     *
+     * @return 以0.01为单位的真实营养值
+     *
+     * @throws ArithmeticException 结果超出long的范围
+     */
+    public static long scaledTerm(BigDecimal nutrient, BigDecimal quantity) {
+        // nutrient * quantity 的 unscaledValue 为 u1 * u2，scale 为 s1 + s2；再除以100后，scale 为 s1 + s2 + 2
+        // 保留2位小数，即 u1 * u2 / 10^(s1 + s2) 的结果按 HALF_UP 取整
+        int shift = nutrient.scale() + quantity.scale();
+        if (nutrient.precision() <= 18 && quantity.precision() <= 18 && shift <= 18 && shift >= -18) {
+            try {
+                long product = Math.multiplyExact(nutrient.unscaledValue().longValueExact(), quantity.unscaledValue().longValueExact());
+                return shift >= 0
+                        ? divideHalfUp(product, POWERS_OF_TEN[shift])
+                        : Math.multiplyExact(product, POWERS_OF_TEN[-shift]);
+            } catch (ArithmeticException e) {
+                // 超出long的范围，使用BigDecimal计算
+            }
+        }
+        return bigDecimalTerm(nutrient, quantity).longValueExact();
+    }
+
+    private static BigInteger bigDecimalTerm(BigDecimal nutrient, BigDecimal quantity) {
+        return nutrient.multiply(quantity)
+                .divide(BigDecimal.valueOf(100), RESULT_SCALE, RoundingMode.HALF_UP)
+                .unscaledValue();
+    }
+
+    private void add(int nutrient, BigDecimal value, BigDecimal quantity) {
+        if (value == null) {
+            // 和原来的计算方式一致：累加 BigDecimal.ZERO，不影响结果的scale
+            return;
+        }
+        scaled[nutrient] = true;
+        long term;
+        try {
+            term = scaledTerm(value, quantity);
+        } catch (ArithmeticException e) {
+            // 单条数据的结果就超出了long的范围，直接累加到overflows中
+            addOverflow(nutrient, bigDecimalTerm(value, quantity));
+            return;
+        }
+        addScaled(nutrient, term);
+    }
+
+    private void addScaled(int nutrient, long value) {
+        long sum = sums[nutrient];
+        long result = sum + value;
+        // 两个数同号但结果的符号不同，说明溢出了，把之前的总和移到overflows中
+        if (((sum ^ result) & (value ^ result)) < 0) {
+            addOverflow(nutrient, BigInteger.valueOf(sum));
+            result = value;
+        }
+        sums[nutrient] = result;
+    }
+
+    private void addOverflow(int nutrient, BigInteger value) {
+        overflows[nutrient] = overflows[nutrient] == null ? value : overflows[nutrient].add(value);
+    }
+
+    /**
+     * 整数除法，结果按 HALF_UP（四舍五入，0.5远离0）取整
+     */
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        if (remainder >= divisor - remainder) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -1,7 +1,23 @@
 package sues.xmz.diploma.common.utils;
 
+import org.springframework.http.HttpStatus;
+import sues.xmz.diploma.common.domain.PageCursor;
+import sues.xmz.diploma.common.domain.PageQueryReq;
+import sues.xmz.diploma.common.domain.PageResponse;
+import sues.xmz.diploma.common.domain.ResultCode;
+import sues.xmz.diploma.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 /**
  * @Description: 分页工具类
@@ -10,6 +26,11 @@ import java.util.List;
  */
 public final class PageUtil {
 
+    /**
+     * 游标中时间与主键之间的分隔符
+     */
+    private static final String CURSOR_SEPARATOR = ":";
+
     /**
      * 计算MySQL分页查询的偏移量
      *
@@ -40,6 +61,46 @@ public final class PageUtil {
 
     }
 
+    /**
+     * 判断是否需要查询总记录数
+     *
+     * @param searchCount 请求中的searchCount参数，为null时默认查询总记录数
+     *
+     * @return true - 查询总记录数，false - 只判断是否有下一页
+     */
+    public static boolean isSearchCount(Boolean searchCount) {
+        return !Boolean.FALSE.equals(searchCount);
+    }
+
+    /**
+     * 计算本次分页查询实际需要获取的数据量
+     * <p>
+     * 不查询总记录数时，多获取1条数据，以此来判断是否还有下一页
+     *
+     * @param size        每页展示数量
+     * @param searchCount 是否查询总记录数
+     *
+     * @return 实际需要获取的数据量
+     */
+    public static long countLimit(long size, boolean searchCount) {
+        return searchCount ? size : size + 1;
+    }
+
+    /**
+     * 计算本次分页查询实际需要获取的数据量
+     * <p>
+     * 不查询总记录数或者使用游标分页时，多获取1条数据，以此来判断是否还有下一页（游标分页时页码没有意义，不能根据总记录数判断）
+     *
+     * @param size        每页展示数量
+     * @param searchCount 是否查询总记录数
+     * @param cursor      游标，为null时使用页码分页
+     *
+     * @return 实际需要获取的数据量
+     */
+    public static long countLimit(long size, boolean searchCount, PageCursor cursor) {
+        return countLimit(size, searchCount && cursor == null);
+    }
+
     /**
      * 判断分页参数是否为空
      * @param current 当前页的页码
@@ -72,4 +133,172 @@ public final class PageUtil {
         // 使用subList方法获取子列表
         return new ArrayList<>(list.subList((int) offset, (int) (offset + actualSize)));
     }
+
+    /**
+     * 对已经在内存中的完整列表进行分页（用于食物、运动类型等字典数据的内存快照）
+     *
+     * @param list      完整列表
+     * @param current   当前页的页码
+     * @param size      每页展示数量
+     * @param converter 只对当前页的数据进行的类型转换
+     * @param <S>       列表中元素的类型
+     * @param <T>       转换后的类型
+     *
+     * @return PageResponse对象，页码超出范围时数据为空列表
+     */
+    public static <S, T> PageResponse<T> pageInMemory(List<S> list, long current, long size, Function<S, T> converter) {
+        long offset = countOffset(current, size);
+        List<T> dataList = offset >= list.size()
+                ? Collections.emptyList()
+                : list.subList((int) offset, (int) Math.min(offset + size, list.size())).stream().map(converter).toList();
+        return PageResponse.getPageResponse(dataList, current, size, list.size());
+    }
+
+    /**
+     * 将上一页最后一条数据的【时间，主键】编码为不透明的游标字符串
+     *
+     * @param time 时间字段的值
+     * @param id   主键的值
+     *
+     * @return 游标字符串，time或id为null时返回null
+     */
+    public static String encodeCursor(Date time, Integer id) {
+        if (time == null || id == null) {
+            return null;
+        }
+        String rawCursor = time.getTime() + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(rawCursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 将游标字符串解码为 {@link PageCursor}
+     *
+     * @param cursor 游标字符串
+     *
+     * @return 解码后的游标，cursor为空时返回null（即使用页码分页）
+     *
+     * @throws BusinessException 游标格式不正确或者被篡改时，返回400
+     */
+    public static PageCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String rawCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = rawCursor.split(CURSOR_SEPARATOR);
+            if (parts.length == 2) {
+                return new PageCursor(new Date(Long.parseLong(parts[0])), Integer.valueOf(parts[1]));
+            }
+        } catch (IllegalArgumentException e) {
+            // Base64解码失败和NumberFormatException都是IllegalArgumentException的子类，统一按游标无效处理
+        }
+        throw new BusinessException(ResultCode.PAGE_CURSOR_INVALID, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * 两阶段分页中，第一阶段查询一页主键的方法
+     */
+    @FunctionalInterface
+    public interface PageKeysLoader {
+
+        /**
+         * 只在主表上分页查询主键（及用于游标定位的时间字段），不联表
+         *
+         * @param offset 页码分页的偏移量
+         * @param limit  本次需要获取的数据量
+         * @param cursor 游标，为null时使用页码分页
+         *
+         * @return 按 时间字段, 主键 倒序排列的一页主键
+         */
+        List<PageCursor> load(long offset, long limit, PageCursor cursor);
+    }
+
+    /**
+     * 一对多结果（resultMap中包含collection）的两阶段分页查询
+     * <p>
+     * 如果直接对联表查询的结果使用LIMIT，LIMIT作用的是联表后的行而不是主表的记录，
+     * 一页的主表记录会少于size条，最后一条记录的子数据也可能被截断。因此分两个阶段查询：
+     * <ol>
+     *     <li>只在主表上分页查询一页的主键，联合索引即可覆盖，每页的主表记录数量是准确的</li>
+     *     <li>再根据这一页的主键，主表和每张子表各通过一次 IN 查询补全数据（见 {@link #attachChildren}），每页查询的数据量只和这一页的主表记录有关</li>
+     * </ol>
+     *
+     * @param pageQueryReq   分页查询条件
+     * @param pageKeysLoader 第一阶段：分页查询一页主键
+     * @param detailsLoader  第二阶段：根据主键列表查询完整数据，需要按和第一阶段相同的顺序排序
+     * @param totalCounter   查询总记录数（searchCount为false时不会调用）
+     * @param <T>            查询数据的对象类型
+     *
+     * @return PageResponse对象
+     */
+    public static <T> PageResponse<T> listParentFirstPage(PageQueryReq pageQueryReq,
+                                                          PageKeysLoader pageKeysLoader,
+                                                          Function<List<Integer>, List<T>> detailsLoader,
+                                                          LongSupplier totalCounter) {
+        long current = pageQueryReq.getCurrent();
+        long size = pageQueryReq.getSize();
+        boolean searchCount = isSearchCount(pageQueryReq.getSearchCount());
+
+        PageCursor cursor = decodeCursor(pageQueryReq.getCursor());
+
+        List<PageCursor> pageKeys = pageKeysLoader.load(
+                countOffset(current, size),
+                countLimit(size, searchCount, cursor),
+                cursor
+        );
+        boolean hasMoreKeys = pageKeys.size() > size;
+        if (hasMoreKeys) {
+            pageKeys = pageKeys.subList(0, (int) size);
+        }
+
+        List<T> dataList = pageKeys.isEmpty()
+                ? Collections.emptyList()
+                : detailsLoader.apply(pageKeys.stream().map(PageCursor::getId).toList());
+        PageCursor lastKey = pageKeys.isEmpty() ? null : pageKeys.get(pageKeys.size() - 1);
+        String nextCursor = lastKey == null ? null : encodeCursor(lastKey.getTime(), lastKey.getId());
+
+        if (cursor != null) {
+            return PageResponse.getCursorPageResponse(dataList, size, searchCount ? totalCounter.getAsLong() : null, hasMoreKeys, nextCursor);
+        }
+        if (!searchCount) {
+            return PageResponse.getPageResponseWithoutTotal(dataList, current, size, hasMoreKeys, nextCursor);
+        }
+        PageResponse<T> pageResponse = PageResponse.getPageResponse(dataList, current, size, totalCounter.getAsLong());
+        if (Boolean.TRUE.equals(pageResponse.getHasNext())) {
+            pageResponse.setNextCursor(nextCursor);
+        }
+        return pageResponse;
+    }
+
+    /**
+     * 两阶段分页的第二阶段：把按主键分组查询到的子数据合并到主表数据中
+     * <p>
+     * 主表和每张子表分别通过一次 IN 查询获取，不再把主表和子表联表查询：联表后主表的字段会随子数据的行数重复传输，
+     * 分开查询时每张表只传输自己的数据。没有子数据的主表记录得到空列表
+     *
+     * @param parentList     按主键查询到的主表数据（不包含子数据，顺序即为返回的顺序）
+     * @param childGroupList 按主键分组查询到的子数据，每个对象只有主键和子数据列表
+     * @param idGetter       获取主键的方法
+     * @param childrenGetter 获取子数据列表的方法
+     * @param childrenSetter 设置子数据列表的方法
+     * @param <T>            查询数据的对象类型
+     * @param <C>            子数据的对象类型
+     *
+     * @return 补全了子数据的主表数据
+     */
+    public static <T, C> List<T> attachChildren(List<T> parentList,
+                                                List<T> childGroupList,
+                                                Function<T, Integer> idGetter,
+                                                Function<T, List<C>> childrenGetter,
+                                                BiConsumer<T, List<C>> childrenSetter) {
+        Map<Integer, List<C>> childrenMap = new HashMap<>(childGroupList.size() * 2);
+        for (T childGroup : childGroupList) {
+            childrenMap.put(idGetter.apply(childGroup), childrenGetter.apply(childGroup));
+        }
+        for (T parent : parentList) {
+            List<C> children = childrenMap.get(idGetter.apply(parent));
+            childrenSetter.accept(parent, children == null ? new ArrayList<>() : children);
+        }
+        return parentList;
+    }
 }
@@ -18,6 +18,16 @@ public class PasswordUtil {
         return BCrypt.hashpw(rawPassword, BCrypt.gensalt());
     }
 
+    /**
+     * 使用指定的计算成本（log2轮数）加密密码
+     * @param rawPassword 原始密码
+     * @param logRounds 计算成本，每加1耗时翻倍
+     * @return 加密后的密码
+     */
+    public static String encodePassword(String rawPassword, int logRounds) {
+        return BCrypt.hashpw(rawPassword, BCrypt.gensalt(logRounds));
+    }
+
     /**
      * 验证密码是否正确
      * @param oldPassword 原始密码
@@ -27,4 +37,36 @@ public class PasswordUtil {
     public static boolean verifyNotOldPassword(String oldPassword, String encodedPassword) {
         return !BCrypt.checkpw(oldPassword, encodedPassword);
     }
-}
\ No newline at end of file
+
+    /**
+     * 获取BCrypt密码中的计算成本，例如 {@code $2a$10$...} 的计算成本为10
+     * @param encodedPassword 加密后的密码
+     * @return 计算成本，格式不正确时返回-1
+     */
+    public static int getLogRounds(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        // $2$10$... 或 $2a$10$...（b、y等版本同理）
+        int offset = encodedPassword.charAt(2) == '$' ? 3 : 4;
+        if (encodedPassword.length() < offset + 3 || encodedPassword.charAt(offset + 2) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(offset);
+        char ones = encodedPassword.charAt(offset + 1);
+        if (!Character.isDigit(tens) || !Character.isDigit(ones)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    /**
+     * 判断密码是否需要使用新的计算成本重新加密
+     * @param encodedPassword 加密后的密码
+     * @param logRounds 当前配置的计算成本
+     * @return true - 需要重新加密
+     */
+    public static boolean needsRehash(String encodedPassword, int logRounds) {
+        return getLogRounds(encodedPassword) != logRounds;
+    }
+}
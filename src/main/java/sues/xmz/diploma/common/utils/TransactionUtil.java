@@ -0,0 +1,30 @@
+package sues.xmz.diploma.common.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具类
+ */
+public final class TransactionUtil {
+
+    /**
+     * 存在事务时，在事务提交后再执行；不存在事务时立即执行。
+     * <p>
+     * 用于维护内存中的快照、字典等数据，避免读到还未提交（或之后被回滚）的数据
+     *
+     * @param task 需要执行的任务
+     */
+    public static void runAfterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+            return;
+        }
+        task.run();
+    }
+}
@@ -0,0 +1,122 @@
+package sues.xmz.diploma.common.utils;
+
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import sues.xmz.diploma.common.domain.ChartRenderOptions;
+import sues.xmz.diploma.domain.dto.health_data.HealthTrendSeries;
+
+import java.io.IOException;
+
+/**
+ * 可复用的趋势图模板：图表、XYPlot、坐标轴和渲染器只创建一次，每次渲染只替换数据集中的时间序列。
+ * <p>
+ * JFreeChart的图表对象不是线程安全的，因此模板按线程保存（{@link ThreadLocal}），
+ * 只在图表渲染线程池的线程中复用，每个线程各自持有一个综合趋势图模板和一个单指标趋势图模板。
+ * 渲染完成后立即移除时间序列，模板不会继续引用用户的数据。
+ */
+public final class TrendChartTemplate {
+
+    private static final ThreadLocal<TrendChartTemplate> COMBINED_TEMPLATE = ThreadLocal.withInitial(() -> new TrendChartTemplate(
+            ChartGenerateUtil.createCombinedTrendChart(new HealthTrendSeries(
+                    new TimeSeries("BMI"), new TimeSeries("Heart Rate"), new TimeSeries("Weight")))
+    ));
+
+    private static final ThreadLocal<TrendChartTemplate> SINGLE_TEMPLATE = ThreadLocal.withInitial(() -> new TrendChartTemplate(
+            ChartGenerateUtil.createSingleTrendChart(new TimeSeries(""), "", "")
+    ));
+
+    private final JFreeChart chart;
+
+    private final TimeSeriesCollection[] datasets;
+
+    private TrendChartTemplate(JFreeChart chart) {
+        this.chart = chart;
+        XYPlot plot = chart.getXYPlot();
+        this.datasets = new TimeSeriesCollection[plot.getDatasetCount()];
+        for (int i = 0; i < datasets.length; i++) {
+            datasets[i] = (TimeSeriesCollection) plot.getDataset(i);
+            datasets[i].removeAllSeries();
+        }
+    }
+
+    /**
+     * 使用当前线程的综合趋势图模板渲染BMI、心率和体重的综合趋势图
+     *
+     * @param series 三个指标的时间序列
+     * @param width  宽度（像素）
+     * @param height 高度（像素）
+     *
+     * @return PNG图像的字节数组
+     *
+     * @throws IOException 如果图像生成过程中发生I/O错误
+     */
+    public static byte[] renderCombined(HealthTrendSeries series, int width, int height) throws IOException {
+        return renderCombined(series, ChartRenderOptions.of(width, height));
+    }
+
+    /**
+     * 使用当前线程的综合趋势图模板渲染BMI、心率和体重的综合趋势图
+     *
+     * @param series  三个指标的时间序列
+     * @param options 图表渲染参数
+     *
+     * @return PNG图像的字节数组
+     *
+     * @throws IOException 如果图像生成过程中发生I/O错误
+     */
+    public static byte[] renderCombined(HealthTrendSeries series, ChartRenderOptions options) throws IOException {
+        return COMBINED_TEMPLATE.get().render(options,
+                series.getBmiSeries(), series.getHeartRateSeries(), series.getWeightSeries());
+    }
+
+    /**
+     * 使用当前线程的单指标趋势图模板渲染趋势图
+     *
+     * @param series     指标的时间序列
+     * @param title      图表标题
+     * @param yAxisLabel Y轴标签
+     * @param width      宽度（像素）
+     * @param height     高度（像素）
+     *
+     * @return PNG图像的字节数组
+     *
+     * @throws IOException 如果图像生成过程中发生I/O错误
+     */
+    public static byte[] renderSingle(TimeSeries series, String title, String yAxisLabel, int width, int height) throws IOException {
+        return renderSingle(series, title, yAxisLabel, ChartRenderOptions.of(width, height));
+    }
+
+    /**
+     * 使用当前线程的单指标趋势图模板渲染趋势图
+     *
+     * @param series     指标的时间序列
+     * @param title      图表标题
+     * @param yAxisLabel Y轴标签
+     * @param options    图表渲染参数
+     *
+     * @return PNG图像的字节数组
+     *
+     * @throws IOException 如果图像生成过程中发生I/O错误
+     */
+    public static byte[] renderSingle(TimeSeries series, String title, String yAxisLabel, ChartRenderOptions options) throws IOException {
+        TrendChartTemplate template = SINGLE_TEMPLATE.get();
+        template.chart.setTitle(title);
+        template.chart.getXYPlot().getRangeAxis().setLabel(yAxisLabel);
+        return template.render(options, series);
+    }
+
+    private byte[] render(ChartRenderOptions options, TimeSeries... seriesArray) throws IOException {
+        try {
+            for (int i = 0; i < datasets.length; i++) {
+                datasets[i].addSeries(seriesArray[i]);
+            }
+            return ChartGenerateUtil.renderPng(chart, options);
+        } finally {
+            for (TimeSeriesCollection dataset : datasets) {
+                dataset.removeAllSeries();
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package sues.xmz.diploma.common.utils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 趋势数据降采样工具，使用 LTTB（Largest-Triangle-Three-Buckets）算法。
+ * <p>
+ * 和按固定步长采样（{@link ChartGenerateUtil#sampleData(List, int)}）不同，LTTB会保留首尾两个点，
+ * 中间每个区间选择与前一个选中点、后一个区间平均点组成的三角形面积最大的点，因此峰值和拐点不会被丢弃，
+ * 降采样后的折线与原始曲线的形状基本一致。
+ */
+public class TrendDownsampleUtil {
+
+    private TrendDownsampleUtil() {
+    }
+
+    /**
+     * 使用LTTB算法选择需要保留的点
+     *
+     * @param xs        每个点的X坐标（必须递增）
+     * @param ys        每个点的Y坐标
+     * @param threshold 最多保留的点数
+     *
+     * @return 保留的点的下标（递增）；点数不超过 threshold 时返回所有下标，threshold 小于3时只保留首尾的点
+     */
+    public static int[] lttbIndices(double[] xs, double[] ys, int threshold) {
+        int n = xs.length;
+        if (ys.length != n) {
+            throw new IllegalArgumentException("数据列表长度不一致");
+        }
+        if (threshold >= n) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        if (threshold < 3) {
+            return threshold <= 0 ? new int[0] : threshold == 1 ? new int[]{0} : new int[]{0, n - 1};
+        }
+
+        int[] sampled = new int[threshold];
+        int sampledCount = 0;
+        // 除首尾两个点外，其余的点平均分为 threshold - 2 个区间
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        sampled[sampledCount++] = a;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // 下一个区间的平均点
+            int avgRangeStart = (int) Math.floor((i + 1) * every) + 1;
+            int avgRangeEnd = Math.min((int) Math.floor((i + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgRangeStart; j < avgRangeEnd; j++) {
+                avgX += xs[j];
+                avgY += ys[j];
+            }
+            int avgRangeLength = avgRangeEnd - avgRangeStart;
+            avgX /= avgRangeLength;
+            avgY /= avgRangeLength;
+
+            // 当前区间中与【上一个选中点，下一个区间的平均点】组成的三角形面积最大的点
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+            double maxArea = -1;
+            int maxAreaIndex = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((xs[a] - avgX) * (ys[j] - ys[a]) - (xs[a] - xs[j]) * (avgY - ys[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxAreaIndex = j;
+                }
+            }
+            sampled[sampledCount++] = maxAreaIndex;
+            a = maxAreaIndex;
+        }
+
+        sampled[sampledCount] = n - 1;
+        return sampled;
+    }
+
+    /**
+     * 对某个指标使用LTTB算法降采样，值为null的点不参与计算也不会被选中
+     *
+     * @param points    按X坐标递增排序的数据
+     * @param threshold 该指标最多保留的点数
+     * @param x         X坐标
+     * @param y         该指标的值
+     * @param <T>       数据类型
+     *
+     * @return 保留的点在 points 中的下标（递增）
+     */
+    public static <T> List<Integer> selectIndices(List<T> points,
+                                                  int threshold,
+                                                  ToDoubleFunction<T> x,
+                                                  Function<T, BigDecimal> y) {
+        List<Integer> nonNullIndexList = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            if (y.apply(points.get(i)) != null) {
+                nonNullIndexList.add(i);
+            }
+        }
+
+        double[] xs = new double[nonNullIndexList.size()];
+        double[] ys = new double[nonNullIndexList.size()];
+        for (int i = 0; i < nonNullIndexList.size(); i++) {
+            T point = points.get(nonNullIndexList.get(i));
+            xs[i] = x.applyAsDouble(point);
+            ys[i] = y.apply(point).doubleValue();
+        }
+
+        int[] sampled = lttbIndices(xs, ys, threshold);
+        List<Integer> selectedIndexList = new ArrayList<>(sampled.length);
+        for (int index : sampled) {
+            selectedIndexList.add(nonNullIndexList.get(index));
+        }
+        return selectedIndexList;
+    }
+
+    /**
+     * 对多个指标分别使用LTTB算法降采样，再合并各指标保留的点。
+     * maxPoints 平均分给各个指标（余数分给前面的指标），因此合并后的点数不超过 maxPoints，
+     * 并且每个点的X坐标和各指标的值始终来自同一条数据
+     *
+     * @param points    按X坐标递增排序的数据
+     * @param maxPoints 合并后最多保留的点数
+     * @param x         X坐标
+     * @param ys        各个指标的值
+     * @param <T>       数据类型
+     *
+     * @return 保留的数据（按X坐标递增）；数据不超过 maxPoints 时直接返回 points
+     */
+    @SafeVarargs
+    public static <T> List<T> downsample(List<T> points,
+                                         int maxPoints,
+                                         ToDoubleFunction<T> x,
+                                         Function<T, BigDecimal>... ys) {
+        if (points.size() <= maxPoints) {
+            return points;
+        }
+        SortedSet<Integer> selectedIndexSet = new TreeSet<>();
+        for (int i = 0; i < ys.length; i++) {
+            int threshold = maxPoints / ys.length + (i < maxPoints % ys.length ? 1 : 0);
+            selectedIndexSet.addAll(selectIndices(points, threshold, x, ys[i]));
+        }
+        return selectedIndexSet.stream().map(points::get).toList();
+    }
+}
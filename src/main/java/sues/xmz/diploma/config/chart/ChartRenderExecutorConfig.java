@@ -0,0 +1,40 @@
+package sues.xmz.diploma.config.chart;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 图表渲染线程池配置
+ * <p>
+ * JFreeChart渲染PNG是CPU密集型操作，放在独立的有界线程池中执行，不占用Tomcat的请求线程；
+ * 队列满时直接拒绝（返回"图表生成繁忙"），大量并发的图表请求不会拖垮整个Web线程池。
+ */
+@Configuration
+public class ChartRenderExecutorConfig {
+
+    @Value("${chart.render.pool-size:0}")
+    private int poolSize;
+
+    @Value("${chart.render.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Bean(name = "chartRenderExecutor")
+    public ThreadPoolTaskExecutor chartRenderExecutor() {
+        // 没有配置线程数时，使用CPU核数（最多4个线程）
+        int threads = poolSize > 0 ? poolSize : Math.min(4, Runtime.getRuntime().availableProcessors());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("chart-render-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,52 @@
+package sues.xmz.diploma.config.chart;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import sues.xmz.diploma.common.utils.ChartGenerateUtil;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图表渲染预热
+ * <p>
+ * 应用启动完成后，在图表渲染线程池的每个线程中渲染一次示例图表：初始化AWT（headless）、加载字体和JFreeChart相关的类，
+ * 并创建各线程复用的图表模板，第一批图表请求不再承担这些开销。预热是异步的，不会延长应用的启动时间。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chart.render.warm-up", havingValue = "true", matchIfMissing = true)
+public class ChartRenderWarmUp {
+
+    @Resource(name = "chartRenderExecutor")
+    private ThreadPoolTaskExecutor chartRenderExecutor;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        int threads = chartRenderExecutor.getCorePoolSize();
+        chartRenderExecutor.getThreadPoolExecutor().prestartAllCoreThreads();
+        // 每个任务都等所有任务开始后才结束，保证每个线程各执行一个预热任务（而不是同一个线程执行多个）
+        CountDownLatch started = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            chartRenderExecutor.execute(() -> {
+                started.countDown();
+                try {
+                    long startTime = System.currentTimeMillis();
+                    ChartGenerateUtil.warmUp();
+                    log.debug("{}图表渲染预热完成，耗时{}ms", Thread.currentThread().getName(), System.currentTimeMillis() - startTime);
+                    started.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    log.warn("图表渲染预热失败：{}", e.getLocalizedMessage());
+                }
+            });
+        }
+        log.info("已提交{}个图表渲染预热任务", threads);
+    }
+}
@@ -0,0 +1,105 @@
+package sues.xmz.diploma.config.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import sues.xmz.diploma.common.domain.PageResponse;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 业务方法耗时统计
+ * <p>
+ * 每个业务方法记录一个 service.method 计时器（标签：类名、方法名、异常类型），抛出异常时再增加 service.method.errors 计数器。
+ * 返回 CompletableFuture 的方法（登录、图表）在异步结果完成时才记录耗时。
+ * 同时按返回值和参数记录两个业务指标：
+ * <ul>
+ *     <li>page.rows.returned：分页查询每页返回的行数（不是数据库扫描的行数）</li>
+ *     <li>batch.rows.written：批量新增、修改、删除（方法名包含 Batch 或 Bulk，第一个参数为集合）每批写入的行数</li>
+ * </ul>
+ * 分位数和直方图在 application.yml 的 management.metrics.distribution 中统一配置
+ */
+public class ServiceMethodMetricsInterceptor implements MethodInterceptor {
+
+    private static final String NONE = "none";
+
+    /**
+     * MeterRegistry在第一次调用时才获取，避免代理创建阶段提前初始化监控相关的Bean
+     */
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    public ServiceMethodMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry == null) {
+            return invocation.proceed();
+        }
+
+        String className = invocation.getThis() == null
+                ? invocation.getMethod().getDeclaringClass().getSimpleName()
+                : AopUtils.getTargetClass(invocation.getThis()).getSimpleName();
+        String methodName = invocation.getMethod().getName();
+        long startTime = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            record(meterRegistry, className, methodName, startTime, e);
+            throw e;
+        }
+
+        if (result instanceof CompletableFuture<?> future) {
+            future.whenComplete((value, ex) -> record(meterRegistry, className, methodName, startTime,
+                    ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex));
+        } else {
+            record(meterRegistry, className, methodName, startTime, null);
+        }
+        recordRows(meterRegistry, className, methodName, invocation.getArguments(), result);
+        return result;
+    }
+
+    private static void record(MeterRegistry meterRegistry, String className, String methodName, long startTime, Throwable ex) {
+        String exception = ex == null ? NONE : ex.getClass().getSimpleName();
+        Timer.builder("service.method")
+                .description("业务方法耗时")
+                .tags("class", className, "method", methodName, "exception", exception)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        if (ex != null) {
+            meterRegistry.counter("service.method.errors", "class", className, "method", methodName, "exception", exception)
+                    .increment();
+        }
+    }
+
+    private static void recordRows(MeterRegistry meterRegistry, String className, String methodName, Object[] arguments, Object result) {
+        if (result instanceof PageResponse<?> pageResponse && pageResponse.getDataList() != null) {
+            DistributionSummary.builder("page.rows.returned")
+                    .description("分页查询每页返回的行数")
+                    .baseUnit("rows")
+                    .tags("class", className, "method", methodName)
+                    .register(meterRegistry)
+                    .record(pageResponse.getDataList().size());
+            return;
+        }
+        if ((methodName.contains("Batch") || methodName.contains("Bulk"))
+                && arguments.length > 0 && arguments[0] instanceof Collection<?> rows) {
+            DistributionSummary.builder("batch.rows.written")
+                    .description("批量写入每批的行数")
+                    .baseUnit("rows")
+                    .tags("class", className, "method", methodName)
+                    .register(meterRegistry)
+                    .record(rows.size());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package sues.xmz.diploma.config.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * 业务方法监控配置
+ * <p>
+ * 项目中没有引入AspectJ，这里注册一个基础设施角色的Advisor，由Spring Boot默认的自动代理（和@Transactional使用的是同一个）
+ * 为 sues.xmz.diploma.service 包下所有@Service类创建代理，只记录业务接口中声明的方法。
+ * 优先级高于事务，记录的耗时包含事务提交的时间
+ */
+@Configuration
+public class ServiceMetricsConfig {
+
+    private static final String SERVICE_PACKAGE = "sues.xmz.diploma.service.";
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceMethodMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        ClassFilter serviceClassFilter = new AnnotationClassFilter(Service.class, true);
+        Pointcut servicePointcut = new ComposablePointcut(
+                clazz -> clazz.getName().startsWith(SERVICE_PACKAGE) && serviceClassFilter.matches(clazz),
+                new ServiceInterfaceMethodMatcher()
+        );
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(servicePointcut, new ServiceMethodMetricsInterceptor(meterRegistryProvider));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    /**
+     * 只匹配 sues.xmz.diploma.service 包下业务接口中声明的方法，
+     * 从 IService、ServiceImpl 继承的 lambdaQuery()、getById() 等通用方法不记录
+     */
+    private static class ServiceInterfaceMethodMatcher extends StaticMethodMatcher {
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            for (Class<?> serviceInterface : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+                if (serviceInterface.getName().startsWith(SERVICE_PACKAGE)
+                        && isDeclared(serviceInterface, method.getName(), method.getParameterTypes())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isDeclared(Class<?> serviceInterface, String methodName, Class<?>[] parameterTypes) {
+            try {
+                serviceInterface.getDeclaredMethod(methodName, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.OptimisticLockerInnerInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
@@ -38,4 +39,13 @@ public class MybatisPlusConfig {
         // 如果有多数据源可以不配具体类型, 否则都建议配上具体的 DbType
         return interceptor;
     }
-}
\ No newline at end of file
+
+    /**
+     * SQL执行耗时统计和慢SQL日志（sql.monitor.enabled=false 时关闭）
+     */
+    @Bean
+    @ConditionalOnProperty(name = "sql.monitor.enabled", havingValue = "true", matchIfMissing = true)
+    public SqlTimingInterceptor sqlTimingInterceptor(SqlStatisticsRecorder sqlStatisticsRecorder) {
+        return new SqlTimingInterceptor(sqlStatisticsRecorder);
+    }
+}
@@ -0,0 +1,53 @@
+package sues.xmz.diploma.config.mybatis;
+
+import jakarta.annotation.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+import sues.xmz.diploma.domain.dto.monitor.SqlStatementStatsDTO;
+
+import java.util.List;
+
+/**
+ * SQL执行统计的监控端点
+ * <ul>
+ *     <li>GET /actuator/sqlstats ：按总耗时排序的前N条统计（N 见 sql.monitor.top-n）</li>
+ *     <li>GET /actuator/sqlstats/{orderBy} ：按指定字段排序的前N条统计，orderBy 可选 total、avg、max、count、rows、errors</li>
+ *     <li>GET /actuator/sqlstats/{orderBy}/{limit} ：按指定字段排序的前 limit 条统计</li>
+ *     <li>DELETE /actuator/sqlstats ：清空统计</li>
+ * </ul>
+ * 排序字段和条数放在路径中而不是作为可选参数，端点的参数都是必填的
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatisticsEndpoint {
+
+    @Value("${sql.monitor.top-n:20}")
+    private int defaultLimit;
+
+    @Resource
+    private SqlStatisticsRecorder sqlStatisticsRecorder;
+
+    @ReadOperation
+    public List<SqlStatementStatsDTO> sqlStats() {
+        return sqlStatisticsRecorder.listTop(defaultLimit, null);
+    }
+
+    @ReadOperation
+    public List<SqlStatementStatsDTO> sqlStatsOrderBy(@Selector String orderBy) {
+        return sqlStatisticsRecorder.listTop(defaultLimit, orderBy);
+    }
+
+    @ReadOperation
+    public List<SqlStatementStatsDTO> sqlStatsOrderByWithLimit(@Selector String orderBy, @Selector int limit) {
+        return sqlStatisticsRecorder.listTop(limit, orderBy);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlStatisticsRecorder.reset();
+    }
+}
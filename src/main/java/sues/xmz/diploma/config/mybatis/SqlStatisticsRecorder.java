@@ -0,0 +1,220 @@
+package sues.xmz.diploma.config.mybatis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sues.xmz.diploma.domain.dto.monitor.SqlStatementStatsDTO;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQL执行统计
+ * <p>
+ * 由 {@link SqlTimingInterceptor} 在每条SQL执行后调用：
+ * <ul>
+ *     <li>按SQL指纹（参数值替换为 ?，IN 列表和多行 VALUES 合并）汇总执行次数、耗时、行数，供 /actuator/sqlstats 查询前N条</li>
+ *     <li>按 MappedStatement ID 和执行结果（outcome：SUCCESS、ERROR）记录 sql.statement 计时器</li>
+ *     <li>超过阈值或执行失败的SQL输出一条日志（只输出指纹，不输出参数值），日志名为 slow-sql，可以单独配置输出位置</li>
+ * </ul>
+ */
+@Slf4j(topic = "slow-sql")
+@Component
+public class SqlStatisticsRecorder {
+
+    /**
+     * 指纹数量超过上限后，新出现的SQL都汇总到这一行
+     */
+    static final String OTHER_FINGERPRINT = "(other)";
+
+    /**
+     * (other) 行中汇总了不同的SQL，MappedStatement ID 和SQL类型都使用这个值
+     */
+    static final String MIXED = "(mixed)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern MULTI_VALUES = Pattern.compile("(?i)\\bVALUES\\s*(\\([^()]*\\))(?:\\s*,\\s*\\([^()]*\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Value("${sql.monitor.slow-threshold-ms:200}")
+    private long slowThresholdMillis;
+
+    @Value("${sql.monitor.max-fingerprints:1000}")
+    private int maxFingerprints;
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final Map<String, StatementStats> statsMap = new ConcurrentHashMap<>();
+
+    /**
+     * 原始SQL -> 指纹，同一条SQL不需要每次都重新计算指纹。
+     * 包含 IN 列表或多行 VALUES 的SQL长度随参数个数变化，不缓存，避免缓存中保存大量很长的批量SQL
+     */
+    private final Map<String, String> fingerprintCache = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> timerMap = new ConcurrentHashMap<>();
+
+    public SqlStatisticsRecorder(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    /**
+     * 记录一次SQL执行
+     *
+     * @param statementId MappedStatement ID
+     * @param commandType SQL类型
+     * @param sql         执行的SQL（含 ? 占位符）
+     * @param elapsedNanos 耗时（纳秒）
+     * @param rows        返回或影响的行数，小于0表示未知
+     * @param failed      是否执行失败
+     */
+    public void record(String statementId, String commandType, String sql, long elapsedNanos, long rows, boolean failed) {
+        String fingerprint = fingerprint(sql);
+        boolean slow = TimeUnit.NANOSECONDS.toMillis(elapsedNanos) >= slowThresholdMillis;
+
+        StatementStats stats = statsMap.get(fingerprint);
+        if (stats == null) {
+            stats = statsMap.size() < maxFingerprints
+                    ? statsMap.computeIfAbsent(fingerprint, k -> new StatementStats(statementId, commandType))
+                    : statsMap.computeIfAbsent(OTHER_FINGERPRINT, k -> new StatementStats(MIXED, MIXED));
+        }
+        stats.record(elapsedNanos, rows, slow, failed);
+
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null) {
+            String outcome = failed ? "ERROR" : "SUCCESS";
+            timerMap.computeIfAbsent(statementId + '|' + outcome, key -> Timer.builder("sql.statement")
+                            .description("SQL执行耗时")
+                            .tags("statement", statementId, "command", commandType, "outcome", outcome)
+                            .register(meterRegistry))
+                    .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        if (failed) {
+            log.warn("SQL执行失败：statement={}, command={}, elapsedMs={}, sql={}",
+                    statementId, commandType, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), fingerprint);
+        } else if (slow) {
+            log.warn("慢SQL：statement={}, command={}, elapsedMs={}, rows={}, thresholdMs={}, sql={}",
+                    statementId, commandType, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows, slowThresholdMillis, fingerprint);
+        }
+    }
+
+    /**
+     * 查询汇总的SQL统计
+     *
+     * @param limit   返回的条数
+     * @param orderBy 排序字段：total（总耗时，默认）、avg、max、count、rows、errors
+     *
+     * @return 排序后的前 limit 条统计
+     */
+    public List<SqlStatementStatsDTO> listTop(int limit, String orderBy) {
+        Comparator<SqlStatementStatsDTO> comparator = switch (orderBy == null ? "total" : orderBy) {
+            case "avg" -> Comparator.comparing(SqlStatementStatsDTO::getAvgMillis);
+            case "max" -> Comparator.comparing(SqlStatementStatsDTO::getMaxMillis);
+            case "count" -> Comparator.comparing(SqlStatementStatsDTO::getCount);
+            case "rows" -> Comparator.comparing(SqlStatementStatsDTO::getRows);
+            case "errors" -> Comparator.comparing(SqlStatementStatsDTO::getErrorCount);
+            default -> Comparator.comparing(SqlStatementStatsDTO::getTotalMillis);
+        };
+        return statsMap.entrySet().stream()
+                .map(entry -> entry.getValue().toDTO(entry.getKey()))
+                .sorted(comparator.reversed())
+                .limit(Math.max(limit, 0))
+                .toList();
+    }
+
+    /**
+     * 清空汇总的统计（sql.statement 计时器不受影响）
+     */
+    public void reset() {
+        statsMap.clear();
+    }
+
+    /**
+     * 计算SQL指纹：参数值替换为 ?，IN (?, ?, ...) 合并为 IN (...)，多行 VALUES 只保留第一行，连续空白合并为一个空格
+     */
+    String fingerprint(String sql) {
+        String fingerprint = fingerprintCache.get(sql);
+        if (fingerprint != null) {
+            return fingerprint;
+        }
+        fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        Matcher inListMatcher = IN_LIST.matcher(fingerprint);
+        boolean variableLength = inListMatcher.find();
+        fingerprint = inListMatcher.replaceAll("IN (...)");
+        Matcher multiValuesMatcher = MULTI_VALUES.matcher(fingerprint);
+        variableLength |= multiValuesMatcher.find();
+        fingerprint = multiValuesMatcher.replaceAll("VALUES $1");
+        fingerprint = WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+        if (variableLength) {
+            return fingerprint;
+        }
+        // 其它SQL的种类是有限的，缓存超过上限时直接清空重新计算
+        if (fingerprintCache.size() >= maxFingerprints * 4) {
+            fingerprintCache.clear();
+        }
+        fingerprintCache.put(sql, fingerprint);
+        return fingerprint;
+    }
+
+    private static class StatementStats {
+        private final String statementId;
+        private final String commandType;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+
+        StatementStats(String statementId, String commandType) {
+            this.statementId = statementId;
+            this.commandType = commandType;
+        }
+
+        void record(long elapsedNanos, long rowCount, boolean slow, boolean failed) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+            if (slow) {
+                slowCount.increment();
+            }
+            if (failed) {
+                errorCount.increment();
+            }
+        }
+
+        SqlStatementStatsDTO toDTO(String fingerprint) {
+            long executions = count.sum();
+            double totalMillis = totalNanos.sum() / 1_000_000.0;
+            return SqlStatementStatsDTO.builder()
+                    .fingerprint(fingerprint)
+                    .statementId(statementId)
+                    .commandType(commandType)
+                    .count(executions)
+                    .totalMillis(totalMillis)
+                    .avgMillis(executions == 0 ? 0 : totalMillis / executions)
+                    .maxMillis(maxNanos.get() / 1_000_000.0)
+                    .rows(rows.sum())
+                    .slowCount(slowCount.sum())
+                    .errorCount(errorCount.sum())
+                    .build();
+        }
+    }
+}
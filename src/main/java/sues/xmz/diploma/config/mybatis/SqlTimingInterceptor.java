@@ -0,0 +1,165 @@
+package sues.xmz.diploma.config.mybatis;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import org.apache.ibatis.executor.BatchExecutorException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * SQL执行耗时拦截器
+ * <p>
+ * 记录每条SQL的 MappedStatement ID、耗时、行数（查询为返回的行数，更新为影响的行数）和是否执行失败，
+ * 交给 {@link SqlStatisticsRecorder} 汇总、记录监控指标和输出慢SQL日志：
+ * <ul>
+ *     <li>普通的查询和更新在 StatementHandler 上计时，SQL直接使用 StatementHandler 中已经生成的 BoundSql，不再重新生成；</li>
+ *     <li>批量执行器（saveBatch、updateBatchById）中的更新只是加入批次，真正执行是在 Executor#flushStatements 中，
+ *     因此在 flushStatements 上计时，每个批次记录一次（批次的SQL和影响的行数来自 BatchResult）。
+ *     执行器在提交事务或查询前自动刷新的批次不经过拦截器，不会被记录。</li>
+ * </ul>
+ * 执行失败（比如锁等待超时、查询超时）的SQL同样计时并记录，标记为失败后重新抛出原来的异常。
+ * 不输出参数值，也不会同步打印完整的SQL，需要查看完整SQL时见 application.yml 中的日志配置
+ */
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+        @Signature(type = Executor.class, method = "flushStatements", args = {})
+})
+public class SqlTimingInterceptor implements Interceptor {
+
+    private final SqlStatisticsRecorder sqlStatisticsRecorder;
+
+    public SqlTimingInterceptor(SqlStatisticsRecorder sqlStatisticsRecorder) {
+        this.sqlStatisticsRecorder = sqlStatisticsRecorder;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (invocation.getTarget() instanceof Executor) {
+            return interceptFlushStatements(invocation);
+        }
+        StatementHandler statementHandler = (StatementHandler) invocation.getTarget();
+        MappedStatement mappedStatement = PluginUtils.mpStatementHandler(statementHandler).mappedStatement();
+        String sql = statementHandler.getBoundSql().getSql();
+        long startTime = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            sqlStatisticsRecorder.record(
+                    mappedStatement.getId(),
+                    mappedStatement.getSqlCommandType().name(),
+                    sql,
+                    System.nanoTime() - startTime,
+                    failed ? -1 : countRows(result),
+                    failed
+            );
+        }
+    }
+
+    /**
+     * 执行批量执行器中的所有批次。JDBC依次执行每个批次，这里只能得到总耗时，有多个批次时平均分到每个批次上
+     */
+    private Object interceptFlushStatements(Invocation invocation) throws Throwable {
+        long startTime = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            if (result instanceof List<?> batchResultList && !batchResultList.isEmpty()) {
+                long elapsedNanos = (System.nanoTime() - startTime) / batchResultList.size();
+                for (Object batchResult : batchResultList) {
+                    recordBatch((BatchResult) batchResult, elapsedNanos, false);
+                }
+            }
+            return result;
+        } catch (InvocationTargetException e) {
+            if (e.getTargetException() instanceof BatchExecutorException batchExecutorException) {
+                List<BatchResult> successfulBatchResultList = batchExecutorException.getSuccessfulBatchResults();
+                long elapsedNanos = (System.nanoTime() - startTime) / (successfulBatchResultList.size() + 1);
+                for (BatchResult batchResult : successfulBatchResultList) {
+                    recordBatch(batchResult, elapsedNanos, false);
+                }
+                MappedStatement mappedStatement = getConfiguration((Executor) invocation.getTarget())
+                        .getMappedStatement(batchExecutorException.getFailingStatementId(), false);
+                sqlStatisticsRecorder.record(
+                        mappedStatement.getId(),
+                        mappedStatement.getSqlCommandType().name(),
+                        batchExecutorException.getFailingSqlStatement(),
+                        elapsedNanos,
+                        -1,
+                        true
+                );
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Executor 接口中没有 getConfiguration，从实际的执行器（CachingExecutor 时取其 delegate）中读取
+     */
+    private static Configuration getConfiguration(Executor executor) {
+        MetaObject metaObject = SystemMetaObject.forObject(PluginUtils.realTarget(executor));
+        while (metaObject.hasGetter("delegate")) {
+            metaObject = SystemMetaObject.forObject(PluginUtils.realTarget(metaObject.getValue("delegate")));
+        }
+        return (Configuration) metaObject.getValue("configuration");
+    }
+
+    private void recordBatch(BatchResult batchResult, long elapsedNanos, boolean failed) {
+        MappedStatement mappedStatement = batchResult.getMappedStatement();
+        sqlStatisticsRecorder.record(
+                mappedStatement.getId(),
+                mappedStatement.getSqlCommandType().name(),
+                batchResult.getSql(),
+                elapsedNanos,
+                failed ? -1 : countBatchRows(batchResult.getUpdateCounts()),
+                failed
+        );
+    }
+
+    /**
+     * 查询返回的行数或更新影响的行数
+     */
+    private static long countRows(Object result) {
+        if (result instanceof List<?> list) {
+            return list.size();
+        }
+        if (result instanceof Integer rows) {
+            return rows;
+        }
+        return -1;
+    }
+
+    /**
+     * 批次中所有语句影响的行数之和，驱动只返回 SUCCESS_NO_INFO（比如MySQL改写为多行 VALUES）时行数记为未知（-1）
+     */
+    private static long countBatchRows(int[] updateCounts) {
+        if (updateCounts == null) {
+            return -1;
+        }
+        long rows = 0;
+        boolean known = false;
+        for (int updateCount : updateCounts) {
+            if (updateCount >= 0) {
+                rows += updateCount;
+                known = true;
+            }
+        }
+        return known ? rows : -1;
+    }
+}
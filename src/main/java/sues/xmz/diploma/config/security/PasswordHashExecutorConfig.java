@@ -0,0 +1,41 @@
+package sues.xmz.diploma.config.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 密码加密/校验线程池配置
+ * <p>
+ * BCrypt每次计算大约需要100ms的CPU时间，登录高峰或撞库攻击时如果直接在Tomcat的请求线程中计算，
+ * 所有请求线程都会被占满。放在独立的有界线程池中执行后，同时进行的BCrypt计算不会超过线程数，
+ * 队列满时直接拒绝（返回"登录繁忙"），其它接口仍然可以正常响应。
+ */
+@Configuration
+public class PasswordHashExecutorConfig {
+
+    @Value("${password.hash.pool-size:0}")
+    private int poolSize;
+
+    @Value("${password.hash.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        // 没有配置线程数时，使用CPU核数的一半（至少1个线程），给其它请求留出CPU
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+}
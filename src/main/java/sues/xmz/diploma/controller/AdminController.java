@@ -2,6 +2,7 @@ package sues.xmz.diploma.controller;
 
 import com.github.xiaoymin.knife4j.annotations.ApiOperationSupport;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -17,6 +18,7 @@ import sues.xmz.diploma.common.exception.users.UsersDeleteFailureException;
 import sues.xmz.diploma.domain.dto.users.UserDetailDTO;
 import sues.xmz.diploma.domain.req.users.UserDeleteReq;
 import sues.xmz.diploma.domain.req.users.UserQueryInBulkByPageReq;
+import sues.xmz.diploma.domain.resp.diet_records.DailyNutritionRollupVerifyResp;
 import sues.xmz.diploma.domain.resp.users.UserDetailsPageResult;
 import sues.xmz.diploma.service.AdminService;
 
@@ -81,4 +83,51 @@ public class AdminController {
         }
         return Result.success("删除用户账号成功");
     }
+
+    @ApiOperationSupport(order = 20)
+    @PostMapping("/nutritionRollup/{userId}/rebuild")
+    @Operation(
+            tags = {"_管理员操作模块"},
+            summary = "00饮食-重建用户的营养摄入汇总表",
+            description = "根据用户ID，从原始的饮食记录重新计算该用户每天的营养摄入汇总数据",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "重建营养摄入汇总表成功"),
+                    @ApiResponse(responseCode = "1000", description = "用户不存在"),
+            }
+    )
+    public Result<?> rebuildNutritionRollup(@PathVariable @Parameter(description = "用户ID") Integer userId) {
+        adminService.rebuildNutritionRollup(userId);
+        return Result.success("重建营养摄入汇总表成功");
+    }
+
+    @ApiOperationSupport(order = 21)
+    @GetMapping("/nutritionRollup/{userId}/verify")
+    @Operation(
+            tags = {"_管理员操作模块"},
+            summary = "00饮食-校验用户的营养摄入汇总表",
+            description = "根据用户ID，从原始的饮食记录重新计算营养摄入，并与汇总表逐天比较，返回不一致的日期",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "校验完成"),
+                    @ApiResponse(responseCode = "1000", description = "用户不存在"),
+            }
+    )
+    public Result<DailyNutritionRollupVerifyResp> verifyNutritionRollup(@PathVariable @Parameter(description = "用户ID") Integer userId) {
+        return Result.success(adminService.verifyNutritionRollup(userId));
+    }
+
+    @ApiOperationSupport(order = 22)
+    @PostMapping("/exerciseRollup/{userId}/rebuild")
+    @Operation(
+            tags = {"_管理员操作模块"},
+            summary = "00运动-重建用户的运动汇总表",
+            description = "根据用户ID，从原始的运动记录重新计算该用户每天的运动汇总数据",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "重建运动汇总表成功"),
+                    @ApiResponse(responseCode = "1000", description = "用户不存在"),
+            }
+    )
+    public Result<?> rebuildExerciseRollup(@PathVariable @Parameter(description = "用户ID") Integer userId) {
+        adminService.rebuildExerciseRollup(userId);
+        return Result.success("重建运动汇总表成功");
+    }
 }
@@ -1,7 +1,6 @@
 package sues.xmz.diploma.controller;
 
 
-import cn.hutool.core.bean.BeanUtil;
 import com.github.xiaoymin.knife4j.annotations.ApiOperationSupport;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,14 +17,15 @@ import sues.xmz.diploma.common.exception.diet_foods.DietFoodsDeleteFailureExcept
 import sues.xmz.diploma.common.exception.diet_foods.DietFoodsSaveFailureException;
 import sues.xmz.diploma.common.exception.diet_foods.DietFoodsUpdateFailureException;
 import sues.xmz.diploma.domain.dto.diet_foods.DietFoodsDTO;
-import sues.xmz.diploma.domain.po.DietFoods;
 import sues.xmz.diploma.domain.req.diet_foods.DietFoodsAddReq;
 import sues.xmz.diploma.domain.req.diet_foods.DietFoodsDeleteReq;
 import sues.xmz.diploma.domain.req.diet_foods.DietFoodsQueryReq;
 import sues.xmz.diploma.domain.req.diet_foods.DietFoodsUpdateReq;
 import sues.xmz.diploma.domain.resp.diet_foods.ListAllDietFoodsDetailsResp;
 import sues.xmz.diploma.domain.resp.diet_foods.ListPagedDietFoodsRespResult;
+import sues.xmz.diploma.service.CatalogSnapshotService;
 import sues.xmz.diploma.service.DietFoodsService;
+import sues.xmz.diploma.service.DimensionDictionaryService;
 
 import java.util.List;
 
@@ -45,6 +45,12 @@ public class DietFoodsController {
     @Resource
     private DietFoodsService dietFoodsService;
 
+    @Resource
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Resource
+    private DimensionDictionaryService dimensionDictionaryService;
+
     @ApiOperationSupport(order = 30)
     @Operation(
             tags = {"_管理员操作模块"},
@@ -57,7 +63,7 @@ public class DietFoodsController {
     )
     @PostMapping
     public Result<?> addDietFoodsInBatch(@RequestBody @Valid List<DietFoodsAddReq> dietFoodsAddReqList) {
-        boolean success = dietFoodsService.saveBatch(BeanUtil.copyToList(dietFoodsAddReqList, DietFoods.class));
+        boolean success = dietFoodsService.addDietFoodsInBatch(dietFoodsAddReqList);
         if (!success) {
             throw new DietFoodsSaveFailureException();
         }
@@ -104,7 +110,7 @@ public class DietFoodsController {
     )
     @PutMapping
     public Result<?> updateDietFoodsInBatch(@RequestBody @Valid List<DietFoodsUpdateReq> dietFoodsUpdateReqList) {
-        boolean success = dietFoodsService.updateBatchById(BeanUtil.copyToList(dietFoodsUpdateReqList, DietFoods.class));
+        boolean success = dietFoodsService.updateDietFoodsInBatch(dietFoodsUpdateReqList);
         if (!success) {
             throw new DietFoodsUpdateFailureException();
         }
@@ -123,7 +129,7 @@ public class DietFoodsController {
     )
     @DeleteMapping
     public Result<?> deleteDietFoodsInBatch(@RequestBody @Valid DietFoodsDeleteReq dietFoodsDeleteReq) {
-        boolean success = dietFoodsService.removeBatchByIds(dietFoodsDeleteReq.getFoodIdList());
+        boolean success = dietFoodsService.deleteDietFoodsInBatch(dietFoodsDeleteReq.getFoodIdList());
         if (!success) {
             throw new DietFoodsDeleteFailureException();
         }
@@ -146,7 +152,7 @@ public class DietFoodsController {
     )
     @GetMapping
     public Result<?> listDietFoodsDetailsByPage() {
-        return Result.success(dietFoodsService.list());
+        return Result.success(catalogSnapshotService.listAllDietFoods());
     }
 
     @ApiOperationSupport(order = 35)
@@ -182,13 +188,7 @@ public class DietFoodsController {
     )
     @GetMapping("/foodTypes")
     public Result<?> getFoodTypes() {
-        List<String> foodTypeList = dietFoodsService.lambdaQuery()
-                .select(DietFoods::getFoodType)
-                .list()
-                .stream()
-                .map(DietFoods::getFoodType)
-                .distinct()
-                .toList();
+        List<String> foodTypeList = dimensionDictionaryService.listFoodTypes();
 
         if (foodTypeList.isEmpty()) {
             return Result.success("未找到相关食物分类");
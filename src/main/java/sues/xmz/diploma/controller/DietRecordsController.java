@@ -13,13 +13,13 @@ import sues.xmz.diploma.common.domain.PageResponse;
 import sues.xmz.diploma.common.domain.Result;
 import sues.xmz.diploma.common.exception.diet_records.DietRecordsDeleteFailureException;
 import sues.xmz.diploma.domain.dto.diet_records.DietRecordsDTO;
-import sues.xmz.diploma.domain.po.DietRecords;
 import sues.xmz.diploma.domain.req.diet_records.*;
 import sues.xmz.diploma.domain.resp.diet_records.AllMealTypeRespResult;
 import sues.xmz.diploma.domain.resp.diet_records.DietRecordsPageRespResult;
 import sues.xmz.diploma.domain.resp.diet_records.NutritionalCalulationConsequenceRespResult;
 import sues.xmz.diploma.domain.resp.exercise_records.ExerciseRecordsPageRespResult;
 import sues.xmz.diploma.service.DietRecordsService;
+import sues.xmz.diploma.service.DimensionDictionaryService;
 
 import java.util.List;
 import java.util.Map;
@@ -32,6 +32,9 @@ public class DietRecordsController {
     @Resource
     private DietRecordsService dietRecordsService;
 
+    @Resource
+    private DimensionDictionaryService dimensionDictionaryService;
+
     @ApiOperationSupport(order = 1)
     @Operation(
             summary = "批量添加饮食记录_前端已实现",
@@ -79,7 +82,7 @@ public class DietRecordsController {
     )
     @DeleteMapping
     public Result<?> deleteDietRecordInBulk(@RequestBody @Valid DietRecordsDeleteReq dietRecordsDeleteReq) {
-        boolean success = dietRecordsService.removeBatchByIds(dietRecordsDeleteReq.getDietIdList());
+        boolean success = dietRecordsService.deleteDietRecordsInBulk(dietRecordsDeleteReq.getDietIdList());
         if (!success) {
             throw new DietRecordsDeleteFailureException();
         }
@@ -109,7 +112,7 @@ public class DietRecordsController {
     @PostMapping("/listByPage")
     public Result<?> listPaginatedDietRecordsByTimeRange(@RequestBody @Valid DietRecordsQueryReq dietRecordQueryReq) {
         PageResponse<DietRecordsDTO> pageResponse = dietRecordsService.listPaginatedDietRecordsByTimeRange(dietRecordQueryReq);
-        if (pageResponse.getTotal() < 1) {
+        if (pageResponse.isEmptyResult()) {
             return Result.success(PageResponse.empty());
         }
         return Result.success(pageResponse);
@@ -150,13 +153,7 @@ public class DietRecordsController {
     )
     @GetMapping("/mealTypes")
     public Result<?> getMealTypes() {
-        List<String> mealTypeList = dietRecordsService.lambdaQuery()
-                .select(DietRecords::getMealType)
-                .list()
-                .stream()
-                .map(DietRecords::getMealType)
-                .distinct()
-                .toList();
+        List<String> mealTypeList = dimensionDictionaryService.listMealTypes();
         if (mealTypeList.isEmpty()) {
             return Result.success("未找到相关进餐类型");
         }
@@ -2,12 +2,16 @@ package sues.xmz.diploma.controller;
 
 import com.github.xiaoymin.knife4j.annotations.ApiOperationSupport;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
+import jakarta.annotation.Nullable;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import sues.xmz.diploma.common.domain.EmptyPageRespResult;
 import sues.xmz.diploma.common.domain.PageResponse;
@@ -19,8 +23,10 @@ import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordUpdateReq;
 import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordsCreateReq;
 import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordsQueryReq;
 import sues.xmz.diploma.domain.resp.exercise_records.ExerciseRecordsPageRespResult;
+import sues.xmz.diploma.domain.resp.exercise_records.ExerciseStatsResp;
 import sues.xmz.diploma.service.ExerciseRecordsService;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Tag(name = "06运动记录管理模块", description = "运动记录相关API")
@@ -80,7 +86,7 @@ public class ExerciseRecordsController {
             }
     )
     public Result<?> deleteExerciseRecordInBulk(@RequestBody @Valid ExerciseRecordDeleteReq exerciseRecordDeleteReq) {
-        boolean success = exerciseRecordsService.removeBatchByIds(exerciseRecordDeleteReq.getExerciseRecordIdList());
+        boolean success = exerciseRecordsService.deleteExerciseRecordsInBulk(exerciseRecordDeleteReq.getExerciseRecordIdList());
         if (!success) {
             throw new ExerciseRecordsDeleteFailException();
         }
@@ -110,7 +116,7 @@ public class ExerciseRecordsController {
     public Result<?> listPaginatedExerciseRecordsByTimeRange(@RequestBody @Valid ExerciseRecordsQueryReq exerciseRecordsQueryReq) {
         try {
             PageResponse<ExerciseRecordsDTO> pageResponse = exerciseRecordsService.listPaginatedExerciseRecordsByTimeRange(exerciseRecordsQueryReq);
-            if (pageResponse.getTotal() < 1){
+            if (pageResponse.isEmptyResult()){
                 return Result.success(PageResponse.empty());
             }
             return Result.success(pageResponse);
@@ -118,4 +124,32 @@ public class ExerciseRecordsController {
             throw new RuntimeException("服务端出现问题：" + e, e);
         }
     }
-}
\ No newline at end of file
+
+    @ApiOperationSupport(order = 5)
+    @GetMapping("/stats")
+    @Operation(
+            tags = {".05登录后运动记录操作"},
+            summary = "用户查看运动统计数据",
+            description = "统计今天（today）、本周（week）或本月（month）的运动时长、距离、次数和平均心率，也可以传入startDate和endDate按任意日期范围统计",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "获取运动统计数据成功",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ExerciseStatsResp.class))
+                    ),
+                    @ApiResponse(responseCode = "1046", description = "运动统计的时间范围无效"),
+            }
+    )
+    public Result<ExerciseStatsResp> getExerciseStats(@RequestParam @NotNull(message = "用户ID不能为空")
+                                                      @Parameter(description = "用户ID") Integer userId,
+                                                      @RequestParam(required = false) @Nullable
+                                                      @Parameter(description = "统计范围：today、week、month") String timeRange,
+                                                      @RequestParam(required = false) @Nullable
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                      @Parameter(description = "自定义统计的开始日期（包含），例如2025-03-01") LocalDate startDate,
+                                                      @RequestParam(required = false) @Nullable
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                      @Parameter(description = "自定义统计的结束日期（包含），例如2025-03-31") LocalDate endDate) {
+        return Result.success(exerciseRecordsService.getExerciseStats(userId, timeRange, startDate, endDate));
+    }
+}
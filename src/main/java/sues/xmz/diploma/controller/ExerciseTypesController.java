@@ -169,7 +169,7 @@ public class ExerciseTypesController {
     )
     @DeleteMapping
     public Result<?> deleteExerciseTypeInBatch(@RequestBody @Valid ExerciseTypesDeleteReq exerciseTypesDeleteReq) {
-        boolean success = exerciseTypesService.removeBatchByIds(exerciseTypesDeleteReq.getExerciseTypeIdList());
+        boolean success = exerciseTypesService.deleteExerciseTypesInBatch(exerciseTypesDeleteReq.getExerciseTypeIdList());
 
         if (!success) {
             throw new ExerciseTypesDeleteFailureException();
@@ -226,7 +226,7 @@ public class ExerciseTypesController {
     )
     @GetMapping
     public Result<?> getAllExerciseTypesByPage() {
-        return Result.success(exerciseTypesService.list());
+        return Result.success(exerciseTypesService.listAllExerciseTypes());
     }
 
 }
@@ -10,6 +10,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import sues.xmz.diploma.common.domain.EmptyPageRespResult;
 import sues.xmz.diploma.common.domain.PageResponse;
@@ -17,21 +23,26 @@ import sues.xmz.diploma.common.domain.Result;
 import sues.xmz.diploma.common.exception.health_data.HealthDataCreateFailure;
 import sues.xmz.diploma.common.exception.health_data.HealthDataDeleteFailure;
 import sues.xmz.diploma.common.exception.health_data.HealthDataUpdateFailure;
-import sues.xmz.diploma.common.utils.ImageUtil;
+import sues.xmz.diploma.common.utils.HttpCacheUtil;
 import sues.xmz.diploma.domain.dto.health_data.HealthDataDTO;
 import sues.xmz.diploma.domain.po.HealthData;
+import sues.xmz.diploma.domain.req.health_data.HealthDataChartBatchReq;
 import sues.xmz.diploma.domain.req.health_data.HealthDataCreateReq;
 import sues.xmz.diploma.domain.req.health_data.HealthDataDeleteReq;
 import sues.xmz.diploma.domain.req.health_data.HealthDataQueryReq;
+import sues.xmz.diploma.domain.req.health_data.HealthDataTrendReq;
 import sues.xmz.diploma.domain.req.health_data.HealthDataUpdateReq;
 import sues.xmz.diploma.domain.resp.health_data.HealDataDetailsPageRespResult;
 import sues.xmz.diploma.domain.resp.health_data.HealDataDetailsResp;
+import sues.xmz.diploma.domain.resp.health_data.HealthDataTrendSeriesResp;
+import sues.xmz.diploma.service.HealthDataChartService;
 import sues.xmz.diploma.service.HealthDataService;
 
-import java.io.IOException;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Tag(name = "03健康数据管理", description = "健康数据相关API")
 @RequestMapping("/healthData")
@@ -41,6 +52,9 @@ public class HealthDataController {
     @Resource
     private HealthDataService healthDataService;
 
+    @Resource
+    private HealthDataChartService healthDataChartService;
+
     @ApiOperationSupport(order = 1)
     @Operation(
             summary = "批量添加健康数据_前端已实现",
@@ -120,7 +134,7 @@ public class HealthDataController {
     @PostMapping("/listByPage")
     public Result<?> listPaginatedHealthDataByTimeRange(@RequestBody @Valid HealthDataQueryReq healthDataQueryReq) {
         PageResponse<HealthDataDTO> pageResponse = healthDataService.listPaginatedHealthDataByTimeRange(healthDataQueryReq);
-        if (pageResponse.getTotal() < 1) {
+        if (pageResponse.isEmptyResult()) {
             return Result.success(PageResponse.empty());
         }
         return Result.success(pageResponse);
@@ -160,7 +174,7 @@ public class HealthDataController {
      *     }
      * </pre>
      *
-     * @param healthDataQueryReq 查询健康数据的参数
+     * @param healthDataTrendReq 查询健康数据趋势的参数
      *
      * @return imageBytesBase64String
      */
@@ -187,20 +201,137 @@ public class HealthDataController {
                     @ApiResponse(responseCode = "1008", description = "健康数据没找到"),
             }
     )
-    public Result<?> getHealthDataTrend(@RequestBody @Valid HealthDataQueryReq healthDataQueryReq) {
+    public CompletableFuture<Result<?>> getHealthDataTrend(@RequestBody @Valid HealthDataTrendReq healthDataTrendReq) {
+        // 图表在独立的渲染线程池中生成（或直接命中缓存），不占用请求线程
+        return healthDataChartService.getHealthDataTrendChart(healthDataTrendReq)
+                .thenApply(imageBytes -> {
+                    // 将图表图片编码为Base64字符串
+                    String imageBytesBase64String = Base64.getEncoder().encodeToString(imageBytes);
+                    return Result.success(Map.of("ImageOfBase64String", imageBytesBase64String));
+                });
+    }
 
-        try {
-            // 生成图表的字节数组
-            byte[] imageBytes = healthDataService.getHealthDataTrend(healthDataQueryReq);
-            ImageUtil.saveImage(imageBytes, "check_image/trend.png");
+    /**
+     * <pre>
+     * 一次请求生成多张趋势图（比如仪表盘同时展示综合趋势图和BMI、心率、体重趋势图），
+     * 趋势数据只查询一次，各图表在渲染线程池中并发渲染，返回 图表名称 -> Base64字符串
+     * </pre>
+     *
+     * @param healthDataChartBatchReq 批量获取健康数据趋势图的参数
+     *
+     * @return 图表名称 -> imageBytesBase64String
+     */
+    @ApiOperationSupport(order = 103)
+    @PostMapping("/trendCharts")
+    @Operation(
+            summary = "用户批量查看健康数据趋势图表",
+            tags = {".03登录后健康数据操作"},
+            description = "一次生成多张健康数据趋势图（combined、bmi、heartRate、weight），共用同一份趋势数据并发渲染，返回每张图表的Base64字符串",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "获取健康数据的趋势图表成功"),
+                    @ApiResponse(responseCode = "1008", description = "健康数据没找到"),
+                    @ApiResponse(responseCode = "1047", description = "图表生成繁忙"),
+            }
+    )
+    public CompletableFuture<Result<?>> getHealthDataTrendCharts(@RequestBody @Valid HealthDataChartBatchReq healthDataChartBatchReq) {
+        return healthDataChartService.getHealthDataTrendCharts(healthDataChartBatchReq)
+                .thenApply(imageBytesMap -> {
+                    // 将每张图表图片编码为Base64字符串
+                    Map<String, String> imageBase64StringMap = new LinkedHashMap<>();
+                    imageBytesMap.forEach((chart, imageBytes) ->
+                            imageBase64StringMap.put(chart, Base64.getEncoder().encodeToString(imageBytes)));
+                    return Result.success(imageBase64StringMap);
+                });
+    }
 
-            // 将图表图片编码为Base64字符串
-            String imageBytesBase64String = Base64.getEncoder().encodeToString(imageBytes);
+    /**
+     * <pre>
+     * 直接返回PNG图片（不再使用Base64字符串），前端可以直接作为图片地址使用，例如：
+     *     {@code
+     *      <img src="/healthData/trendChart.png?userId=1&bucket=week&chartSize=mobile">
+     *     }
+     * 响应中带有强ETag（由请求参数和用户健康数据的版本号计算），浏览器再次请求时会带上If-None-Match，
+     * 数据没有变化时直接返回304，不会重新渲染图表
+     * </pre>
+     *
+     * @param healthDataTrendReq 查询健康数据趋势的参数
+     * @param ifNoneMatch        请求头If-None-Match
+     *
+     * @return PNG图片
+     */
+    @ApiOperationSupport(order = 101)
+    @GetMapping(value = "/trendChart.png", produces = MediaType.IMAGE_PNG_VALUE)
+    @Operation(
+            summary = "用户查看健康数据趋势图表（PNG图片）",
+            tags = {".03登录后健康数据操作"},
+            description = "直接返回image/png格式的健康数据趋势图，支持ETag和If-None-Match（数据没有变化时返回304）",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "获取健康数据的趋势图表成功"),
+                    @ApiResponse(responseCode = "304", description = "健康数据没有变化，使用浏览器缓存的图片"),
+                    @ApiResponse(responseCode = "1008", description = "健康数据没找到"),
+                    @ApiResponse(responseCode = "1047", description = "图表生成繁忙"),
+            }
+    )
+    public CompletableFuture<ResponseEntity<byte[]>> getHealthDataTrendPng(@Valid @ParameterObject HealthDataTrendReq healthDataTrendReq,
+                                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                                           String ifNoneMatch) {
+        String eTag = healthDataChartService.getHealthDataTrendChartETag(healthDataTrendReq);
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (HttpCacheUtil.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build()
+            );
+        }
+        return healthDataChartService.getHealthDataTrendChart(healthDataTrendReq)
+                .thenApply(imageBytes -> ResponseEntity.ok()
+                        .contentType(MediaType.IMAGE_PNG)
+                        .eTag(eTag)
+                        .cacheControl(cacheControl)
+                        .body(imageBytes)
+                );
+    }
 
-            // 返回成功结果
-            return Result.success(Map.of("ImageOfBase64String", imageBytesBase64String));
-        } catch (IOException e) {
-            throw new RuntimeException("健康数据趋势图生成错误：" + e.getLocalizedMessage(), e);
+    /**
+     * <pre>
+     * 返回已经分桶、降采样并对齐的列式数据，前端直接用ECharts渲染，例如：
+     *     {@code
+     *      xAxis: { type: 'time' },
+     *      series: [{ type: 'line', data: epochDays.map((day, i) => [day * 86400000, bmis[i]]) }]
+     *     }
+     * 和PNG图片一样支持ETag和If-None-Match
+     * </pre>
+     *
+     * @param healthDataTrendReq 查询健康数据趋势的参数
+     * @param ifNoneMatch        请求头If-None-Match
+     *
+     * @return 列式的趋势数据
+     */
+    @ApiOperationSupport(order = 102)
+    @GetMapping("/trendSeries")
+    @Operation(
+            summary = "用户查看健康数据趋势的列式数据（由前端渲染图表）",
+            tags = {".03登录后健康数据操作"},
+            description = "返回日期（距离1970-01-01的天数）以及BMI、心率、体重的数组，已经在服务端分桶、降采样并对齐",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "获取健康数据趋势成功",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = HealthDataTrendSeriesResp.class))
+                    ),
+                    @ApiResponse(responseCode = "304", description = "健康数据没有变化，使用浏览器缓存的数据"),
+            }
+    )
+    public ResponseEntity<Result<HealthDataTrendSeriesResp>> getHealthDataTrendSeries(@Valid @ParameterObject HealthDataTrendReq healthDataTrendReq,
+                                                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                                                      String ifNoneMatch) {
+        String eTag = healthDataChartService.getHealthDataTrendSeriesETag(healthDataTrendReq);
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (HttpCacheUtil.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
         }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .body(Result.success(healthDataService.getHealthDataTrendSeries(healthDataTrendReq)));
     }
-}
\ No newline at end of file
+}
@@ -104,7 +104,7 @@ public class HealthGoalsController {
     )
     public Result<?> listPaginatedHealthGoalsDetailsByTimeRange(@RequestBody @Valid HealthGoalsQueryReq healthGoalsQueryReq) {
         PageResponse<HealthGoalsDetailsDTO> pageResponse = healthGoalsService.listPaginatedHealthGoalsDetailsByTimeRange(healthGoalsQueryReq);
-        if (pageResponse.getTotal() < 1){
+        if (pageResponse.isEmptyResult()){
             return Result.success(PageResponse.empty());
         }
         return Result.success(pageResponse);
@@ -1,6 +1,5 @@
 package sues.xmz.diploma.controller;
 
-import cn.hutool.core.bean.BeanUtil;
 import com.github.xiaoymin.knife4j.annotations.ApiOperationSupport;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,9 +8,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import sues.xmz.diploma.common.convert.BeanMapperRegistry;
 import sues.xmz.diploma.common.domain.Result;
 import sues.xmz.diploma.common.exception.users.PasswordChangeFailureException;
 import sues.xmz.diploma.common.exception.users.UserInfoUpdateException;
@@ -25,6 +26,8 @@ import sues.xmz.diploma.domain.resp.users.UserInfoResp;
 import sues.xmz.diploma.domain.resp.users.UserInfoRespResult;
 import sues.xmz.diploma.service.UsersService;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Tag(name = "01用户相关业务功能", description = "用户相关的API")
 @RequestMapping("/users")
@@ -72,10 +75,14 @@ public class UsersController {
                     @ApiResponse(responseCode = "1000", description = "用户账号不存在"
                     ),
                     @ApiResponse(responseCode = "1001", description = "密码输入错误"),
+                    @ApiResponse(responseCode = "1048", description = "登录尝试过于频繁"),
+                    @ApiResponse(responseCode = "1049", description = "当前登录人数过多"),
             }
     )
-    public Result<?> login(@RequestBody @Valid UserLoginReq userLoginReq) {
-        return Result.success(usersService.login(userLoginReq));
+    public CompletableFuture<Result<?>> login(@RequestBody @Valid UserLoginReq userLoginReq, HttpServletRequest request) {
+        // 密码在密码线程池中校验，不占用请求线程
+        return usersService.login(userLoginReq, request.getRemoteAddr())
+                .thenApply(Result::success);
     }
 
     @ApiOperationSupport(order = 3)
@@ -96,7 +103,7 @@ public class UsersController {
     public Result<?> getUserInfoByUserId(@RequestParam @Parameter(name = "userId", description = "用户ID")
                                              Integer userId
     ) {
-        UserInfoResp userInfoResp = BeanUtil.copyProperties(usersService.getById(userId), UserInfoResp.class);
+        UserInfoResp userInfoResp = BeanMapperRegistry.map(usersService.getById(userId), UserInfoResp.class);
         if (userInfoResp == null) {
             throw new UserNotFoundException();
         }
@@ -0,0 +1,45 @@
+package sues.xmz.diploma.domain.dto.catalog;
+
+import lombok.Getter;
+import sues.xmz.diploma.domain.po.DietFoods;
+import sues.xmz.diploma.domain.po.ExerciseTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 食物表和运动类型表的内存快照（不可变）
+ * <p>
+ * 两张表都是只有管理员才会修改的字典数据，读多写少。每次管理员修改后整体重建一个新的快照并替换旧的快照，
+ * 读取时直接使用当前快照，不需要访问数据库，也不会出现读到一半被修改的情况。
+ */
+@Getter
+public final class CatalogSnapshot {
+
+    /**
+     * 快照版本号，每次重建后加1
+     */
+    private final long version;
+
+    /**
+     * 所有食物数据（按食物ID升序）
+     */
+    private final List<DietFoods> dietFoodsList;
+
+    /**
+     * 所有运动类型（按运动类型ID升序）
+     */
+    private final List<ExerciseTypes> exerciseTypesList;
+
+    /**
+     * 快照的构建时间
+     */
+    private final LocalDateTime builtAt;
+
+    public CatalogSnapshot(long version, List<DietFoods> dietFoodsList, List<ExerciseTypes> exerciseTypesList) {
+        this.version = version;
+        this.dietFoodsList = List.copyOf(dietFoodsList);
+        this.exerciseTypesList = List.copyOf(exerciseTypesList);
+        this.builtAt = LocalDateTime.now();
+    }
+}
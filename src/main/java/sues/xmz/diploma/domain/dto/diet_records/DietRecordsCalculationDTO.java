@@ -50,6 +50,13 @@ public class DietRecordsCalculationDTO implements Serializable {
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     private Date mealTime;
 
+    /**
+     * 进餐类型
+     */
+    @Schema(description = "进餐类型", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotBlank(message = "进餐类型不能为空")
+    private String mealType;
+
     /**
      * 食用量
      */
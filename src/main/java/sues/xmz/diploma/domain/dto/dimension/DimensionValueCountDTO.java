@@ -0,0 +1,31 @@
+package sues.xmz.diploma.domain.dto.dimension;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+@Schema(description = "维度字典中的一个取值及其使用次数")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DimensionValueCountDTO implements Serializable {
+
+    /**
+     * 维度取值，比如食物分类的“水果”，进餐类型的“早餐”
+     */
+    @Schema(description = "维度取值")
+    private String value;
+
+    /**
+     * 使用次数
+     */
+    @Schema(description = "使用次数")
+    private Long count;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,54 @@
+package sues.xmz.diploma.domain.dto.health_data;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+@Schema(description = "健康数据趋势中的一个时间桶（某天、某周或某月）的汇总数据")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HealthDataTrendBucketDTO implements Serializable {
+
+    @Schema(description = "时间桶的开始日期")
+    private Date bucketStart;
+
+    @Schema(description = "时间桶内的健康数据条数")
+    private Integer sampleCount;
+
+    @Schema(description = "最低心率（单位：bpm）")
+    private BigDecimal minHeartRate;
+
+    @Schema(description = "最高心率（单位：bpm）")
+    private BigDecimal maxHeartRate;
+
+    @Schema(description = "平均心率（单位：bpm）")
+    private BigDecimal avgHeartRate;
+
+    @Schema(description = "最低体重（单位：kg）")
+    private BigDecimal minWeight;
+
+    @Schema(description = "最高体重（单位：kg）")
+    private BigDecimal maxWeight;
+
+    @Schema(description = "平均体重（单位：kg）")
+    private BigDecimal avgWeight;
+
+    @Schema(description = "最低BMI")
+    private BigDecimal minBmi;
+
+    @Schema(description = "最高BMI")
+    private BigDecimal maxBmi;
+
+    @Schema(description = "平均BMI")
+    private BigDecimal avgBmi;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
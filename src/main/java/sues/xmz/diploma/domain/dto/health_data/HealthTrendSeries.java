@@ -0,0 +1,19 @@
+package sues.xmz.diploma.domain.dto.health_data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.jfree.data.time.TimeSeries;
+
+/**
+ * 健康数据趋势中BMI、心率和体重三个指标的时间序列，多张图表共用
+ */
+@Getter
+@AllArgsConstructor
+public class HealthTrendSeries {
+
+    private final TimeSeries bmiSeries;
+
+    private final TimeSeries heartRateSeries;
+
+    private final TimeSeries weightSeries;
+}
@@ -0,0 +1,72 @@
+package sues.xmz.diploma.domain.dto.monitor;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 按SQL指纹汇总的执行统计（/actuator/sqlstats 返回的每一行）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlStatementStatsDTO implements Serializable {
+
+    /**
+     * SQL指纹：参数值替换为 ?，IN 列表和多行 VALUES 合并后的SQL
+     */
+    private String fingerprint;
+
+    /**
+     * 第一次执行该指纹的 MappedStatement ID（(other) 行为 (mixed)）
+     */
+    private String statementId;
+
+    /**
+     * SQL类型：SELECT、INSERT、UPDATE、DELETE（(other) 行为 (mixed)）
+     */
+    private String commandType;
+
+    /**
+     * 执行次数
+     */
+    private Long count;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    private Double totalMillis;
+
+    /**
+     * 平均耗时（毫秒）
+     */
+    private Double avgMillis;
+
+    /**
+     * 最大耗时（毫秒）
+     */
+    private Double maxMillis;
+
+    /**
+     * 返回或影响的总行数（驱动没有返回行数的批次不计入）
+     */
+    private Long rows;
+
+    /**
+     * 超过慢SQL阈值的次数
+     */
+    private Long slowCount;
+
+    /**
+     * 执行失败的次数（包括锁等待超时、查询超时）
+     */
+    private Long errorCount;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
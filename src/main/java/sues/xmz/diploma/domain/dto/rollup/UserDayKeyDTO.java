@@ -0,0 +1,40 @@
+package sues.xmz.diploma.domain.dto.rollup;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * 按天汇总的统计表（营养摄入汇总表、运动汇总表）中需要重新计算的【用户，日期】
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDayKeyDTO implements Serializable {
+
+    private Integer userId;
+
+    private LocalDate day;
+
+    /**
+     * 根据用户ID和记录时间（进餐时间、运动日期）得到【用户，日期】
+     *
+     * @param userId 用户ID
+     * @param time   记录时间
+     * @param zoneId 划分日期的时区，需要和SQL中 date() 使用的数据库会话时区一致
+     *
+     * @return 【用户，日期】
+     */
+    public static UserDayKeyDTO of(Integer userId, Date time, ZoneId zoneId) {
+        return new UserDayKeyDTO(userId, time.toInstant().atZone(zoneId).toLocalDate());
+    }
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
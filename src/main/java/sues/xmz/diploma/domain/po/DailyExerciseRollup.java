@@ -0,0 +1,61 @@
+package sues.xmz.diploma.domain.po;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * <p>
+ * 每个用户每天的运动汇总表
+ * </p>
+ */
+@Schema(description = "每个用户每天的运动汇总表")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("diploma_project_daily_exercise_health_management_system.daily_exercise_rollup")
+public class DailyExerciseRollup implements Serializable {
+
+    @TableField("user_id")
+    @Schema(description = "用户ID")
+    private Integer userId;
+
+    @TableField("day")
+    @Schema(description = "日期")
+    private LocalDate day;
+
+    @TableField("record_count")
+    @Schema(description = "运动次数")
+    private Integer recordCount;
+
+    @TableField("total_duration")
+    @Schema(description = "总运动时长（单位：分钟）")
+    private Integer totalDuration;
+
+    @TableField("total_distance")
+    @Schema(description = "总运动距离（单位：km）")
+    private BigDecimal totalDistance;
+
+    @TableField("total_calories_burned")
+    @Schema(description = "总消耗的卡路里（单位：kcal）")
+    private BigDecimal totalCaloriesBurned;
+
+    @TableField("heart_rate_sum")
+    @Schema(description = "记录了心率的运动的平均心率之和")
+    private BigDecimal heartRateSum;
+
+    @TableField("heart_rate_count")
+    @Schema(description = "记录了心率的运动次数")
+    private Integer heartRateCount;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,61 @@
+package sues.xmz.diploma.domain.po;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * <p>
+ * 每个用户每天每种进餐类型的营养摄入汇总表
+ * </p>
+ */
+@Schema(description = "每个用户每天的营养摄入汇总表")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("diploma_project_daily_exercise_health_management_system.daily_nutrition_rollup")
+public class DailyNutritionRollup implements Serializable {
+
+    @TableField("user_id")
+    @Schema(description = "用户ID")
+    private Integer userId;
+
+    @TableField("day")
+    @Schema(description = "日期")
+    private LocalDate day;
+
+    @TableField("meal_type")
+    @Schema(description = "进餐类型")
+    private String mealType;
+
+    @TableField("calories")
+    @Schema(description = "总热量（kcal）")
+    private BigDecimal calories;
+
+    @TableField("protein")
+    @Schema(description = "总蛋白质（g）")
+    private BigDecimal protein;
+
+    @TableField("fat")
+    @Schema(description = "总脂肪（g）")
+    private BigDecimal fat;
+
+    @TableField("carbohydrates")
+    @Schema(description = "总碳水化合物（g）")
+    private BigDecimal carbohydrates;
+
+    @TableField("water")
+    @Schema(description = "总水分（ml）")
+    private BigDecimal water;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -1,6 +1,7 @@
 package sues.xmz.diploma.domain.req.diet_records;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -22,6 +23,12 @@ public class DietRecordsCalculationReq extends PageQueryReq implements Serializa
     @NotNull(message = "用户ID不能为空")
     private Integer userId;
 
+    @Schema(description = "是否同时返回每种食物的摄入明细，默认false（只返回在数据库中计算好的营养总和）。为true时明细按current和size分页返回",
+            requiredMode = Schema.RequiredMode.NOT_REQUIRED
+    )
+    @Nullable
+    private Boolean includeDetails = false;
+
     @Serial
     private static final long serialVersionUID = 1L;
 }
@@ -0,0 +1,34 @@
+package sues.xmz.diploma.domain.req.health_data;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+@Schema(description = "批量获取健康数据趋势图的请求参数（多张图表共用同一份趋势数据，并发渲染）")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class HealthDataChartBatchReq extends HealthDataTrendReq implements Serializable {
+
+    @ArraySchema(
+            arraySchema = @Schema(description = "需要生成的图表：combined（综合趋势图）、bmi、heartRate、weight，重复的图表只生成一次"),
+            schema = @Schema(allowableValues = {"combined", "bmi", "heartRate", "weight"})
+    )
+    @NotEmpty(message = "图表列表不能为空")
+    @Size(max = 4, message = "一次最多生成4张图表")
+    private List<@Pattern(regexp = "combined|bmi|heartRate|weight", message = "图表只能为combined、bmi、heartRate、weight") String> charts;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
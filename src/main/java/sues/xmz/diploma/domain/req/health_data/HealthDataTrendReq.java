@@ -0,0 +1,49 @@
+package sues.xmz.diploma.domain.req.health_data;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+@Schema(description = "获取健康数据趋势的请求参数（按时间段分桶汇总，不再使用分页参数）")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class HealthDataTrendReq extends HealthDataQueryReq implements Serializable {
+
+    @Schema(description = "分桶的时间粒度：day、week（从周一开始）、month，默认day。每个桶汇总该时间段内的最小值、最大值和平均值",
+            requiredMode = Schema.RequiredMode.NOT_REQUIRED,
+            allowableValues = {"day", "week", "month"}
+    )
+    @Nullable
+    @Pattern(regexp = "day|week|month", message = "分桶的时间粒度只能为day、week、month")
+    private String bucket = "day";
+
+    @Schema(description = "最多保留的点数（时间桶数），分桶后的数据超过该值时平均分给BMI、心率、体重三个指标，分别使用LTTB算法降采样（保留曲线的形状和峰值），默认300",
+            requiredMode = Schema.RequiredMode.NOT_REQUIRED
+    )
+    @Nullable
+    @Min(value = 3, message = "最多保留的点数不能小于3")
+    @Max(value = 2000, message = "最多保留的点数不能大于2000")
+    private Integer maxPoints = 300;
+
+    @Schema(description = "趋势图的尺寸：thumbnail（320x240）、mobile（480x360）、desktop（800x600），默认desktop。只影响趋势图，不影响列式数据",
+            requiredMode = Schema.RequiredMode.NOT_REQUIRED,
+            allowableValues = {"thumbnail", "mobile", "desktop"}
+    )
+    @Nullable
+    @Pattern(regexp = "thumbnail|mobile|desktop", message = "趋势图的尺寸只能为thumbnail、mobile、desktop")
+    private String chartSize = "desktop";
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,38 @@
+package sues.xmz.diploma.domain.resp.diet_records;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "营养摄入汇总表的校验结果")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyNutritionRollupVerifyResp implements Serializable {
+
+    @Schema(description = "用户ID")
+    private Integer userId;
+
+    @Schema(description = "汇总表中该用户的数据行数（每天每种进餐类型一行）")
+    private Integer rollupRowCount;
+
+    @Schema(description = "从原始饮食记录重新计算得到的【日期，进餐类型】数量")
+    private Integer rawGroupCount;
+
+    @Schema(description = "汇总数据与原始饮食记录不一致的日期（为空时表示汇总表正确）")
+    private List<LocalDate> mismatchedDays;
+
+    @Schema(description = "汇总表是否与原始饮食记录一致")
+    private Boolean consistent;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -5,12 +5,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import sues.xmz.diploma.common.domain.PageResponse;
 import sues.xmz.diploma.domain.dto.diet_records.DietRecordsCalculationDTO;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigDecimal;
-import java.util.List;
 
 @Schema(description = "营养摄入计算结果")
 @Data
@@ -34,8 +34,8 @@ public class NutritionalCalculationConsequenceResp implements Serializable {
     @Schema(description = "总水分（ml）")
     private BigDecimal totalWater;
 
-    @Schema(description = "摄入食物的相关信息")
-    private List<DietRecordsCalculationDTO> dietRecordsList;
+    @Schema(description = "摄入食物的明细（分页），请求中includeDetails为true时才有值")
+    private PageResponse<DietRecordsCalculationDTO> dietRecordsPage;
 
     @Serial
     private static final long serialVersionUID = 1L;
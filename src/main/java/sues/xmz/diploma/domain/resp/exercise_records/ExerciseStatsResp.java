@@ -0,0 +1,44 @@
+package sues.xmz.diploma.domain.resp.exercise_records;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(description = "运动统计结果")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExerciseStatsResp implements Serializable {
+
+    @Schema(description = "统计的开始日期（包含）")
+    private LocalDate startDate;
+
+    @Schema(description = "统计的结束日期（包含）")
+    private LocalDate endDate;
+
+    @Schema(description = "总运动时长（单位：分钟）")
+    private Integer duration;
+
+    @Schema(description = "总运动距离（单位：km）")
+    private BigDecimal distance;
+
+    @Schema(description = "总消耗的卡路里（单位：kcal）")
+    private BigDecimal caloriesBurned;
+
+    @Schema(description = "运动次数")
+    private Integer count;
+
+    @Schema(description = "平均心率（单位：bpm），只统计记录了心率的运动，没有心率数据时为0")
+    private BigDecimal avgHeartRate;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
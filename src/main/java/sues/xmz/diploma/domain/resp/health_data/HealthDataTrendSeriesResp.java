@@ -0,0 +1,41 @@
+package sues.xmz.diploma.domain.resp.health_data;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 健康数据趋势的列式数据，前端（例如ECharts）可以直接作为折线图的数据使用
+ * <p>
+ * 所有数组的长度相同，下标相同的元素属于同一个时间桶；某个时间桶中没有该指标的数据时为null
+ */
+@Schema(description = "健康数据趋势的列式数据（已分桶、降采样并对齐）")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HealthDataTrendSeriesResp implements Serializable {
+
+    @Schema(description = "分桶的时间粒度：day、week、month")
+    private String bucket;
+
+    @Schema(description = "每个时间桶的开始日期，距离1970-01-01的天数（JavaScript中乘以86400000即为时间戳）")
+    private long[] epochDays;
+
+    @Schema(description = "每个时间桶的平均BMI")
+    private Double[] bmis;
+
+    @Schema(description = "每个时间桶的平均心率（单位：bpm）")
+    private Double[] heartRates;
+
+    @Schema(description = "每个时间桶的平均体重（单位：kg）")
+    private Double[] weights;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
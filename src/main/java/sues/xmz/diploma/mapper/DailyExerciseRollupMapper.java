@@ -0,0 +1,31 @@
+package sues.xmz.diploma.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import sues.xmz.diploma.domain.dto.rollup.UserDayKeyDTO;
+import sues.xmz.diploma.domain.po.DailyExerciseRollup;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+@Mapper
+public interface DailyExerciseRollupMapper extends BaseMapper<DailyExerciseRollup> {
+
+    int deleteByKeys(@Param("keys") Collection<UserDayKeyDTO> keys);
+
+    int insertFromRawByKeys(@Param("keys") Collection<UserDayKeyDTO> keys);
+
+    int deleteByUserId(@Param("userId") Integer userId);
+
+    int insertFromRawByUserId(@Param("userId") Integer userId);
+
+    /**
+     * 汇总日期范围 [startDay, endDay] 内的运动数据，返回的对象中 day 为null
+     */
+    DailyExerciseRollup sumByDayRange(
+            @Param("userId") Integer userId,
+            @Param("startDay") LocalDate startDay,
+            @Param("endDay") LocalDate endDay
+    );
+}
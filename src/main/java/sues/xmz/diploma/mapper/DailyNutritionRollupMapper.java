@@ -0,0 +1,42 @@
+package sues.xmz.diploma.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import sues.xmz.diploma.domain.dto.rollup.UserDayKeyDTO;
+import sues.xmz.diploma.domain.po.DailyNutritionRollup;
+import sues.xmz.diploma.domain.resp.diet_records.NutritionalCalculationConsequenceResp;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Mapper
+public interface DailyNutritionRollupMapper extends BaseMapper<DailyNutritionRollup> {
+
+    int deleteByKeys(@Param("keys") Collection<UserDayKeyDTO> keys);
+
+    int insertFromRawByKeys(@Param("keys") Collection<UserDayKeyDTO> keys);
+
+    int deleteByUserId(@Param("userId") Integer userId);
+
+    int insertFromRawByUserId(@Param("userId") Integer userId);
+
+    List<UserDayKeyDTO> listKeysByFoodIds(@Param("foodIds") Collection<Integer> foodIds);
+
+    List<DailyNutritionRollup> listByUserId(@Param("userId") Integer userId);
+
+    NutritionalCalculationConsequenceResp sumByDayRange(
+            @Param("userId") Integer userId,
+            @Param("startDay") LocalDate startDay,
+            @Param("endDay") LocalDate endDay
+    );
+
+    NutritionalCalculationConsequenceResp sumRawByTimeRange(
+            @Param("userId") Integer userId,
+            @Param("fromInclusive") Date fromInclusive,
+            @Param("toExclusive") Date toExclusive,
+            @Param("toInclusive") Date toInclusive
+    );
+}
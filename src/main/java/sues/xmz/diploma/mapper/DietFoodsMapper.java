@@ -2,8 +2,11 @@ package sues.xmz.diploma.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import sues.xmz.diploma.domain.dto.dimension.DimensionValueCountDTO;
 import sues.xmz.diploma.domain.po.DietFoods;
 
+import java.util.List;
+
 /**
  * <p>
  * 营养表 Mapper 接口
@@ -15,4 +18,5 @@ import sues.xmz.diploma.domain.po.DietFoods;
 @Mapper
 public interface DietFoodsMapper extends BaseMapper<DietFoods> {
 
+    List<DimensionValueCountDTO> countGroupByFoodType();
 }
@@ -3,23 +3,42 @@ package sues.xmz.diploma.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import sues.xmz.diploma.common.domain.PageCursor;
 import sues.xmz.diploma.domain.dto.diet_records.DietRecordsCalculationDTO;
 import sues.xmz.diploma.domain.dto.diet_records.DietRecordsDTO;
+import sues.xmz.diploma.domain.dto.dimension.DimensionValueCountDTO;
 import sues.xmz.diploma.domain.po.DietRecords;
 import sues.xmz.diploma.domain.req.diet_records.DietRecordsCalculationReq;
 import sues.xmz.diploma.domain.req.diet_records.DietRecordsQueryReq;
+import sues.xmz.diploma.domain.resp.diet_records.NutritionalCalculationConsequenceResp;
 
 import java.util.List;
 
 @Mapper
 public interface DietRecordsMapper extends BaseMapper<DietRecords> {
 
-    List<DietRecordsDTO> listPaginatedDietRecordsByTimeRange(
+    List<PageCursor> listDietRecordsPageKeysByTimeRange(
             @Param("query") DietRecordsQueryReq dietRecordsQueryReq,
-            @Param("offset") long offset
+            @Param("offset") long offset,
+            @Param("limit") long limit,
+            @Param("cursor") PageCursor cursor
     );
 
-    List<DietRecordsDTO> listAllDietRecordsByTimeRange(@Param("query") DietRecordsQueryReq dietRecordsQueryReq);
+    List<DietRecordsDTO> listDietRecordsByIds(@Param("ids") List<Integer> dietIds);
 
-    List<DietRecordsCalculationDTO> listDietRecordsDetailsByTimeRange(@Param("query") DietRecordsCalculationReq dietRecordsCalculationReq);
+    List<DietRecordsDTO> listDietRecordsFoodsByIds(@Param("ids") List<Integer> dietIds);
+
+    long countDietRecordsByTimeRange(@Param("query") DietRecordsQueryReq dietRecordsQueryReq);
+
+    List<DimensionValueCountDTO> countGroupByMealType();
+
+    List<DietRecordsCalculationDTO> listDietRecordsDetailsByTimeRange(
+            @Param("query") DietRecordsCalculationReq dietRecordsCalculationReq,
+            @Param("offset") Long offset,
+            @Param("limit") Long limit
+    );
+
+    long countDietRecordsDetailsByTimeRange(@Param("query") DietRecordsCalculationReq dietRecordsCalculationReq);
+
+    NutritionalCalculationConsequenceResp sumNutritionIntakeByTimeRange(@Param("query") DietRecordsCalculationReq dietRecordsCalculationReq);
 }
\ No newline at end of file
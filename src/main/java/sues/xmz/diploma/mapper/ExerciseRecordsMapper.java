@@ -3,6 +3,7 @@ package sues.xmz.diploma.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import sues.xmz.diploma.common.domain.PageCursor;
 import sues.xmz.diploma.domain.dto.exercise_records_types.ExerciseRecordsDTO;
 import sues.xmz.diploma.domain.po.ExerciseRecords;
 import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordsQueryReq;
@@ -12,9 +13,15 @@ import java.util.List;
 @Mapper
 public interface ExerciseRecordsMapper extends BaseMapper<ExerciseRecords> {
 
-    List<ExerciseRecordsDTO> listPaginatedExerciseRecordsDetailsByTimeRange(
+    List<PageCursor> listExerciseRecordsPageKeysByTimeRange(
             @Param("query") ExerciseRecordsQueryReq exerciseRecordsQueryReq,
-            @Param("offset") long offset);
+            @Param("offset") long offset,
+            @Param("limit") long limit,
+            @Param("cursor") PageCursor cursor);
 
-    List<ExerciseRecordsDTO> listAllExerciseRecordsByTimeRange(@Param("query") ExerciseRecordsQueryReq exerciseRecordsQueryReq);
+    List<ExerciseRecordsDTO> listExerciseRecordsByIds(@Param("ids") List<Integer> exerciseRecordIds);
+
+    List<ExerciseRecordsDTO> listExerciseRecordsTypesByIds(@Param("ids") List<Integer> exerciseRecordIds);
+
+    long countExerciseRecordsByTimeRange(@Param("query") ExerciseRecordsQueryReq exerciseRecordsQueryReq);
 }
\ No newline at end of file
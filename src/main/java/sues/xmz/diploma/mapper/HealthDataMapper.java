@@ -3,9 +3,12 @@ package sues.xmz.diploma.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import sues.xmz.diploma.common.domain.PageCursor;
 import sues.xmz.diploma.domain.dto.health_data.HealthDataDTO;
+import sues.xmz.diploma.domain.dto.health_data.HealthDataTrendBucketDTO;
 import sues.xmz.diploma.domain.po.HealthData;
 import sues.xmz.diploma.domain.req.health_data.HealthDataQueryReq;
+import sues.xmz.diploma.domain.req.health_data.HealthDataTrendReq;
 
 import java.util.List;
 
@@ -13,9 +16,13 @@ import java.util.List;
 public interface HealthDataMapper extends BaseMapper<HealthData> {
     List<HealthDataDTO> listPaginatedHealthDataByTimeRange(
             @Param("query") HealthDataQueryReq healthDataQueryReq,
-            @Param("offset") long offset
+            @Param("offset") long offset,
+            @Param("limit") long limit,
+            @Param("cursor") PageCursor cursor
     );
 
-    List<HealthDataDTO> listAllHealthDataByTimeRange(@Param("query") HealthDataQueryReq healthDataQueryReq);
+    long countHealthDataByTimeRange(@Param("query") HealthDataQueryReq healthDataQueryReq);
+
+    List<HealthDataTrendBucketDTO> listHealthDataTrendBuckets(@Param("query") HealthDataTrendReq healthDataTrendReq);
 
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package sues.xmz.diploma.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import sues.xmz.diploma.common.domain.PageCursor;
 import sues.xmz.diploma.domain.dto.health_goals.HealthGoalsDetailsDTO;
 import sues.xmz.diploma.domain.po.HealthGoals;
 import sues.xmz.diploma.domain.req.health_goals.HealthGoalsQueryReq;
@@ -12,12 +13,18 @@ import java.util.List;
 @Mapper
 public interface HealthGoalsMapper extends BaseMapper<HealthGoals> {
 
-    List<HealthGoalsDetailsDTO> listPaginatedHealthGoalsDetailsByTimeRange(
+    List<PageCursor> listHealthGoalsPageKeysByTimeRange(
             @Param("query") HealthGoalsQueryReq healthGoalsQueryReq,
-            @Param("offset") long offset
+            @Param("offset") long offset,
+            @Param("limit") long limit,
+            @Param("cursor") PageCursor cursor
     );
 
-    List<HealthGoalsDetailsDTO> listAllHealthGoalsDetailsByTimeRange(
+    List<HealthGoalsDetailsDTO> listHealthGoalsByIds(@Param("ids") List<Integer> goalIds);
+
+    List<HealthGoalsDetailsDTO> listHealthGoalsExerciseTypesByIds(@Param("ids") List<Integer> goalIds);
+
+    long countHealthGoalsByTimeRange(
             @Param("query") HealthGoalsQueryReq healthGoalsQueryReq
     );
 }
\ No newline at end of file
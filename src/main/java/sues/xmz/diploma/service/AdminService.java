@@ -2,6 +2,7 @@ package sues.xmz.diploma.service;
 
 import sues.xmz.diploma.common.domain.PageResponse;
 import sues.xmz.diploma.domain.dto.users.UserDetailDTO;
+import sues.xmz.diploma.domain.resp.diet_records.DailyNutritionRollupVerifyResp;
 
 import java.util.List;
 
@@ -11,4 +12,10 @@ public interface AdminService {
 
     boolean deleteUsersInBulk(List<Integer> userIdList);
 
+    void rebuildNutritionRollup(Integer userId);
+
+    DailyNutritionRollupVerifyResp verifyNutritionRollup(Integer userId);
+
+    void rebuildExerciseRollup(Integer userId);
+
 }
@@ -0,0 +1,29 @@
+package sues.xmz.diploma.service;
+
+import sues.xmz.diploma.domain.dto.catalog.CatalogSnapshot;
+import sues.xmz.diploma.domain.po.DietFoods;
+import sues.xmz.diploma.domain.po.ExerciseTypes;
+
+import java.util.List;
+
+/**
+ * 食物表和运动类型表的内存快照 服务类
+ */
+public interface CatalogSnapshotService {
+
+    CatalogSnapshot getSnapshot();
+
+    List<DietFoods> listAllDietFoods();
+
+    List<ExerciseTypes> listAllExerciseTypes();
+
+    /**
+     * 食物表修改后重建快照（存在事务时，在事务提交后再重建）
+     */
+    void refreshDietFoods();
+
+    /**
+     * 运动类型表修改后重建快照（存在事务时，在事务提交后再重建）
+     */
+    void refreshExerciseTypes();
+}
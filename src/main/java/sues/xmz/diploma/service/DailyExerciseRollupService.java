@@ -0,0 +1,34 @@
+package sues.xmz.diploma.service;
+
+import sues.xmz.diploma.domain.dto.rollup.UserDayKeyDTO;
+import sues.xmz.diploma.domain.resp.exercise_records.ExerciseStatsResp;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * 每个用户每天的运动汇总表 服务类
+ */
+public interface DailyExerciseRollupService {
+
+    /**
+     * 按数据库的时区得到运动日期所在的【用户，日期】
+     */
+    UserDayKeyDTO toKey(Integer userId, Date exerciseDate);
+
+    /**
+     * 从原始的运动记录重新计算这些【用户，日期】的汇总数据，在调用方的事务中执行
+     */
+    void refresh(Collection<UserDayKeyDTO> keys);
+
+    /**
+     * 从原始的运动记录重建某个用户的所有汇总数据
+     */
+    void rebuildUserRollup(Integer userId);
+
+    /**
+     * 统计日期范围 [startDay, endDay] 内的运动数据
+     */
+    ExerciseStatsResp getStats(Integer userId, LocalDate startDay, LocalDate endDay);
+}
@@ -0,0 +1,45 @@
+package sues.xmz.diploma.service;
+
+import sues.xmz.diploma.domain.dto.rollup.UserDayKeyDTO;
+import sues.xmz.diploma.domain.req.diet_records.DietRecordsCalculationReq;
+import sues.xmz.diploma.domain.resp.diet_records.DailyNutritionRollupVerifyResp;
+import sues.xmz.diploma.domain.resp.diet_records.NutritionalCalculationConsequenceResp;
+
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * 每个用户每天的营养摄入汇总表 服务类
+ */
+public interface DailyNutritionRollupService {
+
+    /**
+     * 按数据库的时区得到进餐时间所在的【用户，日期】
+     */
+    UserDayKeyDTO toKey(Integer userId, Date mealTime);
+
+    /**
+     * 从原始的饮食记录重新计算这些【用户，日期】的汇总数据，在调用方的事务中执行
+     */
+    void refresh(Collection<UserDayKeyDTO> keys);
+
+    /**
+     * 在调用方的事务提交后，分批重新计算这些【用户，日期】的汇总数据，每批使用单独的事务（用于受影响的数据量没有上限的修改）
+     */
+    void refreshAfterCommit(Collection<UserDayKeyDTO> keys);
+
+    /**
+     * 从原始的饮食记录重建某个用户的所有汇总数据
+     */
+    void rebuildUserRollup(Integer userId);
+
+    /**
+     * 从原始的饮食记录重新计算某个用户的营养摄入，并与汇总表逐天比较
+     */
+    DailyNutritionRollupVerifyResp verifyUserRollup(Integer userId);
+
+    /**
+     * 计算时间段内的营养摄入总和：完整的天读取汇总表，首尾不完整的天查询原始的饮食记录
+     */
+    NutritionalCalculationConsequenceResp sumNutritionIntake(DietRecordsCalculationReq dietRecordsCalculationReq);
+}
@@ -4,7 +4,11 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import sues.xmz.diploma.common.domain.PageResponse;
 import sues.xmz.diploma.domain.dto.diet_foods.DietFoodsDTO;
 import sues.xmz.diploma.domain.po.DietFoods;
+import sues.xmz.diploma.domain.req.diet_foods.DietFoodsAddReq;
 import sues.xmz.diploma.domain.req.diet_foods.DietFoodsQueryReq;
+import sues.xmz.diploma.domain.req.diet_foods.DietFoodsUpdateReq;
+
+import java.util.List;
 
 /**
  * <p>
@@ -16,5 +20,11 @@ import sues.xmz.diploma.domain.req.diet_foods.DietFoodsQueryReq;
  */
 public interface DietFoodsService extends IService<DietFoods> {
 
+    boolean addDietFoodsInBatch(List<DietFoodsAddReq> dietFoodsAddReqList);
+
+    boolean updateDietFoodsInBatch(List<DietFoodsUpdateReq> dietFoodsUpdateReqList);
+
+    boolean deleteDietFoodsInBatch(List<Integer> foodIdList);
+
     PageResponse<DietFoodsDTO> listDietFoodsByPage(DietFoodsQueryReq dietFoodsQueryReq);
 }
@@ -18,6 +18,8 @@ public interface DietRecordsService extends IService<DietRecords>{
 
     void updateDietRecordsInBulk(List<DietRecordsUpdateReq> dietRecordsUpdateReqList);
 
+    boolean deleteDietRecordsInBulk(List<Integer> dietIdList);
+
     PageResponse<DietRecordsDTO> listPaginatedDietRecordsByTimeRange(DietRecordsQueryReq dietRecordQueryDTO);
 
     NutritionalCalculationConsequenceResp calculateNutritionIntake(DietRecordsCalculationReq dietRecordsCalculationReq);
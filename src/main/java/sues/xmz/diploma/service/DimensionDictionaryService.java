@@ -0,0 +1,36 @@
+package sues.xmz.diploma.service;
+
+import sues.xmz.diploma.domain.dto.dimension.DimensionValueCountDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 维度字典 服务类：维护食物分类、进餐类型这类取值很少的维度的所有取值及其使用次数
+ */
+public interface DimensionDictionaryService {
+
+    List<String> listFoodTypes();
+
+    List<DimensionValueCountDTO> listFoodTypeCounts();
+
+    List<String> listMealTypes();
+
+    List<DimensionValueCountDTO> listMealTypeCounts();
+
+    /**
+     * 食物数据修改后，增量更新食物分类的使用次数（存在事务时，在事务提交后再更新）
+     *
+     * @param removedFoodTypes 被删除（或被修改前）的食物分类，每个元素代表一条食物数据
+     * @param addedFoodTypes   新增（或修改后）的食物分类，每个元素代表一条食物数据
+     */
+    void updateFoodTypes(Collection<String> removedFoodTypes, Collection<String> addedFoodTypes);
+
+    /**
+     * 饮食记录修改后，增量更新进餐类型的使用次数（存在事务时，在事务提交后再更新）
+     *
+     * @param removedMealTypes 被删除（或被修改前）的进餐类型，每个元素代表一条饮食记录
+     * @param addedMealTypes   新增（或修改后）的进餐类型，每个元素代表一条饮食记录
+     */
+    void updateMealTypes(Collection<String> removedMealTypes, Collection<String> addedMealTypes);
+}
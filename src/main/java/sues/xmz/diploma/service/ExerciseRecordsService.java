@@ -7,7 +7,9 @@ import sues.xmz.diploma.domain.po.ExerciseRecords;
 import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordUpdateReq;
 import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordsCreateReq;
 import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordsQueryReq;
+import sues.xmz.diploma.domain.resp.exercise_records.ExerciseStatsResp;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ExerciseRecordsService extends IService<ExerciseRecords>{
@@ -15,5 +17,9 @@ public interface ExerciseRecordsService extends IService<ExerciseRecords>{
 
     void updateExerciseRecordInBatch(List<ExerciseRecordUpdateReq> exerciseRecordUpdateReqList);
 
+    boolean deleteExerciseRecordsInBulk(List<Integer> exerciseRecordIdList);
+
     PageResponse<ExerciseRecordsDTO> listPaginatedExerciseRecordsByTimeRange(ExerciseRecordsQueryReq exerciseRecordsQueryReq);
+
+    ExerciseStatsResp getExerciseStats(Integer userId, String timeRange, LocalDate startDate, LocalDate endDate);
 }
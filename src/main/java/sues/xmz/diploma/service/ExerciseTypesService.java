@@ -15,5 +15,21 @@ public interface ExerciseTypesService extends IService<ExerciseTypes>{
 
     List<BatchResult> updateExerciseTypesInBatch(List<ExerciseTypesUpdateReq> exerciseTypesUpdateReqList);
 
+    /**
+     * 批量删除运动类型，事务提交后重建运动类型快照
+     *
+     * @param exerciseTypeIdList 运动类型ID列表
+     *
+     * @return 是否删除成功
+     */
+    boolean deleteExerciseTypesInBatch(List<Integer> exerciseTypeIdList);
+
+    /**
+     * 获取所有运动类型（内存快照的副本）
+     *
+     * @return 所有运动类型（按运动类型ID升序）
+     */
+    List<ExerciseTypes> listAllExerciseTypes();
+
     PageResponse<ExerciseTypes> listExerciseTypesByPage(Long current, Long size, String name);
 }
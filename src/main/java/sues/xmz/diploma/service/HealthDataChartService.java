@@ -0,0 +1,49 @@
+package sues.xmz.diploma.service;
+
+import sues.xmz.diploma.domain.req.health_data.HealthDataChartBatchReq;
+import sues.xmz.diploma.domain.req.health_data.HealthDataTrendReq;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 健康数据图表 服务类
+ */
+public interface HealthDataChartService {
+
+    /**
+     * 获取健康数据趋势图（PNG），优先使用缓存，没有缓存时在图表渲染线程池中生成
+     *
+     * @param healthDataTrendReq 查询健康数据趋势的参数
+     *
+     * @return PNG图像的字节数组
+     */
+    CompletableFuture<byte[]> getHealthDataTrendChart(HealthDataTrendReq healthDataTrendReq);
+
+    /**
+     * 批量获取健康数据趋势图（PNG），趋势数据只查询一次，没有缓存的图表在图表渲染线程池中并发渲染
+     *
+     * @param healthDataChartBatchReq 批量获取健康数据趋势图的参数
+     *
+     * @return 图表名称 -> PNG图像的字节数组（按请求中的顺序，重复的图表只返回一次）
+     */
+    CompletableFuture<Map<String, byte[]>> getHealthDataTrendCharts(HealthDataChartBatchReq healthDataChartBatchReq);
+
+    /**
+     * 获取健康数据趋势图的强ETag，只由请求参数和用户健康数据的版本号计算，不需要渲染图表
+     *
+     * @param healthDataTrendReq 查询健康数据趋势的参数
+     *
+     * @return 带双引号的ETag
+     */
+    String getHealthDataTrendChartETag(HealthDataTrendReq healthDataTrendReq);
+
+    /**
+     * 获取健康数据趋势列式数据的强ETag
+     *
+     * @param healthDataTrendReq 查询健康数据趋势的参数
+     *
+     * @return 带双引号的ETag
+     */
+    String getHealthDataTrendSeriesETag(HealthDataTrendReq healthDataTrendReq);
+}
@@ -3,10 +3,14 @@ package sues.xmz.diploma.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import sues.xmz.diploma.common.domain.PageResponse;
 import sues.xmz.diploma.domain.dto.health_data.HealthDataDTO;
+import sues.xmz.diploma.domain.dto.health_data.HealthDataTrendBucketDTO;
+import sues.xmz.diploma.domain.dto.health_data.HealthDataTrendDTO;
 import sues.xmz.diploma.domain.po.HealthData;
 import sues.xmz.diploma.domain.req.health_data.HealthDataCreateReq;
 import sues.xmz.diploma.domain.req.health_data.HealthDataQueryReq;
+import sues.xmz.diploma.domain.req.health_data.HealthDataTrendReq;
 import sues.xmz.diploma.domain.req.health_data.HealthDataUpdateReq;
+import sues.xmz.diploma.domain.resp.health_data.HealthDataTrendSeriesResp;
 
 import java.io.IOException;
 import java.util.List;
@@ -21,6 +25,12 @@ public interface HealthDataService extends IService<HealthData>{
 
     PageResponse<HealthDataDTO> listPaginatedHealthDataByTimeRange(HealthDataQueryReq healthDataQueryReq);
 
-    byte[] getHealthDataTrend(HealthDataQueryReq healthDataQueryReq) throws IOException;
+    List<HealthDataTrendBucketDTO> listHealthDataTrendBuckets(HealthDataTrendReq healthDataTrendReq);
+
+    HealthDataTrendSeriesResp getHealthDataTrendSeries(HealthDataTrendReq healthDataTrendReq);
+
+    HealthDataTrendDTO getHealthDataTrendDTO(HealthDataTrendReq healthDataTrendReq);
+
+    byte[] getHealthDataTrend(HealthDataTrendReq healthDataTrendReq) throws IOException;
 
 }
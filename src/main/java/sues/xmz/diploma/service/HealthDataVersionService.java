@@ -0,0 +1,18 @@
+package sues.xmz.diploma.service;
+
+import java.util.Collection;
+
+/**
+ * 每个用户健康数据的版本号 服务类
+ * <p>
+ * 用户的健康数据每次修改后版本号加1，图表缓存等以版本号作为缓存键的一部分，修改后旧的缓存自然失效
+ */
+public interface HealthDataVersionService {
+
+    long getVersion(Integer userId);
+
+    /**
+     * 用户的健康数据修改后增加版本号（存在事务时，在事务提交后再增加）
+     */
+    void increaseVersion(Collection<Integer> userIdList);
+}
@@ -0,0 +1,25 @@
+package sues.xmz.diploma.service;
+
+/**
+ * 登录限流 服务类
+ * <p>
+ * 按用户名和客户端IP分别使用令牌桶限制登录尝试的频率：同一个账号被大量IP暴力破解、
+ * 或者同一个IP尝试大量账号（撞库）时，超出的请求在进行BCrypt计算之前就会被拒绝
+ */
+public interface LoginThrottleService {
+
+    /**
+     * 消耗用户名和IP各一个令牌，任意一个令牌桶为空时抛出 {@code LoginTooManyAttemptsException}
+     *
+     * @param username 用户名
+     * @param clientIp 客户端IP
+     */
+    void acquire(String username, String clientIp);
+
+    /**
+     * 登录成功后重置用户名的令牌桶，之前输错密码的次数不再影响正常用户
+     *
+     * @param username 用户名
+     */
+    void reset(String username);
+}
@@ -0,0 +1,40 @@
+package sues.xmz.diploma.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 密码加密/校验 服务类
+ * <p>
+ * BCrypt计算全部在有界的密码线程池中执行，线程池和队列都满时抛出 {@code PasswordHashBusyException}
+ */
+public interface PasswordHashService {
+
+    /**
+     * 异步加密密码（使用当前配置的计算成本）
+     */
+    CompletableFuture<String> encodeAsync(String rawPassword);
+
+    /**
+     * 异步校验密码
+     *
+     * @return true - 密码正确
+     */
+    CompletableFuture<Boolean> matchesAsync(String rawPassword, String encodedPassword);
+
+    /**
+     * 加密密码，在密码线程池中计算并等待结果（用于需要在当前事务中保存结果的场景）
+     */
+    String encode(String rawPassword);
+
+    /**
+     * 校验密码，在密码线程池中计算并等待结果
+     *
+     * @return true - 密码正确
+     */
+    boolean matches(String rawPassword, String encodedPassword);
+
+    /**
+     * 密码的计算成本和当前配置不一致时需要重新加密
+     */
+    boolean needsRehash(String encodedPassword);
+}
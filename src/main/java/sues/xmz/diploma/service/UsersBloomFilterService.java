@@ -0,0 +1,29 @@
+package sues.xmz.diploma.service;
+
+/**
+ * 用户名和邮箱的布隆过滤器 服务类
+ * <p>
+ * 注册和修改邮箱时先查询布隆过滤器，一定不存在的用户名和邮箱不再查询数据库；
+ * 可能存在时再查询数据库确认。数据库的唯一索引仍然是最终的判断依据
+ */
+public interface UsersBloomFilterService {
+
+    /**
+     * 用户名可能已经存在（过滤器还没有构建完成时总是返回true，用户名为null时返回false）
+     */
+    boolean mightContainUsername(String username);
+
+    /**
+     * 邮箱可能已经存在（过滤器还没有构建完成时总是返回true，邮箱为null时返回false）
+     */
+    boolean mightContainEmail(String email);
+
+    void putUsername(String username);
+
+    void putEmail(String email);
+
+    /**
+     * 根据users表重新构建布隆过滤器
+     */
+    void rebuild();
+}
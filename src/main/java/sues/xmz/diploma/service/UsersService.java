@@ -8,11 +8,21 @@ import sues.xmz.diploma.domain.req.users.UserLoginReq;
 import sues.xmz.diploma.domain.req.users.UserRegisterReq;
 import sues.xmz.diploma.domain.resp.users.UserInfoResp;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface UsersService extends IService<Users>{
 
     boolean register(UserRegisterReq userRegisterReq);
 
-    UserInfoResp login(UserLoginReq userLoginReq);
+    /**
+     * 登录：按用户名和IP限流后查询用户，密码在密码线程池中异步校验
+     *
+     * @param userLoginReq 登录信息
+     * @param clientIp     客户端IP
+     *
+     * @return 用户信息
+     */
+    CompletableFuture<UserInfoResp> login(UserLoginReq userLoginReq, String clientIp);
 
     boolean updateInfo(UserInfoUpdateReq userInfoUpdateReq);
 
@@ -7,7 +7,10 @@ import sues.xmz.diploma.common.domain.PageResponse;
 import sues.xmz.diploma.common.exception.users.UserNotFoundException;
 import sues.xmz.diploma.domain.dto.users.UserDetailDTO;
 import sues.xmz.diploma.domain.po.Users;
+import sues.xmz.diploma.domain.resp.diet_records.DailyNutritionRollupVerifyResp;
 import sues.xmz.diploma.service.AdminService;
+import sues.xmz.diploma.service.DailyExerciseRollupService;
+import sues.xmz.diploma.service.DailyNutritionRollupService;
 import sues.xmz.diploma.service.UsersService;
 
 import java.util.List;
@@ -18,6 +21,12 @@ public class AdminServiceImpl implements AdminService {
     @Resource
     private UsersService userService;
 
+    @Resource
+    private DailyNutritionRollupService dailyNutritionRollupService;
+
+    @Resource
+    private DailyExerciseRollupService dailyExerciseRollupService;
+
     @Override
     public PageResponse<UserDetailDTO> listUsersDetailsByPage(String userName, Long current, Long size) {
         Page<Users> usersPage = userService.lambdaQuery()
@@ -38,4 +47,28 @@ public class AdminServiceImpl implements AdminService {
         return userService.removeByIds(userIdList);
     }
 
+    @Override
+    public void rebuildNutritionRollup(Integer userId) {
+        checkUserExists(userId);
+        dailyNutritionRollupService.rebuildUserRollup(userId);
+    }
+
+    @Override
+    public DailyNutritionRollupVerifyResp verifyNutritionRollup(Integer userId) {
+        checkUserExists(userId);
+        return dailyNutritionRollupService.verifyUserRollup(userId);
+    }
+
+    @Override
+    public void rebuildExerciseRollup(Integer userId) {
+        checkUserExists(userId);
+        dailyExerciseRollupService.rebuildUserRollup(userId);
+    }
+
+    private void checkUserExists(Integer userId) {
+        if (userService.getById(userId) == null) {
+            throw new UserNotFoundException();
+        }
+    }
+
 }
@@ -0,0 +1,96 @@
+package sues.xmz.diploma.service.impl;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import sues.xmz.diploma.common.utils.TransactionUtil;
+import sues.xmz.diploma.domain.dto.catalog.CatalogSnapshot;
+import sues.xmz.diploma.domain.po.DietFoods;
+import sues.xmz.diploma.domain.po.ExerciseTypes;
+import sues.xmz.diploma.mapper.DietFoodsMapper;
+import sues.xmz.diploma.mapper.ExerciseTypesMapper;
+import sues.xmz.diploma.service.CatalogSnapshotService;
+
+import java.util.List;
+
+/**
+ * 食物表和运动类型表的内存快照 服务实现类
+ * <p>
+ * 第一次读取时从数据库加载，之后只在管理员修改后重建。重建时只重新查询被修改的那张表，另一张表沿用旧快照的数据。
+ */
+@Slf4j
+@Service
+public class CatalogSnapshotServiceImpl implements CatalogSnapshotService {
+
+    @Resource
+    private DietFoodsMapper dietFoodsMapper;
+
+    @Resource
+    private ExerciseTypesMapper exerciseTypesMapper;
+
+    /**
+     * 当前快照：读取时不加锁，重建时整体替换
+     */
+    private volatile CatalogSnapshot snapshot;
+
+    @Override
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = new CatalogSnapshot(1L, loadDietFoods(), loadExerciseTypes());
+                log.info("食物和运动类型快照已加载，版本号：{}", snapshot.getVersion());
+            }
+            return snapshot;
+        }
+    }
+
+    @Override
+    public List<DietFoods> listAllDietFoods() {
+        return getSnapshot().getDietFoodsList();
+    }
+
+    @Override
+    public List<ExerciseTypes> listAllExerciseTypes() {
+        return getSnapshot().getExerciseTypesList();
+    }
+
+    @Override
+    public void refreshDietFoods() {
+        TransactionUtil.runAfterCommit(() -> rebuild(true, false));
+    }
+
+    @Override
+    public void refreshExerciseTypes() {
+        TransactionUtil.runAfterCommit(() -> rebuild(false, true));
+    }
+
+    /**
+     * 重建快照：重新查询被修改的表，另一张表沿用旧快照的数据
+     */
+    private synchronized void rebuild(boolean reloadDietFoods, boolean reloadExerciseTypes) {
+        CatalogSnapshot old = snapshot;
+        if (old == null) {
+            // 还没有加载过快照，下次读取时会完整加载
+            return;
+        }
+        snapshot = new CatalogSnapshot(
+                old.getVersion() + 1,
+                reloadDietFoods ? loadDietFoods() : old.getDietFoodsList(),
+                reloadExerciseTypes ? loadExerciseTypes() : old.getExerciseTypesList()
+        );
+        log.info("食物和运动类型快照已重建，版本号：{}", snapshot.getVersion());
+    }
+
+    private List<DietFoods> loadDietFoods() {
+        return dietFoodsMapper.selectList(Wrappers.<DietFoods>lambdaQuery().orderByAsc(DietFoods::getFoodId));
+    }
+
+    private List<ExerciseTypes> loadExerciseTypes() {
+        return exerciseTypesMapper.selectList(Wrappers.<ExerciseTypes>lambdaQuery().orderByAsc(ExerciseTypes::getExerciseTypeId));
+    }
+}
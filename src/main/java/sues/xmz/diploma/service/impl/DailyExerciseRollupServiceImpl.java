@@ -0,0 +1,87 @@
+package sues.xmz.diploma.service.impl;
+
+import cn.hutool.core.collection.ListUtil;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sues.xmz.diploma.domain.dto.rollup.UserDayKeyDTO;
+import sues.xmz.diploma.domain.po.DailyExerciseRollup;
+import sues.xmz.diploma.domain.resp.exercise_records.ExerciseStatsResp;
+import sues.xmz.diploma.mapper.DailyExerciseRollupMapper;
+import sues.xmz.diploma.service.DailyExerciseRollupService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * <p>
+ * 每个用户每天的运动汇总表 服务实现类
+ * </p>
+ * 和营养摄入汇总表一样，按【用户，日期】整体重新计算，只会读取受影响的那几天的运动记录。
+ */
+@Slf4j
+@Service
+public class DailyExerciseRollupServiceImpl implements DailyExerciseRollupService {
+
+    /**
+     * 每条 DELETE / INSERT ... SELECT 最多处理的【用户，日期】数量，和营养摄入汇总表相同
+     */
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    @Resource
+    private DailyExerciseRollupMapper dailyExerciseRollupMapper;
+
+    /**
+     * 划分日期的时区，和数据库连接的会话时区一致（SQL中的 date(exercise_date) 按会话时区计算）
+     */
+    @Value("${database.time-zone:Asia/Shanghai}")
+    private ZoneId zoneId;
+
+    @Override
+    public UserDayKeyDTO toKey(Integer userId, Date exerciseDate) {
+        return UserDayKeyDTO.of(userId, exerciseDate, zoneId);
+    }
+
+    @Override
+    @Transactional
+    public void refresh(Collection<UserDayKeyDTO> keys) {
+        Set<UserDayKeyDTO> keySet = new LinkedHashSet<>(keys);
+        if (keySet.isEmpty()) {
+            return;
+        }
+        for (List<UserDayKeyDTO> batch : ListUtil.partition(new ArrayList<>(keySet), REFRESH_BATCH_SIZE)) {
+            dailyExerciseRollupMapper.deleteByKeys(batch);
+            dailyExerciseRollupMapper.insertFromRawByKeys(batch);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void rebuildUserRollup(Integer userId) {
+        int deleted = dailyExerciseRollupMapper.deleteByUserId(userId);
+        int inserted = dailyExerciseRollupMapper.insertFromRawByUserId(userId);
+        log.info("重建用户{}的运动汇总表：删除{}行，重新生成{}行", userId, deleted, inserted);
+    }
+
+    @Override
+    public ExerciseStatsResp getStats(Integer userId, LocalDate startDay, LocalDate endDay) {
+        DailyExerciseRollup total = dailyExerciseRollupMapper.sumByDayRange(userId, startDay, endDay);
+        BigDecimal avgHeartRate = total.getHeartRateCount() == 0
+                ? BigDecimal.ZERO
+                : total.getHeartRateSum().divide(BigDecimal.valueOf(total.getHeartRateCount()), 2, RoundingMode.HALF_UP);
+        return ExerciseStatsResp.builder()
+                .startDate(startDay)
+                .endDate(endDay)
+                .duration(total.getTotalDuration())
+                .distance(total.getTotalDistance())
+                .caloriesBurned(total.getTotalCaloriesBurned())
+                .count(total.getRecordCount())
+                .avgHeartRate(avgHeartRate)
+                .build();
+    }
+}
@@ -0,0 +1,238 @@
+package sues.xmz.diploma.service.impl;
+
+import cn.hutool.core.collection.ListUtil;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import sues.xmz.diploma.common.utils.NutrientAccumulator;
+import sues.xmz.diploma.common.utils.TransactionUtil;
+import sues.xmz.diploma.domain.dto.rollup.UserDayKeyDTO;
+import sues.xmz.diploma.domain.dto.diet_records.DietRecordsCalculationDTO;
+import sues.xmz.diploma.domain.po.DailyNutritionRollup;
+import sues.xmz.diploma.domain.req.diet_records.DietRecordsCalculationReq;
+import sues.xmz.diploma.domain.resp.diet_records.DailyNutritionRollupVerifyResp;
+import sues.xmz.diploma.domain.resp.diet_records.NutritionalCalculationConsequenceResp;
+import sues.xmz.diploma.mapper.DailyNutritionRollupMapper;
+import sues.xmz.diploma.mapper.DietRecordsMapper;
+import sues.xmz.diploma.service.DailyNutritionRollupService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * <p>
+ * 每个用户每天的营养摄入汇总表 服务实现类
+ * </p>
+ * 汇总表按【用户，日期】整体重新计算（先删除再从原始饮食记录 INSERT ... SELECT），
+ * 不做增量加减，因此重复刷新同一天也不会产生误差，并且和实时计算使用完全相同的舍入方式。
+ */
+@Slf4j
+@Service
+public class DailyNutritionRollupServiceImpl implements DailyNutritionRollupService {
+
+    /**
+     * 每条 DELETE / INSERT ... SELECT 最多处理的【用户，日期】数量：每个【用户，日期】占用2个占位符，
+     * 修改常用食物时受影响的天数可能非常多，分批执行避免超出占位符数量上限和 max_allowed_packet
+     */
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    @Resource
+    private DailyNutritionRollupMapper dailyNutritionRollupMapper;
+
+    @Resource
+    private DietRecordsMapper dietRecordsMapper;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 划分日期的时区，和数据库连接的会话时区一致（SQL中的 date(meal_time) 按会话时区计算）
+     */
+    @Value("${database.time-zone:Asia/Shanghai}")
+    private ZoneId zoneId;
+
+    @Override
+    public UserDayKeyDTO toKey(Integer userId, Date mealTime) {
+        return UserDayKeyDTO.of(userId, mealTime, zoneId);
+    }
+
+    @Override
+    @Transactional
+    public void refresh(Collection<UserDayKeyDTO> keys) {
+        // 去重，多条饮食记录在同一天时只需要计算一次
+        Set<UserDayKeyDTO> keySet = new LinkedHashSet<>(keys);
+        if (keySet.isEmpty()) {
+            return;
+        }
+        for (List<UserDayKeyDTO> batch : ListUtil.partition(new ArrayList<>(keySet), REFRESH_BATCH_SIZE)) {
+            refreshBatch(batch);
+        }
+    }
+
+    /**
+     * 修改常用食物时受影响的【用户，日期】可能非常多，如果在修改食物的事务中重新汇总，事务的耗时和持有的锁都没有上限。
+     * 这里等修改食物的事务提交后再重新汇总，每批在各自的新事务中执行，每个事务只锁住一批数据。
+     * 某一批失败时记录日志并继续处理后面的批次，失败的用户可以通过校验、重建汇总表修复
+     */
+    @Override
+    public void refreshAfterCommit(Collection<UserDayKeyDTO> keys) {
+        List<UserDayKeyDTO> keyList = new ArrayList<>(new LinkedHashSet<>(keys));
+        if (keyList.isEmpty()) {
+            return;
+        }
+        TransactionUtil.runAfterCommit(() -> {
+            // 事务提交后的回调中仍然绑定着原来的事务，必须开启新的事务，否则修改不会被提交
+            TransactionTemplate batchTransactionTemplate = new TransactionTemplate(transactionManager);
+            batchTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            int failed = 0;
+            for (List<UserDayKeyDTO> batch : ListUtil.partition(keyList, REFRESH_BATCH_SIZE)) {
+                try {
+                    batchTransactionTemplate.executeWithoutResult(status -> refreshBatch(batch));
+                } catch (RuntimeException e) {
+                    failed += batch.size();
+                    log.error("重新汇总营养摄入失败，涉及的用户：{}", batch.stream().map(UserDayKeyDTO::getUserId).distinct().toList(), e);
+                }
+            }
+            log.info("重新汇总营养摄入：{}个【用户，日期】，每批{}个，失败{}个", keyList.size(), REFRESH_BATCH_SIZE, failed);
+        });
+    }
+
+    private void refreshBatch(List<UserDayKeyDTO> batch) {
+        dailyNutritionRollupMapper.deleteByKeys(batch);
+        dailyNutritionRollupMapper.insertFromRawByKeys(batch);
+    }
+
+    @Override
+    @Transactional
+    public void rebuildUserRollup(Integer userId) {
+        int deleted = dailyNutritionRollupMapper.deleteByUserId(userId);
+        int inserted = dailyNutritionRollupMapper.insertFromRawByUserId(userId);
+        log.info("重建用户{}的营养摄入汇总表：删除{}行，重新生成{}行", userId, deleted, inserted);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DailyNutritionRollupVerifyResp verifyUserRollup(Integer userId) {
+        // 在Java中从原始的食物明细重新计算，不复用汇总表的SQL，这样才能发现汇总SQL本身的问题
+        DietRecordsCalculationReq dietRecordsCalculationReq = new DietRecordsCalculationReq();
+        dietRecordsCalculationReq.setUserId(userId);
+        List<DietRecordsCalculationDTO> dietRecordsCalculationDTOList =
+                dietRecordsMapper.listDietRecordsDetailsByTimeRange(dietRecordsCalculationReq, 0L, null);
+
+        Map<LocalDate, Map<String, NutrientAccumulator>> rawMap = new HashMap<>();
+        dietRecordsCalculationDTOList.forEach(dto -> rawMap
+                .computeIfAbsent(toLocalDate(dto.getMealTime()), day -> new HashMap<>())
+                .computeIfAbsent(dto.getMealType(), mealType -> new NutrientAccumulator())
+                .accept(dto)
+        );
+
+        List<DailyNutritionRollup> rollupList = dailyNutritionRollupMapper.listByUserId(userId);
+        Map<LocalDate, Map<String, DailyNutritionRollup>> rollupMap = new HashMap<>();
+        rollupList.forEach(rollup -> rollupMap
+                .computeIfAbsent(rollup.getDay(), day -> new HashMap<>())
+                .put(rollup.getMealType(), rollup)
+        );
+
+        Set<LocalDate> days = new TreeSet<>(rawMap.keySet());
+        days.addAll(rollupMap.keySet());
+        List<LocalDate> mismatchedDays = days.stream()
+                .filter(day -> !isSameDay(
+                        rawMap.getOrDefault(day, Map.of()),
+                        rollupMap.getOrDefault(day, Map.of())
+                ))
+                .toList();
+        if (!mismatchedDays.isEmpty()) {
+            log.warn("用户{}的营养摄入汇总表与原始饮食记录不一致的日期：{}", userId, mismatchedDays);
+        }
+
+        return DailyNutritionRollupVerifyResp.builder()
+                .userId(userId)
+                .rollupRowCount(rollupList.size())
+                .rawGroupCount(rawMap.values().stream().mapToInt(Map::size).sum())
+                .mismatchedDays(mismatchedDays)
+                .consistent(mismatchedDays.isEmpty())
+                .build();
+    }
+
+    @Override
+    public NutritionalCalculationConsequenceResp sumNutritionIntake(DietRecordsCalculationReq dietRecordsCalculationReq) {
+        Integer userId = dietRecordsCalculationReq.getUserId();
+        Date startDateTime = dietRecordsCalculationReq.getStartDateTime();
+        Date endDateTime = dietRecordsCalculationReq.getEndDateTime();
+
+        // 完整的天：[fullStartDay, fullEndDay)，为null表示不限制
+        LocalDate fullStartDay = startDateTime == null ? null : ceilDay(startDateTime);
+        LocalDate fullEndDay = endDateTime == null ? null : toLocalDate(endDateTime);
+        if (fullStartDay != null && fullEndDay != null && !fullStartDay.isBefore(fullEndDay)) {
+            // 时间段内没有完整的天，直接查询原始的饮食记录
+            return dietRecordsMapper.sumNutritionIntakeByTimeRange(dietRecordsCalculationReq);
+        }
+
+        NutritionalCalculationConsequenceResp total = dailyNutritionRollupMapper.sumByDayRange(userId, fullStartDay, fullEndDay);
+        // 开始的那一天不完整：[startDateTime, fullStartDay 00:00)
+        if (startDateTime != null && startDateTime.before(startOfDay(fullStartDay))) {
+            add(total, dailyNutritionRollupMapper.sumRawByTimeRange(userId, startDateTime, startOfDay(fullStartDay), null));
+        }
+        // 结束的那一天不完整：[fullEndDay 00:00, endDateTime]
+        if (endDateTime != null) {
+            add(total, dailyNutritionRollupMapper.sumRawByTimeRange(userId, startOfDay(fullEndDay), null, endDateTime));
+        }
+        return total;
+    }
+
+    private static boolean isSameDay(Map<String, NutrientAccumulator> rawDay, Map<String, DailyNutritionRollup> rollupDay) {
+        Set<String> mealTypes = new HashSet<>(rawDay.keySet());
+        mealTypes.addAll(rollupDay.keySet());
+        for (String mealType : mealTypes) {
+            NutrientAccumulator raw = rawDay.get(mealType);
+            DailyNutritionRollup rollup = rollupDay.get(mealType);
+            if (!isSameValue(raw, NutrientAccumulator.CALORIES, rollup == null ? null : rollup.getCalories())
+                    || !isSameValue(raw, NutrientAccumulator.PROTEIN, rollup == null ? null : rollup.getProtein())
+                    || !isSameValue(raw, NutrientAccumulator.FAT, rollup == null ? null : rollup.getFat())
+                    || !isSameValue(raw, NutrientAccumulator.CARBOHYDRATES, rollup == null ? null : rollup.getCarbohydrates())
+                    || !isSameValue(raw, NutrientAccumulator.WATER, rollup == null ? null : rollup.getWater())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 缺少的数据按0比较（比如饮食记录中没有任何食物时，汇总表中不会有这一行），只比较数值不比较scale
+     */
+    private static boolean isSameValue(NutrientAccumulator raw, int nutrient, BigDecimal rollupValue) {
+        BigDecimal rawValue = raw == null ? BigDecimal.ZERO : raw.getTotal(nutrient);
+        return rawValue.compareTo(rollupValue == null ? BigDecimal.ZERO : rollupValue) == 0;
+    }
+
+    private static void add(NutritionalCalculationConsequenceResp total, NutritionalCalculationConsequenceResp part) {
+        total.setTotalCalories(total.getTotalCalories().add(part.getTotalCalories()));
+        total.setTotalProtein(total.getTotalProtein().add(part.getTotalProtein()));
+        total.setTotalFat(total.getTotalFat().add(part.getTotalFat()));
+        total.setTotalCarbohydrates(total.getTotalCarbohydrates().add(part.getTotalCarbohydrates()));
+        total.setTotalWater(total.getTotalWater().add(part.getTotalWater()));
+    }
+
+    private LocalDate toLocalDate(Date date) {
+        return date.toInstant().atZone(zoneId).toLocalDate();
+    }
+
+    /**
+     * 时间所在的天刚好从0点开始时返回当天，否则返回下一天
+     */
+    private LocalDate ceilDay(Date date) {
+        LocalDate day = toLocalDate(date);
+        return startOfDay(day).getTime() == date.getTime() ? day : day.plusDays(1);
+    }
+
+    private Date startOfDay(LocalDate day) {
+        return Date.from(day.atStartOfDay(zoneId).toInstant());
+    }
+}
@@ -1,15 +1,31 @@
 package sues.xmz.diploma.service.impl;
 
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import jakarta.annotation.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sues.xmz.diploma.common.convert.BeanMapperRegistry;
 import sues.xmz.diploma.common.domain.PageResponse;
 import sues.xmz.diploma.common.utils.PageUtil;
 import sues.xmz.diploma.domain.dto.diet_foods.DietFoodsDTO;
+import sues.xmz.diploma.domain.dto.rollup.UserDayKeyDTO;
 import sues.xmz.diploma.domain.po.DietFoods;
+import sues.xmz.diploma.domain.req.diet_foods.DietFoodsAddReq;
 import sues.xmz.diploma.domain.req.diet_foods.DietFoodsQueryReq;
+import sues.xmz.diploma.domain.req.diet_foods.DietFoodsUpdateReq;
+import sues.xmz.diploma.mapper.DailyNutritionRollupMapper;
 import sues.xmz.diploma.mapper.DietFoodsMapper;
+import sues.xmz.diploma.service.CatalogSnapshotService;
+import sues.xmz.diploma.service.DailyNutritionRollupService;
 import sues.xmz.diploma.service.DietFoodsService;
+import sues.xmz.diploma.service.DimensionDictionaryService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * <p>
@@ -22,19 +38,143 @@ import sues.xmz.diploma.service.DietFoodsService;
 @Service
 public class DietFoodsServiceImpl extends ServiceImpl<DietFoodsMapper, DietFoods> implements DietFoodsService {
 
+    @Resource
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Resource
+    private DimensionDictionaryService dimensionDictionaryService;
+
+    @Resource
+    private DailyNutritionRollupService dailyNutritionRollupService;
+
+    @Resource
+    private DailyNutritionRollupMapper dailyNutritionRollupMapper;
+
+    @Override
+    @Transactional
+    public boolean addDietFoodsInBatch(List<DietFoodsAddReq> dietFoodsAddReqList) {
+        List<DietFoods> dietFoodsList = BeanMapperRegistry.mapList(dietFoodsAddReqList, DietFoods.class);
+        boolean success = this.saveBatch(dietFoodsList);
+        if (success) {
+            catalogSnapshotService.refreshDietFoods();
+            dimensionDictionaryService.updateFoodTypes(List.of(), dietFoodsList.stream().map(DietFoods::getFoodType).toList());
+        }
+        return success;
+    }
+
+    @Override
+    @Transactional
+    public boolean updateDietFoodsInBatch(List<DietFoodsUpdateReq> dietFoodsUpdateReqList) {
+        // 只有修改了食物分类的数据才需要更新维度字典，修改前的食物分类按主键查询
+        List<DietFoodsUpdateReq> foodTypeChangedReqList = dietFoodsUpdateReqList.stream()
+                .filter(req -> StrUtil.isNotBlank(req.getFoodType()))
+                .toList();
+        List<String> oldFoodTypeList = foodTypeChangedReqList.isEmpty()
+                ? List.of()
+                : listFoodTypesByIds(foodTypeChangedReqList.stream().map(DietFoodsUpdateReq::getFoodId).toList());
+
+        // 食物的营养值被修改后，使用了这些食物的【用户，日期】都需要重新汇总（事务提交后分批执行）；只修改名称、分类时不需要
+        List<Integer> nutrientChangedFoodIdList = listNutrientChangedFoodIds(dietFoodsUpdateReqList);
+        List<UserDayKeyDTO> rollupKeyList = nutrientChangedFoodIdList.isEmpty()
+                ? List.of()
+                : dailyNutritionRollupMapper.listKeysByFoodIds(nutrientChangedFoodIdList);
+
+        boolean success = this.updateBatchById(BeanMapperRegistry.mapList(dietFoodsUpdateReqList, DietFoods.class));
+        if (success) {
+            dailyNutritionRollupService.refreshAfterCommit(rollupKeyList);
+            catalogSnapshotService.refreshDietFoods();
+            dimensionDictionaryService.updateFoodTypes(
+                    oldFoodTypeList,
+                    foodTypeChangedReqList.stream().map(DietFoodsUpdateReq::getFoodType).toList()
+            );
+        }
+        return success;
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteDietFoodsInBatch(List<Integer> foodIdList) {
+        List<String> oldFoodTypeList = listFoodTypesByIds(foodIdList);
+        // 删除食物会级联删除饮食记录中的这种食物，需要在删除前查询受影响的【用户，日期】
+        List<UserDayKeyDTO> rollupKeyList = dailyNutritionRollupMapper.listKeysByFoodIds(foodIdList);
+        boolean success = this.removeBatchByIds(foodIdList);
+        if (success) {
+            dailyNutritionRollupService.refreshAfterCommit(rollupKeyList);
+            catalogSnapshotService.refreshDietFoods();
+            dimensionDictionaryService.updateFoodTypes(oldFoodTypeList, List.of());
+        }
+        return success;
+    }
+
+    /**
+     * 查询营养值被修改的食物ID：和数据库中修改前的值比较，请求中为null的营养值不会被修改（只比较数值不比较scale）
+     */
+    private List<Integer> listNutrientChangedFoodIds(List<DietFoodsUpdateReq> dietFoodsUpdateReqList) {
+        List<DietFoodsUpdateReq> nutrientReqList = dietFoodsUpdateReqList.stream()
+                .filter(req -> req.getCalories() != null || req.getProtein() != null || req.getFat() != null
+                        || req.getCarbohydrates() != null || req.getWater() != null)
+                .toList();
+        if (nutrientReqList.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, DietFoods> oldDietFoodsMap = this.lambdaQuery()
+                .select(DietFoods::getFoodId, DietFoods::getCalories, DietFoods::getProtein, DietFoods::getFat,
+                        DietFoods::getCarbohydrates, DietFoods::getWater)
+                .in(DietFoods::getFoodId, nutrientReqList.stream().map(DietFoodsUpdateReq::getFoodId).toList())
+                .list()
+                .stream()
+                .collect(Collectors.toMap(DietFoods::getFoodId, Function.identity()));
+        return nutrientReqList.stream()
+                .filter(req -> {
+                    DietFoods oldDietFoods = oldDietFoodsMap.get(req.getFoodId());
+                    // 食物不存在时不会更新任何数据
+                    return oldDietFoods != null && (isNutrientChanged(req.getCalories(), oldDietFoods.getCalories())
+                            || isNutrientChanged(req.getProtein(), oldDietFoods.getProtein())
+                            || isNutrientChanged(req.getFat(), oldDietFoods.getFat())
+                            || isNutrientChanged(req.getCarbohydrates(), oldDietFoods.getCarbohydrates())
+                            || isNutrientChanged(req.getWater(), oldDietFoods.getWater()));
+                })
+                .map(DietFoodsUpdateReq::getFoodId)
+                .toList();
+    }
+
+    private static boolean isNutrientChanged(BigDecimal newValue, BigDecimal oldValue) {
+        return newValue != null && (oldValue == null || newValue.compareTo(oldValue) != 0);
+    }
+
+    /**
+     * 根据食物ID查询食物分类（每条食物数据对应一个元素，不去重）
+     */
+    private List<String> listFoodTypesByIds(List<Integer> foodIdList) {
+        return this.lambdaQuery()
+                .select(DietFoods::getFoodId, DietFoods::getFoodType)
+                .in(DietFoods::getFoodId, foodIdList)
+                .list()
+                .stream()
+                .map(DietFoods::getFoodType)
+                .toList();
+    }
+
+    /**
+     * 食物表只有管理员才会修改，直接在内存快照上模糊查询并分页，不再访问数据库
+     */
     @Override
     public PageResponse<DietFoodsDTO> listDietFoodsByPage(DietFoodsQueryReq dietFoodsQueryReq) {
         PageUtil.pageParamIfNull(dietFoodsQueryReq.getCurrent(), dietFoodsQueryReq.getSize());
 
-        Page<DietFoods> pageResult = this.lambdaQuery()
-                .like(dietFoodsQueryReq.getFoodName() != null && !dietFoodsQueryReq.getFoodName().isBlank(),
-                        DietFoods::getFoodName,
-                        dietFoodsQueryReq.getFoodName())
-                .like(dietFoodsQueryReq.getFoodType() != null && !dietFoodsQueryReq.getFoodType().isBlank(),
-                        DietFoods::getFoodType,
-                        dietFoodsQueryReq.getFoodType())
-                .page(Page.of(dietFoodsQueryReq.getCurrent(), dietFoodsQueryReq.getSize()));
+        String foodName = dietFoodsQueryReq.getFoodName();
+        String foodType = dietFoodsQueryReq.getFoodType();
+        List<DietFoods> dietFoodsList = catalogSnapshotService.listAllDietFoods()
+                .stream()
+                .filter(dietFoods -> StrUtil.isBlank(foodName) || StrUtil.containsIgnoreCase(dietFoods.getFoodName(), foodName))
+                .filter(dietFoods -> StrUtil.isBlank(foodType) || StrUtil.containsIgnoreCase(dietFoods.getFoodType(), foodType))
+                .toList();
 
-        return PageResponse.getPageResponse(pageResult, DietFoodsDTO.class);
+        return PageUtil.pageInMemory(
+                dietFoodsList,
+                dietFoodsQueryReq.getCurrent(),
+                dietFoodsQueryReq.getSize(),
+                dietFoods -> BeanMapperRegistry.map(dietFoods, DietFoodsDTO.class)
+        );
     }
 }
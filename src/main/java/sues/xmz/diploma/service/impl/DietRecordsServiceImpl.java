@@ -1,17 +1,18 @@
 package sues.xmz.diploma.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sues.xmz.diploma.common.convert.BeanMapperRegistry;
 import sues.xmz.diploma.common.domain.PageResponse;
 import sues.xmz.diploma.common.domain.ResultCode;
 import sues.xmz.diploma.common.exception.diet_records.DietRecordsSaveFailureException;
 import sues.xmz.diploma.common.exception.diet_records.DietRecordsUpdateFailureException;
 import sues.xmz.diploma.common.exception.diet_records_foods.DietRecordsFoodsSaveFailureException;
 import sues.xmz.diploma.common.utils.PageUtil;
+import sues.xmz.diploma.domain.dto.rollup.UserDayKeyDTO;
 import sues.xmz.diploma.domain.dto.diet_records.DietRecordsCalculationDTO;
 import sues.xmz.diploma.domain.dto.diet_records.DietRecordsDTO;
 import sues.xmz.diploma.domain.dto.diet_records.FoodsQuantitiesDTO;
@@ -23,13 +24,16 @@ import sues.xmz.diploma.domain.req.diet_records.DietRecordsQueryReq;
 import sues.xmz.diploma.domain.req.diet_records.DietRecordsUpdateReq;
 import sues.xmz.diploma.domain.resp.diet_records.NutritionalCalculationConsequenceResp;
 import sues.xmz.diploma.mapper.DietRecordsMapper;
+import sues.xmz.diploma.service.DailyNutritionRollupService;
 import sues.xmz.diploma.service.DietRecordsFoodsService;
 import sues.xmz.diploma.service.DietRecordsService;
+import sues.xmz.diploma.service.DimensionDictionaryService;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 @Service
@@ -40,10 +44,14 @@ public class DietRecordsServiceImpl extends ServiceImpl<DietRecordsMapper, DietR
 
     private final DietRecordsFoodsService dietRecordsFoodsService;
 
+    private final DimensionDictionaryService dimensionDictionaryService;
+
+    private final DailyNutritionRollupService dailyNutritionRollupService;
+
     @Override
     public void addDietRecordsInBulk(List<DietRecordsCreateReq> dietRecordsCreateReqList) {
         // 转换为实体类
-        List<DietRecords> dietRecordList = BeanUtil.copyToList(dietRecordsCreateReqList, DietRecords.class);
+        List<DietRecords> dietRecordList = BeanMapperRegistry.mapList(dietRecordsCreateReqList, DietRecords.class);
         // 保存DietRecords数据
         boolean success = this.saveBatch(dietRecordList);
         if (!success) {
@@ -70,12 +78,22 @@ public class DietRecordsServiceImpl extends ServiceImpl<DietRecordsMapper, DietR
         if (!success) {
             throw new DietRecordsFoodsSaveFailureException();
         }
+
+        // 在同一个事务中更新营养摄入汇总表
+        dailyNutritionRollupService.refresh(toRollupKeys(dietRecordList));
+
+        dimensionDictionaryService.updateMealTypes(List.of(), dietRecordList.stream().map(DietRecords::getMealType).toList());
     }
 
     @Override
     public void updateDietRecordsInBulk(List<DietRecordsUpdateReq> dietRecordsUpdateReqList) {
+        // 修改前的饮食记录，用于更新维度字典和营养摄入汇总表
+        List<DietRecords> oldDietRecordList = listDietRecordsByIds(
+                dietRecordsUpdateReqList.stream().map(DietRecordsUpdateReq::getDietId).toList()
+        );
+
         // 修改DietRecords表数据
-        boolean success = this.updateBatchById(BeanUtil.copyToList(dietRecordsUpdateReqList, DietRecords.class));
+        boolean success = this.updateBatchById(BeanMapperRegistry.mapList(dietRecordsUpdateReqList, DietRecords.class));
         if (!success) {
             throw new DietRecordsUpdateFailureException();
         }
@@ -101,6 +119,52 @@ public class DietRecordsServiceImpl extends ServiceImpl<DietRecordsMapper, DietR
             throw new RuntimeException(ResultCode.DIET_RECORDS_FOODS_UPDATE_FAILURE.getMessage()+e.getLocalizedMessage(),e);
         }
 
+        // 修改前后的日期都需要重新计算（进餐时间可能被修改到了其它日期）
+        Map<Integer, DietRecords> oldDietRecordMap = oldDietRecordList.stream()
+                .collect(Collectors.toMap(DietRecords::getDietId, Function.identity()));
+        List<UserDayKeyDTO> rollupKeyList = new ArrayList<>(toRollupKeys(oldDietRecordList));
+        dietRecordsUpdateReqList.forEach(dietRecordsUpdateReq -> {
+            DietRecords oldDietRecord = oldDietRecordMap.get(dietRecordsUpdateReq.getDietId());
+            if (oldDietRecord != null && dietRecordsUpdateReq.getMealTime() != null) {
+                rollupKeyList.add(dailyNutritionRollupService.toKey(oldDietRecord.getUserId(), dietRecordsUpdateReq.getMealTime()));
+            }
+        });
+        dailyNutritionRollupService.refresh(rollupKeyList);
+
+        dimensionDictionaryService.updateMealTypes(
+                oldDietRecordList.stream().map(DietRecords::getMealType).toList(),
+                dietRecordsUpdateReqList.stream().map(DietRecordsUpdateReq::getMealType).toList()
+        );
+    }
+
+    @Override
+    public boolean deleteDietRecordsInBulk(List<Integer> dietIdList) {
+        List<DietRecords> oldDietRecordList = listDietRecordsByIds(dietIdList);
+        boolean success = this.removeBatchByIds(dietIdList);
+        if (success) {
+            dailyNutritionRollupService.refresh(toRollupKeys(oldDietRecordList));
+            dimensionDictionaryService.updateMealTypes(oldDietRecordList.stream().map(DietRecords::getMealType).toList(), List.of());
+        }
+        return success;
+    }
+
+    /**
+     * 根据饮食记录ID查询用户ID、进餐类型和进餐时间（每条饮食记录对应一个元素，不去重）
+     */
+    private List<DietRecords> listDietRecordsByIds(List<Integer> dietIdList) {
+        if (dietIdList.isEmpty()) {
+            return List.of();
+        }
+        return this.lambdaQuery()
+                .select(DietRecords::getDietId, DietRecords::getUserId, DietRecords::getMealType, DietRecords::getMealTime)
+                .in(DietRecords::getDietId, dietIdList)
+                .list();
+    }
+
+    private List<UserDayKeyDTO> toRollupKeys(List<DietRecords> dietRecordList) {
+        return dietRecordList.stream()
+                .map(dietRecord -> dailyNutritionRollupService.toKey(dietRecord.getUserId(), dietRecord.getMealTime()))
+                .toList();
     }
 
     @Override
@@ -108,100 +172,42 @@ public class DietRecordsServiceImpl extends ServiceImpl<DietRecordsMapper, DietR
         // 参数验证
         PageUtil.pageParamIfNull(dietRecordsQueryReq.getCurrent(), dietRecordsQueryReq.getSize());
 
-        // TODO: 练习使用Mybatis的XML文件，通过SQL语句进行分页批量查询
-        List<DietRecordsDTO> paginatedDietRecordsDTOList = this.baseMapper.listPaginatedDietRecordsByTimeRange(
+        // TODO: 练习使用Mybatis的XML文件，通过SQL语句进行分页批量查询（先分页查询饮食记录的主键，再补全每条饮食记录的食物）
+        return PageUtil.listParentFirstPage(
                 dietRecordsQueryReq,
-                PageUtil.countOffset(dietRecordsQueryReq.getCurrent(), dietRecordsQueryReq.getSize())
-        );
-
-        return PageResponse.getPageResponse(
-                paginatedDietRecordsDTOList,
-                dietRecordsQueryReq.getCurrent(),
-                dietRecordsQueryReq.getSize(),
-                this.baseMapper.listAllDietRecordsByTimeRange(dietRecordsQueryReq).size()
+                (offset, limit, cursor) -> this.baseMapper.listDietRecordsPageKeysByTimeRange(dietRecordsQueryReq, offset, limit, cursor),
+                dietIds -> PageUtil.attachChildren(
+                        this.baseMapper.listDietRecordsByIds(dietIds),
+                        this.baseMapper.listDietRecordsFoodsByIds(dietIds),
+                        DietRecordsDTO::getDietId,
+                        DietRecordsDTO::getFoodsDetailsDTOList,
+                        DietRecordsDTO::setFoodsDetailsDTOList
+                ),
+                () -> this.baseMapper.countDietRecordsByTimeRange(dietRecordsQueryReq)
         );
     }
 
     @Override
     public NutritionalCalculationConsequenceResp calculateNutritionIntake(DietRecordsCalculationReq dietRecordsCalculationReq) {
-        // 获取数据
-        List<DietRecordsCalculationDTO> dietRecordsCalculationDTOList = this.baseMapper.listDietRecordsDetailsByTimeRange(dietRecordsCalculationReq);
-        // 如果列表为空或null，返回默认结果
-        if (dietRecordsCalculationDTOList == null || dietRecordsCalculationDTOList.isEmpty()) {
-            return NutritionalCalculationConsequenceResp.builder()
-                    .totalCalories(BigDecimal.ZERO)
-                    .totalProtein(BigDecimal.ZERO)
-                    .totalFat(BigDecimal.ZERO)
-                    .totalCarbohydrates(BigDecimal.ZERO)
-                    .totalWater(BigDecimal.ZERO)
-                    .dietRecordsList(dietRecordsCalculationDTOList)
-                    .build();
+        // 完整的天直接读取营养摄入汇总表，只有首尾不完整的天才在数据库中按食物明细计算
+        NutritionalCalculationConsequenceResp nutritionalCalculationConsequenceResp =
+                dailyNutritionRollupService.sumNutritionIntake(dietRecordsCalculationReq);
+
+        // 需要明细时，才分页查询每种食物的摄入明细
+        if (Boolean.TRUE.equals(dietRecordsCalculationReq.getIncludeDetails())) {
+            PageUtil.pageParamIfNull(dietRecordsCalculationReq.getCurrent(), dietRecordsCalculationReq.getSize());
+            List<DietRecordsCalculationDTO> dietRecordsCalculationDTOList = this.baseMapper.listDietRecordsDetailsByTimeRange(
+                    dietRecordsCalculationReq,
+                    PageUtil.countOffset(dietRecordsCalculationReq.getCurrent(), dietRecordsCalculationReq.getSize()),
+                    dietRecordsCalculationReq.getSize()
+            );
+            nutritionalCalculationConsequenceResp.setDietRecordsPage(PageResponse.getPageResponse(
+                    dietRecordsCalculationDTOList,
+                    dietRecordsCalculationReq.getCurrent(),
+                    dietRecordsCalculationReq.getSize(),
+                    this.baseMapper.countDietRecordsDetailsByTimeRange(dietRecordsCalculationReq)
+            ));
         }
-
-        // 开始计算
-        // 计算总卡路里
-        BigDecimal totalCalories = calculateTotal(dietRecordsCalculationDTOList, DietRecordsCalculationDTO::getCalories);
-        // 计算总蛋白质
-        BigDecimal totalProtein = calculateTotal(dietRecordsCalculationDTOList, dto -> getOrZero(dto.getProtein()));
-        // 计算总脂肪
-        BigDecimal totalFat = calculateTotal(dietRecordsCalculationDTOList, dto -> getOrZero(dto.getFat()));
-        // 计算总碳水化合物
-        BigDecimal totalCarbohydrates = calculateTotal(dietRecordsCalculationDTOList, dto -> getOrZero(dto.getCarbohydrates()));
-        // 计算总水分
-        BigDecimal totalWater = calculateTotal(dietRecordsCalculationDTOList, dto -> getOrZero(dto.getWater()));
-
-        // 返回计算结果
-        return NutritionalCalculationConsequenceResp.builder()
-                .totalCalories(totalCalories)
-                .totalProtein(totalProtein)
-                .totalFat(totalFat)
-                .totalCarbohydrates(totalCarbohydrates)
-                .totalWater(totalWater)
-                .dietRecordsList(dietRecordsCalculationDTOList)
-                .build();
+        return nutritionalCalculationConsequenceResp;
     }
-
-
-    /**
-     * 处理可能为null的营养值，若为null则返回BigDecimal.ZERO
-     *
-     * @param value 营养值
-     *
-     * @return 非null的BigDecimal值
-     */
-    private static BigDecimal getOrZero(BigDecimal value) {
-        return value != null ? value : BigDecimal.ZERO;
-    }
-
-    /**
-     * 原始代码参考
-     * <pre>
-     * BigDecimal totalProtein = dietRecordsDTOList.stream()
-     *                  .map(dto -> getOrZero(dto.getProtein())
-     *                      .multiply(dto.getQuantity())
-     *                      .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP)
-     *                   )
-     *                  .reduce(BigDecimal.ZERO, BigDecimal::add);
-     * </pre>
-     *
-     * @param dietRecordsDTOList 饮食记录数据列表
-     * @param nutrientExtractor  获取某种营养的值
-     *
-     * @return 计算后得到的总真实值
-     */
-    private BigDecimal calculateTotal(List<DietRecordsCalculationDTO> dietRecordsDTOList, Function<DietRecordsCalculationDTO, BigDecimal> nutrientExtractor) {
-        return dietRecordsDTOList.stream()
-                .map(dto -> {
-                    BigDecimal nutrient = nutrientExtractor.apply(dto);
-                    BigDecimal quantity = dto.getQuantity();
-                    if (nutrient != null && quantity != null) {
-                        return nutrient.multiply(quantity).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-                    } else {
-                        return BigDecimal.ZERO;
-                    }
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-
 }
@@ -0,0 +1,203 @@
+package sues.xmz.diploma.service.impl;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sues.xmz.diploma.domain.dto.dimension.DimensionValueCountDTO;
+import sues.xmz.diploma.mapper.DietFoodsMapper;
+import sues.xmz.diploma.mapper.DietRecordsMapper;
+import sues.xmz.diploma.service.DimensionDictionaryService;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 维度字典 服务实现类
+ * <p>
+ * 第一次读取时通过一次 group by 查询初始化，之后只根据写操作增量更新使用次数，
+ * 读取时只需要遍历所有取值（一般只有十几个），不再需要扫描整张表再去重。
+ * <p>
+ * 写事务从提交前到应用完增量持有维度的读锁，初始化持有写锁：初始化的查询不会落在某个事务提交之后、应用增量之前，
+ * 已经包含在初始化数据中的修改不会再重复累加
+ */
+@Slf4j
+@Service
+public class DimensionDictionaryServiceImpl implements DimensionDictionaryService {
+
+    @Resource
+    private DietFoodsMapper dietFoodsMapper;
+
+    @Resource
+    private DietRecordsMapper dietRecordsMapper;
+
+    private final Dimension foodTypes = new Dimension("食物分类", () -> dietFoodsMapper.countGroupByFoodType());
+
+    private final Dimension mealTypes = new Dimension("进餐类型", () -> dietRecordsMapper.countGroupByMealType());
+
+    @Override
+    public List<String> listFoodTypes() {
+        return foodTypes.listValues();
+    }
+
+    @Override
+    public List<DimensionValueCountDTO> listFoodTypeCounts() {
+        return foodTypes.listValueCounts();
+    }
+
+    @Override
+    public List<String> listMealTypes() {
+        return mealTypes.listValues();
+    }
+
+    @Override
+    public List<DimensionValueCountDTO> listMealTypeCounts() {
+        return mealTypes.listValueCounts();
+    }
+
+    @Override
+    public void updateFoodTypes(Collection<String> removedFoodTypes, Collection<String> addedFoodTypes) {
+        foodTypes.update(removedFoodTypes, addedFoodTypes);
+    }
+
+    @Override
+    public void updateMealTypes(Collection<String> removedMealTypes, Collection<String> addedMealTypes) {
+        mealTypes.update(removedMealTypes, addedMealTypes);
+    }
+
+    /**
+     * 一个维度的所有取值及其使用次数
+     */
+    private static final class Dimension {
+
+        private final String name;
+
+        private final Supplier<List<DimensionValueCountDTO>> seeder;
+
+        /**
+         * 写事务提交时持有读锁（多个事务可以同时提交），初始化时持有写锁。
+         * 加锁顺序始终是先读写锁再对象锁
+         */
+        private final ReadWriteLock seedLock = new ReentrantReadWriteLock();
+
+        /**
+         * 取值 -> 使用次数，为null时代表还没有初始化
+         */
+        private Map<String, Long> counts;
+
+        private Dimension(String name, Supplier<List<DimensionValueCountDTO>> seeder) {
+            this.name = name;
+            this.seeder = seeder;
+        }
+
+        List<String> listValues() {
+            return sortedEntries().stream().map(Map.Entry::getKey).toList();
+        }
+
+        List<DimensionValueCountDTO> listValueCounts() {
+            return sortedEntries().stream()
+                    .map(entry -> new DimensionValueCountDTO(entry.getKey(), entry.getValue()))
+                    .toList();
+        }
+
+        /**
+         * 存在事务时，提交前获取读锁，提交后应用增量再释放读锁；不存在事务时修改已经提交，无法确定和初始化查询的先后，直接使字典失效
+         */
+        void update(Collection<String> removedValues, Collection<String> addedValues) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                invalidate();
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                private boolean locked;
+
+                @Override
+                public void beforeCompletion() {
+                    seedLock.readLock().lock();
+                    locked = true;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            apply(removedValues, addedValues);
+                        } else if (status == STATUS_UNKNOWN) {
+                            // 不确定是否已经提交，重新初始化
+                            invalidate();
+                        }
+                    } finally {
+                        if (locked) {
+                            seedLock.readLock().unlock();
+                        }
+                    }
+                }
+            });
+        }
+
+        private synchronized void apply(Collection<String> removedValues, Collection<String> addedValues) {
+            if (counts == null) {
+                // 还没有初始化，下次初始化时查询的数据已经包含了这次修改
+                return;
+            }
+            removedValues.forEach(value -> {
+                if (value != null) {
+                    // 使用次数减为0时，移除这个取值
+                    counts.computeIfPresent(value, (key, count) -> count > 1 ? count - 1 : null);
+                }
+            });
+            addedValues.forEach(value -> {
+                if (value != null) {
+                    counts.merge(value, 1L, Long::sum);
+                }
+            });
+        }
+
+        private synchronized void invalidate() {
+            counts = null;
+        }
+
+        /**
+         * 按使用次数降序（次数相同时按取值升序）排序后的所有取值，还没有初始化时先在写锁下初始化
+         */
+        private List<Map.Entry<String, Long>> sortedEntries() {
+            synchronized (this) {
+                if (counts != null) {
+                    return sort(counts);
+                }
+            }
+            seedLock.writeLock().lock();
+            try {
+                synchronized (this) {
+                    if (counts == null) {
+                        Map<String, Long> seededCounts = new HashMap<>();
+                        seeder.get().stream()
+                                .filter(valueCount -> valueCount.getValue() != null)
+                                .forEach(valueCount -> seededCounts.put(valueCount.getValue(), valueCount.getCount()));
+                        counts = seededCounts;
+                        log.info("{}维度字典已初始化，共{}个取值", name, counts.size());
+                    }
+                    return sort(counts);
+                }
+            } finally {
+                seedLock.writeLock().unlock();
+            }
+        }
+
+        private static List<Map.Entry<String, Long>> sort(Map<String, Long> counts) {
+            return counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                    .toList();
+        }
+    }
+}
@@ -1,27 +1,40 @@
 package sues.xmz.diploma.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import jakarta.annotation.Resource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sues.xmz.diploma.common.convert.BeanMapperRegistry;
 import sues.xmz.diploma.common.domain.PageResponse;
 import sues.xmz.diploma.common.exception.exercise_records.ExerciseRecordCreateFailException;
 import sues.xmz.diploma.common.exception.exercise_records.ExerciseRecordNotFoundException;
+import sues.xmz.diploma.common.exception.exercise_records.ExerciseStatsTimeRangeInvalidException;
 import sues.xmz.diploma.common.exception.exercise_records_types.ExerciseRecordsTypesSaveFailException;
 import sues.xmz.diploma.common.exception.exercise_records_types.ExerciseRecordsTypesUpdateFailException;
 import sues.xmz.diploma.common.utils.PageUtil;
 import sues.xmz.diploma.domain.dto.exercise_records_types.ExerciseRecordsDTO;
+import sues.xmz.diploma.domain.dto.rollup.UserDayKeyDTO;
 import sues.xmz.diploma.domain.po.ExerciseRecords;
 import sues.xmz.diploma.domain.po.ExerciseRecordsTypes;
 import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordUpdateReq;
 import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordsCreateReq;
 import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordsQueryReq;
+import sues.xmz.diploma.domain.resp.exercise_records.ExerciseStatsResp;
 import sues.xmz.diploma.mapper.ExerciseRecordsMapper;
+import sues.xmz.diploma.service.DailyExerciseRollupService;
 import sues.xmz.diploma.service.ExerciseRecordsService;
 import sues.xmz.diploma.service.ExerciseRecordsTypesService;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 @Service
@@ -34,15 +47,26 @@ public class ExerciseRecordsServiceImpl extends ServiceImpl<ExerciseRecordsMappe
     @Resource
     private ExerciseRecordsTypesService exerciseRecordsTypesService;
 
+    @Resource
+    private DailyExerciseRollupService dailyExerciseRollupService;
+
+    /**
+     * 运动汇总表按数据库的时区划分日期，今天、本周和本月也按这个时区计算
+     */
+    @Value("${database.time-zone:Asia/Shanghai}")
+    private ZoneId zoneId;
+
     @Override
     public void saveExerciseRecordInBatch(List<ExerciseRecordsCreateReq> exerciseRecordsCreateReqList) {
         // 1.保存数据exercise_recode表
-        List<ExerciseRecords> exerciseRecordsList = BeanUtil.copyToList(exerciseRecordsCreateReqList, ExerciseRecords.class);
+        List<ExerciseRecords> exerciseRecordsList = BeanMapperRegistry.mapList(exerciseRecordsCreateReqList, ExerciseRecords.class);
         boolean success = this.saveBatch(exerciseRecordsList);
         // 判断是否保存成功
         if (!success) {
             throw new ExerciseRecordCreateFailException();
         }
+        // 在同一个事务中更新运动汇总表
+        dailyExerciseRollupService.refresh(toRollupKeys(exerciseRecordsList));
 
         // 2.保存数据到exercise_record_type表
         List<ExerciseRecordsTypes> exerciseRecordsTypesList = IntStream.range(0, exerciseRecordsList.size())
@@ -68,12 +92,27 @@ public class ExerciseRecordsServiceImpl extends ServiceImpl<ExerciseRecordsMappe
 
     @Override
     public void updateExerciseRecordInBatch(List<ExerciseRecordUpdateReq> exerciseRecordUpdateReqList) {
+        // 修改前的运动记录，用于更新运动汇总表（运动日期可能被修改到了其它日期，修改前后的日期都需要重新计算）
+        List<ExerciseRecords> oldExerciseRecordsList = listExerciseRecordsByIds(
+                exerciseRecordUpdateReqList.stream().map(ExerciseRecordUpdateReq::getExerciseRecordId).toList()
+        );
+
         // 1.更新exercise_recode表的数据
-        boolean success = this.updateBatchById(BeanUtil.copyToList(exerciseRecordUpdateReqList,ExerciseRecords.class));
+        boolean success = this.updateBatchById(BeanMapperRegistry.mapList(exerciseRecordUpdateReqList,ExerciseRecords.class));
         // 判断是否更新成功
         if (!success) {
             throw new ExerciseRecordNotFoundException();
         }
+        Map<Integer, ExerciseRecords> oldExerciseRecordsMap = oldExerciseRecordsList.stream()
+                .collect(Collectors.toMap(ExerciseRecords::getExerciseRecordId, Function.identity()));
+        List<UserDayKeyDTO> rollupKeyList = new ArrayList<>(toRollupKeys(oldExerciseRecordsList));
+        exerciseRecordUpdateReqList.forEach(exerciseRecordUpdateReq -> {
+            ExerciseRecords oldExerciseRecord = oldExerciseRecordsMap.get(exerciseRecordUpdateReq.getExerciseRecordId());
+            if (oldExerciseRecord != null && exerciseRecordUpdateReq.getExerciseDate() != null) {
+                rollupKeyList.add(dailyExerciseRollupService.toKey(oldExerciseRecord.getUserId(), exerciseRecordUpdateReq.getExerciseDate()));
+            }
+        });
+        dailyExerciseRollupService.refresh(rollupKeyList);
 
         // 2.更新exercise_record_type表的数据
         List<ExerciseRecordsTypes> exerciseRecordsTypesList = IntStream.range(0, exerciseRecordUpdateReqList.size())
@@ -97,6 +136,35 @@ public class ExerciseRecordsServiceImpl extends ServiceImpl<ExerciseRecordsMappe
 
     }
 
+    @Override
+    public boolean deleteExerciseRecordsInBulk(List<Integer> exerciseRecordIdList) {
+        List<ExerciseRecords> oldExerciseRecordsList = listExerciseRecordsByIds(exerciseRecordIdList);
+        boolean success = this.removeBatchByIds(exerciseRecordIdList);
+        if (success) {
+            dailyExerciseRollupService.refresh(toRollupKeys(oldExerciseRecordsList));
+        }
+        return success;
+    }
+
+    /**
+     * 根据运动记录ID查询用户ID和运动日期
+     */
+    private List<ExerciseRecords> listExerciseRecordsByIds(List<Integer> exerciseRecordIdList) {
+        if (exerciseRecordIdList.isEmpty()) {
+            return List.of();
+        }
+        return this.lambdaQuery()
+                .select(ExerciseRecords::getExerciseRecordId, ExerciseRecords::getUserId, ExerciseRecords::getExerciseDate)
+                .in(ExerciseRecords::getExerciseRecordId, exerciseRecordIdList)
+                .list();
+    }
+
+    private List<UserDayKeyDTO> toRollupKeys(List<ExerciseRecords> exerciseRecordsList) {
+        return exerciseRecordsList.stream()
+                .map(exerciseRecord -> dailyExerciseRollupService.toKey(exerciseRecord.getUserId(), exerciseRecord.getExerciseDate()))
+                .toList();
+    }
+
     /**
      * @Description:
      * TODO 需要注意的事情：
@@ -111,19 +179,53 @@ public class ExerciseRecordsServiceImpl extends ServiceImpl<ExerciseRecordsMappe
     @Override
     public PageResponse<ExerciseRecordsDTO> listPaginatedExerciseRecordsByTimeRange(ExerciseRecordsQueryReq exerciseRecordsQueryReq) {
         PageUtil.pageParamIfNull(exerciseRecordsQueryReq.getCurrent(), exerciseRecordsQueryReq.getSize());
-
-        List<ExerciseRecordsDTO> exerciseRecordsDTOList = exerciseRecordsMapper.listPaginatedExerciseRecordsDetailsByTimeRange(
+        return PageUtil.listParentFirstPage(
                 exerciseRecordsQueryReq,
-                PageUtil.countOffset(exerciseRecordsQueryReq.getCurrent(), exerciseRecordsQueryReq.getSize())
-        );
-        return PageResponse.getPageResponse(
-
-                exerciseRecordsDTOList,
-                exerciseRecordsQueryReq.getCurrent(),
-                exerciseRecordsQueryReq.getSize(),
-                exerciseRecordsMapper.listAllExerciseRecordsByTimeRange(exerciseRecordsQueryReq).size()
+                (offset, limit, cursor) -> exerciseRecordsMapper.listExerciseRecordsPageKeysByTimeRange(exerciseRecordsQueryReq, offset, limit, cursor),
+                exerciseRecordIds -> PageUtil.attachChildren(
+                        exerciseRecordsMapper.listExerciseRecordsByIds(exerciseRecordIds),
+                        exerciseRecordsMapper.listExerciseRecordsTypesByIds(exerciseRecordIds),
+                        ExerciseRecordsDTO::getExerciseRecordId,
+                        ExerciseRecordsDTO::getExerciseTypesList,
+                        ExerciseRecordsDTO::setExerciseTypesList
+                ),
+                () -> exerciseRecordsMapper.countExerciseRecordsByTimeRange(exerciseRecordsQueryReq)
         );
     }
 
 
+
+    /**
+     * 运动统计：startDate和endDate都传入时按自定义的日期范围统计，否则按timeRange统计今天、本周（周一到周日）或本月。
+     * 直接读取运动汇总表中每天一行的数据，耗时只和统计的天数有关，和用户的运动记录总数无关
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ExerciseStatsResp getExerciseStats(Integer userId, String timeRange, LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null) {
+            if (startDate.isAfter(endDate)) {
+                throw new ExerciseStatsTimeRangeInvalidException();
+            }
+            return dailyExerciseRollupService.getStats(userId, startDate, endDate);
+        }
+
+        LocalDate today = LocalDate.now(zoneId);
+        if (timeRange == null) {
+            throw new ExerciseStatsTimeRangeInvalidException();
+        }
+        return switch (timeRange) {
+            case "today" -> dailyExerciseRollupService.getStats(userId, today, today);
+            case "week" -> dailyExerciseRollupService.getStats(
+                    userId,
+                    today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)),
+                    today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY))
+            );
+            case "month" -> dailyExerciseRollupService.getStats(
+                    userId,
+                    today.with(TemporalAdjusters.firstDayOfMonth()),
+                    today.with(TemporalAdjusters.lastDayOfMonth())
+            );
+            default -> throw new ExerciseStatsTimeRangeInvalidException();
+        };
+    }
 }
@@ -1,9 +1,9 @@
 package sues.xmz.diploma.service.impl;
 
+import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.batch.MybatisBatch;
 import com.baomidou.mybatisplus.core.toolkit.MybatisBatchUtils;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import jakarta.annotation.Resource;
 import org.apache.ibatis.executor.BatchResult;
@@ -13,10 +13,12 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionTemplate;
 import sues.xmz.diploma.common.domain.PageResponse;
 import sues.xmz.diploma.common.exception.exercise_types.ExerciseTypesNotFoundException;
+import sues.xmz.diploma.common.utils.PageUtil;
 import sues.xmz.diploma.domain.po.ExerciseTypes;
 import sues.xmz.diploma.domain.req.exercise_types.ExerciseTypesCreateReq;
 import sues.xmz.diploma.domain.req.exercise_types.ExerciseTypesUpdateReq;
 import sues.xmz.diploma.mapper.ExerciseTypesMapper;
+import sues.xmz.diploma.service.CatalogSnapshotService;
 import sues.xmz.diploma.service.ExerciseTypesService;
 
 import java.util.HashMap;
@@ -33,6 +35,9 @@ public class ExerciseTypesServiceImpl extends ServiceImpl<ExerciseTypesMapper, E
     @Resource
     private SqlSessionFactory sqlSessionFactory;
 
+    @Resource
+    private CatalogSnapshotService catalogSnapshotService;
+
     @Override
     public List<BatchResult> addExerciseTypesInBatch(ExerciseTypesCreateReq exerciseTypesCreateReq) {
 
@@ -48,12 +53,14 @@ public class ExerciseTypesServiceImpl extends ServiceImpl<ExerciseTypesMapper, E
          */
         MybatisBatch<ExerciseTypes> mybatisBatch = new MybatisBatch<>(sqlSessionFactory, exerciseTypesList);
         MybatisBatch.Method<ExerciseTypes> method = new MybatisBatch.Method<>(ExerciseTypesMapper.class);
-        return mybatisBatch.execute(method.get("batchInsertExerciseTypes"
+        List<BatchResult> batchResultList = mybatisBatch.execute(method.get("batchInsertExerciseTypes"
                 , (exerciseTypes) -> {
                     Map<String, Object> map = new HashMap<>();
                     map.put("exerciseTypesData", exerciseTypes);
                     return map;
                 }));
+        catalogSnapshotService.refreshExerciseTypes();
+        return batchResultList;
     }
 
     @Override
@@ -69,7 +76,7 @@ public class ExerciseTypesServiceImpl extends ServiceImpl<ExerciseTypesMapper, E
         /*
         TODO：通过MybatisBatchUtils的execute方法和Spring事务处理的方式，执行批量修改操作
          */
-        return transactionTemplate.execute(status -> {
+        List<BatchResult> batchResultList = transactionTemplate.execute(status -> {
             MybatisBatch.Method<ExerciseTypes> mapperMethod = new MybatisBatch.Method<>(ExerciseTypesMapper.class);
             // 执行批量插入
             return MybatisBatchUtils.execute(
@@ -81,17 +88,44 @@ public class ExerciseTypesServiceImpl extends ServiceImpl<ExerciseTypesMapper, E
                                     .set(ExerciseTypes::getExerciseName, exerciseTypes.getExerciseName())
                     ));
         });
+        catalogSnapshotService.refreshExerciseTypes();
+        return batchResultList;
+    }
 
+    @Override
+    public boolean deleteExerciseTypesInBatch(List<Integer> exerciseTypeIdList) {
+        boolean success = this.removeBatchByIds(exerciseTypeIdList);
+        if (success) {
+            catalogSnapshotService.refreshExerciseTypes();
+        }
+        return success;
     }
 
+    @Override
+    public List<ExerciseTypes> listAllExerciseTypes() {
+        return catalogSnapshotService.listAllExerciseTypes()
+                .stream()
+                .map(ExerciseTypesServiceImpl::copyOf)
+                .toList();
+    }
 
+    /**
+     * 运动类型表只有管理员才会修改，直接在内存快照上模糊查询并分页，不再访问数据库
+     */
     @Override
     public PageResponse<ExerciseTypes> listExerciseTypesByPage(Long current, Long size, String name) {
-        return PageResponse.getPageResponse(
-                this.page(Page.of(current, size),
-                        Wrappers.<ExerciseTypes>lambdaQuery()
-                                .like(name != null && !name.isBlank(), ExerciseTypes::getExerciseName, name)
-                )
-        );
+        PageUtil.pageParamIfNull(current, size);
+        List<ExerciseTypes> exerciseTypesList = catalogSnapshotService.listAllExerciseTypes()
+                .stream()
+                .filter(exerciseTypes -> StrUtil.isBlank(name) || StrUtil.containsIgnoreCase(exerciseTypes.getExerciseName(), name))
+                .toList();
+        return PageUtil.pageInMemory(exerciseTypesList, current, size, ExerciseTypesServiceImpl::copyOf);
+    }
+
+    /**
+     * 快照中的运动类型是所有请求共享的，返回副本，调用方修改返回的数据不会影响快照
+     */
+    private static ExerciseTypes copyOf(ExerciseTypes exerciseTypes) {
+        return new ExerciseTypes(exerciseTypes.getExerciseTypeId(), exerciseTypes.getExerciseName());
     }
 }
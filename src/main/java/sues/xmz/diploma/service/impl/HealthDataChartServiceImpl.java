@@ -0,0 +1,317 @@
+package sues.xmz.diploma.service.impl;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import sues.xmz.diploma.common.domain.ChartRenderOptions;
+import sues.xmz.diploma.common.domain.ChartSizePreset;
+import sues.xmz.diploma.common.exception.health_data.ChartRenderBusyException;
+import sues.xmz.diploma.common.utils.ChartGenerateUtil;
+import sues.xmz.diploma.common.utils.TrendChartTemplate;
+import sues.xmz.diploma.domain.dto.health_data.HealthTrendSeries;
+import sues.xmz.diploma.domain.req.health_data.HealthDataChartBatchReq;
+import sues.xmz.diploma.domain.req.health_data.HealthDataTrendReq;
+import sues.xmz.diploma.service.HealthDataChartService;
+import sues.xmz.diploma.service.HealthDataService;
+import sues.xmz.diploma.service.HealthDataVersionService;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * <p>
+ * 健康数据图表 服务实现类
+ * </p>
+ * 渲染好的图表按【用户，时间范围，分桶，点数，指标，尺寸，数据版本号】缓存在内存中（LRU），不再写入磁盘。
+ * 用户的健康数据修改后版本号增加，旧的缓存不会再被命中，之后按LRU淘汰。
+ * 缓存的是 CompletableFuture，同一张图表并发请求时只会渲染一次。
+ * <p>
+ * 批量生成多张图表时，先在渲染线程池中查询一次趋势数据、构建一次时间序列，
+ * 再把每张图表的PNG渲染分别提交到渲染线程池并发执行（使用各线程复用的图表模板），总耗时接近最慢的一张图表，而不是所有图表之和。
+ */
+@Slf4j
+@Service
+public class HealthDataChartServiceImpl implements HealthDataChartService {
+
+    /**
+     * 综合趋势图包含的指标
+     */
+    private static final String TREND_CHART_METRICS = "bmi,heartRate,weight";
+
+    /**
+     * 批量生成图表时的图表名称：综合趋势图、BMI趋势图、心率趋势图、体重趋势图
+     */
+    private static final String CHART_COMBINED = "combined";
+    private static final String CHART_BMI = "bmi";
+    private static final String CHART_HEART_RATE = "heartRate";
+    private static final String CHART_WEIGHT = "weight";
+
+    /**
+     * 应用本次启动的时间，作为ETag的一部分。版本号只保存在内存中，重启后会从0开始，
+     * 加上启动时间后，重启前下发的ETag不会和重启后的图表匹配
+     */
+    private final long startupTime = System.currentTimeMillis();
+
+    @Resource
+    private HealthDataService healthDataService;
+
+    @Resource
+    private HealthDataVersionService healthDataVersionService;
+
+    @Resource(name = "chartRenderExecutor")
+    private ThreadPoolTaskExecutor chartRenderExecutor;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 是否输出索引色PNG
+     */
+    @Value("${chart.encode.indexed-palette:true}")
+    private boolean indexedPalette;
+
+    /**
+     * PNG的Deflate压缩级别
+     */
+    @Value("${chart.encode.compression-level:" + ChartRenderOptions.DEFAULT_COMPRESSION_LEVEL + "}")
+    private int compressionLevel;
+
+    private final Map<ChartCacheKey, CompletableFuture<byte[]>> chartCache;
+
+    public HealthDataChartServiceImpl(@Value("${chart.cache.max-entries:256}") int maxEntries) {
+        this.chartCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChartCacheKey, CompletableFuture<byte[]>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<byte[]> getHealthDataTrendChart(HealthDataTrendReq healthDataTrendReq) {
+        ChartCacheKey key = buildCacheKey(healthDataTrendReq);
+        CompletableFuture<byte[]> chartFuture = chartCache.computeIfAbsent(key, k -> renderAsync(healthDataTrendReq));
+        // 渲染失败（比如没有健康数据）时不缓存，下次请求重新渲染
+        chartFuture.whenComplete((imageBytes, ex) -> {
+            if (ex != null) {
+                chartCache.remove(key, chartFuture);
+            }
+        });
+        return chartFuture;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, byte[]>> getHealthDataTrendCharts(HealthDataChartBatchReq healthDataChartBatchReq) {
+        Map<String, CompletableFuture<byte[]>> chartFutureMap = new LinkedHashMap<>();
+        // 没有命中缓存、需要由本次请求渲染的图表
+        Map<String, CompletableFuture<byte[]>> pendingChartMap = new LinkedHashMap<>();
+        Map<String, ChartCacheKey> pendingKeyMap = new LinkedHashMap<>();
+        for (String chart : healthDataChartBatchReq.getCharts().stream().distinct().toList()) {
+            ChartCacheKey key = buildCacheKey(healthDataChartBatchReq, toMetrics(chart));
+            CompletableFuture<byte[]> chartFuture = new CompletableFuture<>();
+            CompletableFuture<byte[]> cachedFuture = chartCache.putIfAbsent(key, chartFuture);
+            if (cachedFuture != null) {
+                chartFutureMap.put(chart, cachedFuture);
+                continue;
+            }
+            chartFutureMap.put(chart, chartFuture);
+            pendingChartMap.put(chart, chartFuture);
+            pendingKeyMap.put(chart, key);
+        }
+        if (!pendingChartMap.isEmpty()) {
+            renderBatchAsync(healthDataChartBatchReq, pendingChartMap, pendingKeyMap);
+        }
+
+        return CompletableFuture.allOf(chartFutureMap.values().toArray(CompletableFuture[]::new))
+                .thenApply(v -> {
+                    Map<String, byte[]> imageBytesMap = new LinkedHashMap<>();
+                    chartFutureMap.forEach((chart, chartFuture) -> imageBytesMap.put(chart, chartFuture.join()));
+                    return imageBytesMap;
+                });
+    }
+
+    /**
+     * 批量渲染没有命中缓存的图表：查询数据和构建时间序列只执行一次，之后每张图表的PNG渲染只读取时间序列，分别提交到渲染线程池并发执行
+     */
+    private void renderBatchAsync(HealthDataTrendReq healthDataTrendReq,
+                                  Map<String, CompletableFuture<byte[]>> pendingChartMap,
+                                  Map<String, ChartCacheKey> pendingKeyMap) {
+        List<String> chartList = List.copyOf(pendingChartMap.keySet());
+        ChartRenderOptions options = toRenderOptions(healthDataTrendReq);
+        CompletableFuture<HealthTrendSeries> seriesFuture;
+        try {
+            seriesFuture = CompletableFuture.supplyAsync(
+                    () -> ChartGenerateUtil.buildTrendSeries(healthDataService.getHealthDataTrendDTO(healthDataTrendReq)),
+                    chartRenderExecutor
+            );
+        } catch (TaskRejectedException e) {
+            seriesFuture = CompletableFuture.failedFuture(e);
+        }
+
+        for (String chart : chartList) {
+            CompletableFuture<byte[]> renderFuture;
+            try {
+                renderFuture = seriesFuture.thenApplyAsync(series -> {
+                    try {
+                        return renderChart(chart, series, options);
+                    } catch (IOException e) {
+                        throw new RuntimeException("健康数据趋势图生成错误：" + e.getLocalizedMessage(), e);
+                    }
+                }, chartRenderExecutor);
+            } catch (TaskRejectedException e) {
+                renderFuture = CompletableFuture.failedFuture(e);
+            }
+
+            CompletableFuture<byte[]> chartFuture = pendingChartMap.get(chart);
+            ChartCacheKey key = pendingKeyMap.get(chart);
+            renderFuture.whenComplete((imageBytes, ex) -> {
+                if (ex == null) {
+                    chartFuture.complete(imageBytes);
+                    return;
+                }
+                // 渲染失败时不缓存，下次请求重新渲染
+                chartCache.remove(key, chartFuture);
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (cause instanceof TaskRejectedException) {
+                    log.warn("图表渲染线程池已满，拒绝用户{}的{}趋势图请求", healthDataTrendReq.getUserId(), chart);
+                    cause = new ChartRenderBusyException();
+                }
+                chartFuture.completeExceptionally(cause);
+            });
+        }
+    }
+
+    /**
+     * 渲染一张图表（PNG编码），耗时记录在 chart.render 计时器中（标签：图表名称、宽x高）
+     */
+    private byte[] renderChart(String chart, HealthTrendSeries series, ChartRenderOptions options) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return renderChartPng(chart, series, options);
+        } finally {
+            sample.stop(Timer.builder("chart.render")
+                    .description("趋势图渲染耗时")
+                    .tags("chart", chart, "size", options.getWidth() + "x" + options.getHeight())
+                    .register(meterRegistry));
+        }
+    }
+
+    private static byte[] renderChartPng(String chart, HealthTrendSeries series, ChartRenderOptions options) throws IOException {
+        return switch (chart) {
+            case CHART_BMI -> TrendChartTemplate.renderSingle(series.getBmiSeries(), "BMI Trend Over Time", "BMI", options);
+            case CHART_HEART_RATE -> TrendChartTemplate.renderSingle(series.getHeartRateSeries(), "Heart Rate Trend Over Time", "Heart Rate", options);
+            case CHART_WEIGHT -> TrendChartTemplate.renderSingle(series.getWeightSeries(), "Weight Trend Over Time", "Weight", options);
+            default -> TrendChartTemplate.renderCombined(series, options);
+        };
+    }
+
+    /**
+     * 按请求的尺寸预设和配置的编码参数生成图表渲染参数
+     */
+    private ChartRenderOptions toRenderOptions(HealthDataTrendReq healthDataTrendReq) {
+        return ChartRenderOptions.of(ChartSizePreset.of(healthDataTrendReq.getChartSize()), indexedPalette, compressionLevel);
+    }
+
+    /**
+     * 图表对应的缓存键中的指标，综合趋势图和单张趋势图接口共用同一个缓存
+     */
+    private static String toMetrics(String chart) {
+        return CHART_COMBINED.equals(chart) ? TREND_CHART_METRICS : chart;
+    }
+
+    @Override
+    public String getHealthDataTrendChartETag(HealthDataTrendReq healthDataTrendReq) {
+        return buildETag("png", buildCacheKey(healthDataTrendReq));
+    }
+
+    /**
+     * 列式数据和趋势图的尺寸无关，宽高固定为0，只改变 chartSize 时ETag不变
+     */
+    @Override
+    public String getHealthDataTrendSeriesETag(HealthDataTrendReq healthDataTrendReq) {
+        return buildETag("series", new ChartCacheKey(
+                healthDataTrendReq.getUserId(),
+                toMillis(healthDataTrendReq.getStartDateTime()),
+                toMillis(healthDataTrendReq.getEndDateTime()),
+                healthDataTrendReq.getBucket(),
+                healthDataTrendReq.getMaxPoints(),
+                TREND_CHART_METRICS,
+                0,
+                0,
+                healthDataVersionService.getVersion(healthDataTrendReq.getUserId())
+        ));
+    }
+
+    private String buildETag(String representation, ChartCacheKey key) {
+        return "\"" + DigestUtil.sha256Hex(startupTime + ":" + representation + ":" + key) + "\"";
+    }
+
+    private ChartCacheKey buildCacheKey(HealthDataTrendReq healthDataTrendReq) {
+        return buildCacheKey(healthDataTrendReq, TREND_CHART_METRICS);
+    }
+
+    private ChartCacheKey buildCacheKey(HealthDataTrendReq healthDataTrendReq, String metrics) {
+        return new ChartCacheKey(
+                healthDataTrendReq.getUserId(),
+                toMillis(healthDataTrendReq.getStartDateTime()),
+                toMillis(healthDataTrendReq.getEndDateTime()),
+                healthDataTrendReq.getBucket(),
+                healthDataTrendReq.getMaxPoints(),
+                metrics,
+                ChartSizePreset.of(healthDataTrendReq.getChartSize()).getWidth(),
+                ChartSizePreset.of(healthDataTrendReq.getChartSize()).getHeight(),
+                healthDataVersionService.getVersion(healthDataTrendReq.getUserId())
+        );
+    }
+
+    private CompletableFuture<byte[]> renderAsync(HealthDataTrendReq healthDataTrendReq) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    HealthTrendSeries series = ChartGenerateUtil.buildTrendSeries(healthDataService.getHealthDataTrendDTO(healthDataTrendReq));
+                    return renderChart(CHART_COMBINED, series, toRenderOptions(healthDataTrendReq));
+                } catch (IOException e) {
+                    throw new RuntimeException("健康数据趋势图生成错误：" + e.getLocalizedMessage(), e);
+                }
+            }, chartRenderExecutor);
+        } catch (TaskRejectedException e) {
+            log.warn("图表渲染线程池已满，拒绝用户{}的趋势图请求", healthDataTrendReq.getUserId());
+            throw new ChartRenderBusyException();
+        }
+    }
+
+    private static Long toMillis(Date date) {
+        return date == null ? null : date.getTime();
+    }
+
+    /**
+     * 图表缓存的键
+     */
+    @Data
+    @AllArgsConstructor
+    private static class ChartCacheKey {
+        private Integer userId;
+        private Long startDateTime;
+        private Long endDateTime;
+        private String bucket;
+        private Integer maxPoints;
+        private String metrics;
+        private int width;
+        private int height;
+        private long dataVersion;
+    }
+}
@@ -1,47 +1,73 @@
 package sues.xmz.diploma.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import jakarta.annotation.Resource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sues.xmz.diploma.common.convert.BeanMapperRegistry;
+import sues.xmz.diploma.common.domain.PageCursor;
 import sues.xmz.diploma.common.domain.PageResponse;
 import sues.xmz.diploma.common.exception.health_data.HealthDataNotFoundException;
 import sues.xmz.diploma.common.exception.health_data.UserHeightDataNotFoundException;
 import sues.xmz.diploma.common.utils.ChartGenerateUtil;
 import sues.xmz.diploma.common.utils.PageUtil;
+import sues.xmz.diploma.common.utils.TrendDownsampleUtil;
 import sues.xmz.diploma.common.utils.UserDataCalculationUtil;
 import sues.xmz.diploma.domain.dto.health_data.HealthDataDTO;
+import sues.xmz.diploma.domain.dto.health_data.HealthDataTrendBucketDTO;
 import sues.xmz.diploma.domain.dto.health_data.HealthDataTrendDTO;
 import sues.xmz.diploma.domain.po.HealthData;
 import sues.xmz.diploma.domain.po.Users;
 import sues.xmz.diploma.domain.req.health_data.HealthDataCreateReq;
 import sues.xmz.diploma.domain.req.health_data.HealthDataQueryReq;
+import sues.xmz.diploma.domain.req.health_data.HealthDataTrendReq;
 import sues.xmz.diploma.domain.req.health_data.HealthDataUpdateReq;
+import sues.xmz.diploma.domain.resp.health_data.HealthDataTrendSeriesResp;
 import sues.xmz.diploma.mapper.HealthDataMapper;
 import sues.xmz.diploma.service.HealthDataService;
+import sues.xmz.diploma.service.HealthDataVersionService;
 import sues.xmz.diploma.service.UsersService;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.ZoneId;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 
 @Service
 @Transactional
 public class HealthDataServiceImpl extends ServiceImpl<HealthDataMapper, HealthData> implements HealthDataService {
 
+    /**
+     * 健康数据趋势默认最多保留的点数（时间桶数）
+     */
+    private static final int DEFAULT_TREND_MAX_POINTS = 300;
+
     @Resource
     private UsersService usersService;
 
+    @Resource
+    private HealthDataVersionService healthDataVersionService;
+
+    /**
+     * 数据库时区，趋势中的时间桶是按这个时区的日期分的
+     */
+    @Value("${database.time-zone:Asia/Shanghai}")
+    private ZoneId zoneId;
+
     @Override
     public boolean addHealthDataInBatch(List<HealthDataCreateReq> healthDataCreateReqList) {
         //计算BMI并进行赋值
-        List<HealthData> healthDataList = getHealDataListCalculatedBmi(BeanUtil.copyToList(healthDataCreateReqList, HealthData.class));
+        List<HealthData> healthDataList = getHealDataListCalculatedBmi(BeanMapperRegistry.mapList(healthDataCreateReqList, HealthData.class));
 
-        // 保存数据并且返回结果
-        return this.saveBatch(healthDataList);
+        // 保存数据，并增加用户健康数据的版本号（旧的趋势图缓存失效）
+        boolean success = this.saveBatch(healthDataList);
+        if (success) {
+            healthDataVersionService.increaseVersion(healthDataList.stream().map(HealthData::getUserId).toList());
+        }
+        return success;
     }
 
     /**
@@ -68,67 +94,139 @@ public class HealthDataServiceImpl extends ServiceImpl<HealthDataMapper, HealthD
     @Override
     public boolean updateHealthDataInBatch(List<HealthDataUpdateReq> healthDataUpdateReqList) {
         //计算BMI并进行赋值
-        List<HealthData> healthDataList = getHealDataListCalculatedBmi(BeanUtil.copyToList(healthDataUpdateReqList, HealthData.class));
+        List<HealthData> healthDataList = getHealDataListCalculatedBmi(BeanMapperRegistry.mapList(healthDataUpdateReqList, HealthData.class));
 
-        // 更新数据并且返回结果
-        return this.updateBatchById(healthDataList);
+        // 更新数据，并增加用户健康数据的版本号（旧的趋势图缓存失效）
+        boolean success = this.updateBatchById(healthDataList);
+        if (success) {
+            healthDataVersionService.increaseVersion(healthDataList.stream().map(HealthData::getUserId).toList());
+        }
+        return success;
     }
 
     @Override
     public boolean deleteHealthData(List<Integer> healthDataIdList) {
-        return removeBatchByIds(healthDataIdList);
+        // 删除前查询这些健康数据所属的用户，用于增加版本号
+        List<Integer> userIdList = this.lambdaQuery()
+                .select(HealthData::getHealthDataId, HealthData::getUserId)
+                .in(HealthData::getHealthDataId, healthDataIdList)
+                .list()
+                .stream()
+                .map(HealthData::getUserId)
+                .toList();
+        boolean success = removeBatchByIds(healthDataIdList);
+        if (success) {
+            healthDataVersionService.increaseVersion(userIdList);
+        }
+        return success;
     }
 
     @Override
     public PageResponse<HealthDataDTO> listPaginatedHealthDataByTimeRange(HealthDataQueryReq healthDataQueryReq) {
         PageUtil.pageParamIfNull(healthDataQueryReq.getCurrent(), healthDataQueryReq.getSize());
+        boolean searchCount = PageUtil.isSearchCount(healthDataQueryReq.getSearchCount());
+
+        PageCursor cursor = PageUtil.decodeCursor(healthDataQueryReq.getCursor());
+
         List<HealthDataDTO> healthDataDTOList = baseMapper.listPaginatedHealthDataByTimeRange(
                 healthDataQueryReq,
-                PageUtil.countOffset(healthDataQueryReq.getCurrent(), healthDataQueryReq.getSize())
+                PageUtil.countOffset(healthDataQueryReq.getCurrent(), healthDataQueryReq.getSize()),
+                PageUtil.countLimit(healthDataQueryReq.getSize(), searchCount, cursor),
+                cursor
         );
+
+        Function<HealthDataDTO, String> cursorEncoder = dto -> PageUtil.encodeCursor(dto.getMeasurementDate(), dto.getHealthDataId());
+        if (cursor != null) {
+            return PageResponse.getCursorPageResponse(
+                    healthDataDTOList,
+                    healthDataQueryReq.getSize(),
+                    searchCount ? baseMapper.countHealthDataByTimeRange(healthDataQueryReq) : null,
+                    cursorEncoder
+            );
+        }
+        if (!searchCount) {
+            return PageResponse.getPageResponseWithoutTotal(
+                    healthDataDTOList,
+                    healthDataQueryReq.getCurrent(),
+                    healthDataQueryReq.getSize(),
+                    cursorEncoder
+            );
+        }
         return PageResponse.getPageResponse(
                 healthDataDTOList,
                 healthDataQueryReq.getCurrent(),
                 healthDataQueryReq.getSize(),
-                baseMapper.listAllHealthDataByTimeRange(healthDataQueryReq).size()
+                baseMapper.countHealthDataByTimeRange(healthDataQueryReq),
+                cursorEncoder
         );
     }
 
+    /**
+     * 健康数据趋势：先在数据库中按天、周或月分桶（每个桶一行最小值、最大值和平均值），
+     * 分桶后的数据仍然超过 maxPoints 时，maxPoints 平均分给三个指标，对每个指标的平均值分别使用LTTB算法降采样，
+     * 最后合并各指标保留的时间桶（合并后不超过 maxPoints）。合并后日期和各指标始终来自同一个时间桶，不会错位
+     */
     @Override
-    public byte[] getHealthDataTrend(HealthDataQueryReq healthDataQueryReq) throws IOException {
-        PageUtil.pageParamIfNull(healthDataQueryReq.getCurrent(), healthDataQueryReq.getSize());
-        // 根据用户ID和时间范围查询
-        List<HealthDataDTO> healthDataDTOList = baseMapper.listPaginatedHealthDataByTimeRange(
-                healthDataQueryReq,
-                PageUtil.countOffset(healthDataQueryReq.getCurrent(), healthDataQueryReq.getSize())
+    public List<HealthDataTrendBucketDTO> listHealthDataTrendBuckets(HealthDataTrendReq healthDataTrendReq) {
+        List<HealthDataTrendBucketDTO> bucketList = baseMapper.listHealthDataTrendBuckets(healthDataTrendReq);
+        int maxPoints = healthDataTrendReq.getMaxPoints() == null ? DEFAULT_TREND_MAX_POINTS : healthDataTrendReq.getMaxPoints();
+        return TrendDownsampleUtil.downsample(
+                bucketList,
+                maxPoints,
+                bucket -> bucket.getBucketStart().getTime(),
+                HealthDataTrendBucketDTO::getAvgBmi,
+                HealthDataTrendBucketDTO::getAvgHeartRate,
+                HealthDataTrendBucketDTO::getAvgWeight
         );
-        if (healthDataDTOList == null || healthDataDTOList.isEmpty()) {
-            throw new HealthDataNotFoundException();
-        }
+    }
 
-        // 汇总数据，生成趋势DTO
-        HealthDataTrendDTO healthDataTrendDTO = new HealthDataTrendDTO();
+    /**
+     * 健康数据趋势的列式数据：和趋势图使用相同的分桶和降采样结果，由前端渲染图表，服务端不再需要JFreeChart
+     */
+    @Override
+    public HealthDataTrendSeriesResp getHealthDataTrendSeries(HealthDataTrendReq healthDataTrendReq) {
+        List<HealthDataTrendBucketDTO> bucketList = listHealthDataTrendBuckets(healthDataTrendReq);
+        return HealthDataTrendSeriesResp.builder()
+                .bucket(healthDataTrendReq.getBucket() == null ? "day" : healthDataTrendReq.getBucket())
+                .epochDays(bucketList.stream()
+                        .mapToLong(bucket -> bucket.getBucketStart().toInstant().atZone(zoneId).toLocalDate().toEpochDay())
+                        .toArray())
+                .bmis(toDoubleArray(bucketList, HealthDataTrendBucketDTO::getAvgBmi))
+                .heartRates(toDoubleArray(bucketList, HealthDataTrendBucketDTO::getAvgHeartRate))
+                .weights(toDoubleArray(bucketList, HealthDataTrendBucketDTO::getAvgWeight))
+                .build();
+    }
 
-        healthDataTrendDTO.setBmis(
-                healthDataDTOList.parallelStream()
-                        .map(HealthDataDTO::getBmi)
-                        .collect(Collectors.toList())
-        );
+    private static Double[] toDoubleArray(List<HealthDataTrendBucketDTO> bucketList, Function<HealthDataTrendBucketDTO, BigDecimal> getter) {
+        return bucketList.stream()
+                .map(getter)
+                .map(value -> value == null ? null : value.doubleValue())
+                .toArray(Double[]::new);
+    }
 
-        healthDataTrendDTO.setMeasurementDates(healthDataDTOList.parallelStream()
-                .map(HealthDataDTO::getMeasurementDate)
-                .collect(Collectors.toList()));
+    @Override
+    public HealthDataTrendDTO getHealthDataTrendDTO(HealthDataTrendReq healthDataTrendReq) {
+        // 根据用户ID和时间范围查询分桶后的趋势数据，数据量只和时间跨度、maxPoints有关，和分页参数无关
+        List<HealthDataTrendBucketDTO> bucketList = listHealthDataTrendBuckets(healthDataTrendReq);
+        if (bucketList.isEmpty()) {
+            throw new HealthDataNotFoundException();
+        }
 
-        healthDataTrendDTO.setHeartRates(healthDataDTOList.parallelStream()
-                .map(HealthDataDTO::getHeartRate)
-                .collect(Collectors.toList()));
+        // 汇总数据，生成趋势DTO（每个时间桶使用平均值）
+        HealthDataTrendDTO healthDataTrendDTO = new HealthDataTrendDTO();
+        healthDataTrendDTO.setMeasurementDates(bucketList.stream().map(HealthDataTrendBucketDTO::getBucketStart).toList());
+        healthDataTrendDTO.setBmis(bucketList.stream().map(HealthDataTrendBucketDTO::getAvgBmi).toList());
+        healthDataTrendDTO.setHeartRates(bucketList.stream().map(HealthDataTrendBucketDTO::getAvgHeartRate).toList());
+        healthDataTrendDTO.setWeights(bucketList.stream().map(HealthDataTrendBucketDTO::getAvgWeight).toList());
+        return healthDataTrendDTO;
+    }
 
-        healthDataTrendDTO.setWeights(healthDataDTOList.parallelStream()
-                .map(HealthDataDTO::getWeight)
-                .collect(Collectors.toList()));
+    @Override
+    public byte[] getHealthDataTrend(HealthDataTrendReq healthDataTrendReq) throws IOException {
+        HealthDataTrendDTO healthDataTrendDTO = getHealthDataTrendDTO(healthDataTrendReq);
 
-        //绘画趋势图 - 方法1
-//        List<byte[]> byteArrayChartList = generateTendencyChartOfHealthData(healthDataTrendDTO);
+        //绘画趋势图 - 方法1（BMI、心率、体重各一张，多张图表请使用 HealthDataChartService#getHealthDataTrendCharts 并发渲染）
+//        List<byte[]> byteArrayChartList = ChartGenerateUtil.generateTendencyChartOfHealthData(healthDataTrendDTO);
 
         //绘画趋势图 - 方法2
         return ChartGenerateUtil.generateCombinedTrendChart(healthDataTrendDTO);
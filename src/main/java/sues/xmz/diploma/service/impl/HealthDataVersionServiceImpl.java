@@ -0,0 +1,33 @@
+package sues.xmz.diploma.service.impl;
+
+import org.springframework.stereotype.Service;
+import sues.xmz.diploma.common.utils.TransactionUtil;
+import sues.xmz.diploma.service.HealthDataVersionService;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 每个用户健康数据的版本号 服务实现类
+ * <p>
+ * 版本号只保存在内存中，应用重启后所有用户从0开始，内存中的图表缓存也同时被清空，因此不会读到旧的缓存
+ */
+@Service
+public class HealthDataVersionServiceImpl implements HealthDataVersionService {
+
+    private final Map<Integer, Long> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public long getVersion(Integer userId) {
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    @Override
+    public void increaseVersion(Collection<Integer> userIdList) {
+        Set<Integer> userIdSet = new HashSet<>(userIdList);
+        TransactionUtil.runAfterCommit(() -> userIdSet.forEach(userId -> versions.merge(userId, 1L, Long::sum)));
+    }
+}
@@ -1,10 +1,10 @@
 package sues.xmz.diploma.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import jakarta.annotation.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sues.xmz.diploma.common.convert.BeanMapperRegistry;
 import sues.xmz.diploma.common.domain.PageResponse;
 import sues.xmz.diploma.common.exception.health_goals.HealthGoalCreateFailureException;
 import sues.xmz.diploma.common.exception.health_goals.HealthGoalUpdateFailureException;
@@ -33,7 +33,7 @@ public class HealthGoalsServiceImpl extends ServiceImpl<HealthGoalsMapper, Healt
     @Override
     public void createHealthGoalInBatch(List<HealthGoalCreateReq> healthGoalCreateReqList) {
         // 保存健康目标计划
-        List<HealthGoals> healthGoalsList = BeanUtil.copyToList(healthGoalCreateReqList, HealthGoals.class);
+        List<HealthGoals> healthGoalsList = BeanMapperRegistry.mapList(healthGoalCreateReqList, HealthGoals.class);
         boolean success = this.saveBatch(healthGoalsList);
         if (!success) {
             throw new HealthGoalCreateFailureException();
@@ -45,7 +45,7 @@ public class HealthGoalsServiceImpl extends ServiceImpl<HealthGoalsMapper, Healt
                 healthGoalCreateReqList,
                 HealthGoals::getGoalId,
                 HealthGoalCreateReq::getExerciseTypeIdList,
-                HealthGoalsExerciseTypes.class
+                HealthGoalsExerciseTypes::new
         );
         if (healthGoalsExerciseTypesList.isEmpty()){
             return;
@@ -61,7 +61,7 @@ public class HealthGoalsServiceImpl extends ServiceImpl<HealthGoalsMapper, Healt
     @Override
     public void updateHealthGoalInBatch(List<HealthGoalUpdateReq> healthGoalUpdateReqList) {
         // 更新目标计划
-        boolean success = this.updateBatchById(BeanUtil.copyToList(healthGoalUpdateReqList, HealthGoals.class));
+        boolean success = this.updateBatchById(BeanMapperRegistry.mapList(healthGoalUpdateReqList, HealthGoals.class));
         if (!success) {
             throw new HealthGoalUpdateFailureException();
         }
@@ -71,7 +71,7 @@ public class HealthGoalsServiceImpl extends ServiceImpl<HealthGoalsMapper, Healt
                 healthGoalUpdateReqList,
                 HealthGoalUpdateReq::getGoalId,
                 HealthGoalUpdateReq::getExerciseTypeIdList,
-                HealthGoalsExerciseTypes.class
+                HealthGoalsExerciseTypes::new
         );
         if (healthGoalsExerciseTypesList.isEmpty()){
             return;
@@ -95,17 +95,17 @@ public class HealthGoalsServiceImpl extends ServiceImpl<HealthGoalsMapper, Healt
     @Override
     public PageResponse<HealthGoalsDetailsDTO> listPaginatedHealthGoalsDetailsByTimeRange(HealthGoalsQueryReq healthGoalsQueryReq) {
         PageUtil.pageParamIfNull(healthGoalsQueryReq.getCurrent(),healthGoalsQueryReq.getSize());
-
-        List<HealthGoalsDetailsDTO> healthGoalsDetailsDTOList = this.baseMapper.listPaginatedHealthGoalsDetailsByTimeRange(
+        return PageUtil.listParentFirstPage(
                 healthGoalsQueryReq,
-                PageUtil.countOffset(healthGoalsQueryReq.getCurrent(), healthGoalsQueryReq.getSize())
-        );
-
-        return PageResponse.getPageResponse(
-                healthGoalsDetailsDTOList,
-                healthGoalsQueryReq.getCurrent(),
-                healthGoalsQueryReq.getSize(),
-        this.baseMapper.listAllHealthGoalsDetailsByTimeRange(healthGoalsQueryReq).size()
+                (offset, limit, cursor) -> this.baseMapper.listHealthGoalsPageKeysByTimeRange(healthGoalsQueryReq, offset, limit, cursor),
+                goalIds -> PageUtil.attachChildren(
+                        this.baseMapper.listHealthGoalsByIds(goalIds),
+                        this.baseMapper.listHealthGoalsExerciseTypesByIds(goalIds),
+                        HealthGoalsDetailsDTO::getGoalId,
+                        HealthGoalsDetailsDTO::getExerciseTypesList,
+                        HealthGoalsDetailsDTO::setExerciseTypesList
+                ),
+                () -> this.baseMapper.countHealthGoalsByTimeRange(healthGoalsQueryReq)
         );
     }
 }
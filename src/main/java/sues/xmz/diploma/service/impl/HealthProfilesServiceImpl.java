@@ -1,12 +1,12 @@
 package sues.xmz.diploma.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sues.xmz.diploma.common.convert.BeanMapperRegistry;
 import sues.xmz.diploma.common.exception.health_profiles.*;
 import sues.xmz.diploma.domain.dto.health_profiles.HealthProfileDTO;
 import sues.xmz.diploma.domain.po.HealthProfiles;
@@ -29,7 +29,7 @@ public class HealthProfilesServiceImpl extends ServiceImpl<HealthProfilesMapper,
             throw new OnlyOneHealthProfilePerUserException();
         }
 
-        boolean success = this.saveOrUpdate(BeanUtil.copyProperties(healthProfilesCreateReq, HealthProfiles.class));
+        boolean success = this.saveOrUpdate(BeanMapperRegistry.map(healthProfilesCreateReq, HealthProfiles.class));
         if (!success) {
             throw new HealthProfileCreateException();
         }
@@ -46,7 +46,7 @@ public class HealthProfilesServiceImpl extends ServiceImpl<HealthProfilesMapper,
             throw new HealthProfileNotFoundException();
         }
 
-        return BeanUtil.copyProperties(healthProfile, HealthProfileDTO.class);
+        return BeanMapperRegistry.map(healthProfile, HealthProfileDTO.class);
     }
 
     @Override
@@ -0,0 +1,113 @@
+package sues.xmz.diploma.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import sues.xmz.diploma.common.exception.users.LoginTooManyAttemptsException;
+import sues.xmz.diploma.service.LoginThrottleService;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 登录限流 服务实现类
+ * </p>
+ * 令牌桶保存在内存中：每个桶最多有 capacity 个令牌，每 refill-seconds 秒补满一次（按时间均匀补充）。
+ * 桶按最近一次登录尝试的顺序排列，数量超过 max-entries 时淘汰最久没有使用的桶
+ * （这样的桶通常已经补满，和新建的桶没有区别），每次登录尝试最多淘汰一个桶。
+ */
+@Slf4j
+@Service
+public class LoginThrottleServiceImpl implements LoginThrottleService {
+
+    private static final String USERNAME_KEY_PREFIX = "username:";
+
+    private static final String IP_KEY_PREFIX = "ip:";
+
+    @Value("${login.throttle.username-capacity:5}")
+    private int usernameCapacity;
+
+    @Value("${login.throttle.username-refill-seconds:60}")
+    private long usernameRefillSeconds;
+
+    @Value("${login.throttle.ip-capacity:20}")
+    private int ipCapacity;
+
+    @Value("${login.throttle.ip-refill-seconds:60}")
+    private long ipRefillSeconds;
+
+    private final Map<String, TokenBucket> bucketMap;
+
+    public LoginThrottleServiceImpl(@Value("${login.throttle.max-entries:100000}") int maxEntries) {
+        this.bucketMap = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    public void acquire(String username, String clientIp) {
+        long now = System.nanoTime();
+        if (clientIp != null && !tryConsume(IP_KEY_PREFIX + clientIp, ipCapacity, ipRefillSeconds, now)) {
+            log.warn("IP {} 登录尝试过于频繁", clientIp);
+            throw new LoginTooManyAttemptsException();
+        }
+        if (!tryConsume(USERNAME_KEY_PREFIX + username, usernameCapacity, usernameRefillSeconds, now)) {
+            log.warn("账号 {} 登录尝试过于频繁", username);
+            throw new LoginTooManyAttemptsException();
+        }
+    }
+
+    @Override
+    public void reset(String username) {
+        bucketMap.remove(USERNAME_KEY_PREFIX + username);
+    }
+
+    private boolean tryConsume(String key, int capacity, long refillSeconds, long now) {
+        TokenBucket bucket = bucketMap.computeIfAbsent(key, k -> new TokenBucket(capacity, TimeUnit.SECONDS.toNanos(refillSeconds), now));
+        return bucket.tryConsume(now);
+    }
+
+    /**
+     * 令牌桶
+     */
+    private static final class TokenBucket {
+
+        private final int capacity;
+
+        /**
+         * 补充一个令牌需要的时间（纳秒）
+         */
+        private final double nanosPerToken;
+
+        private double tokens;
+
+        private long lastRefillTime;
+
+        TokenBucket(int capacity, long refillNanos, long now) {
+            this.capacity = capacity;
+            this.nanosPerToken = (double) refillNanos / capacity;
+            this.tokens = capacity;
+            this.lastRefillTime = now;
+        }
+
+        synchronized boolean tryConsume(long now) {
+            refill(now);
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillTime) / nanosPerToken);
+            lastRefillTime = now;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package sues.xmz.diploma.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import sues.xmz.diploma.common.exception.users.PasswordHashBusyException;
+import sues.xmz.diploma.common.utils.PasswordUtil;
+import sues.xmz.diploma.service.PasswordHashService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * 密码加密/校验 服务实现类
+ * </p>
+ * 计算成本（password.hash.log-rounds）修改后，旧密码在用户下次登录成功时按新的计算成本重新加密
+ */
+@Slf4j
+@Service
+public class PasswordHashServiceImpl implements PasswordHashService {
+
+    @Value("${password.hash.log-rounds:10}")
+    private int logRounds;
+
+    @Resource(name = "passwordHashExecutor")
+    private ThreadPoolTaskExecutor passwordHashExecutor;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        return submit("encode", () -> PasswordUtil.encodePassword(rawPassword, logRounds));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> matchesAsync(String rawPassword, String encodedPassword) {
+        return submit("matches", () -> !PasswordUtil.verifyNotOldPassword(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public String encode(String rawPassword) {
+        return join(encodeAsync(rawPassword));
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return join(matchesAsync(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        return PasswordUtil.needsRehash(encodedPassword, logRounds);
+    }
+
+    /**
+     * 提交到密码线程池执行，password.hash 计时器只记录BCrypt本身的计算时间，不包含排队等待的时间
+     */
+    private <T> CompletableFuture<T> submit(String operation, Supplier<T> supplier) {
+        Timer timer = Timer.builder("password.hash")
+                .description("BCrypt计算耗时")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(supplier), passwordHashExecutor);
+        } catch (TaskRejectedException e) {
+            log.warn("密码线程池已满，拒绝本次密码计算");
+            throw new PasswordHashBusyException();
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
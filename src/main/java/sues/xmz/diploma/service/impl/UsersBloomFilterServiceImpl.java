@@ -0,0 +1,153 @@
+package sues.xmz.diploma.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import sues.xmz.diploma.common.utils.BloomFilter;
+import sues.xmz.diploma.domain.po.Users;
+import sues.xmz.diploma.mapper.UsersMapper;
+import sues.xmz.diploma.service.UsersBloomFilterService;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * <p>
+ * 用户名和邮箱的布隆过滤器 服务实现类
+ * </p>
+ * 应用启动完成后从users表构建，之后注册和修改邮箱时同步添加。
+ * users表使用 utf8mb4_unicode_ci 排序规则（不区分大小写和重音、忽略末尾空格），
+ * 因此添加和查询前都先去掉重音符号、转为小写并去掉末尾空格，数据库认为相同的值在过滤器中也相同。
+ * 少数更特殊的等价字符，以及重新构建期间同时注册的数据，可能出现漏判，这时由数据库的唯一索引兜底。
+ */
+@Slf4j
+@Service
+public class UsersBloomFilterServiceImpl implements UsersBloomFilterService {
+
+    @Value("${users.bloom-filter.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${users.bloom-filter.fpp:0.01}")
+    private double fpp;
+
+    @Resource
+    private UsersMapper usersMapper;
+
+    /**
+     * 当前使用的过滤器，构建完成之前为null
+     */
+    private volatile Filters current;
+
+    /**
+     * 正在构建的过滤器，构建期间新增的数据同时添加到这里
+     */
+    private volatile Filters building;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // 构建失败时不影响启动，所有查询都回退到数据库
+            log.warn("用户名和邮箱的布隆过滤器构建失败：{}", e.getLocalizedMessage());
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long userCount = usersMapper.selectCount(null);
+        // 预留用户数两倍的容量，注册高峰期间误判率不会明显上升
+        Filters filters = new Filters(Math.max(expectedInsertions, userCount * 2), fpp);
+        building = filters;
+        usersMapper.selectList(
+                new LambdaQueryWrapper<Users>().select(Users::getUsername, Users::getEmail),
+                context -> {
+                    Users user = context.getResultObject();
+                    filters.putUsername(user.getUsername());
+                    filters.putEmail(user.getEmail());
+                }
+        );
+        current = filters;
+        building = null;
+        log.info("用户名和邮箱的布隆过滤器构建完成：{}个用户，耗时{}ms", userCount, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public boolean mightContainUsername(String username) {
+        if (username == null) {
+            return false;
+        }
+        Filters filters = current;
+        return filters == null || filters.usernames.mightContain(normalize(username));
+    }
+
+    @Override
+    public boolean mightContainEmail(String email) {
+        if (email == null) {
+            return false;
+        }
+        Filters filters = current;
+        return filters == null || filters.emails.mightContain(normalize(email));
+    }
+
+    @Override
+    public void putUsername(String username) {
+        Filters filters = current;
+        if (filters != null) {
+            filters.putUsername(username);
+        }
+        filters = building;
+        if (filters != null) {
+            filters.putUsername(username);
+        }
+    }
+
+    @Override
+    public void putEmail(String email) {
+        Filters filters = current;
+        if (filters != null) {
+            filters.putEmail(email);
+        }
+        filters = building;
+        if (filters != null) {
+            filters.putEmail(email);
+        }
+    }
+
+    /**
+     * 按 utf8mb4_unicode_ci 的比较方式规范化：去掉重音符号、转为小写、去掉末尾空格
+     */
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}+", "").toLowerCase(Locale.ROOT).stripTrailing();
+    }
+
+    private static final class Filters {
+
+        private final BloomFilter usernames;
+
+        private final BloomFilter emails;
+
+        Filters(long expectedInsertions, double fpp) {
+            this.usernames = new BloomFilter(expectedInsertions, fpp);
+            this.emails = new BloomFilter(expectedInsertions, fpp);
+        }
+
+        void putUsername(String username) {
+            if (username != null) {
+                usernames.put(normalize(username));
+            }
+        }
+
+        void putEmail(String email) {
+            if (email != null) {
+                emails.put(normalize(email));
+            }
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package sues.xmz.diploma.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sues.xmz.diploma.common.convert.BeanMapperRegistry;
 import sues.xmz.diploma.common.exception.users.*;
-import sues.xmz.diploma.common.utils.PasswordUtil;
 import sues.xmz.diploma.domain.po.Users;
 import sues.xmz.diploma.domain.req.users.PasswordChangeReq;
 import sues.xmz.diploma.domain.req.users.UserInfoUpdateReq;
@@ -14,34 +16,112 @@ import sues.xmz.diploma.domain.req.users.UserLoginReq;
 import sues.xmz.diploma.domain.req.users.UserRegisterReq;
 import sues.xmz.diploma.domain.resp.users.UserInfoResp;
 import sues.xmz.diploma.mapper.UsersMapper;
+import sues.xmz.diploma.service.LoginThrottleService;
+import sues.xmz.diploma.service.PasswordHashService;
+import sues.xmz.diploma.service.UsersBloomFilterService;
 import sues.xmz.diploma.service.UsersService;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+@Slf4j
 @Service
 @Transactional
 public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements UsersService {
 
+    /**
+     * 邮箱的唯一索引名（见 script_performance.sql）
+     */
+    private static final String EMAIL_UNIQUE_KEY = "uk_email";
+
+    /**
+     * 唯一索引冲突的错误信息末尾的索引名，MySQL 8 带有表名前缀（users.uk_email）
+     */
+    private static final Pattern DUPLICATE_KEY_NAME = Pattern.compile("for key '(?:\\w+\\.)?(\\w+)'$");
+
+    @Resource
+    private PasswordHashService passwordHashService;
+
+    @Resource
+    private LoginThrottleService loginThrottleService;
+
+    @Resource
+    private UsersBloomFilterService usersBloomFilterService;
 
     @Override
     public boolean register(UserRegisterReq userRegisterReq) {
-        // 检查用户名是否存在
-        if (this.count(new LambdaQueryWrapper<Users>().eq(Users::getUsername, userRegisterReq.getUsername())) > 0) {
-            throw new UsernameAlreadyExistsException();
+        // 检查用户名和邮箱是否存在：布隆过滤器判断一定不存在的不再查询数据库，可能存在的合并为一次查询
+        boolean checkUsername = usersBloomFilterService.mightContainUsername(userRegisterReq.getUsername());
+        boolean checkEmail = usersBloomFilterService.mightContainEmail(userRegisterReq.getEmail());
+        if (checkUsername || checkEmail) {
+            checkUsernameAndEmailNotExists(
+                    checkUsername ? userRegisterReq.getUsername() : null,
+                    checkEmail ? userRegisterReq.getEmail() : null
+            );
         }
-        // 检查邮箱是否存在
-        if (this.count(new LambdaQueryWrapper<Users>().eq(Users::getEmail, userRegisterReq.getEmail())) > 0) {
-            throw new EmailAlreadyExistsException();
+
+        // 加密密码（在密码线程池中计算）
+        userRegisterReq.setPasswordHash(passwordHashService.encode(userRegisterReq.getPasswordHash()));
+        // 保存用户，同时注册相同用户名或邮箱时由唯一索引兜底
+        boolean success;
+        try {
+            success = this.save(BeanMapperRegistry.map(userRegisterReq, Users.class));
+        } catch (DuplicateKeyException e) {
+            throw toAlreadyExistsException(e);
+        }
+        if (success) {
+            usersBloomFilterService.putUsername(userRegisterReq.getUsername());
+            usersBloomFilterService.putEmail(userRegisterReq.getEmail());
         }
+        return success;
+    }
 
-        // 加密密码
-        userRegisterReq.setPasswordHash(PasswordUtil.encodePassword(userRegisterReq.getPasswordHash()));
-        // 保存用户
-        return this.save(BeanUtil.copyProperties(userRegisterReq, Users.class));
+    /**
+     * 一次查询同时检查用户名和邮箱是否已经存在，用户名优先
+     *
+     * @param username 需要检查的用户名，为null时不检查
+     * @param email    需要检查的邮箱，为null时不检查
+     */
+    private void checkUsernameAndEmailNotExists(String username, String email) {
+        List<Users> existingUserList = this.list(new LambdaQueryWrapper<Users>()
+                .select(Users::getUsername, Users::getEmail)
+                .eq(username != null, Users::getUsername, username)
+                .or(username != null && email != null)
+                .eq(email != null, Users::getEmail, email)
+                .last("limit 2")
+        );
+        if (existingUserList.isEmpty()) {
+            return;
+        }
+        // 数据库按 utf8mb4_unicode_ci 比较，这里不区分大小写判断是哪个字段冲突；只检查一个字段时直接就是该字段
+        boolean usernameExists = username != null && (email == null || existingUserList.stream()
+                .anyMatch(user -> username.equalsIgnoreCase(user.getUsername())));
+        if (usernameExists) {
+            throw new UsernameAlreadyExistsException();
+        }
+        throw new EmailAlreadyExistsException();
+    }
+
+    /**
+     * 唯一索引冲突时，根据索引名判断是用户名还是邮箱已经存在
+     */
+    private static RuntimeException toAlreadyExistsException(DuplicateKeyException e) {
+        // MySQL的错误信息中包含冲突的值：Duplicate entry 'xxx' for key 'users.uk_email'，只比较末尾的索引名
+        Matcher matcher = DUPLICATE_KEY_NAME.matcher(String.valueOf(e.getMostSpecificCause().getMessage()));
+        if (matcher.find() && EMAIL_UNIQUE_KEY.equalsIgnoreCase(matcher.group(1))) {
+            return new EmailAlreadyExistsException();
+        }
+        return new UsernameAlreadyExistsException();
     }
 
     @Override
-    public UserInfoResp login(UserLoginReq userLoginReq) {
+    public CompletableFuture<UserInfoResp> login(UserLoginReq userLoginReq, String clientIp) {
+        // 按用户名和IP限流，超出频率的请求不再查询数据库和计算BCrypt
+        loginThrottleService.acquire(userLoginReq.getUsername(), clientIp);
+
         // 查询用户
         Users user = this.getOne(new LambdaQueryWrapper<Users>().eq(Users::getUsername, userLoginReq.getUsername()));
 
@@ -49,28 +129,68 @@ public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements
         if (null == user) {
             throw new UserNotFoundException();
         }
-        // 验证密码
-        if (PasswordUtil.verifyNotOldPassword(userLoginReq.getPasswordHash(), user.getPasswordHash())) {
-            throw new PasswordErrorException();
-        }
+        // 验证密码（在密码线程池中计算，不占用请求线程）
+        String encodedPassword = user.getPasswordHash();
+        return passwordHashService.matchesAsync(userLoginReq.getPasswordHash(), encodedPassword)
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new PasswordErrorException();
+                    }
+                    loginThrottleService.reset(userLoginReq.getUsername());
+                    if (passwordHashService.needsRehash(encodedPassword)) {
+                        rehashPassword(user.getUserId(), userLoginReq.getPasswordHash(), encodedPassword);
+                    }
+                    // 返回用户信息
+                    return BeanMapperRegistry.map(user, UserInfoResp.class);
+                });
+    }
 
-        // 返回用户信息
-        return BeanUtil.copyProperties(user, UserInfoResp.class);
+    /**
+     * 计算成本修改后，使用新的计算成本重新加密密码（异步，不影响本次登录）。
+     * 只有密码没有被修改过时才更新，不会覆盖同时修改的新密码；线程池繁忙时跳过，下次登录再重新加密
+     */
+    private void rehashPassword(Integer userId, String rawPassword, String oldEncodedPassword) {
+        try {
+            passwordHashService.encodeAsync(rawPassword)
+                    .thenAccept(newEncodedPassword -> this.lambdaUpdate()
+                            .set(Users::getPasswordHash, newEncodedPassword)
+                            .eq(Users::getUserId, userId)
+                            .eq(Users::getPasswordHash, oldEncodedPassword)
+                            .update())
+                    .exceptionally(e -> {
+                        log.warn("用户{}的密码重新加密失败：{}", userId, e.getLocalizedMessage());
+                        return null;
+                    });
+        } catch (PasswordHashBusyException e) {
+            log.debug("密码线程池繁忙，跳过用户{}的密码重新加密", userId);
+        }
     }
 
     @Override
     public boolean updateInfo(UserInfoUpdateReq userInfoUpdateReq) {
-        Users updateUser = BeanUtil.copyProperties(userInfoUpdateReq, Users.class);
+        Users updateUser = BeanMapperRegistry.map(userInfoUpdateReq, Users.class);
         // 检查邮箱是否是自己的
         Users myself = this.getById(updateUser.getUserId());
-        if (!Objects.equals(myself.getEmail(), updateUser.getEmail())
+        boolean emailChanged = !Objects.equals(myself.getEmail(), updateUser.getEmail());
+        // 布隆过滤器判断邮箱一定不存在时不再查询数据库
+        if (emailChanged
+                && usersBloomFilterService.mightContainEmail(updateUser.getEmail())
                 && this.count(new LambdaQueryWrapper<Users>().eq(Users::getEmail, updateUser.getEmail())) > 0
         ) {
             throw new EmailAlreadyExistsException();
         }
 
-        // 只更新非敏感信息
-        return this.updateById(updateUser);
+        // 只更新非敏感信息，同时修改为相同邮箱时由唯一索引兜底
+        boolean success;
+        try {
+            success = this.updateById(updateUser);
+        } catch (DuplicateKeyException e) {
+            throw toAlreadyExistsException(e);
+        }
+        if (success && emailChanged) {
+            usersBloomFilterService.putEmail(updateUser.getEmail());
+        }
+        return success;
     }
 
     @Override
@@ -79,12 +199,12 @@ public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements
         if (user == null) {
             throw new UserNotFoundException();
         }
-        // 验证旧密码
-        if (PasswordUtil.verifyNotOldPassword(passwordChangeReq.getOldPassword(), user.getPasswordHash())) {
+        // 验证旧密码（在密码线程池中计算）
+        if (!passwordHashService.matches(passwordChangeReq.getOldPassword(), user.getPasswordHash())) {
             throw new IncorrectOldPasswordException();
         }
         // 设置新密码
-        user.setPasswordHash(PasswordUtil.encodePassword(passwordChangeReq.getNewPassword()));
+        user.setPasswordHash(passwordHashService.encode(passwordChangeReq.getNewPassword()));
         return this.updateById(user);
     }
 
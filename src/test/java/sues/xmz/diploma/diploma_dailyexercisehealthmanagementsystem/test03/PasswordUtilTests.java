@@ -0,0 +1,29 @@
+package sues.xmz.diploma.diploma_dailyexercisehealthmanagementsystem.test03;
+
+import org.junit.jupiter.api.Test;
+import sues.xmz.diploma.common.utils.PasswordUtil;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试BCrypt计算成本的解析和是否需要重新加密
+ */
+class PasswordUtilTests {
+
+    @Test
+    public void testGetLogRounds() {
+        assertEquals(4, PasswordUtil.getLogRounds(PasswordUtil.encodePassword("88888888", 4)));
+        assertEquals(10, PasswordUtil.getLogRounds("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"));
+        assertEquals(12, PasswordUtil.getLogRounds("$2$12$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"));
+        assertEquals(-1, PasswordUtil.getLogRounds("88888888"));
+        assertEquals(-1, PasswordUtil.getLogRounds(null));
+    }
+
+    @Test
+    public void testNeedsRehash() {
+        String encodedPassword = PasswordUtil.encodePassword("88888888", 5);
+        assertFalse(PasswordUtil.needsRehash(encodedPassword, 5));
+        assertTrue(PasswordUtil.needsRehash(encodedPassword, 6));
+        assertFalse(PasswordUtil.verifyNotOldPassword("88888888", encodedPassword));
+    }
+}
@@ -0,0 +1,157 @@
+package sues.xmz.diploma.diploma_dailyexercisehealthmanagementsystem.test04;
+
+import org.junit.jupiter.api.Test;
+import sues.xmz.diploma.common.utils.NutrientAccumulator;
+import sues.xmz.diploma.domain.dto.diet_records.DietRecordsCalculationDTO;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 测试营养摄入累加器：随机生成数据，和原来逐个营养成分使用BigDecimal计算的结果进行比较（包括scale）
+ */
+class NutrientAccumulatorTests {
+
+    private static final long SEED = 20250306L;
+
+    @Test
+    public void testScaledTermMatchesBigDecimal() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < 200_000; i++) {
+            BigDecimal nutrient = randomDecimal(random);
+            BigDecimal quantity = randomDecimal(random);
+            BigInteger expected = nutrient.multiply(quantity).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP).unscaledValue();
+            if (expected.bitLength() > 63) {
+                assertThrows(ArithmeticException.class, () -> NutrientAccumulator.scaledTerm(nutrient, quantity));
+                continue;
+            }
+            assertEquals(expected.longValueExact(), NutrientAccumulator.scaledTerm(nutrient, quantity),
+                    () -> nutrient + " * " + quantity + " / 100");
+        }
+    }
+
+    @Test
+    public void testHalfUpBoundaries() {
+        // 刚好是0.005的时候，HALF_UP向远离0的方向进位
+        assertEquals(1L, NutrientAccumulator.scaledTerm(new BigDecimal("0.5"), new BigDecimal("1")));
+        assertEquals(-1L, NutrientAccumulator.scaledTerm(new BigDecimal("-0.5"), new BigDecimal("1")));
+        assertEquals(0L, NutrientAccumulator.scaledTerm(new BigDecimal("0.49"), new BigDecimal("1")));
+        assertEquals(12_345L, NutrientAccumulator.scaledTerm(new BigDecimal("1.2345E+4"), new BigDecimal("1")));
+    }
+
+    @Test
+    public void testSumMatchesBigDecimal() {
+        Random random = new Random(SEED);
+        for (int round = 0; round < 500; round++) {
+            List<DietRecordsCalculationDTO> dtoList = randomDtoList(random, random.nextInt(200) + 1);
+            assertTotalsEqual(dtoList, NutrientAccumulator.sum(dtoList));
+        }
+    }
+
+    @Test
+    public void testScaleWhenAllValuesAreNull() {
+        DietRecordsCalculationDTO dto = new DietRecordsCalculationDTO();
+        dto.setQuantity(new BigDecimal("100.00"));
+        List<DietRecordsCalculationDTO> dtoList = List.of(dto);
+        NutrientAccumulator accumulator = NutrientAccumulator.sum(dtoList);
+
+        // 卡路里为null时结果为 0（scale = 0），其它营养成分为null时结果为 0.00（scale = 2）
+        assertEquals(BigDecimal.ZERO, accumulator.getTotal(NutrientAccumulator.CALORIES));
+        assertEquals(new BigDecimal("0.00"), accumulator.getTotal(NutrientAccumulator.PROTEIN));
+        assertTotalsEqual(dtoList, accumulator);
+    }
+
+    @Test
+    public void testParallelCombinerMatchesSequential() {
+        Random random = new Random(SEED);
+        List<DietRecordsCalculationDTO> dtoList = randomDtoList(random, NutrientAccumulator.PARALLEL_THRESHOLD * 2);
+        NutrientAccumulator parallel = dtoList.parallelStream().collect(NutrientAccumulator.collector());
+        NutrientAccumulator sequential = new NutrientAccumulator();
+        dtoList.forEach(sequential::accept);
+
+        for (int nutrient = NutrientAccumulator.CALORIES; nutrient <= NutrientAccumulator.WATER; nutrient++) {
+            assertEquals(sequential.getTotal(nutrient), parallel.getTotal(nutrient));
+        }
+        assertTotalsEqual(dtoList, NutrientAccumulator.sum(dtoList));
+    }
+
+    @Test
+    public void testSumOverflowsLong() {
+        DietRecordsCalculationDTO dto = new DietRecordsCalculationDTO();
+        dto.setQuantity(new BigDecimal("100"));
+        dto.setCalories(new BigDecimal("90000000000000000"));
+        List<DietRecordsCalculationDTO> dtoList = List.of(dto, dto, dto);
+        assertTotalsEqual(dtoList, NutrientAccumulator.sum(dtoList));
+    }
+
+    private static void assertTotalsEqual(List<DietRecordsCalculationDTO> dtoList, NutrientAccumulator accumulator) {
+        // BigDecimal.equals 会同时比较数值和scale
+        assertEquals(referenceTotal(dtoList, DietRecordsCalculationDTO::getCalories), accumulator.getTotal(NutrientAccumulator.CALORIES));
+        assertEquals(referenceTotal(dtoList, dto -> orZero(dto.getProtein())), accumulator.getTotal(NutrientAccumulator.PROTEIN));
+        assertEquals(referenceTotal(dtoList, dto -> orZero(dto.getFat())), accumulator.getTotal(NutrientAccumulator.FAT));
+        assertEquals(referenceTotal(dtoList, dto -> orZero(dto.getCarbohydrates())), accumulator.getTotal(NutrientAccumulator.CARBOHYDRATES));
+        assertEquals(referenceTotal(dtoList, dto -> orZero(dto.getWater())), accumulator.getTotal(NutrientAccumulator.WATER));
+    }
+
+    /**
+     * 原来 DietRecordsServiceImpl.calculateTotal 的计算方式
+     */
+    private static BigDecimal referenceTotal(List<DietRecordsCalculationDTO> dtoList, Function<DietRecordsCalculationDTO, BigDecimal> nutrientExtractor) {
+        return dtoList.stream()
+                .map(dto -> {
+                    BigDecimal nutrient = nutrientExtractor.apply(dto);
+                    BigDecimal quantity = dto.getQuantity();
+                    if (nutrient != null && quantity != null) {
+                        return nutrient.multiply(quantity).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+                    } else {
+                        return BigDecimal.ZERO;
+                    }
+                })
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static List<DietRecordsCalculationDTO> randomDtoList(Random random, int size) {
+        List<DietRecordsCalculationDTO> dtoList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            DietRecordsCalculationDTO dto = new DietRecordsCalculationDTO();
+            dto.setQuantity(randomNullableDecimal(random));
+            dto.setCalories(randomNullableDecimal(random));
+            dto.setProtein(randomNullableDecimal(random));
+            dto.setFat(randomNullableDecimal(random));
+            dto.setCarbohydrates(randomNullableDecimal(random));
+            dto.setWater(randomNullableDecimal(random));
+            dtoList.add(dto);
+        }
+        return dtoList;
+    }
+
+    private static BigDecimal randomNullableDecimal(Random random) {
+        return random.nextInt(10) == 0 ? null : randomDecimal(random);
+    }
+
+    /**
+     * 随机生成数据库中可能出现的 DECIMAL 值（以 scale 为 0~4 为主），偶尔生成负数、较大的值和负的scale
+     */
+    private static BigDecimal randomDecimal(Random random) {
+        int scale = random.nextInt(20) == 0 ? -random.nextInt(4) : random.nextInt(5);
+        long unscaled = random.nextInt(10) == 0
+                ? random.nextLong() % 1_000_000_000_000L
+                : random.nextInt(1_000_000);
+        if (random.nextInt(20) == 0) {
+            unscaled = -unscaled;
+        }
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+}
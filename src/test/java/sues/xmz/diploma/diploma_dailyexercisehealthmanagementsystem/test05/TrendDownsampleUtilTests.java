@@ -0,0 +1,105 @@
+package sues.xmz.diploma.diploma_dailyexercisehealthmanagementsystem.test05;
+
+import org.junit.jupiter.api.Test;
+import sues.xmz.diploma.common.utils.TrendDownsampleUtil;
+import sues.xmz.diploma.domain.dto.health_data.HealthDataTrendBucketDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试LTTB降采样：首尾保留、下标递增、峰值不会被丢弃，多个指标合并后不超过 maxPoints
+ */
+class TrendDownsampleUtilTests {
+
+    @Test
+    public void testReturnsAllIndicesWhenBelowThreshold() {
+        int[] indices = TrendDownsampleUtil.lttbIndices(new double[]{1, 2, 3}, new double[]{5, 6, 7}, 10);
+        assertArrayEquals(new int[]{0, 1, 2}, indices);
+    }
+
+    @Test
+    public void testKeepsEndpointsAndPeak() {
+        int n = 10_000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        Random random = new Random(20250313L);
+        for (int i = 0; i < n; i++) {
+            xs[i] = i;
+            ys[i] = 70 + random.nextDouble();
+        }
+        // 只有一个点的峰值，按固定步长采样时几乎一定会被丢弃
+        int peak = 4321;
+        ys[peak] = 180;
+
+        int[] indices = TrendDownsampleUtil.lttbIndices(xs, ys, 100);
+        assertEquals(100, indices.length);
+        assertEquals(0, indices[0]);
+        assertEquals(n - 1, indices[indices.length - 1]);
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(indices[i] > indices[i - 1]);
+        }
+        assertTrue(contains(indices, peak));
+    }
+
+    @Test
+    public void testSelectIndicesSkipsNullValues() {
+        List<BigDecimal> values = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            values.add(i % 2 == 0 ? null : BigDecimal.valueOf(i));
+        }
+        List<Integer> selected = TrendDownsampleUtil.selectIndices(values, 5, values::indexOf, value -> value);
+        assertEquals(5, selected.size());
+        selected.forEach(index -> assertNotNull(values.get(index)));
+    }
+
+    @Test
+    public void testDownsampleKeepsAtMostMaxPointsForAllMetrics() {
+        // 三个指标的噪声互不相关，各自选中的时间桶几乎不重合
+        Random random = new Random(20250314L);
+        List<HealthDataTrendBucketDTO> bucketList = new ArrayList<>();
+        long day = 24 * 60 * 60 * 1000L;
+        for (int i = 0; i < 3650; i++) {
+            HealthDataTrendBucketDTO bucket = new HealthDataTrendBucketDTO();
+            bucket.setBucketStart(new Date(i * day));
+            bucket.setAvgBmi(BigDecimal.valueOf(22 + random.nextDouble()));
+            bucket.setAvgHeartRate(BigDecimal.valueOf(70 + random.nextDouble() * 10));
+            bucket.setAvgWeight(BigDecimal.valueOf(65 + random.nextDouble() * 2));
+            bucketList.add(bucket);
+        }
+
+        for (int maxPoints : new int[]{3, 4, 8, 10, 300, 2000}) {
+            List<HealthDataTrendBucketDTO> sampled = TrendDownsampleUtil.downsample(
+                    bucketList,
+                    maxPoints,
+                    bucket -> bucket.getBucketStart().getTime(),
+                    HealthDataTrendBucketDTO::getAvgBmi,
+                    HealthDataTrendBucketDTO::getAvgHeartRate,
+                    HealthDataTrendBucketDTO::getAvgWeight
+            );
+            assertTrue(sampled.size() <= maxPoints, "maxPoints=" + maxPoints + ", size=" + sampled.size());
+            assertSame(bucketList.get(0), sampled.get(0));
+            if (maxPoints >= 6) {
+                // 每个指标至少分到2个点时首尾都会保留
+                assertSame(bucketList.get(bucketList.size() - 1), sampled.get(sampled.size() - 1));
+            }
+            for (int i = 1; i < sampled.size(); i++) {
+                assertTrue(sampled.get(i).getBucketStart().after(sampled.get(i - 1).getBucketStart()));
+            }
+        }
+    }
+
+    private static boolean contains(int[] indices, int index) {
+        for (int i : indices) {
+            if (i == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package sues.xmz.diploma.diploma_dailyexercisehealthmanagementsystem.test06;
+
+import org.jfree.data.time.Day;
+import org.jfree.data.time.TimeSeries;
+import org.junit.jupiter.api.Test;
+import sues.xmz.diploma.common.utils.ChartGenerateUtil;
+import sues.xmz.diploma.common.utils.TrendChartTemplate;
+import sues.xmz.diploma.domain.dto.health_data.HealthTrendSeries;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试按线程复用的图表模板：替换数据后的渲染结果和每次新建图表完全一致（两种方式的耗时和内存分配见 ChartRenderBenchmark）
+ */
+class TrendChartTemplateTests {
+
+    private static final int WIDTH = ChartGenerateUtil.DEFAULT_WIDTH;
+    private static final int HEIGHT = ChartGenerateUtil.DEFAULT_HEIGHT;
+
+    @Test
+    public void testTemplateRendersSameImageAsFreshChart() throws IOException {
+        // 先用另一份数据渲染一次，确认模板替换数据后没有残留
+        TrendChartTemplate.renderCombined(randomSeries(30, 1L), WIDTH, HEIGHT);
+        TrendChartTemplate.renderSingle(randomSeries(30, 1L).getWeightSeries(), "Weight Trend Over Time", "Weight", WIDTH, HEIGHT);
+
+        HealthTrendSeries series = randomSeries(120, 2L);
+        assertArrayEquals(
+                ChartGenerateUtil.renderPng(ChartGenerateUtil.createCombinedTrendChart(series), WIDTH, HEIGHT),
+                TrendChartTemplate.renderCombined(series, WIDTH, HEIGHT)
+        );
+        assertArrayEquals(
+                ChartGenerateUtil.renderPng(ChartGenerateUtil.createSingleTrendChart(series.getBmiSeries(), "BMI Trend Over Time", "BMI"), WIDTH, HEIGHT),
+                TrendChartTemplate.renderSingle(series.getBmiSeries(), "BMI Trend Over Time", "BMI", WIDTH, HEIGHT)
+        );
+    }
+
+    private static HealthTrendSeries randomSeries(int days, long seed) {
+        Random random = new Random(seed);
+        TimeSeries bmiSeries = new TimeSeries("BMI");
+        TimeSeries heartRateSeries = new TimeSeries("Heart Rate");
+        TimeSeries weightSeries = new TimeSeries("Weight");
+        Day day = new Day(1, 1, 2024);
+        for (int i = 0; i < days; i++) {
+            bmiSeries.add(day, 20 + random.nextDouble() * 5);
+            heartRateSeries.add(day, 60 + random.nextInt(40));
+            weightSeries.add(day, 55 + random.nextDouble() * 10);
+            day = (Day) day.next();
+        }
+        return new HealthTrendSeries(bmiSeries, heartRateSeries, weightSeries);
+    }
+}
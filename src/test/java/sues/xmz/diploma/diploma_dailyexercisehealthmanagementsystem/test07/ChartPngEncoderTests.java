@@ -0,0 +1,108 @@
+package sues.xmz.diploma.diploma_dailyexercisehealthmanagementsystem.test07;
+
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.TimeSeries;
+import org.junit.jupiter.api.Test;
+import sues.xmz.diploma.common.domain.ChartRenderOptions;
+import sues.xmz.diploma.common.domain.ChartSizePreset;
+import sues.xmz.diploma.common.utils.ChartGenerateUtil;
+import sues.xmz.diploma.common.utils.ChartPngEncoder;
+import sues.xmz.diploma.domain.dto.health_data.HealthTrendSeries;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试图表的PNG编码：尺寸预设、全彩色PNG无损、索引色PNG和全彩色PNG的像素差异，以及和原来 ChartUtils.writeChartAsPNG 相比的图片大小（耗时见 ChartPngEncoderBenchmark）
+ */
+class ChartPngEncoderTests {
+
+    @Test
+    public void testSizePresets() throws IOException {
+        JFreeChart chart = ChartGenerateUtil.createCombinedTrendChart(randomSeries(60));
+        for (ChartSizePreset preset : ChartSizePreset.values()) {
+            BufferedImage image = decode(ChartPngEncoder.encode(chart, ChartRenderOptions.of(preset, true, 6)));
+            assertEquals(preset.getWidth(), image.getWidth());
+            assertEquals(preset.getHeight(), image.getHeight());
+        }
+        assertEquals(ChartSizePreset.DESKTOP, ChartSizePreset.of(null));
+        assertEquals(ChartSizePreset.MOBILE, ChartSizePreset.of("mobile"));
+    }
+
+    @Test
+    public void testIndexedPaletteKeepsPixelsClose() throws IOException {
+        JFreeChart chart = ChartGenerateUtil.createCombinedTrendChart(randomSeries(120));
+        ChartSizePreset preset = ChartSizePreset.DESKTOP;
+        BufferedImage fullColor = decode(ChartPngEncoder.encode(chart, ChartRenderOptions.of(preset, false, 6)));
+        BufferedImage indexed = decode(ChartPngEncoder.encode(chart, ChartRenderOptions.of(preset, true, 6)));
+
+        long totalError = 0;
+        for (int y = 0; y < fullColor.getHeight(); y++) {
+            for (int x = 0; x < fullColor.getWidth(); x++) {
+                int a = fullColor.getRGB(x, y);
+                int b = indexed.getRGB(x, y);
+                totalError += Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF))
+                        + Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF))
+                        + Math.abs((a & 0xFF) - (b & 0xFF));
+            }
+        }
+        double meanError = (double) totalError / (fullColor.getWidth() * fullColor.getHeight());
+        // 只有抗锯齿的过渡色会被替换为最接近的颜色，平均每个像素三个通道的误差之和很小
+        assertTrue(meanError < 3.0, "平均误差：" + meanError);
+    }
+
+    @Test
+    public void testFullColorIsLossless() throws IOException {
+        JFreeChart chart = ChartGenerateUtil.createCombinedTrendChart(randomSeries(90));
+        ChartSizePreset preset = ChartSizePreset.MOBILE;
+        BufferedImage expected = chart.createBufferedImage(preset.getWidth(), preset.getHeight(), BufferedImage.TYPE_INT_RGB, null);
+        BufferedImage actual = decode(ChartPngEncoder.encode(chart, ChartRenderOptions.of(preset, false, 6)));
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testIndexedPngSmallerThanChartUtils() throws IOException {
+        JFreeChart chart = ChartGenerateUtil.createCombinedTrendChart(randomSeries(300));
+        ChartRenderOptions desktop = ChartRenderOptions.of(ChartSizePreset.DESKTOP, true, 6);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ChartUtils.writeChartAsPNG(outputStream, chart, desktop.getWidth(), desktop.getHeight());
+        byte[] original = outputStream.toByteArray();
+        byte[] encoded = ChartPngEncoder.encode(chart, desktop);
+
+        assertTrue(encoded.length < original.length, "索引色PNG：" + encoded.length + "，ChartUtils：" + original.length);
+        BufferedImage image = decode(encoded);
+        assertEquals(desktop.getWidth(), image.getWidth());
+        assertEquals(desktop.getHeight(), image.getHeight());
+    }
+
+    private static BufferedImage decode(byte[] png) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    private static HealthTrendSeries randomSeries(int days) {
+        Random random = new Random(20250401L);
+        TimeSeries bmiSeries = new TimeSeries("BMI");
+        TimeSeries heartRateSeries = new TimeSeries("Heart Rate");
+        TimeSeries weightSeries = new TimeSeries("Weight");
+        Day day = new Day(1, 1, 2024);
+        for (int i = 0; i < days; i++) {
+            bmiSeries.add(day, 20 + random.nextDouble() * 5);
+            heartRateSeries.add(day, 60 + random.nextInt(40));
+            weightSeries.add(day, 55 + random.nextDouble() * 10);
+            day = (Day) day.next();
+        }
+        return new HealthTrendSeries(bmiSeries, heartRateSeries, weightSeries);
+    }
+}
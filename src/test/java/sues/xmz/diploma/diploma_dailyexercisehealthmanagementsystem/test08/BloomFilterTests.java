@@ -0,0 +1,40 @@
+package sues.xmz.diploma.diploma_dailyexercisehealthmanagementsystem.test08;
+
+import org.junit.jupiter.api.Test;
+import sues.xmz.diploma.common.utils.BloomFilter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试布隆过滤器：添加过的数据一定能查到，没有添加过的数据误判率接近指定的fpp
+ */
+class BloomFilterTests {
+
+    @Test
+    public void testNoFalseNegatives() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("user" + i + "@qq.com");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloomFilter.mightContain("user" + i + "@qq.com"));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("user" + i);
+        }
+        int falsePositives = 0;
+        int trials = 100_000;
+        for (int i = 0; i < trials; i++) {
+            if (bloomFilter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / trials;
+        assertTrue(rate < 0.02, "误判率：" + rate);
+    }
+}
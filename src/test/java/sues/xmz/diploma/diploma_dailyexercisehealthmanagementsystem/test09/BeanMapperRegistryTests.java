@@ -0,0 +1,133 @@
+package sues.xmz.diploma.diploma_dailyexercisehealthmanagementsystem.test09;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.util.ReflectUtil;
+import org.junit.jupiter.api.Test;
+import sues.xmz.diploma.common.convert.BeanMapperRegistry;
+import sues.xmz.diploma.domain.dto.diet_foods.DietFoodsDTO;
+import sues.xmz.diploma.domain.dto.health_profiles.HealthProfileDTO;
+import sues.xmz.diploma.domain.dto.users.UserDetailDTO;
+import sues.xmz.diploma.domain.po.DietFoods;
+import sues.xmz.diploma.domain.po.DietRecords;
+import sues.xmz.diploma.domain.po.ExerciseRecords;
+import sues.xmz.diploma.domain.po.HealthData;
+import sues.xmz.diploma.domain.po.HealthGoals;
+import sues.xmz.diploma.domain.po.HealthProfiles;
+import sues.xmz.diploma.domain.po.Users;
+import sues.xmz.diploma.domain.req.diet_foods.DietFoodsAddReq;
+import sues.xmz.diploma.domain.req.diet_foods.DietFoodsUpdateReq;
+import sues.xmz.diploma.domain.req.diet_records.DietRecordsCreateReq;
+import sues.xmz.diploma.domain.req.diet_records.DietRecordsUpdateReq;
+import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordUpdateReq;
+import sues.xmz.diploma.domain.req.exercise_records.ExerciseRecordsCreateReq;
+import sues.xmz.diploma.domain.req.health_data.HealthDataCreateReq;
+import sues.xmz.diploma.domain.req.health_data.HealthDataUpdateReq;
+import sues.xmz.diploma.domain.req.health_goals.HealthGoalCreateReq;
+import sues.xmz.diploma.domain.req.health_goals.HealthGoalUpdateReq;
+import sues.xmz.diploma.domain.req.health_profiles.HealthProfilesCreateReq;
+import sues.xmz.diploma.domain.req.users.UserInfoUpdateReq;
+import sues.xmz.diploma.domain.req.users.UserRegisterReq;
+import sues.xmz.diploma.domain.resp.users.UserInfoResp;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试对象转换注册表：编译期生成的转换结果与原先 Hutool BeanUtil 反射复制的结果一致
+ */
+class BeanMapperRegistryTests {
+
+    private static final Class<?>[][] PAIRS = {
+            {UserRegisterReq.class, Users.class},
+            {UserInfoUpdateReq.class, Users.class},
+            {Users.class, UserInfoResp.class},
+            {Users.class, UserDetailDTO.class},
+            {HealthDataCreateReq.class, HealthData.class},
+            {HealthDataUpdateReq.class, HealthData.class},
+            {DietRecordsCreateReq.class, DietRecords.class},
+            {DietRecordsUpdateReq.class, DietRecords.class},
+            {DietFoodsAddReq.class, DietFoods.class},
+            {DietFoodsUpdateReq.class, DietFoods.class},
+            {DietFoods.class, DietFoodsDTO.class},
+            {ExerciseRecordsCreateReq.class, ExerciseRecords.class},
+            {ExerciseRecordUpdateReq.class, ExerciseRecords.class},
+            {HealthGoalCreateReq.class, HealthGoals.class},
+            {HealthGoalUpdateReq.class, HealthGoals.class},
+            {HealthProfilesCreateReq.class, HealthProfiles.class},
+            {HealthProfiles.class, HealthProfileDTO.class}
+    };
+
+    @Test
+    public void testSameAsBeanUtil() {
+        for (Class<?>[] pair : PAIRS) {
+            Object source = populated(pair[0]);
+            Object expected = BeanUtil.copyProperties(source, pair[1]);
+            Object actual = BeanMapperRegistry.map(source, pair[1]);
+            assertEquals(expected, actual, pair[0].getSimpleName() + " -> " + pair[1].getSimpleName());
+        }
+    }
+
+    @Test
+    public void testMapList() {
+        List<HealthDataCreateReq> sourceList = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            sourceList.add(populated(HealthDataCreateReq.class));
+        }
+        sourceList.add(null);
+        List<HealthData> targetList = BeanMapperRegistry.mapList(sourceList, HealthData.class);
+        assertEquals(sourceList.size(), targetList.size());
+        assertEquals(BeanUtil.copyProperties(sourceList.get(0), HealthData.class), targetList.get(0));
+        assertNull(targetList.get(100));
+        assertNull(BeanMapperRegistry.mapList(null, HealthData.class));
+        assertNull(BeanMapperRegistry.map(null, HealthData.class));
+    }
+
+    @Test
+    public void testUnregisteredPair() {
+        assertThrows(IllegalArgumentException.class, () -> BeanMapperRegistry.map(new HealthData(), Users.class));
+    }
+
+    /**
+     * 按字段类型给源对象的每个字段赋一个非空的值
+     */
+    private static <T> T populated(Class<T> type) {
+        T instance = ReflectUtil.newInstance(type);
+        int seed = 1;
+        for (Field field : ReflectUtil.getFields(type)) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            seed++;
+            Class<?> fieldType = field.getType();
+            Object value;
+            if (fieldType == Integer.class) {
+                value = seed;
+            } else if (fieldType == BigDecimal.class) {
+                value = BigDecimal.valueOf(seed * 100 + 25, 2);
+            } else if (fieldType == String.class) {
+                value = field.getName() + seed;
+            } else if (fieldType == Date.class) {
+                value = new Date(1_700_000_000_000L + seed * 86_400_000L);
+            } else if (fieldType == LocalDateTime.class) {
+                value = LocalDateTime.of(2025, 3, 11, 8, seed % 60);
+            } else if (fieldType == Boolean.class) {
+                value = Boolean.TRUE;
+            } else if (fieldType == Byte.class) {
+                value = (byte) 1;
+            } else if (fieldType == List.class) {
+                value = new ArrayList<>();
+            } else {
+                continue;
+            }
+            ReflectUtil.setFieldValue(instance, field, value);
+        }
+        return instance;
+    }
+}
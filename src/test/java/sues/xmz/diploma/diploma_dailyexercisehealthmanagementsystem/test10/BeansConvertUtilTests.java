@@ -0,0 +1,100 @@
+package sues.xmz.diploma.diploma_dailyexercisehealthmanagementsystem.test10;
+
+import org.junit.jupiter.api.Test;
+import sues.xmz.diploma.common.utils.AssociationFactory;
+import sues.xmz.diploma.common.utils.BeansConvertUtil;
+import sues.xmz.diploma.domain.po.ExerciseRecordsTypes;
+import sues.xmz.diploma.domain.po.HealthGoals;
+import sues.xmz.diploma.domain.po.HealthGoalsExerciseTypes;
+import sues.xmz.diploma.domain.req.health_goals.HealthGoalCreateReq;
+import sues.xmz.diploma.domain.req.health_goals.HealthGoalUpdateReq;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 测试关联关系对象的构建：注册的构造工厂、构造函数引用和 LambdaMetafactory 生成的构造工厂结果与直接 new 相同
+ */
+class BeansConvertUtilTests {
+
+    /**
+     * 没有注册构造工厂的关系对象
+     */
+    public static class GoalExerciseType {
+
+        private final Integer goalId;
+
+        private final Integer exerciseTypeId;
+
+        public GoalExerciseType(Integer goalId, Integer exerciseTypeId) {
+            this.goalId = goalId;
+            this.exerciseTypeId = exerciseTypeId;
+        }
+    }
+
+    public static class AmbiguousConstructors {
+
+        public AmbiguousConstructors(Integer a, Integer b) {
+        }
+
+        public AmbiguousConstructors(Long a, Long b) {
+        }
+    }
+
+    @Test
+    public void testOnlyHadBothId() {
+        List<HealthGoals> healthGoalsList = new ArrayList<>();
+        List<HealthGoalCreateReq> healthGoalCreateReqList = new ArrayList<>();
+        List<HealthGoalsExerciseTypes> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            HealthGoals healthGoals = new HealthGoals();
+            healthGoals.setGoalId(i + 1);
+            healthGoalsList.add(healthGoals);
+            HealthGoalCreateReq req = new HealthGoalCreateReq();
+            // 每隔几个目标没有关联的运动类型
+            List<Integer> exerciseTypeIdList = i % 5 == 0 ? null : List.of(i, i + 100);
+            req.setExerciseTypeIdList(exerciseTypeIdList);
+            healthGoalCreateReqList.add(req);
+            if (exerciseTypeIdList != null) {
+                for (Integer exerciseTypeId : exerciseTypeIdList) {
+                    expected.add(new HealthGoalsExerciseTypes(i + 1, exerciseTypeId));
+                }
+            }
+        }
+
+        assertEquals(expected, BeansConvertUtil.copyToListOnlyHadBothId(healthGoalsList, healthGoalCreateReqList,
+                HealthGoals::getGoalId, HealthGoalCreateReq::getExerciseTypeIdList, HealthGoalsExerciseTypes.class));
+        assertEquals(expected, BeansConvertUtil.copyToListOnlyHadBothId(healthGoalsList, healthGoalCreateReqList,
+                HealthGoals::getGoalId, HealthGoalCreateReq::getExerciseTypeIdList, HealthGoalsExerciseTypes::new));
+
+        List<GoalExerciseType> generated = BeansConvertUtil.copyToListOnlyHadBothId(healthGoalsList, healthGoalCreateReqList,
+                HealthGoals::getGoalId, HealthGoalCreateReq::getExerciseTypeIdList, GoalExerciseType.class);
+        assertEquals(expected.size(), generated.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getGoalId(), generated.get(i).goalId);
+            assertEquals(expected.get(i).getExerciseTypeId(), generated.get(i).exerciseTypeId);
+        }
+    }
+
+    @Test
+    public void testOnlyHadBothIdSingleSource() {
+        HealthGoalUpdateReq req = new HealthGoalUpdateReq();
+        req.setGoalId(7);
+        req.setExerciseTypeIdList(List.of(1, 2, 3));
+        List<HealthGoalsExerciseTypes> result = BeansConvertUtil.copyToListOnlyHadBothId(List.of(req),
+                HealthGoalUpdateReq::getGoalId, HealthGoalUpdateReq::getExerciseTypeIdList, HealthGoalsExerciseTypes.class);
+        assertEquals(List.of(new HealthGoalsExerciseTypes(7, 1), new HealthGoalsExerciseTypes(7, 2), new HealthGoalsExerciseTypes(7, 3)), result);
+        assertThrows(IllegalArgumentException.class, () -> BeansConvertUtil.copyToListOnlyHadBothId(List.of(req), List.of(),
+                HealthGoalUpdateReq::getGoalId, HealthGoalUpdateReq::getExerciseTypeIdList, HealthGoalsExerciseTypes.class));
+    }
+
+    @Test
+    public void testAssociationFactory() {
+        assertEquals(new ExerciseRecordsTypes(3, 4), AssociationFactory.of(ExerciseRecordsTypes.class).apply(3, 4));
+        // 同一类型只生成一次构造工厂
+        assertSame(AssociationFactory.of(GoalExerciseType.class), AssociationFactory.of(GoalExerciseType.class));
+        assertThrows(IllegalArgumentException.class, () -> AssociationFactory.of(AmbiguousConstructors.class));
+    }
+}